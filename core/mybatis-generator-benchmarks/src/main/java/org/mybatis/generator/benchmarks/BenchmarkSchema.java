@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * Creates an in memory HSQLDB schema of a configurable size, and generator configurations for it.
+ *
+ * <p>Every table has an integer primary key followed by columns of the most common JDBC types. The
+ * last column of every table is a CLOB, so tables also have BLOB specific methods.
+ */
+public class BenchmarkSchema {
+
+    private static final String[] COLUMN_TYPES = {
+        "VARCHAR(50)", //$NON-NLS-1$
+        "INTEGER", //$NON-NLS-1$
+        "DECIMAL(10,2)", //$NON-NLS-1$
+        "DATE", //$NON-NLS-1$
+        "TIMESTAMP", //$NON-NLS-1$
+        "BIGINT", //$NON-NLS-1$
+        "BOOLEAN", //$NON-NLS-1$
+        "CHAR(1)" //$NON-NLS-1$
+    };
+
+    private BenchmarkSchema() {
+        super();
+    }
+
+    /**
+     * Creates the schema, unless it already exists in this JVM.
+     *
+     * @param tables
+     *            the number of tables
+     * @param columns
+     *            the number of columns in every table, including the primary key and the CLOB
+     * @return the JDBC URL of the database
+     * @throws SQLException
+     *             if the schema cannot be created
+     */
+    public static String createDatabase(int tables, int columns) throws SQLException {
+        String url = "jdbc:hsqldb:mem:benchmark_" + tables + '_' + columns; //$NON-NLS-1$
+        try (Connection connection = DriverManager.getConnection(url, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+                Statement statement = connection.createStatement()) {
+            for (int i = 0; i < tables; i++) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("create table if not exists "); //$NON-NLS-1$
+                sb.append(getTableName(i));
+                sb.append(" (ID integer not null primary key"); //$NON-NLS-1$
+                for (int j = 1; j < columns - 1; j++) {
+                    sb.append(", COLUMN_"); //$NON-NLS-1$
+                    sb.append(j);
+                    sb.append(' ');
+                    sb.append(COLUMN_TYPES[j % COLUMN_TYPES.length]);
+                }
+                sb.append(", DESCRIPTION clob)"); //$NON-NLS-1$
+                statement.execute(sb.toString());
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Creates a configuration with one MyBatis3 context that generates every table in the schema.
+     *
+     * @param url
+     *            the JDBC URL returned from {@link #createDatabase(int, int)}
+     * @param tables
+     *            the number of tables
+     * @param targetDirectory
+     *            the target project for all generated files
+     * @return the configuration
+     */
+    public static Configuration createConfiguration(String url, int tables, File targetDirectory) {
+        Context context = new Context(ModelType.CONDITIONAL);
+        context.setId("benchmark"); //$NON-NLS-1$
+        context.setTargetRuntime("MyBatis3"); //$NON-NLS-1$
+
+        CommentGeneratorConfiguration commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+        commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true"); //$NON-NLS-1$
+        context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = new JDBCConnectionConfiguration();
+        jdbcConnectionConfiguration.setDriverClass("org.hsqldb.jdbcDriver"); //$NON-NLS-1$
+        jdbcConnectionConfiguration.setConnectionURL(url);
+        jdbcConnectionConfiguration.setUserId("sa"); //$NON-NLS-1$
+        jdbcConnectionConfiguration.setPassword(""); //$NON-NLS-1$
+        context.setJdbcConnectionConfiguration(jdbcConnectionConfiguration);
+
+        String targetProject = targetDirectory.getAbsolutePath();
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("benchmark.model"); //$NON-NLS-1$
+        javaModelGeneratorConfiguration.setTargetProject(targetProject);
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage("benchmark.mapper"); //$NON-NLS-1$
+        sqlMapGeneratorConfiguration.setTargetProject(targetProject);
+        context.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+
+        JavaClientGeneratorConfiguration javaClientGeneratorConfiguration = new JavaClientGeneratorConfiguration();
+        javaClientGeneratorConfiguration.setConfigurationType("XMLMAPPER"); //$NON-NLS-1$
+        javaClientGeneratorConfiguration.setTargetPackage("benchmark.mapper"); //$NON-NLS-1$
+        javaClientGeneratorConfiguration.setTargetProject(targetProject);
+        context.setJavaClientGeneratorConfiguration(javaClientGeneratorConfiguration);
+
+        for (int i = 0; i < tables; i++) {
+            TableConfiguration tableConfiguration = new TableConfiguration(context);
+            tableConfiguration.setTableName(getTableName(i));
+            context.addTableConfiguration(tableConfiguration);
+        }
+
+        Configuration configuration = new Configuration();
+        configuration.addContext(context);
+        return configuration;
+    }
+
+    public static File createTargetDirectory() throws IOException {
+        return Files.createTempDirectory("mbg-benchmark").toFile(); //$NON-NLS-1$
+    }
+
+    public static void deleteTargetDirectory(File targetDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(targetDirectory.toPath())) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static String getTableName(int i) {
+        return "BENCHMARK_TABLE_" + i; //$NON-NLS-1$
+    }
+}
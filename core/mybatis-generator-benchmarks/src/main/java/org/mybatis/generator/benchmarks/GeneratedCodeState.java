@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.codegen.mybatis3.model.ExampleGenerator;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.XMLMapperGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state holding the result of a complete generation run (without writing files) for a schema.
+ * Benchmarks of the individual phases start from this state, so they measure only their own phase.
+ */
+@State(Scope.Benchmark)
+public class GeneratedCodeState {
+
+    @Param({"10", "100"})
+    public int tables;
+
+    @Param({"20"})
+    public int columns;
+
+    private File targetDirectory;
+
+    private Context context;
+
+    private final List<String> warnings = new ArrayList<>();
+
+    private final List<GeneratedJavaFile> generatedJavaFiles = new ArrayList<>();
+
+    private final List<GeneratedXmlFile> generatedXmlFiles = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        targetDirectory = BenchmarkSchema.createTargetDirectory();
+        String url = BenchmarkSchema.createDatabase(tables, columns);
+        Configuration configuration = BenchmarkSchema.createConfiguration(url, tables, targetDirectory);
+
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(configuration, new DefaultShellCallback(true),
+                warnings);
+        myBatisGenerator.generate(null, null, null, false);
+
+        context = configuration.getContexts().get(0);
+        generatedJavaFiles.addAll(myBatisGenerator.getGeneratedJavaFiles());
+        generatedXmlFiles.addAll(myBatisGenerator.getGeneratedXmlFiles());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSchema.deleteTargetDirectory(targetDirectory);
+    }
+
+    public File getTargetDirectory() {
+        return targetDirectory;
+    }
+
+    public List<IntrospectedTable> getIntrospectedTables() {
+        return context.getIntrospectedTables();
+    }
+
+    public List<GeneratedJavaFile> getGeneratedJavaFiles() {
+        return generatedJavaFiles;
+    }
+
+    public List<GeneratedXmlFile> getGeneratedXmlFiles() {
+        return generatedXmlFiles;
+    }
+
+    public List<CompilationUnit> generateExampleClass(IntrospectedTable introspectedTable) {
+        ExampleGenerator exampleGenerator = new ExampleGenerator(
+                context.getJavaModelGeneratorConfiguration().getTargetProject());
+        exampleGenerator.setContext(context);
+        exampleGenerator.setIntrospectedTable(introspectedTable);
+        exampleGenerator.setProgressCallback(new ProgressCallback() { });
+        exampleGenerator.setWarnings(warnings);
+        return exampleGenerator.getCompilationUnits();
+    }
+
+    public Document generateXmlMapper(IntrospectedTable introspectedTable) {
+        XMLMapperGenerator xmlMapperGenerator = new XMLMapperGenerator();
+        xmlMapperGenerator.setContext(context);
+        xmlMapperGenerator.setIntrospectedTable(introspectedTable);
+        xmlMapperGenerator.setProgressCallback(new ProgressCallback() { });
+        xmlMapperGenerator.setWarnings(warnings);
+        return xmlMapperGenerator.getDocument();
+    }
+}
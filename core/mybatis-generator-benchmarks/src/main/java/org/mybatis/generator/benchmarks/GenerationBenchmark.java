@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per table generators that build the largest DOMs - the example class and the XML mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GenerationBenchmark {
+
+    @Benchmark
+    public void exampleGenerator(GeneratedCodeState state, Blackhole blackhole) {
+        for (IntrospectedTable introspectedTable : state.getIntrospectedTables()) {
+            blackhole.consume(state.generateExampleClass(introspectedTable));
+        }
+    }
+
+    @Benchmark
+    public void xmlMapperGenerator(GeneratedCodeState state, Blackhole blackhole) {
+        for (IntrospectedTable introspectedTable : state.getIntrospectedTables()) {
+            blackhole.consume(state.generateXmlMapper(introspectedTable));
+        }
+    }
+}
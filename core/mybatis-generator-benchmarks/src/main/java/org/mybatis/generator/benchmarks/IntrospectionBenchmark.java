@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures introspection of an embedded database with the sequential, concurrent, and bulk introspectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class IntrospectionBenchmark {
+
+    @Param({"10", "100"})
+    public int tables;
+
+    @Param({"20"})
+    public int columns;
+
+    @Param({"1", "4"})
+    public int introspectionThreads;
+
+    @Param({"false", "true"})
+    public boolean bulkIntrospection;
+
+    private File targetDirectory;
+
+    private Context context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        targetDirectory = BenchmarkSchema.createTargetDirectory();
+        String url = BenchmarkSchema.createDatabase(tables, columns);
+        context = BenchmarkSchema.createConfiguration(url, tables, targetDirectory).getContexts().get(0);
+        context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, Integer.toString(introspectionThreads));
+        context.addProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, Boolean.toString(bulkIntrospection));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSchema.deleteTargetDirectory(targetDirectory);
+    }
+
+    @Benchmark
+    public List<IntrospectedTable> introspectTables() throws Exception {
+        context.introspectTables(new ProgressCallback() { }, new ArrayList<>(), null);
+        return context.getIntrospectedTables();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures merging generated XML mappers with existing mapper files, as happens on every run after the first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+
+    private final List<GeneratedXmlFile> generatedXmlFiles = new ArrayList<>();
+
+    private final List<File> existingFiles = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(GeneratedCodeState state) throws IOException {
+        File directory = new File(state.getTargetDirectory(), "existing"); //$NON-NLS-1$
+        Files.createDirectories(directory.toPath());
+        for (GeneratedXmlFile generatedXmlFile : state.getGeneratedXmlFiles()) {
+            File existingFile = new File(directory, generatedXmlFile.getFileName());
+            Files.write(existingFile.toPath(),
+                    generatedXmlFile.getFormattedContent().getBytes(StandardCharsets.UTF_8));
+            generatedXmlFiles.add(generatedXmlFile);
+            existingFiles.add(existingFile);
+        }
+    }
+
+    @Benchmark
+    public void mergeXmlFiles(Blackhole blackhole) throws ShellException {
+        for (int i = 0; i < generatedXmlFiles.size(); i++) {
+            blackhole.consume(XmlFileMergerJaxp.getMergedSource(generatedXmlFiles.get(i), existingFiles.get(i)));
+        }
+    }
+}
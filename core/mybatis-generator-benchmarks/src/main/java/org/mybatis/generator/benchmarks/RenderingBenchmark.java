@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.java.render.TopLevelClassRenderer;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rendering of generated classes and XML mappers, both to strings and streamed to an appendable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class RenderingBenchmark {
+
+    private final List<TopLevelClass> topLevelClasses = new ArrayList<>();
+
+    private final List<Document> documents = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(GeneratedCodeState state) {
+        for (GeneratedJavaFile generatedJavaFile : state.getGeneratedJavaFiles()) {
+            if (generatedJavaFile.getCompilationUnit() instanceof TopLevelClass) {
+                topLevelClasses.add((TopLevelClass) generatedJavaFile.getCompilationUnit());
+            }
+        }
+
+        for (IntrospectedTable introspectedTable : state.getIntrospectedTables()) {
+            documents.add(state.generateXmlMapper(introspectedTable));
+        }
+    }
+
+    @Benchmark
+    public void renderClasses(Blackhole blackhole) {
+        TopLevelClassRenderer renderer = new TopLevelClassRenderer();
+        for (TopLevelClass topLevelClass : topLevelClasses) {
+            blackhole.consume(renderer.render(topLevelClass));
+        }
+    }
+
+    @Benchmark
+    public void streamClasses(Blackhole blackhole) throws IOException {
+        TopLevelClassRenderer renderer = new TopLevelClassRenderer();
+        StringBuilder sb = new StringBuilder();
+        for (TopLevelClass topLevelClass : topLevelClasses) {
+            sb.setLength(0);
+            renderer.render(topLevelClass, sb);
+            blackhole.consume(sb.length());
+        }
+    }
+
+    @Benchmark
+    public void renderDocuments(Blackhole blackhole) {
+        DocumentRenderer renderer = new DocumentRenderer();
+        for (Document document : documents) {
+            blackhole.consume(renderer.render(document));
+        }
+    }
+
+    @Benchmark
+    public void streamDocuments(Blackhole blackhole) throws IOException {
+        DocumentRenderer renderer = new DocumentRenderer();
+        StringBuilder sb = new StringBuilder();
+        for (Document document : documents) {
+            sb.setLength(0);
+            renderer.render(document, sb);
+            blackhole.consume(sb.length());
+        }
+    }
+}
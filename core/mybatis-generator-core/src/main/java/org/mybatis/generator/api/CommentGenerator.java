@@ -50,6 +50,20 @@ public interface CommentGenerator {
      */
     void addConfigurationProperties(Properties properties);
 
+    /**
+     * Returns true if this comment generator can add comments for different introspected tables at the
+     * same time. When the <code>generationThreads</code> context property is greater than one, the files
+     * for different tables are generated on different threads, and every method of the comment generator
+     * except <code>addConfigurationProperties</code> may be called concurrently.
+     *
+     * <p>Files are only generated concurrently if the comment generator is thread safe.
+     *
+     * @return true if the comment generator is thread safe. The default is false.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * This method should add a Javadoc comment to the specified field. The field is related to the
      * specified table and is used to hold the value of the specified column.
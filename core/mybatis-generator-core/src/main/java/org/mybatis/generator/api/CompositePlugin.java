@@ -66,6 +66,16 @@ public abstract class CompositePlugin implements Plugin {
         }
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return plugins.stream().allMatch(Plugin::isThreadSafe);
+    }
+
+    @Override
+    public boolean requiresIndexes() {
+        return plugins.stream().anyMatch(Plugin::requiresIndexes);
+    }
+
     @Override
     public void initialized(IntrospectedTable introspectedTable) {
         for (Plugin plugin : plugins) {
@@ -23,7 +23,9 @@ public interface ConnectionFactory {
 
     /**
      * Should return a connection to the database in use for this context.
-     * The generator will call this method only one time for each context.
+     * The generator will call this method only one time for each context, unless the
+     * "introspectionThreads" context property is set. In that case the generator may call
+     * this method concurrently, up to one time for each introspection thread.
      * The generator will close the connection.
      *
      * @return the connection
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 /**
  * Abstract class that holds information common to all generated files.
  *
@@ -39,6 +41,18 @@ public abstract class GeneratedFile {
      */
     public abstract String getFormattedContent();
 
+    /**
+     * Writes the entire contents of the generated file. The content is the same as the value returned
+     * from {@link #getFormattedContent()}, but subclasses may write it incrementally so that the
+     * entire file is never held in memory as a single string.
+     *
+     * @param appendable where the content is written
+     * @throws IOException if the appendable throws an exception
+     */
+    public void writeFormattedContent(Appendable appendable) throws IOException {
+        appendable.append(getFormattedContent());
+    }
+
     /**
      * Get the file name (without any path). Clients should use this method to
      * determine how to save the results.
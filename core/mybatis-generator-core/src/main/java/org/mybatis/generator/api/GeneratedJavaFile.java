@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 
 public class GeneratedJavaFile extends GeneratedFile {
@@ -46,6 +48,11 @@ public class GeneratedJavaFile extends GeneratedFile {
         return javaFormatter.getFormattedContent(compilationUnit);
     }
 
+    @Override
+    public void writeFormattedContent(Appendable appendable) throws IOException {
+        javaFormatter.writeFormattedContent(compilationUnit, appendable);
+    }
+
     @Override
     public String getFileName() {
         return compilationUnit.getType().getShortNameWithoutTypeArguments() + ".java"; //$NON-NLS-1$
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.xml.Document;
 
 public class GeneratedXmlFile extends GeneratedFile {
@@ -45,6 +47,11 @@ public class GeneratedXmlFile extends GeneratedFile {
         return xmlFormatter.getFormattedContent(document);
     }
 
+    @Override
+    public void writeFormattedContent(Appendable appendable) throws IOException {
+        xmlFormatter.writeFormattedContent(document, appendable);
+    }
+
     @Override
     public String getFileName() {
         return fileName;
@@ -0,0 +1,385 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performance metrics for a generation run. The generator records the wall time of every phase for each
+ * table or file, along with the bytes allocated by the thread that did the work (if the JVM supports
+ * allocation measurement), the number of JDBC metadata calls, and the number of files written, skipped,
+ * and merged.
+ *
+ * <p>Rendering is recorded separately from writing only when the content of a file is needed before it is
+ * written - when files are saved on several threads, or unchanged files are skipped. Otherwise files are
+ * rendered directly to disk, and rendering is included in the write phase. The format and merge of files
+ * that are merged with existing files is recorded in the merge phase.
+ *
+ * <p>This class is thread safe.
+ */
+public class GenerationMetrics {
+
+    public enum Phase {
+        CONNECT,
+        INTROSPECT,
+        INITIALIZE,
+        CALCULATE_GENERATORS,
+        GENERATE,
+        RENDER,
+        MERGE,
+        WRITE
+    }
+
+    private static final GenerationMetrics DISABLED = new GenerationMetrics(null, false);
+
+    private static final Timer DISABLED_TIMER = new Timer(null);
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final Method GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytesMethod();
+
+    private final MetricsCallback callback;
+
+    private final boolean enabled;
+
+    private final long startNanos = System.nanoTime();
+
+    private long elapsedNanos;
+
+    private final List<Timing> timings = new ArrayList<>();
+
+    private final Map<Phase, PhaseTotal> phaseTotals = new EnumMap<>(Phase.class);
+
+    private final AtomicLong jdbcMetadataCalls = new AtomicLong();
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private final AtomicLong filesWritten = new AtomicLong();
+
+    private final AtomicLong filesSkipped = new AtomicLong();
+
+    private final AtomicLong filesMerged = new AtomicLong();
+
+    /**
+     * Constructs metrics that are recorded and reported to a callback.
+     *
+     * @param callback
+     *            the callback, may be null
+     */
+    public GenerationMetrics(MetricsCallback callback) {
+        this(callback, true);
+    }
+
+    private GenerationMetrics(MetricsCallback callback, boolean enabled) {
+        this.callback = callback;
+        this.enabled = enabled;
+        for (Phase phase : Phase.values()) {
+            phaseTotals.put(phase, new PhaseTotal());
+        }
+    }
+
+    /**
+     * Returns metrics that record nothing. This is used when no metrics are requested, so that timing adds
+     * no overhead.
+     *
+     * @return the disabled metrics
+     */
+    public static GenerationMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a unit of work on the current thread.
+     *
+     * @return the timer. Call {@link Timer#stop(Phase, String)} on the same thread when the work is finished.
+     */
+    public Timer startTimer() {
+        return enabled ? new Timer(this) : DISABLED_TIMER;
+    }
+
+    /**
+     * Returns database metadata that counts every call made through it.
+     *
+     * @param databaseMetaData
+     *            the database metadata
+     * @return the counting database metadata, or the same metadata if these metrics are disabled
+     */
+    public DatabaseMetaData countCalls(DatabaseMetaData databaseMetaData) {
+        if (!enabled) {
+            return databaseMetaData;
+        }
+
+        return (DatabaseMetaData) Proxy.newProxyInstance(GenerationMetrics.class.getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class }, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() != Object.class) {
+                        jdbcMetadataCalls.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(databaseMetaData, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public void fileWritten(long bytes) {
+        if (enabled) {
+            filesWritten.incrementAndGet();
+            bytesWritten.addAndGet(bytes);
+        }
+    }
+
+    public void fileSkipped() {
+        if (enabled) {
+            filesSkipped.incrementAndGet();
+        }
+    }
+
+    public void fileMerged() {
+        if (enabled) {
+            filesMerged.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records the end of the run and reports the metrics to the callback.
+     */
+    public void finish() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+
+        if (callback != null) {
+            callback.generationFinished(this);
+        }
+    }
+
+    private void record(Timing timing) {
+        synchronized (this) {
+            timings.add(timing);
+            phaseTotals.get(timing.phase).add(timing);
+        }
+
+        if (callback != null) {
+            callback.phaseFinished(timing);
+        }
+    }
+
+    /**
+     * Returns the wall time of the complete run.
+     *
+     * @return the elapsed time in nanoseconds, or 0 if the run has not finished
+     */
+    public synchronized long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns every recorded timing in the order the work finished.
+     *
+     * @return a copy of the timings
+     */
+    public synchronized List<Timing> getTimings() {
+        return new ArrayList<>(timings);
+    }
+
+    public synchronized int getCount(Phase phase) {
+        return phaseTotals.get(phase).count;
+    }
+
+    /**
+     * Returns the total wall time of a phase. If work was done concurrently, then this is the sum of the
+     * time on every thread, so it may be more than the elapsed time of the run.
+     *
+     * @param phase
+     *            the phase
+     * @return the total time in nanoseconds
+     */
+    public synchronized long getTotalNanos(Phase phase) {
+        return phaseTotals.get(phase).nanos;
+    }
+
+    /**
+     * Returns the total bytes allocated during a phase.
+     *
+     * @param phase
+     *            the phase
+     * @return the allocated bytes, or -1 if the JVM does not support allocation measurement
+     */
+    public synchronized long getAllocatedBytes(Phase phase) {
+        return phaseTotals.get(phase).allocatedBytes;
+    }
+
+    public long getJdbcMetadataCalls() {
+        return jdbcMetadataCalls.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public long getFilesWritten() {
+        return filesWritten.get();
+    }
+
+    public long getFilesSkipped() {
+        return filesSkipped.get();
+    }
+
+    public long getFilesMerged() {
+        return filesMerged.get();
+    }
+
+    /**
+     * The extended management interface of the JDK is looked up by name rather than referenced, so the
+     * bundle does not import <code>com.sun.management</code> and resolves in OSGi frameworks that do not
+     * export it.
+     *
+     * @return the method that returns the bytes allocated by a thread, or null if allocation measurement is
+     *     not supported
+     */
+    private static Method getThreadAllocatedBytesMethod() {
+        try {
+            Class<?> extendedType = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+            if (extendedType.isInstance(THREAD_MX_BEAN)
+                    && (Boolean) extendedType.getMethod("isThreadAllocatedMemorySupported") //$NON-NLS-1$
+                    .invoke(THREAD_MX_BEAN)
+                    && (Boolean) extendedType.getMethod("isThreadAllocatedMemoryEnabled") //$NON-NLS-1$
+                    .invoke(THREAD_MX_BEAN)) {
+                return extendedType.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+            }
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // the JVM does not have the extended management interface
+        }
+        return null;
+    }
+
+    private static long getAllocatedBytes() {
+        if (GET_THREAD_ALLOCATED_BYTES == null) {
+            return -1;
+        }
+
+        try {
+            return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException e) {
+            return -1;
+        }
+    }
+
+    public static class Timer {
+        private final GenerationMetrics metrics;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+
+        private Timer(GenerationMetrics metrics) {
+            this.metrics = metrics;
+            if (metrics == null) {
+                startNanos = 0;
+                startAllocatedBytes = 0;
+            } else {
+                startNanos = System.nanoTime();
+                startAllocatedBytes = getAllocatedBytes();
+            }
+        }
+
+        /**
+         * Records the work timed by this timer.
+         *
+         * @param phase
+         *            the phase
+         * @param subject
+         *            the table or file the work was done for
+         */
+        public void stop(Phase phase, String subject) {
+            if (metrics == null) {
+                return;
+            }
+
+            long nanos = System.nanoTime() - startNanos;
+            long allocatedBytes = startAllocatedBytes < 0 ? -1 : getAllocatedBytes() - startAllocatedBytes;
+            metrics.record(new Timing(phase, subject, nanos, allocatedBytes));
+        }
+    }
+
+    public static class Timing {
+        private final Phase phase;
+        private final String subject;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        public Timing(Phase phase, String subject, long nanos, long allocatedBytes) {
+            this.phase = phase;
+            this.subject = subject;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the bytes allocated by the thread that did the work.
+         *
+         * @return the allocated bytes, or -1 if the JVM does not support allocation measurement
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    private static class PhaseTotal {
+        private int count;
+        private long nanos;
+        private long allocatedBytes;
+
+        private void add(Timing timing) {
+            count++;
+            nanos += timing.nanos;
+            if (timing.allocatedBytes < 0 || allocatedBytes < 0) {
+                allocatedBytes = -1;
+            } else {
+                allocatedBytes += timing.allocatedBytes;
+            }
+        }
+    }
+}
@@ -85,6 +85,16 @@ public class IntrospectedColumn {
      */
     protected boolean isGeneratedAlways;
 
+    /**
+     * True if this column is the leading column of an index reported by the JDBC driver.
+     */
+    protected boolean isIndexed;
+
+    /**
+     * True if the JDBC driver reports a unique index on this column alone.
+     */
+    protected boolean isUnique;
+
     /**
      * Constructs a Column definition. This object holds all the information
      * about a column that is required to generate Java objects and SQL maps;
@@ -330,6 +340,22 @@ public class IntrospectedColumn {
         this.isGeneratedAlways = isGeneratedAlways;
     }
 
+    public boolean isIndexed() {
+        return isIndexed;
+    }
+
+    public void setIndexed(boolean isIndexed) {
+        this.isIndexed = isIndexed;
+    }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    public void setUnique(boolean isUnique) {
+        this.isUnique = isUnique;
+    }
+
     /**
      * The platform specific type name as reported by the JDBC driver. This value is determined
      * from the DatabaseMetadata.getColumns() call - specifically ResultSet.getString("TYPE_NAME").
@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds information about an index of an introspected table, as reported by
+ * DatabaseMetaData.getIndexInfo(). Only indexes on plain columns are reported - indexes on
+ * expressions, and indexes on columns that are ignored by the table configuration, are not
+ * part of the introspected table.
+ */
+public class IntrospectedIndex {
+
+    private final String name;
+
+    private final boolean unique;
+
+    private final List<IntrospectedColumn> columns;
+
+    public IntrospectedIndex(String name, boolean unique, List<IntrospectedColumn> columns) {
+        this.name = name;
+        this.unique = unique;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * Returns the indexed columns in index order.
+     *
+     * @return the columns of the index
+     */
+    public List<IntrospectedColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns true if the index covers exactly the primary key columns of the table, in any order.
+     *
+     * @param introspectedTable the table of the index
+     * @return true if this is the index of the primary key
+     */
+    public boolean isPrimaryKeyIndex(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        return columns.size() == keyColumns.size() && keyColumns.containsAll(columns);
+    }
+}
@@ -113,6 +113,8 @@ public abstract class IntrospectedTable {
 
     protected final List<IntrospectedColumn> blobColumns = new ArrayList<>();
 
+    protected final List<IntrospectedIndex> indexes = new ArrayList<>();
+
     protected TargetRuntime targetRuntime;
 
     /**
@@ -372,6 +374,47 @@ public abstract class IntrospectedTable {
         }
     }
 
+    /**
+     * Adds an index reported by the database. The index is ignored if any of its columns is not
+     * part of this table (for example, if the column is ignored by the table configuration).
+     * The leading column of every index is marked as indexed, and the column of a single column
+     * unique index is marked as unique.
+     *
+     * @param name the name of the index
+     * @param unique true if the index is unique
+     * @param columnNames the actual names of the indexed columns in index order
+     */
+    public void addIndex(String name, boolean unique, List<String> columnNames) {
+        List<IntrospectedColumn> columns = new ArrayList<>();
+        for (String columnName : columnNames) {
+            Optional<IntrospectedColumn> column = getColumn(columnName);
+            if (!column.isPresent()) {
+                return;
+            }
+            columns.add(column.get());
+        }
+
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        columns.get(0).setIndexed(true);
+        if (unique && columns.size() == 1) {
+            columns.get(0).setUnique(true);
+        }
+        indexes.add(new IntrospectedIndex(name, unique, columns));
+    }
+
+    /**
+     * Returns the indexes of this table reported by the database, including the index of the
+     * primary key if the database reports one.
+     *
+     * @return the indexes of the table
+     */
+    public List<IntrospectedIndex> getIndexes() {
+        return indexes;
+    }
+
     public Object getAttribute(String name) {
         return attributes.get(name);
     }
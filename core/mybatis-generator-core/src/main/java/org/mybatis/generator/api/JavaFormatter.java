@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +36,18 @@ public interface JavaFormatter {
     void setContext(Context context);
 
     String getFormattedContent(CompilationUnit compilationUnit);
+
+    /**
+     * Writes the formatted content of a compilation unit. The content must be exactly the same as the value
+     * returned from {@link #getFormattedContent(CompilationUnit)}. The default implementation simply writes that
+     * value - formatters that can render the content incrementally should override this method so that
+     * generated files can be written without building the entire file in memory.
+     *
+     * @param compilationUnit the compilation unit
+     * @param appendable where the formatted content is written
+     * @throws IOException if the appendable throws an exception
+     */
+    default void writeFormattedContent(CompilationUnit compilationUnit, Appendable appendable) throws IOException {
+        appendable.append(getFormattedContent(compilationUnit));
+    }
 }
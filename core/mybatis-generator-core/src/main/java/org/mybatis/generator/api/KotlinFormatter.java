@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +36,18 @@ public interface KotlinFormatter {
     void setContext(Context context);
 
     String getFormattedContent(KotlinFile kotlinFile);
+
+    /**
+     * Writes the formatted content of a Kotlin file. The content must be exactly the same as the value
+     * returned from {@link #getFormattedContent(KotlinFile)}. The default implementation simply writes that
+     * value - formatters that can render the content incrementally should override this method so that
+     * generated files can be written without building the entire file in memory.
+     *
+     * @param kotlinFile the Kotlin file
+     * @param appendable where the formatted content is written
+     * @throws IOException if the appendable throws an exception
+     */
+    default void writeFormattedContent(KotlinFile kotlinFile, Appendable appendable) throws IOException {
+        appendable.append(getFormattedContent(kotlinFile));
+    }
 }
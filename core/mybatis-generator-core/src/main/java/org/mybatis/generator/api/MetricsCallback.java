@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+/**
+ * This interface can be implemented to receive performance metrics for a generation run. Register an
+ * implementation with {@link MyBatisGenerator#setMetricsCallback(MetricsCallback)}.
+ *
+ * <p>Phases may finish on worker threads if concurrent introspection, generation, or saving is enabled,
+ * so implementations must be thread safe.
+ *
+ * @see GenerationMetrics
+ */
+public interface MetricsCallback {
+
+    /**
+     * Called when a timed unit of work finishes - for example, the introspection of one table, or the
+     * rendering of one file.
+     *
+     * @param timing
+     *            the timing of the work
+     */
+    default void phaseFinished(GenerationMetrics.Timing timing) {}
+
+    /**
+     * Called once, after all files have been generated (and saved if requested).
+     *
+     * @param metrics
+     *            the metrics for the complete run
+     */
+    default void generationFinished(GenerationMetrics metrics) {}
+}
@@ -18,27 +18,46 @@ package org.mybatis.generator.api;
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.ComponentFactory;
 import org.mybatis.generator.internal.DefaultShellCallback;
-import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.MetricsReport;
 import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.util.DaemonThreadFactory;
 
 /**
  * This class is the main interface to MyBatis generator. A typical execution of the tool involves these steps:
@@ -76,6 +95,28 @@ public class MyBatisGenerator {
 
     private final Set<String> projects = new HashSet<>();
 
+    private boolean offline;
+
+    private int saveThreads = 1;
+
+    private boolean skipUnchangedFiles;
+
+    private int writtenFileCount;
+
+    private int unchangedFileCount;
+
+    private final Map<GeneratedFile, File> savedFiles = new IdentityHashMap<>();
+
+    private MetricsCallback metricsCallback;
+
+    private File metricsReportFile;
+
+    private GenerationMetrics metrics = GenerationMetrics.disabled();
+
+    private final List<ClassLoader> externalClassLoaders = new ArrayList<>();
+
+    private ComponentFactory sharedComponentFactory;
+
     /**
      * Constructs a MyBatisGenerator object.
      *
@@ -224,8 +265,11 @@ public class MyBatisGenerator {
 
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
-        ObjectFactory.reset();
-        RootClassInfo.reset();
+        if (metricsCallback == null && metricsReportFile == null) {
+            metrics = GenerationMetrics.disabled();
+        } else {
+            metrics = new GenerationMetrics(metricsCallback);
+        }
 
         // calculate the contexts to run
         List<Context> contextsToRun;
@@ -240,10 +284,19 @@ public class MyBatisGenerator {
             }
         }
 
-        // setup custom classloader if required
-        if (!configuration.getClassPathEntries().isEmpty()) {
-            ClassLoader classLoader = getCustomClassloader(configuration.getClassPathEntries());
-            ObjectFactory.addExternalClassLoader(classLoader);
+        // setup custom classloader if required. Class loading is scoped to this run, so
+        // every run sees changes to the classpath configuration - unless the caller shares
+        // a component factory across runs
+        ComponentFactory componentFactory = sharedComponentFactory;
+        if (componentFactory == null) {
+            List<ClassLoader> classLoaders = new ArrayList<>(externalClassLoaders);
+            if (!configuration.getClassPathEntries().isEmpty()) {
+                classLoaders.add(getCustomClassloader(configuration.getClassPathEntries()));
+            }
+            componentFactory = new ComponentFactory(classLoaders);
+        }
+        for (Context context : contextsToRun) {
+            context.setComponentFactory(componentFactory);
         }
 
         // now run the introspections...
@@ -254,6 +307,8 @@ public class MyBatisGenerator {
         callback.introspectionStarted(totalSteps);
 
         for (Context context : contextsToRun) {
+            context.setOfflineIntrospection(offline);
+            context.setMetrics(metrics);
             context.introspectTables(callback, warnings,
                     fullyQualifiedTableNames);
         }
@@ -275,165 +330,350 @@ public class MyBatisGenerator {
             callback.saveStarted(generatedXmlFiles.size()
                     + generatedJavaFiles.size());
 
-            for (GeneratedXmlFile gxf : generatedXmlFiles) {
-                projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
-            }
+            List<GeneratedFile> filesToSave = new ArrayList<>();
+            filesToSave.addAll(generatedXmlFiles);
+            filesToSave.addAll(generatedJavaFiles);
+            filesToSave.addAll(generatedKotlinFiles);
+            filesToSave.addAll(otherGeneratedFiles);
 
-            for (GeneratedJavaFile gjf : generatedJavaFiles) {
-                projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
+            for (GeneratedFile gf : filesToSave) {
+                projects.add(gf.getTargetProject());
             }
 
-            for (GeneratedKotlinFile gkf : generatedKotlinFiles) {
-                projects.add(gkf.getTargetProject());
-                writeGeneratedFile(gkf, callback);
+            writtenFileCount = 0;
+            unchangedFileCount = 0;
+            savedFiles.clear();
+
+            if (saveThreads > 1) {
+                saveFilesConcurrently(filesToSave, callback);
+            } else {
+                for (GeneratedFile gf : filesToSave) {
+                    saveFile(prepareFile(gf), callback);
+                }
             }
 
-            for (GeneratedFile gf : otherGeneratedFiles) {
-                projects.add(gf.getTargetProject());
-                writeGeneratedFile(gf, callback);
+            for (Context context : contextsToRun) {
+                context.writeBuildManifest(savedFiles, callback, warnings);
             }
 
             for (String project : projects) {
                 shellCallback.refreshProject(project);
             }
+
+            callback.saveFinished(writtenFileCount, unchangedFileCount);
+        }
+
+        metrics.finish();
+        if (metricsReportFile != null) {
+            MetricsReport.write(metrics, metricsReportFile);
+            callback.startTask(getString("Progress.22", metricsReportFile.getAbsolutePath())); //$NON-NLS-1$
         }
 
         callback.done();
     }
 
-    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
+    /**
+     * Saves files in a pipeline. Formatting and merging run on a pool of worker threads while the calling
+     * thread writes the prepared files in order. Directories are resolved on the calling thread, in order,
+     * before any work is submitted.
+     *
+     * <p>A file is prepared on the calling thread, just before it is written, if an earlier file in the list has
+     * the same target file (so it sees the earlier file exactly as sequential saving would), or if it is a Java
+     * file and the shell callback merges Java files but does not allow concurrent merges.
+     */
+    private void saveFilesConcurrently(List<GeneratedFile> filesToSave, ProgressCallback callback)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+        ExecutorService executor = Executors.newFixedThreadPool(saveThreads,
+                new DaemonThreadFactory("mbg-save")); //$NON-NLS-1$
         try {
-            File directory = shellCallback.getDirectory(gjf
-                    .getTargetProject(), gjf.getTargetPackage());
-            targetFile = new File(directory, gjf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isMergeSupported()) {
-                    source = shellCallback.mergeJavaFile(gjf
-                            .getFormattedContent(), targetFile,
-                            MergeConstants.getOldElementTags(),
-                            gjf.getFileEncoding());
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
+            Set<File> targetFiles = new HashSet<>();
+            List<Future<PreparedFile>> results = new ArrayList<>();
+            for (GeneratedFile gf : filesToSave) {
+                callback.checkCancel();
+
+                File directory;
+                try {
+                    directory = shellCallback.getDirectory(gf.getTargetProject(), gf.getTargetPackage());
+                } catch (ShellException e) {
+                    results.add(CompletableFuture.completedFuture(new PreparedFile(e)));
+                    continue;
+                }
+
+                File targetFile = new File(directory, gf.getFileName()).getAbsoluteFile();
+                boolean serialMerge = gf instanceof GeneratedJavaFile && shellCallback.isMergeSupported()
+                        && !shellCallback.isMergeThreadSafe();
+                if (targetFiles.add(targetFile) && !serialMerge) {
+                    results.add(executor.submit(() -> prepareFile(gf, directory, true)));
                 } else {
-                    source = gjf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gjf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+                    // null means prepare on this thread
+                    results.add(null);
                 }
-            } else {
-                source = gjf.getFormattedContent();
             }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gjf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+            for (int i = 0; i < filesToSave.size(); i++) {
+                Future<PreparedFile> future = results.get(i);
+                if (future == null) {
+                    saveFile(prepareFile(filesToSave.get(i)), callback);
+                } else {
+                    saveFile(getPreparedFile(future), callback);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private void writeGeneratedFile(GeneratedFile gf, ProgressCallback callback)
-            throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+    private PreparedFile getPreparedFile(Future<PreparedFile> future) throws InterruptedException, IOException {
         try {
-            File directory = shellCallback.getDirectory(gf
-                    .getTargetProject(), gf.getTargetPackage());
-            targetFile = new File(directory, gf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isOverwriteEnabled()) {
-                    source = gf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
-                }
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             } else {
-                source = gf.getFormattedContent();
+                throw new RuntimeException(cause);
             }
+        }
+    }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gf.getFileEncoding());
+    private PreparedFile prepareFile(GeneratedFile gf) throws IOException {
+        try {
+            File directory = shellCallback.getDirectory(gf
+                    .getTargetProject(), gf.getTargetPackage());
+            return prepareFile(gf, directory, false);
         } catch (ShellException e) {
-            warnings.add(e.getMessage());
+            return new PreparedFile(e);
         }
     }
 
-    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback)
-            throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+    /**
+     * Calculates the final content and location of a generated file. If the target file exists, then the
+     * generated file is merged with it, or the file is overwritten, or a unique file name is chosen -
+     * depending on the type of file and the settings of the shell callback.
+     *
+     * <p>If unchanged files are skipped, then the final content is also compared with the existing file.
+     * Otherwise, unless the content is needed now, a file that is not merged is rendered when it is written
+     * so that it is streamed directly to disk.
+     *
+     * <p>This method does not write anything, and does not add to the warnings list, so it can be called
+     * from any thread.
+     */
+    private PreparedFile prepareFile(GeneratedFile gf, File directory, boolean renderNow) throws IOException {
+        List<String> fileWarnings = new ArrayList<>();
         try {
-            File directory = shellCallback.getDirectory(gxf
-                    .getTargetProject(), gxf.getTargetPackage());
-            targetFile = new File(directory, gxf.getFileName());
+            File targetFile = new File(directory, gf.getFileName());
+            String source = null;
+            GenerationMetrics.Timer timer = metrics.startTimer();
             if (targetFile.exists()) {
-                if (gxf.isMergeable()) {
-                    source = XmlFileMergerJaxp.getMergedSource(gxf,
+                if (gf instanceof GeneratedXmlFile && gf.isMergeable()) {
+                    source = XmlFileMergerJaxp.getMergedSource((GeneratedXmlFile) gf,
                             targetFile);
+                    timer.stop(GenerationMetrics.Phase.MERGE, targetFile.getPath());
+                    metrics.fileMerged();
+                } else if (gf instanceof GeneratedJavaFile && shellCallback.isMergeSupported()) {
+                    source = shellCallback.mergeJavaFile(gf
+                            .getFormattedContent(), targetFile,
+                            MergeConstants.getOldElementTags(),
+                            gf.getFileEncoding());
+                    timer.stop(GenerationMetrics.Phase.MERGE, targetFile.getPath());
+                    metrics.fileMerged();
                 } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
+                    fileWarnings.add(getString("Warning.11", //$NON-NLS-1$
                             targetFile.getAbsolutePath()));
                 } else {
-                    source = gxf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gxf
+                    targetFile = getUniqueFileName(directory, gf
                             .getFileName());
-                    warnings.add(getString(
+                    fileWarnings.add(getString(
                             "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
                 }
+            }
+
+            byte[] content;
+            if (source != null) {
+                content = source.getBytes(getCharset(gf));
+            } else if (renderNow || skipUnchangedFiles) {
+                timer = metrics.startTimer();
+                content = render(gf);
+                timer.stop(GenerationMetrics.Phase.RENDER, targetFile.getPath());
             } else {
-                source = gxf.getFormattedContent();
+                // rendered while writing
+                content = null;
             }
+            boolean unchanged = skipUnchangedFiles && hasContent(targetFile, content);
+            return new PreparedFile(gf, targetFile, content, unchanged, fileWarnings);
+        } catch (ShellException e) {
+            fileWarnings.add(e.getMessage());
+            return new PreparedFile(fileWarnings);
+        }
+    }
 
-            callback.checkCancel();
+    private void saveFile(PreparedFile preparedFile, ProgressCallback callback)
+            throws InterruptedException, IOException {
+        warnings.addAll(preparedFile.warnings);
+        if (preparedFile.targetFile == null) {
+            return;
+        }
+
+        callback.checkCancel();
+        if (preparedFile.unchanged) {
             callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gxf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+                    "Progress.19", preparedFile.targetFile.getName())); //$NON-NLS-1$
+            unchangedFileCount++;
+            metrics.fileSkipped();
+        } else {
+            callback.startTask(getString(
+                    "Progress.15", preparedFile.targetFile.getName())); //$NON-NLS-1$
+            GenerationMetrics.Timer timer = metrics.startTimer();
+            if (preparedFile.content == null) {
+                writeFile(preparedFile.targetFile, preparedFile.generatedFile);
+            } else {
+                writeFile(preparedFile.targetFile, preparedFile.content);
+            }
+            timer.stop(GenerationMetrics.Phase.WRITE, preparedFile.targetFile.getPath());
+            writtenFileCount++;
+            metrics.fileWritten(preparedFile.content == null ? preparedFile.targetFile.length()
+                    : preparedFile.content.length);
         }
+        savedFiles.put(preparedFile.generatedFile, preparedFile.targetFile);
     }
 
     /**
-     * Writes, or overwrites, the contents of the specified file.
+     * Returns the charset of a generated file. If the file encoding is null, then the platform default
+     * encoding is used.
+     *
+     * @param gf
+     *            the generated file
+     * @return the charset
+     */
+    private static Charset getCharset(GeneratedFile gf) {
+        String fileEncoding = gf.getFileEncoding();
+        return fileEncoding == null ? Charset.defaultCharset() : Charset.forName(fileEncoding);
+    }
+
+    /**
+     * Renders and encodes the content of a generated file.
+     *
+     * @param gf
+     *            the generated file
+     * @return the encoded content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static byte[] render(GeneratedFile gf) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, getCharset(gf))) {
+            gf.writeFormattedContent(writer);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns true if the specified file exists and contains exactly the specified content. The file
+     * length is checked first, so the file is only read if it might be the same.
      *
      * @param file
      *            the file
      * @param content
      *            the content
-     * @param fileEncoding
-     *            the file encoding
+     * @return true if the file contains the content
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private void writeFile(File file, String content, String fileEncoding) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(file, false)) {
-            OutputStreamWriter osw;
-            if (fileEncoding == null) {
-                osw = new OutputStreamWriter(fos);
-            } else {
-                osw = new OutputStreamWriter(fos, Charset.forName(fileEncoding));
+    private static boolean hasContent(File file, byte[] content) throws IOException {
+        if (content == null || !file.isFile() || file.length() != content.length) {
+            return false;
+        }
+
+        try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+            byte[] buffer = new byte[8192];
+            int offset = 0;
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                if (offset + count > content.length) {
+                    return false;
+                }
+
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] != content[offset + i]) {
+                        return false;
+                    }
+                }
+                offset += count;
             }
 
-            try (BufferedWriter bw = new BufferedWriter(osw)) {
-                bw.write(content);
+            return offset == content.length;
+        }
+    }
+
+    /**
+     * Writes, or overwrites, the contents of the specified file.
+     *
+     * @param file
+     *            the file
+     * @param content
+     *            the encoded content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeFile(File file, byte[] content) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file, false))) {
+            os.write(content);
+        }
+    }
+
+    /**
+     * Writes, or overwrites, the specified file with the content of a generated file. The content is
+     * rendered to a temporary file in the same directory, which then replaces the file. If rendering
+     * fails, an existing file is left unchanged.
+     *
+     * @param file
+     *            the file
+     * @param gf
+     *            the generated file
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeFile(File file, GeneratedFile gf) throws IOException {
+        // java.io creates the temporary file with the default permissions rather than owner only
+        File tempFile = File.createTempFile("." + file.getName(), //$NON-NLS-1$
+                ".tmp", file.getParentFile()); //$NON-NLS-1$
+        boolean moved = false;
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile, false),
+                    getCharset(gf)))) {
+                gf.writeFormattedContent(writer);
+            }
+            copyPermissions(file, tempFile);
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * An overwritten file keeps its permissions, as it did when it was written in place.
+     */
+    private void copyPermissions(File from, File to) throws IOException {
+        if (!from.exists()) {
+            return;
+        }
+
+        try {
+            Files.setPosixFilePermissions(to.toPath(), Files.getPosixFilePermissions(from.toPath()));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system
         }
     }
 
@@ -504,4 +744,119 @@ public class MyBatisGenerator {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         return generatedXmlFiles;
     }
+
+    /**
+     * Sets offline mode. In offline mode, tables are introspected from the introspection snapshot
+     * of their context (see the <code>introspectionSnapshot</code> context property) and the
+     * database is only used for tables that are missing from the snapshot. Contexts without a
+     * snapshot are always introspected from the database.
+     *
+     * @param offline true to prefer introspection snapshots over the database
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Sets the number of threads used to save generated files. If the value is greater than one, then
+     * files are formatted and merged with existing files on a pool of worker threads while the
+     * calling thread writes finished files to disk in the usual order. The saved files, warnings,
+     * and progress messages are the same as with a single thread. Custom formatters must be thread
+     * safe if more than one thread is used. Java files are only merged on the worker threads if the
+     * shell callback allows it (see {@link ShellCallback#isMergeThreadSafe()}).
+     *
+     * @param saveThreads the number of threads. The default is 1.
+     */
+    public void setSaveThreads(int saveThreads) {
+        this.saveThreads = saveThreads;
+    }
+
+    /**
+     * Sets whether unchanged files are skipped. If true, then a generated file is not written if the
+     * existing file already has exactly the same content. Skipping unchanged files preserves file
+     * modification times, so build tools and IDEs do not recompile files that have not changed.
+     * The number of written and skipped files is reported to
+     * {@link ProgressCallback#saveFinished(int, int)}.
+     *
+     * @param skipUnchangedFiles true to skip writing files whose content has not changed
+     */
+    public void setSkipUnchangedFiles(boolean skipUnchangedFiles) {
+        this.skipUnchangedFiles = skipUnchangedFiles;
+    }
+
+    /**
+     * Sets a callback that receives performance metrics for each generation run - the time spent in every
+     * phase for each table and file, the number of JDBC metadata calls, and the number of files written,
+     * skipped, and merged. Metrics are only recorded if a callback or a report file is set.
+     *
+     * @param metricsCallback the callback, or null for no callback
+     * @see GenerationMetrics
+     */
+    public void setMetricsCallback(MetricsCallback metricsCallback) {
+        this.metricsCallback = metricsCallback;
+    }
+
+    /**
+     * Sets a file that receives a JSON report of the performance metrics of each generation run. The
+     * file is overwritten by every run.
+     *
+     * @param metricsReportFile the report file, or null for no report
+     * @see #setMetricsCallback(MetricsCallback)
+     */
+    public void setMetricsReportFile(File metricsReportFile) {
+        this.metricsReportFile = metricsReportFile;
+    }
+
+    /**
+     * Adds a class loader to the class loaders searched for "external" classes in every generation run of this
+     * generator. These are classes that do not depend on any of the generator's classes or interfaces. Examples are
+     * JDBC drivers, root classes, root interfaces, etc. Class loaders added here are searched before the class
+     * loader built from the class path entries in the configuration.
+     *
+     * @param classLoader the class loader
+     */
+    public void addExternalClassLoader(ClassLoader classLoader) {
+        externalClassLoaders.add(classLoader);
+    }
+
+    /**
+     * Sets a component factory that is used for every generation run of this generator, instead of a new factory
+     * for each run. Classes loaded by the factory (plugins, JDBC drivers, root classes, etc.) are then only
+     * loaded once. A resident process that runs the same configuration many times uses this. The external class
+     * loaders and the class path entries of the configuration are ignored if a factory is set - the factory must
+     * already search them.
+     *
+     * @param componentFactory the factory, or null to create a factory for each run
+     */
+    public void setComponentFactory(ComponentFactory componentFactory) {
+        this.sharedComponentFactory = componentFactory;
+    }
+
+    private static class PreparedFile {
+        private final GeneratedFile generatedFile;
+        private final File targetFile;
+        private final byte[] content;
+        private final boolean unchanged;
+        private final List<String> warnings;
+
+        PreparedFile(GeneratedFile generatedFile, File targetFile, byte[] content, boolean unchanged,
+                List<String> warnings) {
+            this.generatedFile = generatedFile;
+            this.targetFile = targetFile;
+            this.content = content;
+            this.unchanged = unchanged;
+            this.warnings = warnings;
+        }
+
+        /**
+         * Constructs a prepared file that will not be written.
+         */
+        PreparedFile(List<String> warnings) {
+            this(null, null, null, false, warnings);
+        }
+
+        PreparedFile(ShellException e) {
+            this(Collections.singletonList(e.getMessage()));
+        }
+    }
 }
@@ -129,6 +129,38 @@ public interface Plugin {
      */
     boolean validate(List<String> warnings);
 
+    /**
+     * Returns true if this plugin can be called for different introspected tables at the same time.
+     * When the <code>generationThreads</code> context property is greater than one, the files for
+     * different tables are generated on different threads, and every method that receives an
+     * introspected table may be called concurrently. A thread safe plugin must not modify shared
+     * state in those methods without synchronization. The <code>initialized</code> method and the
+     * <code>contextGenerateAdditionalXXXFiles()</code> methods without parameters are always called
+     * from a single thread.
+     *
+     * <p>Files are only generated concurrently if every plugin in the context is thread safe.
+     *
+     * @return true if the plugin is thread safe. The default is false.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Returns true if this plugin uses the indexes of introspected tables (see
+     * {@link IntrospectedTable#getIndexes()}). Retrieving indexes costs a database call for every table,
+     * so indexes are only introspected if a plugin in the context requires them, or if the
+     * <code>introspectIndexes</code> context property is true.
+     *
+     * <p>This method is called before tables are introspected, after <code>validate</code> has returned
+     * true. It is not called on plugins that are not valid.
+     *
+     * @return true if the plugin requires index information. The default is false.
+     */
+    default boolean requiresIndexes() {
+        return false;
+    }
+
     /**
      * This method can be used to generate any additional Java file needed by
      * your implementation. This method is called once, after all other Java
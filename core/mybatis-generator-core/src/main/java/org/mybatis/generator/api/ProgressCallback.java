@@ -29,12 +29,17 @@ package org.mybatis.generator.api;
  * <li>(Repeatedly) startTask(String)</li>
  * <li>saveStarted(int)</li>
  * <li>(Repeatedly) startTask(String)</li>
+ * <li>saveFinished(int, int)</li>
  * <li>done()</li>
  * </ol>
  *
  * <p>Periodically, the <code>checkCancel()</code> method will be called to see if the
  * method should be canceled.
  *
+ * <p>If the <code>generationThreads</code> context property is greater than one, then
+ * <code>startTask(String)</code> may be called concurrently from several threads during the
+ * generation phase.
+ *
  * <p>For planning purposes, the most common use case will have a ratio of 20%
  * introspection tasks, 40% generation tasks, and 40% save tasks.
  *
@@ -73,6 +78,19 @@ public interface ProgressCallback {
      */
     default void saveStarted(int totalTasks) {}
 
+    /**
+     * Called at the end of the file saving phase with a summary of the saved files. This method
+     * is not called if files are not written.
+     *
+     * @param writtenFiles
+     *            the number of files written to disk
+     * @param unchangedFiles
+     *            the number of files that were not written because the existing file
+     *            already had the same content
+     *            (see {@link MyBatisGenerator#setSkipUnchangedFiles(boolean)})
+     */
+    default void saveFinished(int writtenFiles, int unchangedFiles) {}
+
     /**
      * Called to denote the beginning of a save task.
      *
@@ -132,6 +132,21 @@ public interface ShellCallback {
         return false;
     }
 
+    /**
+     * Return true if <code>mergeJavaFile()</code> may be called concurrently from several threads.
+     * If the generator saves files on more than one thread (see
+     * {@link MyBatisGenerator#setSaveThreads(int)}), then Java files are merged on the worker
+     * threads, together with formatting and XML merging. Otherwise, Java files are merged one at
+     * a time on the thread that writes the files.
+     *
+     * <p>The other methods of the callback are always called from a single thread.
+     *
+     * @return true if Java files may be merged concurrently
+     */
+    default boolean isMergeThreadSafe() {
+        return false;
+    }
+
     /**
      * Return true if the generator should overwrite an existing file if one exists.
      * This method will be called only if <code>isMergeSupported()</code>
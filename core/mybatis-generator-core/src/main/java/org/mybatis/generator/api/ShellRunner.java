@@ -19,9 +19,12 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,7 +33,9 @@ import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.ComponentFactory;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GenerationDaemon;
 import org.mybatis.generator.internal.util.StringUtility;
 import org.mybatis.generator.logging.LogFactory;
 
@@ -45,9 +50,26 @@ public class ShellRunner {
     private static final String CONTEXT_IDS = "-contextids"; //$NON-NLS-1$
     private static final String TABLES = "-tables"; //$NON-NLS-1$
     private static final String VERBOSE = "-verbose"; //$NON-NLS-1$
+    private static final String OFFLINE = "-offline"; //$NON-NLS-1$
+    private static final String SAVE_THREADS = "-saveThreads"; //$NON-NLS-1$
+    private static final String SKIP_UNCHANGED = "-skipUnchanged"; //$NON-NLS-1$
+    private static final String METRICS_REPORT = "-metricsReport"; //$NON-NLS-1$
+    private static final String DAEMON = "-daemon"; //$NON-NLS-1$
+    private static final String WATCH = "-watch"; //$NON-NLS-1$
+    private static final String WATCH_INTERVAL = "-watchInterval"; //$NON-NLS-1$
+    private static final String CLIENT = "-client"; //$NON-NLS-1$
+    private static final String STOP = "-stop"; //$NON-NLS-1$
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging"; //$NON-NLS-1$
     private static final String HELP_1 = "-?"; //$NON-NLS-1$
     private static final String HELP_2 = "-h"; //$NON-NLS-1$
+    private static final long DEFAULT_WATCH_INTERVAL = 5;
+
+    /**
+     * Arguments that can be part of a request to the daemon. The daemon rejects requests with other
+     * arguments.
+     */
+    private static final Set<String> REQUEST_ARGUMENTS = new HashSet<>(Arrays.asList(OVERWRITE, CONTEXT_IDS,
+            TABLES, VERBOSE, OFFLINE, SAVE_THREADS, SKIP_UNCHANGED));
 
     public static void main(String[] args) {
         if (args.length == 0) {
@@ -56,7 +78,17 @@ public class ShellRunner {
             return; // only to satisfy compiler, never returns
         }
 
-        Map<String, String> arguments = parseCommandLine(args);
+        List<String> errors = new ArrayList<>();
+        Map<String, String> arguments = parseCommandLine(args, errors);
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                writeLine(error);
+            }
+
+            System.exit(-1);
+            return; // only to satisfy compiler, never returns
+        }
 
         if (arguments.containsKey(HELP_1)) {
             usage();
@@ -64,13 +96,16 @@ public class ShellRunner {
             return; // only to satisfy compiler, never returns
         }
 
+        if (arguments.containsKey(CLIENT)) {
+            runClient(args, arguments);
+            return;
+        }
+
         if (!arguments.containsKey(CONFIG_FILE)) {
             writeLine(getString("RuntimeError.0")); //$NON-NLS-1$
             return;
         }
 
-        List<String> warnings = new ArrayList<>();
-
         String configfile = arguments.get(CONFIG_FILE);
         File configurationFile = new File(configfile);
         if (!configurationFile.exists()) {
@@ -78,38 +113,64 @@ public class ShellRunner {
             return;
         }
 
+        if (arguments.containsKey(DAEMON)) {
+            runDaemon(configurationFile, arguments);
+            return;
+        }
+
+        List<String> warnings = new ArrayList<>();
+        Configuration config;
+        try {
+            ConfigurationParser cp = new ConfigurationParser(warnings);
+            config = cp.parseConfiguration(configurationFile);
+        } catch (XMLParserException e) {
+            writeLine(getString("Progress.3")); //$NON-NLS-1$
+            writeLine();
+            for (String error : e.getErrors()) {
+                writeLine(error);
+            }
+
+            return;
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+            return;
+        }
+
+        generate(config, null, warnings, arguments, System.out);
+    }
+
+    private static void generate(Configuration config, ComponentFactory componentFactory, List<String> warnings,
+            Map<String, String> arguments, PrintStream out) {
         Set<String> fullyQualifiedTables = StringUtility.tokenize(arguments.get(TABLES));
 
         Set<String> contexts = StringUtility.tokenize(arguments.get(CONTEXT_IDS));
 
         try {
-            ConfigurationParser cp = new ConfigurationParser(warnings);
-            Configuration config = cp.parseConfiguration(configurationFile);
-
             DefaultShellCallback shellCallback = new DefaultShellCallback(arguments.containsKey(OVERWRITE));
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+            myBatisGenerator.setComponentFactory(componentFactory);
+            myBatisGenerator.setOffline(arguments.containsKey(OFFLINE));
+            if (arguments.containsKey(SAVE_THREADS)) {
+                myBatisGenerator.setSaveThreads(Integer.parseInt(arguments.get(SAVE_THREADS)));
+            }
+            myBatisGenerator.setSkipUnchangedFiles(arguments.containsKey(SKIP_UNCHANGED));
+            if (arguments.containsKey(METRICS_REPORT)) {
+                myBatisGenerator.setMetricsReportFile(new File(arguments.get(METRICS_REPORT)));
+            }
 
-            ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
+            ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback(out)
                     : null;
 
             myBatisGenerator.generate(progressCallback, contexts, fullyQualifiedTables);
 
-        } catch (XMLParserException e) {
-            writeLine(getString("Progress.3")); //$NON-NLS-1$
-            writeLine();
-            for (String error : e.getErrors()) {
-                writeLine(error);
-            }
-
-            return;
         } catch (SQLException | IOException e) {
-            e.printStackTrace(System.out);
+            e.printStackTrace(out);
             return;
         } catch (InvalidConfigurationException e) {
-            writeLine(getString("Progress.16")); //$NON-NLS-1$
+            out.println(getString("Progress.16")); //$NON-NLS-1$
             for (String error : e.getErrors()) {
-                writeLine(error);
+                out.println(error);
             }
             return;
         } catch (InterruptedException e) {
@@ -117,17 +178,103 @@ public class ShellRunner {
         }
 
         for (String warning : warnings) {
-            writeLine(warning);
+            out.println(warning);
         }
 
         if (warnings.isEmpty()) {
-            writeLine(getString("Progress.4")); //$NON-NLS-1$
+            out.println(getString("Progress.4")); //$NON-NLS-1$
         } else {
-            writeLine();
-            writeLine(getString("Progress.5")); //$NON-NLS-1$
+            out.println();
+            out.println(getString("Progress.5")); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Keeps the configuration, loaded classes, and database connections in memory and generates when a
+     * client asks for it (or when the configuration file or database schema changes, if watching).
+     * The arguments the daemon is started with are the defaults for every request.
+     */
+    private static void runDaemon(File configurationFile, Map<String, String> arguments) {
+        GenerationDaemon daemon = new GenerationDaemon(configurationFile,
+                (configuration, componentFactory, requestArguments, out) ->
+                        runRequest(configuration, componentFactory, arguments, requestArguments, out),
+                System.out);
+        try {
+            if (!daemon.load(System.out) && !arguments.containsKey(WATCH)) {
+                return;
+            }
+            int port = daemon.start(Integer.parseInt(arguments.get(DAEMON)), getTokenDirectory());
+            writeLine(getString("Progress.23", Integer.toString(port))); //$NON-NLS-1$
+            daemon.generate(new ArrayList<>(), System.out);
+            if (arguments.containsKey(WATCH)) {
+                long interval = arguments.containsKey(WATCH_INTERVAL)
+                        ? Long.parseLong(arguments.get(WATCH_INTERVAL)) : DEFAULT_WATCH_INTERVAL;
+                daemon.watch(interval, !arguments.containsKey(OFFLINE));
+            }
+            daemon.awaitStop();
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace(System.out);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            daemon.close();
+        }
+    }
+
+    private static void runRequest(Configuration configuration, ComponentFactory componentFactory,
+            Map<String, String> daemonArguments, List<String> requestArguments, PrintStream out) {
+        List<String> errors = new ArrayList<>();
+        if (requestArguments.stream().anyMatch(FORCE_JAVA_LOGGING::equalsIgnoreCase)) {
+            // parsing would switch the logging of the daemon
+            out.println(getString("RuntimeError.26", FORCE_JAVA_LOGGING)); //$NON-NLS-1$
+            return;
+        }
+        Map<String, String> arguments = parseCommandLine(requestArguments.toArray(new String[0]), errors);
+        for (String argument : arguments.keySet()) {
+            if (!REQUEST_ARGUMENTS.contains(argument)) {
+                errors.add(getString("RuntimeError.26", argument)); //$NON-NLS-1$
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                out.println(error);
+            }
+            return;
+        }
+
+        Map<String, String> mergedArguments = new HashMap<>(daemonArguments);
+        mergedArguments.putAll(arguments);
+        generate(configuration, componentFactory, new ArrayList<>(), mergedArguments, out);
+    }
+
+    /**
+     * Sends every argument except the client arguments to a running daemon.
+     */
+    private static void runClient(String[] args, Map<String, String> arguments) {
+        List<String> requestArguments = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (CLIENT.equalsIgnoreCase(args[i])) {
+                i++;
+            } else if (!STOP.equalsIgnoreCase(args[i])) {
+                requestArguments.add(args[i]);
+            }
+        }
+
+        String port = arguments.get(CLIENT);
+        String command = arguments.containsKey(STOP) ? GenerationDaemon.STOP : GenerationDaemon.GENERATE;
+        try {
+            GenerationDaemon.sendRequest(Integer.parseInt(port), getTokenDirectory(), command, requestArguments,
+                    System.out);
+        } catch (IOException | IllegalArgumentException e) {
+            writeLine(getString("RuntimeError.24", port, e.getMessage())); //$NON-NLS-1$
         }
     }
 
+    private static File getTokenDirectory() {
+        return new File(System.getProperty("user.home")); //$NON-NLS-1$
+    }
+
     private static void usage() {
         writeLine(getString("Usage")); //$NON-NLS-1$
     }
@@ -140,8 +287,7 @@ public class ShellRunner {
         System.out.println();
     }
 
-    private static Map<String, String> parseCommandLine(String[] args) {
-        List<String> errors = new ArrayList<>();
+    private static Map<String, String> parseCommandLine(String[] args, List<String> errors) {
         Map<String, String> arguments = new HashMap<>();
 
         for (int i = 0; i < args.length; i++) {
@@ -157,6 +303,10 @@ public class ShellRunner {
                 arguments.put(OVERWRITE, "Y"); //$NON-NLS-1$
             } else if (VERBOSE.equalsIgnoreCase(args[i])) {
                 arguments.put(VERBOSE, "Y"); //$NON-NLS-1$
+            } else if (OFFLINE.equalsIgnoreCase(args[i])) {
+                arguments.put(OFFLINE, "Y"); //$NON-NLS-1$
+            } else if (SKIP_UNCHANGED.equalsIgnoreCase(args[i])) {
+                arguments.put(SKIP_UNCHANGED, "Y"); //$NON-NLS-1$
             } else if (HELP_1.equalsIgnoreCase(args[i])) {
                 arguments.put(HELP_1, "Y"); //$NON-NLS-1$
             } else if (HELP_2.equalsIgnoreCase(args[i])) {
@@ -173,6 +323,25 @@ public class ShellRunner {
                             "RuntimeError.19", CONTEXT_IDS)); //$NON-NLS-1$
                 }
                 i++;
+            } else if (SAVE_THREADS.equalsIgnoreCase(args[i])) {
+                i = parsePositiveInteger(SAVE_THREADS, args, i, arguments, errors);
+            } else if (METRICS_REPORT.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(METRICS_REPORT, args[i + 1]);
+                } else {
+                    errors.add(getString("RuntimeError.19", METRICS_REPORT)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (DAEMON.equalsIgnoreCase(args[i])) {
+                i = parsePositiveInteger(DAEMON, args, i, arguments, errors);
+            } else if (CLIENT.equalsIgnoreCase(args[i])) {
+                i = parsePositiveInteger(CLIENT, args, i, arguments, errors);
+            } else if (WATCH_INTERVAL.equalsIgnoreCase(args[i])) {
+                i = parsePositiveInteger(WATCH_INTERVAL, args, i, arguments, errors);
+            } else if (WATCH.equalsIgnoreCase(args[i])) {
+                arguments.put(WATCH, "Y"); //$NON-NLS-1$
+            } else if (STOP.equalsIgnoreCase(args[i])) {
+                arguments.put(STOP, "Y"); //$NON-NLS-1$
             } else if (TABLES.equalsIgnoreCase(args[i])) {
                 if ((i + 1) < args.length) {
                     arguments.put(TABLES, args[i + 1]);
@@ -185,14 +354,43 @@ public class ShellRunner {
             }
         }
 
-        if (!errors.isEmpty()) {
-            for (String error : errors) {
-                writeLine(error);
-            }
-
-            System.exit(-1);
+        if (arguments.containsKey(WATCH) && !arguments.containsKey(DAEMON)) {
+            errors.add(getString("RuntimeError.27", WATCH, DAEMON)); //$NON-NLS-1$
+        }
+        if (arguments.containsKey(WATCH_INTERVAL) && !arguments.containsKey(WATCH)) {
+            errors.add(getString("RuntimeError.27", WATCH_INTERVAL, WATCH)); //$NON-NLS-1$
+        }
+        if (arguments.containsKey(STOP) && !arguments.containsKey(CLIENT)) {
+            errors.add(getString("RuntimeError.27", STOP, CLIENT)); //$NON-NLS-1$
         }
 
         return arguments;
     }
+
+    /**
+     * Parses an argument that requires a positive integer value.
+     *
+     * @return the index of the value
+     */
+    private static int parsePositiveInteger(String name, String[] args, int i, Map<String, String> arguments,
+            List<String> errors) {
+        if ((i + 1) < args.length) {
+            if (isPositiveInteger(args[i + 1])) {
+                arguments.put(name, args[i + 1]);
+            } else {
+                errors.add(getString("RuntimeError.23", name)); //$NON-NLS-1$
+            }
+        } else {
+            errors.add(getString("RuntimeError.19", name)); //$NON-NLS-1$
+        }
+        return i + 1;
+    }
+
+    private static boolean isPositiveInteger(String s) {
+        try {
+            return Integer.parseInt(s) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
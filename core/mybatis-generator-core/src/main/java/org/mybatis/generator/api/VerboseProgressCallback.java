@@ -15,6 +15,10 @@
  */
 package org.mybatis.generator.api;
 
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.PrintStream;
+
 /**
  * A slightly more verbose progress callback.
  *
@@ -23,12 +27,30 @@ package org.mybatis.generator.api;
  */
 public class VerboseProgressCallback implements ProgressCallback {
 
+    private final PrintStream out;
+
     public VerboseProgressCallback() {
+        this(System.out);
+    }
+
+    /**
+     * Constructs a callback that writes progress messages to a stream.
+     *
+     * @param out the stream that receives progress messages
+     */
+    public VerboseProgressCallback(PrintStream out) {
         super();
+        this.out = out;
     }
 
     @Override
     public void startTask(String taskName) {
-        System.out.println(taskName);
+        out.println(taskName);
+    }
+
+    @Override
+    public void saveFinished(int writtenFiles, int unchangedFiles) {
+        out.println(getString("Progress.20", //$NON-NLS-1$
+                Integer.toString(writtenFiles), Integer.toString(unchangedFiles)));
     }
 }
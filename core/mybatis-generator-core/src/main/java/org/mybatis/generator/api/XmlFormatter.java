@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +36,18 @@ public interface XmlFormatter {
     void setContext(Context context);
 
     String getFormattedContent(Document document);
+
+    /**
+     * Writes the formatted content of a document. The content must be exactly the same as the value
+     * returned from {@link #getFormattedContent(Document)}. The default implementation simply writes that
+     * value - formatters that can render the content incrementally should override this method so that
+     * generated files can be written without building the entire file in memory.
+     *
+     * @param document the document
+     * @param appendable where the formatted content is written
+     * @throws IOException if the appendable throws an exception
+     */
+    default void writeFormattedContent(Document document, Appendable appendable) throws IOException {
+        appendable.append(getFormattedContent(document));
+    }
 }
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.CompilationUnitVisitor;
@@ -30,6 +32,10 @@ import org.mybatis.generator.config.Context;
  * This class is the default formatter for generated Java.  This class will use the
  * built in DOM renderers.
  *
+ * <p>Subclasses that override the <code>visit</code> methods should also override
+ * {@link #writeFormattedContent(CompilationUnit, Appendable)}, which renders directly to the
+ * appendable.
+ *
  * @author Jeff Butler
  *
  */
@@ -41,6 +47,19 @@ public class DefaultJavaFormatter implements JavaFormatter, CompilationUnitVisit
         return compilationUnit.accept(this);
     }
 
+    @Override
+    public void writeFormattedContent(CompilationUnit compilationUnit, Appendable appendable) throws IOException {
+        if (compilationUnit instanceof TopLevelClass) {
+            new TopLevelClassRenderer().render((TopLevelClass) compilationUnit, appendable);
+        } else if (compilationUnit instanceof TopLevelEnumeration) {
+            new TopLevelEnumerationRenderer().render((TopLevelEnumeration) compilationUnit, appendable);
+        } else if (compilationUnit instanceof Interface) {
+            new TopLevelInterfaceRenderer().render((Interface) compilationUnit, appendable);
+        } else {
+            JavaFormatter.super.writeFormattedContent(compilationUnit, appendable);
+        }
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.KotlinFormatter;
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 import org.mybatis.generator.api.dom.kotlin.render.KotlinFileRenderer;
@@ -24,6 +26,9 @@ import org.mybatis.generator.config.Context;
  * This class is the default formatter for generated Kotlin.  This class will use the
  * built in DOM renderers.
  *
+ * <p>Subclasses that override {@link #getFormattedContent(KotlinFile)} should also override
+ * {@link #writeFormattedContent(KotlinFile, Appendable)}, which renders directly to the appendable.
+ *
  * @author Jeff Butler
  *
  */
@@ -35,6 +40,11 @@ public class DefaultKotlinFormatter implements KotlinFormatter {
         return new KotlinFileRenderer().render(kotlinFile);
     }
 
+    @Override
+    public void writeFormattedContent(KotlinFile kotlinFile, Appendable appendable) throws IOException {
+        new KotlinFileRenderer().render(kotlinFile, appendable);
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
@@ -24,6 +26,9 @@ import org.mybatis.generator.config.Context;
  * This class is the default formatter for generated XML.  This class will use the
  * built in document renderer.
  *
+ * <p>Subclasses that override {@link #getFormattedContent(Document)} should also override
+ * {@link #writeFormattedContent(Document, Appendable)}, which renders directly to the appendable.
+ *
  * @author Jeff Butler
  *
  */
@@ -35,6 +40,11 @@ public class DefaultXmlFormatter implements XmlFormatter {
         return new DocumentRenderer().render(document);
     }
 
+    @Override
+    public void writeFormattedContent(Document document, Appendable appendable) throws IOException {
+        new DocumentRenderer().render(document, appendable);
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
@@ -19,7 +19,9 @@ import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.rende
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderInnerEnumNoIndent;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderPackage;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderStaticImports;
+import static org.mybatis.generator.internal.util.RenderingUtility.appendLines;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +31,24 @@ import org.mybatis.generator.api.dom.java.TopLevelEnumeration;
 public class TopLevelEnumerationRenderer {
 
     public String render(TopLevelEnumeration topLevelEnumeration) {
+        return renderLines(topLevelEnumeration).stream()
+                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    }
+
+    /**
+     * Renders the compilation unit to an appendable. The output is the same as the value returned from
+     * {@link #render(TopLevelEnumeration)}, but the rendered lines are written one at a time instead of being joined
+     * into a single string.
+     *
+     * @param topLevelEnumeration the compilation unit
+     * @param appendable where the rendered lines are written
+     * @throws IOException if the appendable throws an exception
+     */
+    public void render(TopLevelEnumeration topLevelEnumeration, Appendable appendable) throws IOException {
+        appendLines(renderLines(topLevelEnumeration).iterator(), appendable);
+    }
+
+    private List<String> renderLines(TopLevelEnumeration topLevelEnumeration) {
         List<String> lines = new ArrayList<>();
 
         lines.addAll(topLevelEnumeration.getFileCommentLines());
@@ -37,7 +57,6 @@ public class TopLevelEnumerationRenderer {
         lines.addAll(renderImports(topLevelEnumeration));
         lines.addAll(renderInnerEnumNoIndent(topLevelEnumeration, topLevelEnumeration));
 
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+        return lines;
     }
 }
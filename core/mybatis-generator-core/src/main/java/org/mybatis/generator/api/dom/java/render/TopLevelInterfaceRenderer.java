@@ -19,7 +19,9 @@ import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.rende
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderInnerInterfaceNoIndent;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderPackage;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderStaticImports;
+import static org.mybatis.generator.internal.util.RenderingUtility.appendLines;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,6 +31,24 @@ import org.mybatis.generator.api.dom.java.Interface;
 public class TopLevelInterfaceRenderer {
 
     public String render(Interface topLevelInterface) {
+        return renderLines(topLevelInterface).stream()
+                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    }
+
+    /**
+     * Renders the compilation unit to an appendable. The output is the same as the value returned from
+     * {@link #render(Interface)}, but the rendered lines are written one at a time instead of being joined
+     * into a single string.
+     *
+     * @param topLevelInterface the compilation unit
+     * @param appendable where the rendered lines are written
+     * @throws IOException if the appendable throws an exception
+     */
+    public void render(Interface topLevelInterface, Appendable appendable) throws IOException {
+        appendLines(renderLines(topLevelInterface).iterator(), appendable);
+    }
+
+    private List<String> renderLines(Interface topLevelInterface) {
         List<String> lines = new ArrayList<>();
 
         lines.addAll(topLevelInterface.getFileCommentLines());
@@ -37,7 +57,6 @@ public class TopLevelInterfaceRenderer {
         lines.addAll(renderImports(topLevelInterface));
         lines.addAll(renderInnerInterfaceNoIndent(topLevelInterface, topLevelInterface));
 
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+        return lines;
     }
 }
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api.dom.kotlin.render;
 
+import static org.mybatis.generator.internal.util.RenderingUtility.appendLines;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,6 +28,24 @@ import org.mybatis.generator.api.dom.kotlin.KotlinNamedItem;
 public class KotlinFileRenderer {
 
     public String render(KotlinFile kotlinFile) {
+        return renderLines(kotlinFile).stream()
+                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    }
+
+    /**
+     * Renders the file to an appendable. The output is the same as the value returned from
+     * {@link #render(KotlinFile)}, but the rendered lines are written one at a time instead of being
+     * joined into a single string.
+     *
+     * @param kotlinFile the file
+     * @param appendable where the rendered lines are written
+     * @throws IOException if the appendable throws an exception
+     */
+    public void render(KotlinFile kotlinFile, Appendable appendable) throws IOException {
+        appendLines(renderLines(kotlinFile).iterator(), appendable);
+    }
+
+    private List<String> renderLines(KotlinFile kotlinFile) {
         List<String> lines = new ArrayList<>();
         KotlinNamedItemRenderer renderer = new KotlinNamedItemRenderer();
 
@@ -37,8 +58,7 @@ public class KotlinFileRenderer {
         }
 
         lines.addAll(0, kotlinFile.getFileCommentLines());
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+        return lines;
     }
 
     private List<String> prependBlankLineIfNotEmpty(int currentLength, List<String> in) {
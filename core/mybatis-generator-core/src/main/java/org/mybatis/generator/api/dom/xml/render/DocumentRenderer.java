@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api.dom.xml.render;
 
+import static org.mybatis.generator.internal.util.RenderingUtility.appendLines;
+
+import java.io.IOException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,11 +28,28 @@ import org.mybatis.generator.api.dom.xml.Document;
 public class DocumentRenderer {
 
     public String render(Document document) {
+        return renderLines(document)
+                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    }
+
+    /**
+     * Renders the document to an appendable. The output is the same as the value returned from
+     * {@link #render(Document)}, but lines are written as the elements are rendered, so the
+     * document is never held in memory as a single string.
+     *
+     * @param document the document
+     * @param appendable where the rendered lines are written
+     * @throws IOException if the appendable throws an exception
+     */
+    public void render(Document document, Appendable appendable) throws IOException {
+        appendLines(renderLines(document).iterator(), appendable);
+    }
+
+    private Stream<String> renderLines(Document document) {
         return Stream.of(renderXmlHeader(),
                 renderDocType(document),
                 renderRootElement(document))
-                .flatMap(Function.identity())
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+                .flatMap(Function.identity());
     }
 
     private Stream<String> renderXmlHeader() {
@@ -27,6 +27,8 @@ import java.util.Map;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.ComponentFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 
 /**
@@ -43,7 +45,26 @@ public class RootClassInfo {
     }
 
     public static RootClassInfo getInstance(String className, List<String> warnings) {
-        return rootClassInfoMap.computeIfAbsent(className, k -> new RootClassInfo(k, warnings));
+        return rootClassInfoMap.computeIfAbsent(className, k -> new RootClassInfo(k, warnings, null));
+    }
+
+    /**
+     * Returns the root class info for a class loaded with the component factory of a context. The info is
+     * cached in the component factory, so it is shared by all contexts of a generation run and is discarded
+     * with the run.
+     *
+     * @param context the context
+     * @param className the class name
+     * @param warnings the warnings list
+     * @return the root class info
+     */
+    public static RootClassInfo getInstance(Context context, String className, List<String> warnings) {
+        ComponentFactory componentFactory = context.getComponentFactory();
+        if (className == null) {
+            return new RootClassInfo(null, warnings, componentFactory);
+        }
+        return componentFactory.getRootClassInfoCache().computeIfAbsent(className,
+                k -> new RootClassInfo(k, warnings, componentFactory));
     }
 
     /**
@@ -62,7 +83,7 @@ public class RootClassInfo {
     private final List<String> warnings;
     private boolean genericMode = false;
 
-    private RootClassInfo(String className, List<String> warnings) {
+    private RootClassInfo(String className, List<String> warnings, ComponentFactory componentFactory) {
         super();
         this.className = className;
         this.warnings = warnings;
@@ -78,7 +99,8 @@ public class RootClassInfo {
         }
 
         try {
-            Class<?> clazz = ObjectFactory.externalClassForName(nameWithoutGenerics);
+            Class<?> clazz = componentFactory == null ? ObjectFactory.externalClassForName(nameWithoutGenerics)
+                    : componentFactory.externalClassForName(nameWithoutGenerics);
             BeanInfo bi = Introspector.getBeanInfo(clazz);
             propertyDescriptors = bi.getPropertyDescriptors();
         } catch (Exception e) {
@@ -24,7 +24,6 @@ import org.mybatis.generator.codegen.mybatis3.javamapper.SimpleAnnotatedClientGe
 import org.mybatis.generator.codegen.mybatis3.javamapper.SimpleJavaClientGenerator;
 import org.mybatis.generator.codegen.mybatis3.model.SimpleModelGenerator;
 import org.mybatis.generator.codegen.mybatis3.xmlmapper.SimpleXMLMapperGenerator;
-import org.mybatis.generator.internal.ObjectFactory;
 
 /**
  * Introspected table implementation for generating simple MyBatis3 artifacts (no "by example" methods,
@@ -69,7 +68,7 @@ public class IntrospectedTableMyBatis3SimpleImpl extends IntrospectedTableMyBati
         } else if ("MAPPER".equalsIgnoreCase(type)) { //$NON-NLS-1$
             javaGenerator = new SimpleJavaClientGenerator(getClientProject());
         } else {
-            javaGenerator = (AbstractJavaClientGenerator) ObjectFactory.createInternalObject(type);
+            javaGenerator = (AbstractJavaClientGenerator) context.getComponentFactory().createInternalObject(type);
         }
 
         return javaGenerator;
@@ -15,18 +15,41 @@
  */
 package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractGenerator;
+import org.mybatis.generator.config.PropertyRegistry;
 
 public abstract class AbstractJavaProviderMethodGenerator extends AbstractGenerator {
 
     protected static final FullyQualifiedJavaType BUILDER_IMPORT =
             new FullyQualifiedJavaType("org.apache.ibatis.jdbc.SQL"); //$NON-NLS-1$
 
+    protected static final String SQL_CACHE_LIMIT_FIELD = "SQL_CACHE_LIMIT"; //$NON-NLS-1$
+
+    /**
+     * The number of statements each SQL cache holds. Keys beyond the limit still work, but their SQL
+     * is built on every call.
+     */
+    protected static final int SQL_CACHE_LIMIT = 256;
+
+    /**
+     * Selective statements with more optional columns than bits in a long are not memoized.
+     */
+    protected static final int MAX_MEMOIZED_COLUMNS = 64;
+
     protected AbstractJavaProviderMethodGenerator() {
         super();
     }
@@ -51,5 +74,147 @@ public abstract class AbstractJavaProviderMethodGenerator extends AbstractGenera
         return importedTypes;
     }
 
+    /**
+     * Returns true if the provider methods should cache the SQL they build. The property can be set on the
+     * java client generator and overridden per table.
+     *
+     * @return true if SQL should be memoized
+     */
+    protected boolean isMemoizeSql() {
+        String property = introspectedTable.getTableConfigurationProperty(
+                PropertyRegistry.CLIENT_MEMOIZE_PROVIDER_SQL);
+        if (property == null && context.getJavaClientGeneratorConfiguration() != null) {
+            property = context.getJavaClientGeneratorConfiguration().getProperty(
+                    PropertyRegistry.CLIENT_MEMOIZE_PROVIDER_SQL);
+        }
+        return isTrue(property);
+    }
+
+    /**
+     * Adds a static cache of SQL strings to the provider class. The size of every cache is limited by the
+     * SQL_CACHE_LIMIT field, which is added with the first cache.
+     *
+     * @param topLevelClass
+     *            the provider class
+     * @param importedTypes
+     *            the types imported with the method that uses the cache
+     * @param fieldName
+     *            the name of the cache field
+     * @param keyType
+     *            the fully qualified type of the cache key
+     */
+    protected void addSqlCacheField(TopLevelClass topLevelClass, Set<FullyQualifiedJavaType> importedTypes,
+            String fieldName, String keyType) {
+        if (topLevelClass.getFields().stream().noneMatch(f -> SQL_CACHE_LIMIT_FIELD.equals(f.getName()))) {
+            Field field = new Field(SQL_CACHE_LIMIT_FIELD, FullyQualifiedJavaType.getIntInstance());
+            field.setVisibility(JavaVisibility.PRIVATE);
+            field.setStatic(true);
+            field.setFinal(true);
+            field.setInitializationString(Integer.toString(SQL_CACHE_LIMIT));
+            context.getCommentGenerator().addFieldComment(field, introspectedTable);
+            topLevelClass.addField(field);
+        }
+
+        Field field = new Field(fieldName, new FullyQualifiedJavaType(
+                String.format("java.util.Map<%s, java.lang.String>", keyType))); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString("new ConcurrentHashMap<>()"); //$NON-NLS-1$
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        importedTypes.add(new FullyQualifiedJavaType("java.util.Map")); //$NON-NLS-1$
+        importedTypes.add(new FullyQualifiedJavaType("java.util.concurrent.ConcurrentHashMap")); //$NON-NLS-1$
+    }
+
+    /**
+     * Adds lines that return the cached SQL for a key, or build the SQL and cache it if there is room in the
+     * cache. The lines leave the SQL in a local variable named "sql".
+     *
+     * @param method
+     *            the method to add the lines to
+     * @param fieldName
+     *            the name of the cache field
+     * @param keyVariable
+     *            the name of the local variable that holds the key
+     * @param builderCall
+     *            the expression that builds the SQL if it is not cached
+     */
+    protected void addCachedSqlLines(Method method, String fieldName, String keyVariable, String builderCall) {
+        method.addBodyLine(String.format("String sql = %s.get(%s);", fieldName, keyVariable)); //$NON-NLS-1$
+        method.addBodyLine("if (sql == null) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sql = %s;", builderCall)); //$NON-NLS-1$
+        method.addBodyLine(String.format("if (%s.size() < %s) {", //$NON-NLS-1$
+                fieldName, SQL_CACHE_LIMIT_FIELD));
+        method.addBodyLine(String.format("%s.put(%s, sql);", fieldName, keyVariable)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+    }
+
+    /**
+     * Creates a method that builds the SQL of a memoized method for a key. The method is named after the
+     * memoized method with "Sql" appended.
+     *
+     * @param method
+     *            the memoized method
+     * @return the builder method, without body lines
+     */
+    protected Method createSqlBuilderMethod(Method method) {
+        Method builderMethod = new Method(method.getName() + "Sql"); //$NON-NLS-1$
+        builderMethod.setVisibility(JavaVisibility.PROTECTED);
+        builderMethod.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        builderMethod.addParameter(new Parameter(new FullyQualifiedJavaType("long"), "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(builderMethod, introspectedTable);
+        return builderMethod;
+    }
+
+    /**
+     * Adds lines that calculate a key with one bit for every optional column that is not null in the row.
+     *
+     * @param method
+     *            the method to add the lines to
+     * @param optionalColumns
+     *            the columns that are only in the statement if the property is not null
+     */
+    protected void addKeyLines(Method method, List<IntrospectedColumn> optionalColumns) {
+        method.addBodyLine("long key = 0L;"); //$NON-NLS-1$
+        for (int i = 0; i < optionalColumns.size(); i++) {
+            IntrospectedColumn introspectedColumn = optionalColumns.get(i);
+            method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
+                    getGetterMethodName(introspectedColumn.getJavaProperty(),
+                            introspectedColumn.getFullyQualifiedJavaType())));
+            method.addBodyLine(String.format("key |= 1L << %d;", i)); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        method.addBodyLine(""); //$NON-NLS-1$
+    }
+
+    protected String calculateKeyTest(List<IntrospectedColumn> optionalColumns,
+            IntrospectedColumn introspectedColumn) {
+        return String.format("if ((key & (1L << %d)) != 0) {", //$NON-NLS-1$
+                optionalColumns.indexOf(introspectedColumn));
+    }
+
+    /**
+     * Calculates the name of the SQL cache field for a statement. For example, "insertSelective" becomes
+     * "INSERT_SELECTIVE_SQL".
+     *
+     * @param statementId
+     *            the statement id
+     * @return the field name
+     */
+    protected String calculateSqlCacheFieldName(String statementId) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : statementId.toCharArray()) {
+            if (Character.isUpperCase(c) && sb.length() > 0) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(c));
+        }
+        sb.append("_SQL"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
     public abstract void addClassElements(TopLevelClass topLevelClass);
 }
@@ -32,8 +32,20 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
 
 public class ProviderApplyWhereMethodGenerator extends AbstractJavaProviderMethodGenerator {
 
+    /**
+     * The where clause cache is shared by all example methods of the provider, so the statement id of a
+     * method is not used for the field name.
+     */
+    private static final String WHERE_CLAUSE_CACHE_FIELD = "WHERE_CLAUSE_SQL"; //$NON-NLS-1$
+
     private static final List<String> METHOD_LINES = getMethodLines();
 
+    private static final List<String> WHERE_CLAUSE_METHOD_LINES =
+            getMethodLines("WhereClauseMethod.txt"); //$NON-NLS-1$
+
+    private static final List<String> WHERE_CLAUSE_SQL_METHOD_LINES =
+            getMethodLines("WhereClauseSqlMethod.txt"); //$NON-NLS-1$
+
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
         Set<FullyQualifiedJavaType> importedTypes = initializeImportedTypes("java.util.List"); //$NON-NLS-1$
@@ -54,19 +66,63 @@ public class ProviderApplyWhereMethodGenerator extends AbstractJavaProviderMetho
 
         context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
 
-        METHOD_LINES.forEach(method::addBodyLine);
+        if (!isMemoizeSql()) {
+            METHOD_LINES.forEach(method::addBodyLine);
+
+            if (context.getPlugins().providerApplyWhereMethodGenerated(method, topLevelClass, introspectedTable)) {
+                topLevelClass.addImportedTypes(importedTypes);
+                topLevelClass.addMethod(method);
+            }
+            return;
+        }
+
+        // the where clause is cached by the shape of the criteria, applyWhere only adds it to the SQL
+        method.addBodyLine("String where = whereClause(example, includeExamplePhrase);"); //$NON-NLS-1$
+        method.addBodyLine("if (where.length() > 0) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.WHERE(where);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+
+        Method whereClauseMethod = createWhereClauseMethod("whereClause", fqjt); //$NON-NLS-1$
+        WHERE_CLAUSE_METHOD_LINES.forEach(whereClauseMethod::addBodyLine);
+        whereClauseMethod.addBodyLine(""); //$NON-NLS-1$
+        addCachedSqlLines(whereClauseMethod, WHERE_CLAUSE_CACHE_FIELD, "key", //$NON-NLS-1$
+                "whereClauseSql(example, includeExamplePhrase)"); //$NON-NLS-1$
+        whereClauseMethod.addBodyLine("return sql;"); //$NON-NLS-1$
+
+        Method whereClauseSqlMethod = createWhereClauseMethod("whereClauseSql", fqjt); //$NON-NLS-1$
+        WHERE_CLAUSE_SQL_METHOD_LINES.forEach(whereClauseSqlMethod::addBodyLine);
 
         if (context.getPlugins().providerApplyWhereMethodGenerated(method, topLevelClass, introspectedTable)) {
+            importedTypes.add(FullyQualifiedJavaType.getNewArrayListInstance());
+            addSqlCacheField(topLevelClass, importedTypes, WHERE_CLAUSE_CACHE_FIELD,
+                    "java.util.List<java.lang.Object>"); //$NON-NLS-1$
             topLevelClass.addImportedTypes(importedTypes);
             topLevelClass.addMethod(method);
+            topLevelClass.addMethod(whereClauseMethod);
+            topLevelClass.addMethod(whereClauseSqlMethod);
         }
     }
 
+    private Method createWhereClauseMethod(String name, FullyQualifiedJavaType exampleType) {
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(exampleType, "example")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(),
+                "includeExamplePhrase")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        return method;
+    }
+
     protected static List<String> getMethodLines() {
+        return getMethodLines("ApplyWhereMethod.txt"); //$NON-NLS-1$
+    }
+
+    protected static List<String> getMethodLines(String resourceName) {
         List<String> answer = new ArrayList<>();
 
         InputStream is =
-                ProviderApplyWhereMethodGenerator.class.getResourceAsStream("ApplyWhereMethod.txt"); //$NON-NLS-1$
+                ProviderApplyWhereMethodGenerator.class.getResourceAsStream(resourceName);
         try (BufferedReader br = new BufferedReader(new InputStreamReader(Objects.requireNonNull(is)))) {
             String line;
             boolean foundDelimiter = false;
@@ -78,7 +134,7 @@ public class ProviderApplyWhereMethodGenerator extends AbstractJavaProviderMetho
                 }
             }
         } catch (IOException e) {
-            throw new RuntimeException("IOException reading ApplyWhere method lines", e); //$NON-NLS-1$
+            throw new RuntimeException("IOException reading " + resourceName + " method lines", e); //$NON-NLS-1$ //$NON-NLS-2$
         }
 
         return answer;
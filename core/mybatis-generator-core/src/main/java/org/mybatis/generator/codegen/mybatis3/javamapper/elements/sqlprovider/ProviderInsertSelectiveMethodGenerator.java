@@ -20,7 +20,9 @@ import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -44,37 +46,77 @@ public class ProviderInsertSelectiveMethodGenerator extends AbstractJavaProvider
 
         context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
 
+        List<IntrospectedColumn> columns =
+                ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        List<IntrospectedColumn> optionalColumns = columns.stream()
+                .filter(this::isOptional)
+                .collect(Collectors.toList());
+
+        Method builderMethod = null;
+        if (isMemoizeSql() && optionalColumns.size() <= MAX_MEMOIZED_COLUMNS) {
+            builderMethod = createSqlBuilderMethod(method);
+            addSqlLines(builderMethod, columns, optionalColumns);
+
+            addKeyLines(method, optionalColumns);
+            addCachedSqlLines(method, calculateSqlCacheFieldName(method.getName()), "key", //$NON-NLS-1$
+                    builderMethod.getName() + "(key)"); //$NON-NLS-1$
+            method.addBodyLine("return sql;"); //$NON-NLS-1$
+        } else {
+            addSqlLines(method, columns, null);
+        }
+
+        if (context.getPlugins().providerInsertSelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
+            if (builderMethod != null) {
+                addSqlCacheField(topLevelClass, importedTypes, calculateSqlCacheFieldName(method.getName()),
+                        "java.lang.Long"); //$NON-NLS-1$
+            }
+            topLevelClass.addImportedTypes(importedTypes);
+            topLevelClass.addMethod(method);
+            if (builderMethod != null) {
+                topLevelClass.addMethod(builderMethod);
+            }
+        }
+    }
+
+    private boolean isOptional(IntrospectedColumn introspectedColumn) {
+        return !introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
+                && !introspectedColumn.isSequenceColumn();
+    }
+
+    /**
+     * Adds the lines that build the statement. If the optional columns are given, the lines test the bits of
+     * the key instead of the properties of the row.
+     */
+    private void addSqlLines(Method method, List<IntrospectedColumn> columns,
+            List<IntrospectedColumn> optionalColumns) {
         method.addBodyLine("SQL sql = new SQL();"); //$NON-NLS-1$
 
         method.addBodyLine(String.format("sql.INSERT_INTO(\"%s\");", //$NON-NLS-1$
                 escapeStringForJava(introspectedTable.getFullyQualifiedTableNameAtRuntime())));
 
-        for (IntrospectedColumn introspectedColumn :
-                ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
+        for (IntrospectedColumn introspectedColumn : columns) {
 
             method.addBodyLine(""); //$NON-NLS-1$
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
-                    && !introspectedColumn.isSequenceColumn()) {
-                method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
-                        getGetterMethodName(introspectedColumn.getJavaProperty(),
-                                introspectedColumn.getFullyQualifiedJavaType())));
+            boolean optional = isOptional(introspectedColumn);
+            if (optional) {
+                if (optionalColumns == null) {
+                    method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
+                            getGetterMethodName(introspectedColumn.getJavaProperty(),
+                                    introspectedColumn.getFullyQualifiedJavaType())));
+                } else {
+                    method.addBodyLine(calculateKeyTest(optionalColumns, introspectedColumn));
+                }
             }
             method.addBodyLine(String.format("sql.VALUES(\"%s\", \"%s\");", //$NON-NLS-1$
                     escapeStringForJava(getEscapedColumnName(introspectedColumn)),
                     getParameterClause(introspectedColumn)));
 
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()
-                    && !introspectedColumn.isSequenceColumn()) {
+            if (optional) {
                 method.addBodyLine("}"); //$NON-NLS-1$
             }
         }
 
         method.addBodyLine(""); //$NON-NLS-1$
         method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
-
-        if (context.getPlugins().providerInsertSelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
-            topLevelClass.addImportedTypes(importedTypes);
-            topLevelClass.addMethod(method);
-        }
     }
 }
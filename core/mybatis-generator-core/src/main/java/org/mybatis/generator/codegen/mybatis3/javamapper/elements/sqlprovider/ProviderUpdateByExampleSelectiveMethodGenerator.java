@@ -20,7 +20,9 @@ import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -57,18 +59,70 @@ public class ProviderUpdateByExampleSelectiveMethodGenerator extends AbstractJav
 
         method.addBodyLine(""); //$NON-NLS-1$
 
+        List<IntrospectedColumn> columns =
+                ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        List<IntrospectedColumn> optionalColumns = columns.stream()
+                .filter(c -> !c.getFullyQualifiedJavaType().isPrimitive())
+                .collect(Collectors.toList());
+
+        Method builderMethod = null;
+        if (isMemoizeSql() && optionalColumns.size() <= MAX_MEMOIZED_COLUMNS) {
+            // the where clause is memoized by applyWhere, so the cache key is the set
+            // of columns and the where clause
+            builderMethod = createSqlBuilderMethod(method);
+            builderMethod.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "where")); //$NON-NLS-1$
+            addSqlLines(builderMethod, columns, optionalColumns);
+
+            addKeyLines(method, optionalColumns);
+            method.addBodyLine("String where = whereClause(example, true);"); //$NON-NLS-1$
+            method.addBodyLine("List<Object> cacheKey = Arrays.asList(key, where);"); //$NON-NLS-1$
+            method.addBodyLine(""); //$NON-NLS-1$
+            addCachedSqlLines(method, calculateSqlCacheFieldName(method.getName()), "cacheKey", //$NON-NLS-1$
+                    builderMethod.getName() + "(key, where)"); //$NON-NLS-1$
+            method.addBodyLine("return sql;"); //$NON-NLS-1$
+        } else {
+            addSqlLines(method, columns, null);
+        }
+
+        if (context.getPlugins()
+                .providerUpdateByExampleSelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
+            if (builderMethod != null) {
+                importedTypes.add(new FullyQualifiedJavaType("java.util.Arrays")); //$NON-NLS-1$
+                importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
+                addSqlCacheField(topLevelClass, importedTypes, calculateSqlCacheFieldName(method.getName()),
+                        "java.util.List<java.lang.Object>"); //$NON-NLS-1$
+            }
+            topLevelClass.addImportedTypes(importedTypes);
+            topLevelClass.addMethod(method);
+            if (builderMethod != null) {
+                topLevelClass.addMethod(builderMethod);
+            }
+        }
+    }
+
+    /**
+     * Adds the lines that build the statement. If the optional columns are given, the lines test the bits of
+     * the key instead of the properties of the row, and add the where clause parameter instead of applying
+     * the example.
+     */
+    private void addSqlLines(Method method, List<IntrospectedColumn> columns,
+            List<IntrospectedColumn> optionalColumns) {
         method.addBodyLine("SQL sql = new SQL();"); //$NON-NLS-1$
 
         method.addBodyLine(String.format("sql.UPDATE(\"%s\");", //$NON-NLS-1$
                 escapeStringForJava(introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime())));
         method.addBodyLine(""); //$NON-NLS-1$
 
-        for (IntrospectedColumn introspectedColumn :
-                ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns())) {
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
-                method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
-                        getGetterMethodName(introspectedColumn.getJavaProperty(),
-                                introspectedColumn.getFullyQualifiedJavaType())));
+        for (IntrospectedColumn introspectedColumn : columns) {
+            boolean optional = !introspectedColumn.getFullyQualifiedJavaType().isPrimitive();
+            if (optional) {
+                if (optionalColumns == null) {
+                    method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
+                            getGetterMethodName(introspectedColumn.getJavaProperty(),
+                                    introspectedColumn.getFullyQualifiedJavaType())));
+                } else {
+                    method.addBodyLine(calculateKeyTest(optionalColumns, introspectedColumn));
+                }
             }
 
             StringBuilder sb = new StringBuilder();
@@ -79,20 +133,20 @@ public class ProviderUpdateByExampleSelectiveMethodGenerator extends AbstractJav
                     escapeStringForJava(getAliasedEscapedColumnName(introspectedColumn)),
                     sb.toString()));
 
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            if (optional) {
                 method.addBodyLine("}"); //$NON-NLS-1$
             }
 
             method.addBodyLine(""); //$NON-NLS-1$
         }
 
-        method.addBodyLine("applyWhere(sql, example, true);"); //$NON-NLS-1$
-        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
-
-        if (context.getPlugins()
-                .providerUpdateByExampleSelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
-            topLevelClass.addImportedTypes(importedTypes);
-            topLevelClass.addMethod(method);
+        if (optionalColumns == null) {
+            method.addBodyLine("applyWhere(sql, example, true);"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("if (where.length() > 0) {"); //$NON-NLS-1$
+            method.addBodyLine("sql.WHERE(where);"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
         }
+        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
     }
 }
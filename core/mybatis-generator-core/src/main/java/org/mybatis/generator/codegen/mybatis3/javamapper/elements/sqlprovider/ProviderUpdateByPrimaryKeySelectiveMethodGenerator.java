@@ -20,7 +20,9 @@ import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
 import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -44,25 +46,68 @@ public class ProviderUpdateByPrimaryKeySelectiveMethodGenerator extends Abstract
 
         context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
 
+        List<IntrospectedColumn> columns =
+                ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
+        List<IntrospectedColumn> optionalColumns = columns.stream()
+                .filter(c -> !c.getFullyQualifiedJavaType().isPrimitive())
+                .collect(Collectors.toList());
+
+        Method builderMethod = null;
+        if (isMemoizeSql() && optionalColumns.size() <= MAX_MEMOIZED_COLUMNS) {
+            builderMethod = createSqlBuilderMethod(method);
+            addSqlLines(builderMethod, columns, optionalColumns);
+
+            addKeyLines(method, optionalColumns);
+            addCachedSqlLines(method, calculateSqlCacheFieldName(method.getName()), "key", //$NON-NLS-1$
+                    builderMethod.getName() + "(key)"); //$NON-NLS-1$
+            method.addBodyLine("return sql;"); //$NON-NLS-1$
+        } else {
+            addSqlLines(method, columns, null);
+        }
+
+        if (context.getPlugins()
+                .providerUpdateByPrimaryKeySelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
+            if (builderMethod != null) {
+                addSqlCacheField(topLevelClass, importedTypes, calculateSqlCacheFieldName(method.getName()),
+                        "java.lang.Long"); //$NON-NLS-1$
+            }
+            topLevelClass.addImportedTypes(importedTypes);
+            topLevelClass.addMethod(method);
+            if (builderMethod != null) {
+                topLevelClass.addMethod(builderMethod);
+            }
+        }
+    }
+
+    /**
+     * Adds the lines that build the statement. If the optional columns are given, the lines test the bits of
+     * the key instead of the properties of the row.
+     */
+    private void addSqlLines(Method method, List<IntrospectedColumn> columns,
+            List<IntrospectedColumn> optionalColumns) {
         method.addBodyLine("SQL sql = new SQL();"); //$NON-NLS-1$
 
         method.addBodyLine(String.format("sql.UPDATE(\"%s\");", //$NON-NLS-1$
                 escapeStringForJava(introspectedTable.getFullyQualifiedTableNameAtRuntime())));
         method.addBodyLine(""); //$NON-NLS-1$
 
-        for (IntrospectedColumn introspectedColumn :
-                ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns())) {
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
-                method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
-                        getGetterMethodName(introspectedColumn.getJavaProperty(),
-                                introspectedColumn.getFullyQualifiedJavaType())));
+        for (IntrospectedColumn introspectedColumn : columns) {
+            boolean optional = !introspectedColumn.getFullyQualifiedJavaType().isPrimitive();
+            if (optional) {
+                if (optionalColumns == null) {
+                    method.addBodyLine(String.format("if (row.%s() != null) {", //$NON-NLS-1$
+                            getGetterMethodName(introspectedColumn.getJavaProperty(),
+                                    introspectedColumn.getFullyQualifiedJavaType())));
+                } else {
+                    method.addBodyLine(calculateKeyTest(optionalColumns, introspectedColumn));
+                }
             }
 
             method.addBodyLine(String.format("sql.SET(\"%s = %s\");", //$NON-NLS-1$
                     escapeStringForJava(getEscapedColumnName(introspectedColumn)),
                     getParameterClause(introspectedColumn)));
 
-            if (!introspectedColumn.getFullyQualifiedJavaType().isPrimitive()) {
+            if (optional) {
                 method.addBodyLine("}"); //$NON-NLS-1$
             }
 
@@ -78,11 +123,5 @@ public class ProviderUpdateByPrimaryKeySelectiveMethodGenerator extends Abstract
         method.addBodyLine(""); //$NON-NLS-1$
 
         method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
-
-        if (context.getPlugins()
-                .providerUpdateByPrimaryKeySelectiveMethodGenerated(method, topLevelClass, introspectedTable)) {
-            topLevelClass.addImportedTypes(importedTypes);
-            topLevelClass.addMethod(method);
-        }
     }
 }
@@ -79,7 +79,7 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
 
         String rootClass = getRootClass();
         for (IntrospectedColumn introspectedColumn : introspectedColumns) {
-            if (RootClassInfo.getInstance(rootClass, warnings).containsProperty(introspectedColumn)) {
+            if (RootClassInfo.getInstance(context, rootClass, warnings).containsProperty(introspectedColumn)) {
                 continue;
             }
 
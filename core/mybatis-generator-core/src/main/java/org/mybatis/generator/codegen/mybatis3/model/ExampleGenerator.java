@@ -16,12 +16,15 @@
 package org.mybatis.generator.codegen.mybatis3.model;
 
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.FullyQualifiedTable;
@@ -35,8 +38,11 @@ import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.java.TypeParameter;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.StringUtility;
 
 public class ExampleGenerator extends AbstractJavaGenerator {
 
@@ -164,12 +170,17 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         topLevelClass.addMethod(method);
 
         // now generate the inner class that holds the AND conditions
-        topLevelClass.addInnerClass(getGeneratedCriteriaInnerClass(topLevelClass));
+        boolean compact = isCompactExample();
+        topLevelClass.addInnerClass(getGeneratedCriteriaInnerClass(topLevelClass, compact));
 
         topLevelClass.addInnerClass(getCriteriaInnerClass());
 
         topLevelClass.addInnerClass(getCriterionInnerClass());
 
+        if (compact) {
+            addColumnInnerClasses(topLevelClass);
+        }
+
         List<CompilationUnit> answer = new ArrayList<>();
         if (context.getPlugins().modelExampleClassGenerated(topLevelClass, introspectedTable)) {
             answer.add(topLevelClass);
@@ -300,7 +311,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         return answer;
     }
 
-    private InnerClass getGeneratedCriteriaInnerClass(TopLevelClass topLevelClass) {
+    private InnerClass getGeneratedCriteriaInnerClass(TopLevelClass topLevelClass, boolean compact) {
         Field field;
 
         InnerClass answer = new InnerClass(FullyQualifiedJavaType.getGeneratedCriteriaInstance());
@@ -310,25 +321,25 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         answer.setAbstract(true);
         context.getCommentGenerator().addClassComment(answer, introspectedTable);
 
-        Method method = new Method("GeneratedCriteria"); //$NON-NLS-1$
-        method.setVisibility(JavaVisibility.PROTECTED);
-        method.setConstructor(true);
-        method.addBodyLine("super();"); //$NON-NLS-1$
-        method.addBodyLine("criteria = new ArrayList<>();"); //$NON-NLS-1$
-        answer.addMethod(method);
+        Method constructor = new Method("GeneratedCriteria"); //$NON-NLS-1$
+        constructor.setVisibility(JavaVisibility.PROTECTED);
+        constructor.setConstructor(true);
+        constructor.addBodyLine("super();"); //$NON-NLS-1$
+        constructor.addBodyLine("criteria = new ArrayList<>();"); //$NON-NLS-1$
+        answer.addMethod(constructor);
 
         List<String> criteriaLists = new ArrayList<>();
         criteriaLists.add("criteria"); //$NON-NLS-1$
 
         for (IntrospectedColumn introspectedColumn : introspectedTable.getNonBLOBColumns()) {
             if (stringHasValue(introspectedColumn.getTypeHandler())) {
-                String name = addTypeHandledObjectsAndMethods(introspectedColumn, method, answer);
+                String name = addTypeHandledObjectsAndMethods(introspectedColumn, constructor, answer, compact);
                 criteriaLists.add(name);
             }
         }
 
         // now generate the isValid method
-        method = new Method("isValid"); //$NON-NLS-1$
+        Method method = new Method("isValid"); //$NON-NLS-1$
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
         StringBuilder sb = new StringBuilder();
@@ -441,6 +452,13 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         }
         answer.addMethod(method);
 
+        if (compact) {
+            // the column handles replace the add methods for JDBC dates and times, and the
+            // individual condition methods for each column
+            addColumnFields(topLevelClass, constructor, answer);
+            return answer;
+        }
+
         FullyQualifiedJavaType listOfDates =
                 new FullyQualifiedJavaType("java.util.List<java.util.Date>"); //$NON-NLS-1$
 
@@ -782,10 +800,12 @@ public class ExampleGenerator extends AbstractJavaGenerator {
      * @param introspectedColumn the introspected column
      * @param constructor the constructor
      * @param innerClass the enclosing class
+     * @param compact true if the Example class uses column handles. The handles add to the List
+     *     directly, so the add methods are not generated.
      * @return the name of the List added to the class by this method
      */
     private String addTypeHandledObjectsAndMethods(IntrospectedColumn introspectedColumn, Method constructor,
-                                                   InnerClass innerClass) {
+                                                   InnerClass innerClass, boolean compact) {
         StringBuilder sb = new StringBuilder();
 
         // add new private field and public accessor in the class
@@ -812,6 +832,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         sb.append(" = new ArrayList<>();"); //$NON-NLS-1$
         constructor.addBodyLine(sb.toString());
 
+        if (compact) {
+            return answer;
+        }
+
         // now add the methods for simplifying the individual field set methods
         sb.setLength(0);
         sb.append("add"); //$NON-NLS-1$
@@ -863,4 +887,300 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         return answer;
     }
+
+    private boolean isCompactExample() {
+        String property = introspectedTable.getTableConfigurationProperty(
+                PropertyRegistry.MODEL_GENERATOR_COMPACT_EXAMPLE);
+        if (property == null) {
+            property = context.getJavaModelGeneratorConfiguration().getProperty(
+                    PropertyRegistry.MODEL_GENERATOR_COMPACT_EXAMPLE);
+        }
+        return isTrue(property);
+    }
+
+    /**
+     * Adds a final field for each column to GeneratedCriteria. The fields hold column handles
+     * that build the conditions for the column, so the Example class has one field per column instead
+     * of a method for each column and operator. The handles add the same Criterion objects as the
+     * individual methods, so the where clauses in the mappers are unchanged.
+     *
+     * @param topLevelClass the Example class
+     * @param constructor the constructor of GeneratedCriteria
+     * @param innerClass the GeneratedCriteria class
+     */
+    private void addColumnFields(TopLevelClass topLevelClass, Method constructor, InnerClass innerClass) {
+        Set<String> fieldNames = innerClass.getFields().stream()
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+
+        for (IntrospectedColumn introspectedColumn : introspectedTable.getNonBLOBColumns()) {
+            FullyQualifiedJavaType javaType = introspectedColumn.getFullyQualifiedJavaType();
+            topLevelClass.addImportedType(javaType);
+            if (javaType.isPrimitive()) {
+                javaType = javaType.getPrimitiveTypeWrapper();
+            }
+
+            String criteriaList;
+            String typeHandler;
+            FullyQualifiedJavaType columnType;
+            if (introspectedColumn.isJDBCDateColumn()) {
+                criteriaList = "criteria"; //$NON-NLS-1$
+                typeHandler = "null"; //$NON-NLS-1$
+                columnType = new FullyQualifiedJavaType("JDBCDateColumn"); //$NON-NLS-1$
+            } else if (introspectedColumn.isJDBCTimeColumn()) {
+                criteriaList = "criteria"; //$NON-NLS-1$
+                typeHandler = "null"; //$NON-NLS-1$
+                columnType = new FullyQualifiedJavaType("JDBCTimeColumn"); //$NON-NLS-1$
+            } else {
+                if (stringHasValue(introspectedColumn.getTypeHandler())) {
+                    criteriaList = introspectedColumn.getJavaProperty() + "Criteria"; //$NON-NLS-1$
+                    typeHandler = "\"" + introspectedColumn.getTypeHandler() + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+                } else {
+                    criteriaList = "criteria"; //$NON-NLS-1$
+                    typeHandler = "null"; //$NON-NLS-1$
+                }
+
+                if (introspectedColumn.isJdbcCharacterColumn()) {
+                    columnType = new FullyQualifiedJavaType("CharacterColumn"); //$NON-NLS-1$
+                } else {
+                    columnType = new FullyQualifiedJavaType("Column"); //$NON-NLS-1$
+                }
+                columnType.addTypeArgument(javaType);
+            }
+
+            String fieldName = introspectedColumn.getJavaProperty();
+            if (fieldNames.contains(fieldName)) {
+                fieldName = fieldName + "Column"; //$NON-NLS-1$
+            }
+            fieldNames.add(fieldName);
+
+            Field field = new Field(fieldName, columnType);
+            field.setVisibility(JavaVisibility.PUBLIC);
+            field.setFinal(true);
+            innerClass.addField(field);
+
+            String instanceType = columnType.getShortNameWithoutTypeArguments();
+            if (!columnType.getTypeArguments().isEmpty()) {
+                instanceType += "<>"; //$NON-NLS-1$
+            }
+            constructor.addBodyLine(String.format("%s = new %s(this, \"%s\", \"%s\", %s, %s);", //$NON-NLS-1$
+                    fieldName, instanceType,
+                    MyBatis3FormattingUtilities.getAliasedActualColumnName(introspectedColumn),
+                    introspectedColumn.getJavaProperty(), criteriaList, typeHandler));
+        }
+    }
+
+    private void addColumnInnerClasses(TopLevelClass topLevelClass) {
+        boolean hasTypeHandlers = introspectedTable.getNonBLOBColumns().stream()
+                .map(IntrospectedColumn::getTypeHandler)
+                .anyMatch(StringUtility::stringHasValue);
+
+        topLevelClass.addInnerClass(getColumnInnerClass(hasTypeHandlers));
+
+        if (introspectedTable.getNonBLOBColumns().stream().anyMatch(IntrospectedColumn::isJdbcCharacterColumn)) {
+            InnerClass innerClass = createColumnSubclass("CharacterColumn", "Column<T>"); //$NON-NLS-1$ //$NON-NLS-2$
+            innerClass.addTypeParameter(new TypeParameter("T")); //$NON-NLS-1$
+            innerClass.addMethod(getColumnOperatorMethod("like", " like", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+            innerClass.addMethod(getColumnOperatorMethod("notLike", " not like", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+            topLevelClass.addInnerClass(innerClass);
+        }
+
+        if (introspectedTable.hasJDBCDateColumns()) {
+            topLevelClass.addInnerClass(getJDBCDateColumnInnerClass(topLevelClass, "JDBCDateColumn", //$NON-NLS-1$
+                    "java.sql.Date")); //$NON-NLS-1$
+        }
+
+        if (introspectedTable.hasJDBCTimeColumns()) {
+            topLevelClass.addInnerClass(getJDBCDateColumnInnerClass(topLevelClass, "JDBCTimeColumn", //$NON-NLS-1$
+                    "java.sql.Time")); //$NON-NLS-1$
+        }
+    }
+
+    private InnerClass getColumnInnerClass(boolean hasTypeHandlers) {
+        InnerClass answer = new InnerClass(new FullyQualifiedJavaType("Column")); //$NON-NLS-1$
+        answer.addTypeParameter(new TypeParameter("T")); //$NON-NLS-1$
+        answer.setVisibility(JavaVisibility.PUBLIC);
+        answer.setStatic(true);
+        context.getCommentGenerator().addClassComment(answer, introspectedTable);
+
+        FullyQualifiedJavaType listOfCriterion = new FullyQualifiedJavaType("List<Criterion>"); //$NON-NLS-1$
+        addFinalField(answer, FullyQualifiedJavaType.getGeneratedCriteriaInstance(), "owner"); //$NON-NLS-1$
+        addFinalField(answer, FullyQualifiedJavaType.getStringInstance(), "name"); //$NON-NLS-1$
+        addFinalField(answer, FullyQualifiedJavaType.getStringInstance(), "property"); //$NON-NLS-1$
+        addFinalField(answer, listOfCriterion, "criteria"); //$NON-NLS-1$
+        addFinalField(answer, FullyQualifiedJavaType.getStringInstance(), "typeHandler"); //$NON-NLS-1$
+
+        Method method = createColumnConstructor("Column"); //$NON-NLS-1$
+        method.addBodyLine("this.owner = owner;"); //$NON-NLS-1$
+        method.addBodyLine("this.name = name;"); //$NON-NLS-1$
+        method.addBodyLine("this.property = property;"); //$NON-NLS-1$
+        method.addBodyLine("this.criteria = criteria;"); //$NON-NLS-1$
+        method.addBodyLine("this.typeHandler = typeHandler;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        answer.addMethod(getColumnOperatorMethod("isNull", " is null", 0)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("isNotNull", " is not null", 0)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("equalTo", " =", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("notEqualTo", " <>", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("greaterThan", " >", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("greaterThanOrEqualTo", " >=", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("lessThan", " <", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("lessThanOrEqualTo", " <=", 1)); //$NON-NLS-1$ //$NON-NLS-2$
+
+        method = new Method("in"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<T>"), "values")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("return addCriterion(\" in\", values);"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        method = new Method("notIn"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<T>"), "values")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine("return addCriterion(\" not in\", values);"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        answer.addMethod(getColumnOperatorMethod("between", " between", 2)); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addMethod(getColumnOperatorMethod("notBetween", " not between", 2)); //$NON-NLS-1$ //$NON-NLS-2$
+
+        method = new Method("addCriterion"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "operator")); //$NON-NLS-1$
+        method.addBodyLine("owner.addCriterion(name + operator);"); //$NON-NLS-1$
+        method.addBodyLine("return (Criteria) owner;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        method = new Method("addCriterion"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "operator")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "value")); //$NON-NLS-1$
+        method.addBodyLine("if (value == null) {"); //$NON-NLS-1$
+        method.addBodyLine(
+                "throw new RuntimeException(\"Value for \" + property + \" cannot be null\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("criteria.add(new Criterion(name + operator, convert(value), typeHandler));"); //$NON-NLS-1$
+        if (hasTypeHandlers) {
+            method.addBodyLine("owner.allCriteria = null;"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return (Criteria) owner;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        method = new Method("addCriterion"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "operator")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "value1")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "value2")); //$NON-NLS-1$
+        method.addBodyLine("if (value1 == null || value2 == null) {"); //$NON-NLS-1$
+        method.addBodyLine(
+                "throw new RuntimeException(\"Between values for \" + property + \" cannot be null\");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("criteria.add(new Criterion(name + operator, convert(value1), convert(value2)," //$NON-NLS-1$
+                + " typeHandler));"); //$NON-NLS-1$
+        if (hasTypeHandlers) {
+            method.addBodyLine("owner.allCriteria = null;"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return (Criteria) owner;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        method = new Method("convert"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "value")); //$NON-NLS-1$
+        method.addBodyLine("return value;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        return answer;
+    }
+
+    /**
+     * Generates a column handle for JDBC DATE or TIME columns mapped to java.util.Date. The handle
+     * converts the values to the java.sql type, as the addCriterionForJDBCDate and
+     * addCriterionForJDBCTime methods do in the full Example class.
+     *
+     * @param topLevelClass the Example class
+     * @param className the name of the column class
+     * @param sqlType the java.sql type the values are converted to
+     * @return the generated inner class
+     */
+    private InnerClass getJDBCDateColumnInnerClass(TopLevelClass topLevelClass, String className, String sqlType) {
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getDateInstance());
+
+        InnerClass answer = createColumnSubclass(className, "Column<Date>"); //$NON-NLS-1$
+
+        Method method = new Method("convert"); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setReturnType(FullyQualifiedJavaType.getObjectInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "value")); //$NON-NLS-1$
+        method.addBodyLine("if (value instanceof List<?>) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("List<%s> answer = new ArrayList<>();", sqlType)); //$NON-NLS-1$
+        method.addBodyLine("for (Object date : (List<?>) value) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("answer.add(new %s(((Date) date).getTime()));", sqlType)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return answer;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return new %s(((Date) value).getTime());", sqlType)); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        return answer;
+    }
+
+    private InnerClass createColumnSubclass(String className, String superClass) {
+        InnerClass answer = new InnerClass(new FullyQualifiedJavaType(className));
+        answer.setVisibility(JavaVisibility.PUBLIC);
+        answer.setStatic(true);
+        answer.setSuperClass(new FullyQualifiedJavaType(superClass));
+        context.getCommentGenerator().addClassComment(answer, introspectedTable);
+
+        Method method = createColumnConstructor(className);
+        method.addBodyLine("super(owner, name, property, criteria, typeHandler);"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        return answer;
+    }
+
+    private Method createColumnConstructor(String className) {
+        Method method = new Method(className);
+        method.setVisibility(JavaVisibility.PROTECTED);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getGeneratedCriteriaInstance(),
+                "owner")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "name")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "property")); //$NON-NLS-1$
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<Criterion>"), //$NON-NLS-1$
+                "criteria")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "typeHandler")); //$NON-NLS-1$
+        return method;
+    }
+
+    private Method getColumnOperatorMethod(String methodName, String operator, int valueCount) {
+        Method method = new Method(methodName);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
+
+        FullyQualifiedJavaType valueType = new FullyQualifiedJavaType("T"); //$NON-NLS-1$
+        if (valueCount == 0) {
+            method.addBodyLine(String.format("return addCriterion(\"%s\");", operator)); //$NON-NLS-1$
+        } else if (valueCount == 1) {
+            method.addParameter(new Parameter(valueType, "value")); //$NON-NLS-1$
+            method.addBodyLine(String.format("return addCriterion(\"%s\", value);", operator)); //$NON-NLS-1$
+        } else {
+            method.addParameter(new Parameter(valueType, "value1")); //$NON-NLS-1$
+            method.addParameter(new Parameter(valueType, "value2")); //$NON-NLS-1$
+            method.addBodyLine(String.format("return addCriterion(\"%s\", value1, value2);", operator)); //$NON-NLS-1$
+        }
+
+        return method;
+    }
+
+    private void addFinalField(InnerClass innerClass, FullyQualifiedJavaType type, String name) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        innerClass.addField(field);
+    }
 }
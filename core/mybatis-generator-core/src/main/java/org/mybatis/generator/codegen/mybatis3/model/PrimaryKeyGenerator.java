@@ -72,7 +72,7 @@ public class PrimaryKeyGenerator extends AbstractJavaGenerator {
         commentGenerator.addModelClassComment(topLevelClass, introspectedTable);
 
         for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
-            if (RootClassInfo.getInstance(rootClass, warnings).containsProperty(introspectedColumn)) {
+            if (RootClassInfo.getInstance(context, rootClass, warnings).containsProperty(introspectedColumn)) {
                 continue;
             }
 
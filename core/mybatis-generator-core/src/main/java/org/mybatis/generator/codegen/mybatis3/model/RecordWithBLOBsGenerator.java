@@ -70,7 +70,7 @@ public class RecordWithBLOBsGenerator extends AbstractJavaGenerator {
         }
 
         for (IntrospectedColumn introspectedColumn : introspectedTable.getBLOBColumns()) {
-            if (RootClassInfo.getInstance(rootClass, warnings).containsProperty(introspectedColumn)) {
+            if (RootClassInfo.getInstance(context, rootClass, warnings).containsProperty(introspectedColumn)) {
                 continue;
             }
 
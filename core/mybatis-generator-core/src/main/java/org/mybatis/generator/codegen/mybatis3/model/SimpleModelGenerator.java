@@ -75,7 +75,7 @@ public class SimpleModelGenerator extends AbstractJavaGenerator {
 
         String rootClass = getRootClass();
         for (IntrospectedColumn introspectedColumn : introspectedColumns) {
-            if (RootClassInfo.getInstance(rootClass, warnings).containsProperty(introspectedColumn)) {
+            if (RootClassInfo.getInstance(context, rootClass, warnings).containsProperty(introspectedColumn)) {
                 continue;
             }
 
@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Finds the first rule in a list of column rules (ignored columns, column overrides) that matches a
+ * column name, without scanning the list. A delimited rule matches a column name exactly. Other rules
+ * match ignoring case, with the same rules as {@link String#equalsIgnoreCase(String)}.
+ *
+ * <p>The index is a snapshot of the rules when it is created. Instances are immutable.
+ *
+ * @param <T> the type of rule
+ */
+class ColumnNameIndex<T> {
+
+    private final List<T> rules;
+
+    private final Map<String, Integer> exactPositions = new HashMap<>();
+
+    private final Map<String, Integer> foldedPositions = new HashMap<>();
+
+    ColumnNameIndex(List<T> rules, Function<T, String> columnName, Predicate<T> delimited) {
+        this.rules = new ArrayList<>(rules);
+        for (int i = 0; i < this.rules.size(); i++) {
+            T rule = this.rules.get(i);
+            String name = columnName.apply(rule);
+            if (name == null) {
+                // a validation error - never matches
+                continue;
+            }
+
+            if (delimited.test(rule)) {
+                exactPositions.putIfAbsent(name, i);
+            } else {
+                foldedPositions.putIfAbsent(fold(name), i);
+            }
+        }
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    /**
+     * Returns the first rule that matches the column name.
+     *
+     * @param columnName the column name
+     * @return the rule, or null if no rule matches
+     */
+    T find(String columnName) {
+        Integer exact = exactPositions.get(columnName);
+        Integer folded = foldedPositions.isEmpty() ? null : foldedPositions.get(fold(columnName));
+
+        if (exact == null && folded == null) {
+            return null;
+        } else if (exact == null) {
+            return rules.get(folded);
+        } else if (folded == null) {
+            return rules.get(exact);
+        } else {
+            return rules.get(Math.min(exact, folded));
+        }
+    }
+
+    /**
+     * Two strings have the same folded value exactly when they are equal ignoring case. Like
+     * <code>equalsIgnoreCase</code>, this works on each character, so the length never changes.
+     */
+    static String fold(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
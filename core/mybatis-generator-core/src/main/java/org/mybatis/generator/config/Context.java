@@ -20,11 +20,18 @@ import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
@@ -32,6 +39,7 @@ import org.mybatis.generator.api.GeneratedFile;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedKotlinFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.JavaTypeResolver;
@@ -39,10 +47,20 @@ import org.mybatis.generator.api.KotlinFormatter;
 import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.ProgressCallback;
 import org.mybatis.generator.api.XmlFormatter;
+import org.mybatis.generator.internal.BufferedProgressCallback;
+import org.mybatis.generator.internal.BuildManifest;
+import org.mybatis.generator.internal.ComponentFactory;
+import org.mybatis.generator.internal.ConcurrentGenerator;
+import org.mybatis.generator.internal.IncrementalBuild;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.db.ConcurrentIntrospector;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.IntrospectionSnapshot;
+import org.mybatis.generator.internal.db.SchemaMetadataCache;
+import org.mybatis.generator.internal.db.TableSnapshot;
+import org.mybatis.generator.internal.util.Fingerprint;
 
 public class Context extends PropertyHolder {
 
@@ -74,6 +92,9 @@ public class Context extends PropertyHolder {
 
     private PluginAggregator pluginAggregator;
 
+    // true if the plugins were created by introspectTables and not yet used by generateFiles
+    private boolean pluginAggregatorPending;
+
     private final List<PluginConfiguration> pluginConfigurations;
 
     private String targetRuntime;
@@ -88,6 +109,18 @@ public class Context extends PropertyHolder {
 
     private XmlFormatter xmlFormatter;
 
+    private boolean offlineIntrospection;
+
+    private boolean indexIntrospectionEnabled;
+
+    private IncrementalBuild incrementalBuild;
+
+    private GenerationMetrics metrics = GenerationMetrics.disabled();
+
+    private ComponentFactory componentFactory;
+
+    private ConnectionFactory connectionFactory;
+
     public Context(ModelType defaultModelType) {
         super();
 
@@ -105,6 +138,10 @@ public class Context extends PropertyHolder {
         tableConfigurations.add(tc);
     }
 
+    public List<TableConfiguration> getTableConfigurations() {
+        return Collections.unmodifiableList(tableConfigurations);
+    }
+
     public JavaClientGeneratorConfiguration getJavaClientGeneratorConfiguration() {
         return javaClientGeneratorConfiguration;
     }
@@ -188,6 +225,26 @@ public class Context extends PropertyHolder {
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             pluginConfiguration.validate(errors, id);
         }
+
+        String introspectionThreads = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS);
+        if (stringHasValue(introspectionThreads) && parsePositiveInt(introspectionThreads) < 1) {
+            errors.add(getString("ValidationError.29", //$NON-NLS-1$
+                    PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, id));
+        }
+
+        String generationThreads = getProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS);
+        if (stringHasValue(generationThreads) && parsePositiveInt(generationThreads) < 1) {
+            errors.add(getString("ValidationError.29", //$NON-NLS-1$
+                    PropertyRegistry.CONTEXT_GENERATION_THREADS, id));
+        }
+    }
+
+    private static int parsePositiveInt(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     public String getId() {
@@ -213,6 +270,10 @@ public class Context extends PropertyHolder {
         this.javaTypeResolverConfiguration = javaTypeResolverConfiguration;
     }
 
+    public JDBCConnectionConfiguration getJdbcConnectionConfiguration() {
+        return jdbcConnectionConfiguration;
+    }
+
     public void setJdbcConnectionConfiguration(
             JDBCConnectionConfiguration jdbcConnectionConfiguration) {
         this.jdbcConnectionConfiguration = jdbcConnectionConfiguration;
@@ -377,17 +438,48 @@ public class Context extends PropertyHolder {
             throws SQLException, InterruptedException {
 
         introspectedTables.clear();
+        // the plugins are created once per run, before introspection, so they can ask for indexes
+        pluginAggregator = createPluginAggregator(warnings);
+        pluginAggregatorPending = true;
+        indexIntrospectionEnabled = isTrue(getProperty(PropertyRegistry.CONTEXT_INTROSPECT_INDEXES))
+                || pluginAggregator.requiresIndexes();
+
+        IntrospectionSnapshot snapshot = readIntrospectionSnapshot(warnings);
+
+        int introspectionThreads = getIntrospectionThreads();
+        if (introspectionThreads > 1) {
+            introspectTablesConcurrently(callback, warnings, fullyQualifiedTableNames, introspectionThreads,
+                    snapshot);
+        } else {
+            introspectTablesSequentially(callback, warnings, fullyQualifiedTableNames, snapshot);
+        }
+
+        writeIntrospectionSnapshot(snapshot, warnings);
+    }
+
+    private void introspectTablesSequentially(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames, IntrospectionSnapshot snapshot)
+            throws SQLException, InterruptedException {
+
         JavaTypeResolver javaTypeResolver = ObjectFactory
                 .createJavaTypeResolver(this, warnings);
 
+        // replays table snapshots, it never uses the database
+        DatabaseIntrospector snapshotIntrospector = new DatabaseIntrospector(
+                this, null, javaTypeResolver, warnings);
+
         Connection connection = null;
 
         try {
-            callback.startTask(getString("Progress.0")); //$NON-NLS-1$
-            connection = getConnection();
-
-            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
-                    this, connection.getMetaData(), javaTypeResolver, warnings);
+            DatabaseIntrospector databaseIntrospector = null;
+            if (!offlineIntrospection) {
+                callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+                connection = getConnection();
+
+                databaseIntrospector = new DatabaseIntrospector(
+                        this, connection.getMetaData(), javaTypeResolver, warnings,
+                        createSchemaMetadataCache());
+            }
 
             for (TableConfiguration tc : tableConfigurations) {
                 String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
@@ -404,9 +496,28 @@ public class Context extends PropertyHolder {
                     continue;
                 }
 
-                callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
-                List<IntrospectedTable> tables = databaseIntrospector
-                        .introspectTables(tc);
+                TableSnapshot tableSnapshot = getTableSnapshot(snapshot, tc);
+                List<IntrospectedTable> tables;
+                if (tableSnapshot != null && tableSnapshot.isComplete()) {
+                    callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                    tables = snapshotIntrospector.introspectTables(tc, tableSnapshot);
+                } else {
+                    if (databaseIntrospector == null) {
+                        // offline, but the table is not in the snapshot
+                        callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+                        connection = getConnection();
+
+                        databaseIntrospector = new DatabaseIntrospector(
+                                this, connection.getMetaData(), javaTypeResolver, warnings,
+                                createSchemaMetadataCache());
+                    }
+
+                    callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                    tables = databaseIntrospector.introspectTables(tc, tableSnapshot);
+                    if (tableSnapshot != null) {
+                        snapshot.putTable(tableSnapshot);
+                    }
+                }
 
                 if (tables != null) {
                     introspectedTables.addAll(tables);
@@ -419,6 +530,243 @@ public class Context extends PropertyHolder {
         }
     }
 
+    /**
+     * Introspects tables on a pool of worker threads, each with its own connection. Tables are submitted
+     * in configuration order and the results are collected in the same order, so the list of introspected
+     * tables and the warnings are identical to those produced by sequential introspection.
+     */
+    private void introspectTablesConcurrently(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames, int threads,
+            IntrospectionSnapshot snapshot) throws SQLException, InterruptedException {
+
+        callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+
+        try (ConcurrentIntrospector introspector = new ConcurrentIntrospector(this,
+                createConnectionFactory(), createSchemaMetadataCache(), threads)) {
+
+            List<String> tableNames = new ArrayList<>();
+            List<TableSnapshot> tableSnapshots = new ArrayList<>();
+            // a null entry means the table has no enabled statements
+            List<Future<ConcurrentIntrospector.Result>> results = new ArrayList<>();
+
+            for (TableConfiguration tc : tableConfigurations) {
+                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                                .getSchema(), tc.getTableName(), '.');
+
+                if (fullyQualifiedTableNames != null
+                        && !fullyQualifiedTableNames.isEmpty()
+                        && !fullyQualifiedTableNames.contains(tableName)) {
+                    continue;
+                }
+
+                TableSnapshot tableSnapshot = getTableSnapshot(snapshot, tc);
+                tableNames.add(tableName);
+                tableSnapshots.add(tableSnapshot);
+                results.add(tc.areAnyStatementsEnabled() ? introspector.submit(tc, tableSnapshot) : null);
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                String tableName = tableNames.get(i);
+                Future<ConcurrentIntrospector.Result> future = results.get(i);
+
+                if (future == null) {
+                    warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+                    continue;
+                }
+
+                callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                ConcurrentIntrospector.Result result = ConcurrentIntrospector.getResult(future);
+                warnings.addAll(result.getWarnings());
+                introspectedTables.addAll(result.getIntrospectedTables());
+
+                TableSnapshot tableSnapshot = tableSnapshots.get(i);
+                if (tableSnapshot != null && !tableSnapshot.isComplete()) {
+                    snapshot.putTable(tableSnapshot);
+                }
+
+                callback.checkCancel();
+            }
+        }
+    }
+
+    /**
+     * Reads the introspection snapshot file if one is configured. An unreadable file is reported as a warning
+     * and treated as an empty snapshot, so every table is introspected from the database and the file is
+     * rewritten.
+     *
+     * @param warnings the list of warnings
+     * @return the snapshot, or null if no snapshot file is configured
+     */
+    private IntrospectionSnapshot readIntrospectionSnapshot(List<String> warnings) {
+        String snapshotFile = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT);
+        if (!stringHasValue(snapshotFile)) {
+            return null;
+        }
+
+        try {
+            return IntrospectionSnapshot.read(new File(snapshotFile));
+        } catch (IOException e) {
+            warnings.add(getString("Warning.32", snapshotFile, e.getMessage())); //$NON-NLS-1$
+            return new IntrospectionSnapshot();
+        }
+    }
+
+    private void writeIntrospectionSnapshot(IntrospectionSnapshot snapshot, List<String> warnings) {
+        if (snapshot == null) {
+            return;
+        }
+
+        snapshot.retainTables(tableConfigurations);
+        if (!snapshot.isDirty()) {
+            return;
+        }
+
+        String snapshotFile = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT);
+        try {
+            snapshot.write(new File(snapshotFile));
+        } catch (IOException e) {
+            warnings.add(getString("Warning.33", snapshotFile, e.getMessage())); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the snapshot to use for a table. In offline mode this is the complete snapshot read from
+     * the file, if there is one. Otherwise it is a new snapshot that will be recorded while the table is
+     * introspected from the database.
+     *
+     * @param snapshot the introspection snapshot, may be null
+     * @param tc the table configuration
+     * @return the table snapshot, or null if no snapshot file is configured
+     */
+    private TableSnapshot getTableSnapshot(IntrospectionSnapshot snapshot, TableConfiguration tc) {
+        if (snapshot == null) {
+            return null;
+        }
+
+        if (offlineIntrospection) {
+            Optional<TableSnapshot> tableSnapshot = snapshot.getTable(tc);
+            if (tableSnapshot.isPresent()) {
+                return tableSnapshot.get();
+            }
+        }
+
+        return IntrospectionSnapshot.newTableSnapshot(tc);
+    }
+
+    /**
+     * Creates a cache for schema-wide metadata if bulk introspection is enabled.
+     *
+     * @return a new cache, or null if metadata should be retrieved for each table
+     */
+    private SchemaMetadataCache createSchemaMetadataCache() {
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION))) {
+            return new SchemaMetadataCache();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the indexes of tables are retrieved during introspection. Indexes are retrieved if
+     * the <code>introspectIndexes</code> property is true, or if any plugin in the context requires them.
+     *
+     * @return true if indexes are introspected in the current run
+     */
+    public boolean isIndexIntrospectionEnabled() {
+        return indexIntrospectionEnabled;
+    }
+
+    /**
+     * Returns the number of threads to use for table introspection. Values greater than one enable
+     * concurrent introspection with one connection per thread.
+     *
+     * @return the configured number of introspection threads, or 1 if not configured
+     */
+    public int getIntrospectionThreads() {
+        String threads = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS);
+        if (!stringHasValue(threads)) {
+            return 1;
+        }
+
+        return Math.max(1, parsePositiveInt(threads));
+    }
+
+    /**
+     * Returns the number of threads to use for generating the files of introspected tables. Values greater
+     * than one enable concurrent generation if every plugin in the context is thread safe.
+     *
+     * @return the configured number of generation threads, or 1 if not configured
+     */
+    public int getGenerationThreads() {
+        String threads = getProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS);
+        if (!stringHasValue(threads)) {
+            return 1;
+        }
+
+        return Math.max(1, parsePositiveInt(threads));
+    }
+
+    public boolean isOfflineIntrospection() {
+        return offlineIntrospection;
+    }
+
+    /**
+     * Sets offline introspection. When offline, tables found in the introspection snapshot file are
+     * introspected from the snapshot and the database is only used for tables that are not in the snapshot
+     * or whose configuration has changed. This has no effect unless the
+     * {@link PropertyRegistry#CONTEXT_INTROSPECTION_SNAPSHOT} property is set.
+     *
+     * @param offlineIntrospection true to use the snapshot instead of the database
+     */
+    public void setOfflineIntrospection(boolean offlineIntrospection) {
+        this.offlineIntrospection = offlineIntrospection;
+    }
+
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics that record the performance of introspection and generation for this context.
+     *
+     * @param metrics the metrics, or null to record nothing
+     */
+    public void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics == null ? GenerationMetrics.disabled() : metrics;
+    }
+
+    /**
+     * Returns the factory that loads classes and creates objects for this context. If no factory has been set, a
+     * factory that uses the class loaders registered globally in {@link ObjectFactory} is created.
+     *
+     * @return the component factory
+     */
+    public synchronized ComponentFactory getComponentFactory() {
+        if (componentFactory == null) {
+            componentFactory = new ComponentFactory(ObjectFactory.getExternalClassLoaders());
+        }
+        return componentFactory;
+    }
+
+    public synchronized void setComponentFactory(ComponentFactory componentFactory) {
+        this.componentFactory = componentFactory;
+    }
+
+    private PluginAggregator createPluginAggregator(List<String> warnings) {
+        PluginAggregator answer = new PluginAggregator();
+        for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
+            Plugin plugin = ObjectFactory.createPlugin(this,
+                    pluginConfiguration);
+            if (plugin.validate(warnings)) {
+                answer.addPlugin(plugin);
+            } else {
+                warnings.add(getString("Warning.24", //$NON-NLS-1$
+                        pluginConfiguration.getConfigurationType(), id));
+            }
+        }
+        return answer;
+    }
+
     public int getGenerationSteps() {
         int steps = 0;
 
@@ -437,58 +785,322 @@ public class Context extends PropertyHolder {
             List<String> warnings)
             throws InterruptedException {
 
-        pluginAggregator = new PluginAggregator();
-        for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
-            Plugin plugin = ObjectFactory.createPlugin(this,
-                    pluginConfiguration);
-            if (plugin.validate(warnings)) {
-                pluginAggregator.addPlugin(plugin);
-            } else {
-                warnings.add(getString("Warning.24", //$NON-NLS-1$
-                        pluginConfiguration.getConfigurationType(), id));
-            }
+        if (!pluginAggregatorPending) {
+            pluginAggregator = createPluginAggregator(warnings);
         }
+        pluginAggregatorPending = false;
+
+        int generationThreads = getGenerationThreads();
+        if (generationThreads > 1 && !pluginAggregator.isThreadSafe()) {
+            warnings.add(getString("Warning.34", id)); //$NON-NLS-1$
+            generationThreads = 1;
+        } else if (generationThreads > 1 && !getCommentGenerator().isThreadSafe()) {
+            warnings.add(getString("Warning.42", id)); //$NON-NLS-1$
+            generationThreads = 1;
+        }
+
+        incrementalBuild = createIncrementalBuild(warnings);
+        List<IntrospectedTable> tablesToGenerate = incrementalBuild == null ? introspectedTables
+                : incrementalBuild.selectTablesToGenerate(introspectedTables);
 
         // initialize everything first before generating. This allows plugins to know about other
         // items in the configuration.
-        for (IntrospectedTable introspectedTable : introspectedTables) {
+        List<List<String>> tableWarnings = new ArrayList<>();
+        List<BufferedProgressCallback> tableCallbacks = new ArrayList<>();
+        for (IntrospectedTable introspectedTable : tablesToGenerate) {
             callback.checkCancel();
+            String tableName = introspectedTable.getFullyQualifiedTable().toString();
+            GenerationMetrics.Timer timer = metrics.startTimer();
             introspectedTable.initialize();
-            introspectedTable.calculateGenerators(warnings, callback);
+            timer.stop(GenerationMetrics.Phase.INITIALIZE, tableName);
+
+            timer = metrics.startTimer();
+            if (generationThreads > 1) {
+                // generators keep the list and the callback, so warnings and progress reported during
+                // concurrent generation are collected per table and reported in table order
+                List<String> generatorWarnings = new ArrayList<>();
+                BufferedProgressCallback generatorCallback = new BufferedProgressCallback();
+                introspectedTable.calculateGenerators(generatorWarnings, generatorCallback);
+                warnings.addAll(generatorWarnings);
+                generatorWarnings.clear();
+                generatorCallback.replay(callback);
+                tableWarnings.add(generatorWarnings);
+                tableCallbacks.add(generatorCallback);
+            } else {
+                introspectedTable.calculateGenerators(warnings, callback);
+            }
+            timer.stop(GenerationMetrics.Phase.CALCULATE_GENERATORS, tableName);
         }
 
-        for (IntrospectedTable introspectedTable : introspectedTables) {
+        if (generationThreads > 1) {
+            generateTableFilesConcurrently(callback, tablesToGenerate, generatedJavaFiles, generatedXmlFiles,
+                    generatedKotlinFiles, otherGeneratedFiles, warnings, tableWarnings, tableCallbacks,
+                    generationThreads);
+        } else {
+            generateTableFiles(callback, tablesToGenerate, generatedJavaFiles, generatedXmlFiles,
+                    generatedKotlinFiles, otherGeneratedFiles);
+        }
+
+        if (incrementalBuild != null && incrementalBuild.isUpToDate()) {
+            return;
+        }
+
+        List<GeneratedJavaFile> javaFiles = pluginAggregator
+                .contextGenerateAdditionalJavaFiles();
+        List<GeneratedXmlFile> xmlFiles = pluginAggregator
+                .contextGenerateAdditionalXmlFiles();
+        List<GeneratedKotlinFile> kotlinFiles = pluginAggregator
+                .contextGenerateAdditionalKotlinFiles();
+        List<GeneratedFile> otherFiles = pluginAggregator
+                .contextGenerateAdditionalFiles();
+
+        generatedJavaFiles.addAll(javaFiles);
+        generatedXmlFiles.addAll(xmlFiles);
+        generatedKotlinFiles.addAll(kotlinFiles);
+        otherGeneratedFiles.addAll(otherFiles);
+
+        if (incrementalBuild != null) {
+            incrementalBuild.recordContextFiles(javaFiles);
+            incrementalBuild.recordContextFiles(xmlFiles);
+            incrementalBuild.recordContextFiles(kotlinFiles);
+            incrementalBuild.recordContextFiles(otherFiles);
+        }
+    }
+
+    private void generateTableFiles(ProgressCallback callback,
+            List<IntrospectedTable> tablesToGenerate,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles,
+            List<GeneratedKotlinFile> generatedKotlinFiles,
+            List<GeneratedFile> otherGeneratedFiles)
+            throws InterruptedException {
+        for (IntrospectedTable introspectedTable : tablesToGenerate) {
             callback.checkCancel();
 
-            if (!pluginAggregator.shouldGenerate(introspectedTable)) {
-                continue;
+            List<GeneratedJavaFile> javaFiles = new ArrayList<>();
+            List<GeneratedXmlFile> xmlFiles = new ArrayList<>();
+            List<GeneratedKotlinFile> kotlinFiles = new ArrayList<>();
+            List<GeneratedFile> otherFiles = new ArrayList<>();
+
+            if (pluginAggregator.shouldGenerate(introspectedTable)) {
+                GenerationMetrics.Timer timer = metrics.startTimer();
+                javaFiles.addAll(introspectedTable
+                        .getGeneratedJavaFiles());
+                xmlFiles.addAll(introspectedTable
+                        .getGeneratedXmlFiles());
+                kotlinFiles.addAll(introspectedTable
+                        .getGeneratedKotlinFiles());
+
+                javaFiles.addAll(pluginAggregator
+                        .contextGenerateAdditionalJavaFiles(introspectedTable));
+                xmlFiles.addAll(pluginAggregator
+                        .contextGenerateAdditionalXmlFiles(introspectedTable));
+                kotlinFiles.addAll(pluginAggregator
+                        .contextGenerateAdditionalKotlinFiles(introspectedTable));
+                otherFiles.addAll(pluginAggregator
+                        .contextGenerateAdditionalFiles(introspectedTable));
+                timer.stop(GenerationMetrics.Phase.GENERATE,
+                        introspectedTable.getFullyQualifiedTable().toString());
+            }
+
+            addTableFiles(introspectedTable, javaFiles, xmlFiles, kotlinFiles, otherFiles,
+                    generatedJavaFiles, generatedXmlFiles, generatedKotlinFiles, otherGeneratedFiles);
+        }
+    }
+
+    private void addTableFiles(IntrospectedTable introspectedTable,
+            List<GeneratedJavaFile> javaFiles,
+            List<GeneratedXmlFile> xmlFiles,
+            List<GeneratedKotlinFile> kotlinFiles,
+            List<GeneratedFile> otherFiles,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles,
+            List<GeneratedKotlinFile> generatedKotlinFiles,
+            List<GeneratedFile> otherGeneratedFiles) {
+        generatedJavaFiles.addAll(javaFiles);
+        generatedXmlFiles.addAll(xmlFiles);
+        generatedKotlinFiles.addAll(kotlinFiles);
+        otherGeneratedFiles.addAll(otherFiles);
+
+        if (incrementalBuild != null) {
+            incrementalBuild.recordTableFiles(introspectedTable, javaFiles);
+            incrementalBuild.recordTableFiles(introspectedTable, xmlFiles);
+            incrementalBuild.recordTableFiles(introspectedTable, kotlinFiles);
+            incrementalBuild.recordTableFiles(introspectedTable, otherFiles);
+        }
+    }
+
+    /**
+     * Generates the files for each table on a pool of worker threads. Tables are submitted in order
+     * and the results are collected in the same order, so the generated files, the warnings, and the
+     * progress reported to the callback are identical to those produced by sequential generation.
+     * Worker threads never call the callback.
+     */
+    private void generateTableFilesConcurrently(ProgressCallback callback,
+            List<IntrospectedTable> tablesToGenerate,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles,
+            List<GeneratedKotlinFile> generatedKotlinFiles,
+            List<GeneratedFile> otherGeneratedFiles,
+            List<String> warnings, List<List<String>> tableWarnings,
+            List<BufferedProgressCallback> tableCallbacks, int threads)
+            throws InterruptedException {
+        try (ConcurrentGenerator generator = new ConcurrentGenerator(id, pluginAggregator, metrics, threads)) {
+            // a null entry means the table should not be generated
+            List<Future<ConcurrentGenerator.Result>> results = new ArrayList<>();
+            for (IntrospectedTable introspectedTable : tablesToGenerate) {
+                callback.checkCancel();
+
+                if (pluginAggregator.shouldGenerate(introspectedTable)) {
+                    results.add(generator.submit(introspectedTable));
+                } else {
+                    results.add(null);
+                }
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                Future<ConcurrentGenerator.Result> future = results.get(i);
+                if (future == null) {
+                    addTableFiles(tablesToGenerate.get(i), new ArrayList<>(), new ArrayList<>(),
+                            new ArrayList<>(), new ArrayList<>(), generatedJavaFiles, generatedXmlFiles,
+                            generatedKotlinFiles, otherGeneratedFiles);
+                } else {
+                    callback.checkCancel();
+
+                    ConcurrentGenerator.Result result = ConcurrentGenerator.getResult(future);
+                    addTableFiles(tablesToGenerate.get(i), result.getGeneratedJavaFiles(),
+                            result.getGeneratedXmlFiles(), result.getGeneratedKotlinFiles(),
+                            result.getOtherGeneratedFiles(), generatedJavaFiles, generatedXmlFiles,
+                            generatedKotlinFiles, otherGeneratedFiles);
+                }
+
+                warnings.addAll(tableWarnings.get(i));
+                tableCallbacks.get(i).replay(callback);
             }
+        }
+    }
+
+    /**
+     * Reads the build manifest if incremental generation is enabled. If the manifest cannot be read,
+     * a warning is added and every table will be generated.
+     *
+     * @param warnings the list of warnings
+     * @return the incremental build, or null if no build manifest is configured
+     */
+    private IncrementalBuild createIncrementalBuild(List<String> warnings) {
+        String manifestFile = getProperty(PropertyRegistry.CONTEXT_BUILD_MANIFEST);
+        if (!stringHasValue(manifestFile)) {
+            return null;
+        }
+
+        BuildManifest manifest;
+        try {
+            manifest = BuildManifest.read(new File(manifestFile));
+        } catch (IOException e) {
+            warnings.add(getString("Warning.35", manifestFile, e.getMessage())); //$NON-NLS-1$
+            manifest = new BuildManifest();
+        }
 
-            generatedJavaFiles.addAll(introspectedTable
-                    .getGeneratedJavaFiles());
-            generatedXmlFiles.addAll(introspectedTable
-                    .getGeneratedXmlFiles());
-            generatedKotlinFiles.addAll(introspectedTable
-                    .getGeneratedKotlinFiles());
-
-            generatedJavaFiles.addAll(pluginAggregator
-                    .contextGenerateAdditionalJavaFiles(introspectedTable));
-            generatedXmlFiles.addAll(pluginAggregator
-                    .contextGenerateAdditionalXmlFiles(introspectedTable));
-            generatedKotlinFiles.addAll(pluginAggregator
-                    .contextGenerateAdditionalKotlinFiles(introspectedTable));
-            otherGeneratedFiles.addAll(pluginAggregator
-                    .contextGenerateAdditionalFiles(introspectedTable));
-        }
-
-        generatedJavaFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalJavaFiles());
-        generatedXmlFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalXmlFiles());
-        generatedKotlinFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalKotlinFiles());
-        otherGeneratedFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalFiles());
+        return new IncrementalBuild(manifest, calculateFingerprint());
+    }
+
+    /**
+     * Calculates a fingerprint of the generator version and every context level setting that can
+     * affect the generated code. Properties that only affect performance are not included.
+     */
+    private String calculateFingerprint() {
+        Properties contextProperties = new Properties();
+        contextProperties.putAll(getProperties());
+        contextProperties.remove(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS);
+        contextProperties.remove(PropertyRegistry.CONTEXT_BULK_INTROSPECTION);
+        contextProperties.remove(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT);
+        contextProperties.remove(PropertyRegistry.CONTEXT_GENERATION_THREADS);
+        contextProperties.remove(PropertyRegistry.CONTEXT_BUILD_MANIFEST);
+        contextProperties.remove(PropertyRegistry.CONTEXT_DELETE_ORPHANED_FILES);
+
+        Fingerprint fingerprint = new Fingerprint()
+                .add(IncrementalBuild.getGeneratorVersion())
+                .add(targetRuntime)
+                .add(introspectedColumnImpl)
+                .add(defaultModelType.name())
+                .add(contextProperties);
+
+        addFingerprint(fingerprint, commentGeneratorConfiguration);
+        addFingerprint(fingerprint, javaTypeResolverConfiguration);
+        if (javaModelGeneratorConfiguration != null) {
+            fingerprint.add(javaModelGeneratorConfiguration.getTargetProject())
+                    .add(javaModelGeneratorConfiguration.getTargetPackage())
+                    .add(javaModelGeneratorConfiguration.getProperties());
+        }
+        if (sqlMapGeneratorConfiguration != null) {
+            fingerprint.add(sqlMapGeneratorConfiguration.getTargetProject())
+                    .add(sqlMapGeneratorConfiguration.getTargetPackage())
+                    .add(sqlMapGeneratorConfiguration.getProperties());
+        }
+        addFingerprint(fingerprint, javaClientGeneratorConfiguration);
+        if (javaClientGeneratorConfiguration != null) {
+            fingerprint.add(javaClientGeneratorConfiguration.getTargetProject())
+                    .add(javaClientGeneratorConfiguration.getTargetPackage());
+        }
+
+        fingerprint.add(pluginConfigurations.size());
+        for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
+            addFingerprint(fingerprint, pluginConfiguration);
+        }
+
+        return fingerprint.calculate();
+    }
+
+    private static void addFingerprint(Fingerprint fingerprint, TypedPropertyHolder typedPropertyHolder) {
+        fingerprint.add(typedPropertyHolder != null);
+        if (typedPropertyHolder != null) {
+            fingerprint.add(typedPropertyHolder.getConfigurationType())
+                    .add(typedPropertyHolder.getProperties());
+        }
+    }
+
+    /**
+     * Writes the build manifest after the generated files have been saved. This method does nothing
+     * unless the {@link PropertyRegistry#CONTEXT_BUILD_MANIFEST} property is set. The manifest is not
+     * changed if any generated file was not saved, so the affected tables will be generated again in the
+     * next run.
+     *
+     * <p>If the {@link PropertyRegistry#CONTEXT_DELETE_ORPHANED_FILES} property is true, files recorded in
+     * the previous manifest that were not generated in this run are deleted.
+     *
+     * @param savedFiles the target file of every generated file that was saved, or that was not written
+     *     because it was unchanged
+     * @param callback the progress callback
+     * @param warnings the list of warnings
+     */
+    public void writeBuildManifest(Map<GeneratedFile, File> savedFiles, ProgressCallback callback,
+            List<String> warnings) {
+        if (incrementalBuild == null) {
+            return;
+        }
+
+        Optional<BuildManifest> manifest = incrementalBuild.createManifest(savedFiles);
+        if (!manifest.isPresent()) {
+            return;
+        }
+
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_DELETE_ORPHANED_FILES))) {
+            for (File file : incrementalBuild.findOrphanedFiles(manifest.get())) {
+                if (file.isFile()) {
+                    callback.startTask(getString("Progress.21", file.getName())); //$NON-NLS-1$
+                    if (!file.delete()) {
+                        warnings.add(getString("Warning.37", file.getAbsolutePath())); //$NON-NLS-1$
+                    }
+                }
+            }
+        }
+
+        String manifestFile = getProperty(PropertyRegistry.CONTEXT_BUILD_MANIFEST);
+        try {
+            manifest.get().write(new File(manifestFile));
+        } catch (IOException e) {
+            warnings.add(getString("Warning.36", manifestFile, e.getMessage())); //$NON-NLS-1$
+        }
     }
 
     /**
@@ -501,14 +1113,41 @@ public class Context extends PropertyHolder {
      * @throws SQLException if any error occurs while creating the connection
      */
     public Connection getConnection() throws SQLException {
-        ConnectionFactory connectionFactory;
-        if (jdbcConnectionConfiguration != null) {
-            connectionFactory = new JDBCConnectionFactory(jdbcConnectionConfiguration);
+        GenerationMetrics.Timer timer = metrics.startTimer();
+        Connection connection = createConnectionFactory().getConnection();
+        timer.stop(GenerationMetrics.Phase.CONNECT, id);
+        return connection;
+    }
+
+    private ConnectionFactory createConnectionFactory() {
+        if (connectionFactory != null) {
+            return connectionFactory;
+        } else if (jdbcConnectionConfiguration != null) {
+            return new JDBCConnectionFactory(jdbcConnectionConfiguration, getComponentFactory());
         } else {
-            connectionFactory = ObjectFactory.createConnectionFactory(this);
+            return ObjectFactory.createConnectionFactory(this);
         }
+    }
 
-        return connectionFactory.getConnection();
+    /**
+     * Returns the factory that creates connections for this context. This is the factory set with
+     * {@link #setConnectionFactory(ConnectionFactory)} if there is one, otherwise a new factory calculated from
+     * the jdbcConnection or connectionFactory configuration.
+     *
+     * @return the connection factory
+     */
+    public ConnectionFactory getConnectionFactory() {
+        return createConnectionFactory();
+    }
+
+    /**
+     * Sets a factory that replaces the factory calculated from the configuration. A resident process uses this
+     * to reuse connections across generation runs.
+     *
+     * @param connectionFactory the connection factory, or null to use the configured factory
+     */
+    public void setConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
     }
 
     /**
@@ -37,6 +37,10 @@ public class IgnoredColumn {
         return columnName;
     }
 
+    public boolean isColumnNameDelimited() {
+        return isColumnNameDelimited;
+    }
+
     public void setColumnNameDelimited(boolean isColumnNameDelimited) {
         this.isColumnNameDelimited = isColumnNameDelimited;
     }
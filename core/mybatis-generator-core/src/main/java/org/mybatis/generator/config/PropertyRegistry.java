@@ -60,8 +60,16 @@ public class PropertyRegistry {
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_KOTLIN_FORMATTER = "kotlinFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_KOTLIN_FILE_ENCODING = "kotlinFileEncoding"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_THREADS = "introspectionThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_BULK_INTROSPECTION = "bulkIntrospection"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_SNAPSHOT = "introspectionSnapshot"; //$NON-NLS-1$
+    public static final String CONTEXT_GENERATION_THREADS = "generationThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_BUILD_MANIFEST = "buildManifest"; //$NON-NLS-1$
+    public static final String CONTEXT_DELETE_ORPHANED_FILES = "deleteOrphanedFiles"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECT_INDEXES = "introspectIndexes"; //$NON-NLS-1$
 
     public static final String CLIENT_DYNAMIC_SQL_SUPPORT_PACKAGE = "dynamicSqlSupportPackage"; //$NON-NLS-1$
+    public static final String CLIENT_MEMOIZE_PROVIDER_SQL = "memoizeProviderSql"; //$NON-NLS-1$
 
     public static final String TYPE_RESOLVER_FORCE_BIG_DECIMALS = "forceBigDecimals"; //$NON-NLS-1$
     public static final String TYPE_RESOLVER_USE_JSR310_TYPES = "useJSR310Types"; //$NON-NLS-1$
@@ -69,6 +77,7 @@ public class PropertyRegistry {
     public static final String MODEL_GENERATOR_TRIM_STRINGS = "trimStrings"; //$NON-NLS-1$
     public static final String MODEL_GENERATOR_EXAMPLE_PACKAGE = "exampleTargetPackage"; //$NON-NLS-1$
     public static final String MODEL_GENERATOR_EXAMPLE_PROJECT = "exampleTargetProject"; //$NON-NLS-1$
+    public static final String MODEL_GENERATOR_COMPACT_EXAMPLE = "compactExample"; //$NON-NLS-1$
 
     public static final String COMMENT_GENERATOR_SUPPRESS_DATE = "suppressDate"; //$NON-NLS-1$
     public static final String COMMENT_GENERATOR_SUPPRESS_ALL_COMMENTS = "suppressAllComments"; //$NON-NLS-1$
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.internal.util.messages.Messages;
 
@@ -83,6 +84,15 @@ public class TableConfiguration extends PropertyHolder {
 
     private final List<IgnoredColumnPattern> ignoredColumnPatterns = new ArrayList<>();
 
+    // The introspector looks up the rules for every column of every matching table. The lookups
+    // use indexes that are built on first use, and rebuilt when rules are added. Pattern results
+    // are remembered for each column name because wildcard tables share many column names.
+    private volatile ColumnNameIndex<ColumnOverride> columnOverrideIndex;
+
+    private volatile ColumnNameIndex<IgnoredColumn> ignoredColumnIndex;
+
+    private final Map<String, Boolean> ignoredColumnPatternResults = new ConcurrentHashMap<>();
+
     public TableConfiguration(Context context) {
         super();
 
@@ -137,14 +147,20 @@ public class TableConfiguration extends PropertyHolder {
     }
 
     public boolean isColumnIgnored(String columnName) {
-        for (Map.Entry<IgnoredColumn, Boolean> entry : ignoredColumns
-                .entrySet()) {
-            if (entry.getKey().matches(columnName)) {
-                entry.setValue(Boolean.TRUE);
-                return true;
-            }
+        IgnoredColumn ignoredColumn = getIgnoredColumnIndex().find(columnName);
+        if (ignoredColumn != null) {
+            ignoredColumns.put(ignoredColumn, Boolean.TRUE);
+            return true;
         }
 
+        if (ignoredColumnPatterns.isEmpty()) {
+            return false;
+        }
+
+        return ignoredColumnPatternResults.computeIfAbsent(columnName, this::matchesIgnoredColumnPattern);
+    }
+
+    private boolean matchesIgnoredColumnPattern(String columnName) {
         for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
             if (ignoredColumnPattern.matches(columnName)) {
                 return true;
@@ -154,16 +170,30 @@ public class TableConfiguration extends PropertyHolder {
         return false;
     }
 
+    private ColumnNameIndex<IgnoredColumn> getIgnoredColumnIndex() {
+        ColumnNameIndex<IgnoredColumn> index = ignoredColumnIndex;
+        if (index == null) {
+            // the first match in map order wins, as it did when the map was scanned
+            index = new ColumnNameIndex<>(new ArrayList<>(ignoredColumns.keySet()),
+                    IgnoredColumn::getColumnName, IgnoredColumn::isColumnNameDelimited);
+            ignoredColumnIndex = index;
+        }
+        return index;
+    }
+
     public void addIgnoredColumn(IgnoredColumn ignoredColumn) {
         ignoredColumns.put(ignoredColumn, Boolean.FALSE);
+        ignoredColumnIndex = null;
     }
 
     public void addIgnoredColumnPattern(IgnoredColumnPattern ignoredColumnPattern) {
         ignoredColumnPatterns.add(ignoredColumnPattern);
+        ignoredColumnPatternResults.clear();
     }
 
     public void addColumnOverride(ColumnOverride columnOverride) {
         columnOverrides.add(columnOverride);
+        columnOverrideIndex = null;
     }
 
     @Override
@@ -205,19 +235,15 @@ public class TableConfiguration extends PropertyHolder {
      * @return the column override (if any) related to this column
      */
     public ColumnOverride getColumnOverride(String columnName) {
-        for (ColumnOverride co : columnOverrides) {
-            if (co.isColumnNameDelimited()) {
-                if (columnName.equals(co.getColumnName())) {
-                    return co;
-                }
-            } else {
-                if (columnName.equalsIgnoreCase(co.getColumnName())) {
-                    return co;
-                }
-            }
+        ColumnNameIndex<ColumnOverride> index = columnOverrideIndex;
+        // the list is also changed through getColumnOverrides()
+        if (index == null || index.size() != columnOverrides.size()) {
+            index = new ColumnNameIndex<>(columnOverrides, ColumnOverride::getColumnName,
+                    ColumnOverride::isColumnNameDelimited);
+            columnOverrideIndex = index;
         }
 
-        return null;
+        return index.find(columnName);
     }
 
     public Optional<GeneratedKey> getGeneratedKey() {
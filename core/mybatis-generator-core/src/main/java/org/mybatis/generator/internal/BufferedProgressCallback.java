@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * A progress callback that records the tasks started by the generators of one table, so they can be
+ * reported to the real callback later from a single thread. Tables generated on worker threads then
+ * report progress in table order, exactly as they do when the tables are generated one at a time.
+ *
+ * <p>Cancellation is not checked on worker threads. The thread that replays the tasks checks it.
+ *
+ * <p>This class is for internal use only.
+ */
+public class BufferedProgressCallback implements ProgressCallback {
+
+    private final List<String> taskNames = new ArrayList<>();
+
+    @Override
+    public synchronized void startTask(String taskName) {
+        taskNames.add(taskName);
+    }
+
+    /**
+     * Reports the recorded tasks to a callback and forgets them.
+     *
+     * @param callback the callback that receives the tasks
+     */
+    public synchronized void replay(ProgressCallback callback) {
+        taskNames.forEach(callback::startTask);
+        taskNames.clear();
+    }
+}
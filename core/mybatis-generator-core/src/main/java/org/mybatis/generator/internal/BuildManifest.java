@@ -0,0 +1,190 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A record of the inputs and outputs of the last successful generation run for a context. For every
+ * introspected table, the manifest holds a fingerprint of everything that affects the generated code
+ * and the absolute paths of the files that were saved for the table. Files generated for the context
+ * as a whole (by plugins) are recorded separately.
+ *
+ * <p>The manifest is stored in a compact binary file.
+ */
+public class BuildManifest {
+
+    private static final int MAGIC = 0x4D42474D; // "MBGM"
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<String, TableEntry> tables = new LinkedHashMap<>();
+
+    private List<String> contextFiles = Collections.emptyList();
+
+    public Optional<TableEntry> getTable(String tableKey) {
+        return Optional.ofNullable(tables.get(tableKey));
+    }
+
+    public void putTable(String tableKey, TableEntry tableEntry) {
+        tables.put(tableKey, tableEntry);
+    }
+
+    public Set<String> getTableKeys() {
+        return tables.keySet();
+    }
+
+    public List<String> getContextFiles() {
+        return contextFiles;
+    }
+
+    public void setContextFiles(List<String> contextFiles) {
+        this.contextFiles = new ArrayList<>(contextFiles);
+    }
+
+    /**
+     * Returns every file recorded in the manifest.
+     *
+     * @return the absolute paths of all recorded files
+     */
+    public Set<String> getAllFiles() {
+        Set<String> files = new LinkedHashSet<>();
+        for (TableEntry tableEntry : tables.values()) {
+            files.addAll(tableEntry.getFiles());
+        }
+        files.addAll(contextFiles);
+        return files;
+    }
+
+    /**
+     * Reads a manifest file.
+     *
+     * @param file the file
+     * @return the manifest read from the file, or an empty manifest if the file does not exist
+     * @throws IOException if the file exists but cannot be read, or is not a manifest file
+     */
+    public static BuildManifest read(File file) throws IOException {
+        BuildManifest manifest = new BuildManifest();
+        if (!file.exists()) {
+            return manifest;
+        }
+
+        try (InputStream is = Files.newInputStream(file.toPath());
+                DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(is)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported build manifest format"); //$NON-NLS-1$
+            }
+
+            int tableCount = in.readInt();
+            for (int i = 0; i < tableCount; i++) {
+                String tableKey = in.readUTF();
+                String fingerprint = in.readUTF();
+                manifest.tables.put(tableKey, new TableEntry(fingerprint, readFiles(in)));
+            }
+            manifest.contextFiles = readFiles(in);
+        }
+
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest to a file. The file is written to a temporary file first and then
+     * moved into place so that an interrupted write never leaves a partial manifest.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        File tempFile = new File(parent, file.getName() + ".tmp"); //$NON-NLS-1$
+        try (OutputStream os = Files.newOutputStream(tempFile.toPath());
+                DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(os)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(tables.size());
+            for (Map.Entry<String, TableEntry> entry : tables.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().getFingerprint());
+                writeFiles(out, entry.getValue().getFiles());
+            }
+            writeFiles(out, contextFiles);
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeFiles(DataOutputStream out, List<String> files) throws IOException {
+        out.writeInt(files.size());
+        for (String file : files) {
+            out.writeUTF(file);
+        }
+    }
+
+    private static List<String> readFiles(DataInputStream in) throws IOException {
+        int fileCount = in.readInt();
+        List<String> files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            files.add(in.readUTF());
+        }
+        return files;
+    }
+
+    public static class TableEntry {
+        private final String fingerprint;
+        private final List<String> files;
+
+        public TableEntry(String fingerprint, List<String> files) {
+            this.fingerprint = fingerprint;
+            this.files = new ArrayList<>(files);
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Returns the files saved for the table.
+         *
+         * @return the absolute paths of the files
+         */
+        public List<String> getFiles() {
+            return files;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mybatis.generator.codegen.RootClassInfo;
+
+/**
+ * Loads classes and creates objects for a single generation run. Unlike the static methods in
+ * {@link ObjectFactory}, a component factory has its own fixed list of external class loaders, so
+ * several generators can run in the same JVM without sharing class loading configuration.
+ *
+ * <p>Each type is resolved once. The class and its no-argument constructor are cached, so creating
+ * many objects of the same type (for example, one introspected column for every column in the
+ * database) does not repeat the class lookup. Instances are safe to share across threads.
+ */
+public class ComponentFactory {
+
+    private final List<ClassLoader> externalClassLoaders;
+
+    private final ConcurrentMap<String, Class<?>> externalClasses = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Class<?>> internalClasses = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Constructor<?>> externalConstructors = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Constructor<?>> internalConstructors = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, RootClassInfo> rootClassInfos = new ConcurrentHashMap<>();
+
+    public ComponentFactory() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Creates a factory that searches the supplied class loaders, in order, for external classes.
+     *
+     * @param externalClassLoaders
+     *            the class loaders for classes that do not depend on the generator. Examples are JDBC drivers,
+     *            root classes, root interfaces, etc.
+     */
+    public ComponentFactory(List<ClassLoader> externalClassLoaders) {
+        this.externalClassLoaders = Collections.unmodifiableList(new ArrayList<>(externalClassLoaders));
+    }
+
+    public List<ClassLoader> getExternalClassLoaders() {
+        return externalClassLoaders;
+    }
+
+    /**
+     * Returns a class loaded from the external class loaders, or from the context class loader if the class is not
+     * found there. This is appropriate for JDBC drivers, model root classes, etc. It is not appropriate for any class
+     * that extends one of the supplied classes or interfaces.
+     *
+     * @param type
+     *            the type
+     * @return the Class loaded from the external classloader
+     * @throws ClassNotFoundException
+     *             the class not found exception
+     */
+    public Class<?> externalClassForName(String type) throws ClassNotFoundException {
+        Class<?> clazz = externalClasses.get(type);
+        if (clazz == null) {
+            clazz = loadExternalClass(type);
+            externalClasses.putIfAbsent(type, clazz);
+        }
+        return clazz;
+    }
+
+    private Class<?> loadExternalClass(String type) throws ClassNotFoundException {
+        for (ClassLoader classLoader : externalClassLoaders) {
+            try {
+                return Class.forName(type, true, classLoader);
+            } catch (Exception e) {
+                // ignore - fail safe below
+            }
+        }
+
+        return internalClassForName(type);
+    }
+
+    public Class<?> internalClassForName(String type) throws ClassNotFoundException {
+        Class<?> clazz = internalClasses.get(type);
+        if (clazz == null) {
+            clazz = ObjectFactory.internalClassForName(type);
+            internalClasses.putIfAbsent(type, clazz);
+        }
+        return clazz;
+    }
+
+    public Object createExternalObject(String type) {
+        try {
+            Constructor<?> constructor = externalConstructors.get(type);
+            if (constructor == null) {
+                constructor = externalClassForName(type).getConstructor();
+                externalConstructors.putIfAbsent(type, constructor);
+            }
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(getString("RuntimeError.6", type), e); //$NON-NLS-1$
+        }
+    }
+
+    public Object createInternalObject(String type) {
+        try {
+            Constructor<?> constructor = internalConstructors.get(type);
+            if (constructor == null) {
+                constructor = internalClassForName(type).getConstructor();
+                internalConstructors.putIfAbsent(type, constructor);
+            }
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(getString("RuntimeError.6", type), e); //$NON-NLS-1$
+        }
+    }
+
+    public URL getResource(String resource) {
+        for (ClassLoader classLoader : externalClassLoaders) {
+            URL url = classLoader.getResource(resource);
+            if (url != null) {
+                return url;
+            }
+        }
+
+        return ObjectFactory.getInternalResource(resource);
+    }
+
+    /**
+     * Returns the cache of root class information for this factory. Root classes are loaded from the external
+     * class loaders, so the information is only valid for the class loaders of this factory.
+     *
+     * @return the cache, keyed by class name
+     */
+    public ConcurrentMap<String, RootClassInfo> getRootClassInfoCache() {
+        return rootClassInfos;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedKotlinFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.internal.util.DaemonThreadFactory;
+
+/**
+ * Generates the files for introspected tables on a bounded pool of worker threads.
+ *
+ * <p>Tables must be initialized, and their generators calculated, before they are submitted.
+ * Callers collect the results in submission order, so the generated files are in exactly the
+ * same order as they would be if the tables were generated one at a time.
+ *
+ * <p>This class is for internal use only. It is only used when every plugin in the context
+ * is thread safe.
+ */
+public class ConcurrentGenerator implements AutoCloseable {
+
+    private final PluginAggregator pluginAggregator;
+
+    private final GenerationMetrics metrics;
+
+    private final ExecutorService executor;
+
+    public ConcurrentGenerator(String contextId, PluginAggregator pluginAggregator, GenerationMetrics metrics,
+            int threads) {
+        this.pluginAggregator = pluginAggregator;
+        this.metrics = metrics;
+        executor = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("mbg-generator-" + contextId)); //$NON-NLS-1$
+    }
+
+    public Future<Result> submit(IntrospectedTable introspectedTable) {
+        return executor.submit(() -> generate(introspectedTable));
+    }
+
+    private Result generate(IntrospectedTable introspectedTable) {
+        GenerationMetrics.Timer timer = metrics.startTimer();
+        Result result = new Result();
+
+        result.generatedJavaFiles.addAll(introspectedTable.getGeneratedJavaFiles());
+        result.generatedXmlFiles.addAll(introspectedTable.getGeneratedXmlFiles());
+        result.generatedKotlinFiles.addAll(introspectedTable.getGeneratedKotlinFiles());
+
+        result.generatedJavaFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalJavaFiles(introspectedTable));
+        result.generatedXmlFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalXmlFiles(introspectedTable));
+        result.generatedKotlinFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalKotlinFiles(introspectedTable));
+        result.otherGeneratedFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalFiles(introspectedTable));
+
+        timer.stop(GenerationMetrics.Phase.GENERATE, introspectedTable.getFullyQualifiedTable().toString());
+        return result;
+    }
+
+    /**
+     * Waits for the result of a task returned from {@link #submit(IntrospectedTable)}, unwrapping
+     * any exception thrown while generating.
+     *
+     * @param future the pending result
+     * @return the generated files
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public static Result getResult(Future<Result> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Cancels any work that has not finished.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public static class Result {
+        private final List<GeneratedJavaFile> generatedJavaFiles = new ArrayList<>();
+        private final List<GeneratedXmlFile> generatedXmlFiles = new ArrayList<>();
+        private final List<GeneratedKotlinFile> generatedKotlinFiles = new ArrayList<>();
+        private final List<GeneratedFile> otherGeneratedFiles = new ArrayList<>();
+
+        private Result() {
+            super();
+        }
+
+        public List<GeneratedJavaFile> getGeneratedJavaFiles() {
+            return generatedJavaFiles;
+        }
+
+        public List<GeneratedXmlFile> getGeneratedXmlFiles() {
+            return generatedXmlFiles;
+        }
+
+        public List<GeneratedKotlinFile> getGeneratedKotlinFiles() {
+            return generatedKotlinFiles;
+        }
+
+        public List<GeneratedFile> getOtherGeneratedFiles() {
+            return otherGeneratedFiles;
+        }
+    }
+}
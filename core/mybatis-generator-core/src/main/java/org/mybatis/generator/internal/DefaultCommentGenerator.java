@@ -120,6 +120,15 @@ public class DefaultCommentGenerator implements CommentGenerator {
         }
     }
 
+    /**
+     * Returns true for this class. Subclasses must override this method to declare that they are thread
+     * safe too.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return getClass() == DefaultCommentGenerator.class;
+    }
+
     /**
      * This method adds the custom javadoc tag for. You may do nothing if you do not
      * wish to include the Javadoc tag - however, if you do not include the Javadoc
@@ -155,7 +164,10 @@ public class DefaultCommentGenerator implements CommentGenerator {
         if (suppressDate) {
             return null;
         } else if (dateFormat != null) {
-            return dateFormat.format(new Date());
+            // SimpleDateFormat is not thread safe, and comments may be generated concurrently
+            synchronized (dateFormat) {
+                return dateFormat.format(new Date());
+            }
         } else {
             return new Date().toString();
         }
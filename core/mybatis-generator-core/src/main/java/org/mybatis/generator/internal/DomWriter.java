@@ -247,21 +247,29 @@ public class DomWriter {
 
     protected void write(Document node) throws ShellException {
         isXML11 = "1.1".equals(getVersion(node)); //$NON-NLS-1$
+        writeXmlDeclaration();
+        write(node.getDoctype());
+        write(node.getDocumentElement());
+    }
+
+    protected void writeXmlDeclaration() {
         if (isXML11) {
             printWriter.println("<?xml version=\"1.1\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
         } else {
             printWriter.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
         }
         printWriter.flush();
-        write(node.getDoctype());
-        write(node.getDocumentElement());
     }
 
     protected void write(DocumentType node) {
+        writeDocumentType(node.getName(), node.getPublicId(), node.getSystemId(),
+                node.getInternalSubset());
+    }
+
+    protected void writeDocumentType(String name, String publicId, String systemId,
+            String internalSubset) {
         printWriter.print("<!DOCTYPE "); //$NON-NLS-1$
-        printWriter.print(node.getName());
-        String publicId = node.getPublicId();
-        String systemId = node.getSystemId();
+        printWriter.print(name);
         if (publicId != null) {
             printWriter.print(" PUBLIC \""); //$NON-NLS-1$
             printWriter.print(publicId);
@@ -274,7 +282,6 @@ public class DomWriter {
             printWriter.print('"');
         }
 
-        String internalSubset = node.getInternalSubset();
         if (internalSubset != null) {
             printWriter.println(" ["); //$NON-NLS-1$
             printWriter.print(internalSubset);
@@ -323,8 +330,11 @@ public class DomWriter {
     }
 
     protected void write(CDATASection node) {
+        writeCDataSection(node.getNodeValue());
+    }
+
+    protected void writeCDataSection(String data) {
         printWriter.print("<![CDATA["); //$NON-NLS-1$
-        String data = node.getNodeValue();
         // XML parsers normalize line endings to '\n'.  We should write
         // it out as it was in the original to avoid whitespace commits
         // on some version control systems
@@ -347,9 +357,12 @@ public class DomWriter {
     }
 
     protected void write(ProcessingInstruction node) {
+        writeProcessingInstruction(node.getNodeName(), node.getNodeValue());
+    }
+
+    protected void writeProcessingInstruction(String target, String data) {
         printWriter.print("<?"); //$NON-NLS-1$
-        printWriter.print(node.getNodeName());
-        String data = node.getNodeValue();
+        printWriter.print(target);
         if (data != null && data.length() > 0) {
             printWriter.print(' ');
             printWriter.print(data);
@@ -359,8 +372,11 @@ public class DomWriter {
     }
 
     protected void write(Comment node) {
+        writeComment(node.getNodeValue());
+    }
+
+    protected void writeComment(String comment) {
         printWriter.print("<!--"); //$NON-NLS-1$
-        String comment = node.getNodeValue();
         if (comment != null && comment.length() > 0) {
             normalizeAndPrint(comment, false);
         }
@@ -0,0 +1,545 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringContainsSQLWildcard;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.db.PooledConnectionFactory;
+import org.mybatis.generator.internal.util.ClassloaderUtility;
+import org.mybatis.generator.internal.util.DaemonThreadFactory;
+import org.mybatis.generator.internal.util.Fingerprint;
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
+
+/**
+ * A resident process that keeps a parsed configuration, the classes it loaded, and open database
+ * connections between generation runs. Repeated runs then skip JVM startup, configuration parsing,
+ * class loading, and connecting to the database.
+ *
+ * <p>The daemon accepts requests on a local socket. It only listens on the loopback address. When it
+ * starts, it writes a random token to a file that only the owner can read (see
+ * {@link #getTokenFile(File, int)}). A request is a line with the token, followed by a line with a
+ * command, followed by one line for every argument, followed by an empty line. Requests without the
+ * token are rejected, as are requests that are not sent within {@link #REQUEST_TIMEOUT_MILLIS}. The
+ * daemon writes the output of the request to the socket and then closes it. Commands are:
+ * <dl>
+ *   <dt>generate</dt><dd>runs the generation task with the arguments of the request</dd>
+ *   <dt>stop</dt><dd>stops the daemon</dd>
+ * </dl>
+ *
+ * <p>The daemon can also watch the configuration file and the database schema. If the configuration
+ * file changes, it is parsed again and the generation task runs. If the new file cannot be parsed, the
+ * errors are reported and the daemon keeps the previous configuration. If the columns or primary keys
+ * of a configured table change, the generation task runs. Only one generation task runs at a time.
+ */
+public class GenerationDaemon implements AutoCloseable {
+
+    public static final String GENERATE = "generate"; //$NON-NLS-1$
+
+    public static final String STOP = "stop"; //$NON-NLS-1$
+
+    /**
+     * The time the daemon waits for each line of a request before it drops the connection.
+     */
+    public static final int REQUEST_TIMEOUT_MILLIS = 10000;
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final Log logger = LogFactory.getLog(GenerationDaemon.class);
+
+    /**
+     * The work that the daemon runs for every generation request.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Runs generation.
+         *
+         * @param configuration the current configuration. The contexts of the configuration reuse database
+         *     connections
+         * @param componentFactory the factory that loaded the classes of the current configuration
+         * @param arguments the arguments of the request. Empty if the daemon runs the task because it found a
+         *     change
+         * @param out the stream that receives the output of the task
+         */
+        void run(Configuration configuration, ComponentFactory componentFactory, List<String> arguments,
+                PrintStream out);
+    }
+
+    private final File configurationFile;
+    private final Task task;
+    private final PrintStream console;
+    private final Object generationLock = new Object();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private Configuration configuration;
+    private ComponentFactory componentFactory;
+    private final List<PooledConnectionFactory> connectionFactories = new ArrayList<>();
+    private long configurationLastModified;
+    private long configurationLength;
+    private String schemaFingerprint;
+    private boolean watchSchema;
+
+    private ServerSocket serverSocket;
+    private File tokenFile;
+    private byte[] token;
+    private ScheduledExecutorService watcher;
+
+    /**
+     * Constructs a daemon.
+     *
+     * @param configurationFile the configuration file
+     * @param task the generation task
+     * @param console the stream that receives the output of runs that are not requested by a client
+     */
+    public GenerationDaemon(File configurationFile, Task task, PrintStream console) {
+        this.configurationFile = configurationFile;
+        this.task = task;
+        this.console = console;
+    }
+
+    /**
+     * Parses the configuration file. If the file is parsed, the new configuration replaces the current
+     * configuration and the connections of the current configuration are closed.
+     *
+     * @param out the stream that receives parser warnings and errors
+     * @return true if the file was parsed
+     */
+    public boolean load(PrintStream out) {
+        synchronized (generationLock) {
+            long lastModified = configurationFile.lastModified();
+            long length = configurationFile.length();
+
+            List<String> warnings = new ArrayList<>();
+            Configuration newConfiguration;
+            try {
+                newConfiguration = new ConfigurationParser(warnings).parseConfiguration(configurationFile);
+            } catch (XMLParserException e) {
+                out.println(getString("Progress.3")); //$NON-NLS-1$
+                out.println();
+                e.getErrors().forEach(out::println);
+                rememberConfigurationFile(lastModified, length);
+                return false;
+            } catch (IOException e) {
+                e.printStackTrace(out);
+                rememberConfigurationFile(lastModified, length);
+                return false;
+            }
+            warnings.forEach(out::println);
+
+            closeConnections();
+            List<ClassLoader> classLoaders = new ArrayList<>();
+            if (!newConfiguration.getClassPathEntries().isEmpty()) {
+                classLoaders.add(ClassloaderUtility.getCustomClassloader(newConfiguration.getClassPathEntries()));
+            }
+            componentFactory = new ComponentFactory(classLoaders);
+            for (Context context : newConfiguration.getContexts()) {
+                context.setComponentFactory(componentFactory);
+                if (context.getJdbcConnectionConfiguration() == null
+                        && context.getConnectionFactoryConfiguration() == null) {
+                    // invalid - the generator reports it
+                    continue;
+                }
+                PooledConnectionFactory connectionFactory =
+                        new PooledConnectionFactory(context.getConnectionFactory());
+                context.setConnectionFactory(connectionFactory);
+                connectionFactories.add(connectionFactory);
+            }
+            configuration = newConfiguration;
+            rememberConfigurationFile(lastModified, length);
+            schemaFingerprint = watchSchema ? calculateSchemaFingerprint(out) : null;
+            return true;
+        }
+    }
+
+    /**
+     * Runs the generation task with the current configuration. Does nothing if no configuration is loaded.
+     *
+     * @param arguments the arguments for the task
+     * @param out the stream that receives the output of the task
+     */
+    public void generate(List<String> arguments, PrintStream out) {
+        synchronized (generationLock) {
+            if (configuration != null) {
+                task.run(configuration, componentFactory, arguments, out);
+            }
+        }
+    }
+
+    /**
+     * Starts accepting requests on the loopback address, and writes the token that clients must send to
+     * the token file for the port. The token file is deleted when the daemon is closed.
+     *
+     * @param port the port, or 0 to choose a free port
+     * @param tokenDirectory the directory of the token file
+     * @return the port the daemon listens on
+     * @throws IOException if the socket cannot be opened or the token file cannot be written
+     */
+    public int start(int port, File tokenDirectory) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        try {
+            tokenFile = getTokenFile(tokenDirectory, serverSocket.getLocalPort());
+            token = writeToken(tokenFile.toPath());
+        } catch (IOException | RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+        Thread acceptor = new DaemonThreadFactory("mbg-daemon").newThread(this::acceptRequests); //$NON-NLS-1$
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts checking the configuration file - and, if requested, the database schema - for changes.
+     *
+     * @param intervalSeconds the number of seconds between checks
+     * @param includeSchema if true, the database schema is checked too
+     */
+    public void watch(long intervalSeconds, boolean includeSchema) {
+        synchronized (generationLock) {
+            watchSchema = includeSchema;
+            if (watchSchema && schemaFingerprint == null) {
+                schemaFingerprint = calculateSchemaFingerprint(console);
+            }
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("mbg-watch")); //$NON-NLS-1$
+        watcher.scheduleWithFixedDelay(this::checkForChanges, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits until the daemon is stopped by a client or by {@link #close()}.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops accepting requests and watching for changes, and closes all pooled connections. A running
+     * generation task is allowed to finish.
+     */
+    @Override
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        synchronized (generationLock) {
+            closeConnections();
+            configuration = null;
+        }
+        if (tokenFile != null) {
+            try {
+                Files.deleteIfExists(tokenFile.toPath());
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Returns the file that holds the token of the daemon that listens on a port.
+     *
+     * @param tokenDirectory the directory of the token file
+     * @param port the port the daemon listens on
+     * @return the token file
+     */
+    public static File getTokenFile(File tokenDirectory, int port) {
+        return new File(tokenDirectory, ".mybatis-generator-daemon-" + port + ".token"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Sends a request to a daemon and copies the response to a stream.
+     *
+     * @param port the port the daemon listens on
+     * @param tokenDirectory the directory of the daemon's token file
+     * @param command the command
+     * @param arguments the arguments of the request
+     * @param out the stream that receives the response
+     * @throws IOException if the token file cannot be read or the daemon cannot be reached
+     */
+    public static void sendRequest(int port, File tokenDirectory, String command, List<String> arguments,
+            PrintStream out) throws IOException {
+        List<String> tokenLines = Files.readAllLines(getTokenFile(tokenDirectory, port).toPath(),
+                StandardCharsets.UTF_8);
+        String requestToken = tokenLines.isEmpty() ? "" : tokenLines.get(0); //$NON-NLS-1$
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(requestToken);
+            writer.write('\n');
+            writer.write(command);
+            writer.write('\n');
+            for (String argument : arguments) {
+                writer.write(argument);
+                writer.write('\n');
+            }
+            writer.write('\n');
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                out.println(line);
+            }
+        }
+    }
+
+    private void acceptRequests() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+                if (!handleRequest(socket)) {
+                    close();
+                }
+            } catch (SocketException e) {
+                // the server socket was closed
+            } catch (IOException | RuntimeException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @return false if the daemon should stop
+     */
+    private boolean handleRequest(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        String requestToken = reader.readLine();
+        PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8.name());
+        if (requestToken == null
+                || !MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8))) {
+            out.println(getString("RuntimeError.28")); //$NON-NLS-1$
+            out.flush();
+            return true;
+        }
+
+        String command = reader.readLine();
+        List<String> arguments = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            arguments.add(line);
+        }
+
+        if (GENERATE.equals(command)) {
+            try {
+                generate(arguments, out);
+            } catch (RuntimeException e) {
+                e.printStackTrace(out);
+            }
+        } else if (STOP.equals(command)) {
+            out.println(getString("Progress.26")); //$NON-NLS-1$
+            return false;
+        } else {
+            out.println(getString("RuntimeError.25", String.valueOf(command))); //$NON-NLS-1$
+        }
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Writes a new random token to a file that only the owner can read and write. On file systems
+     * without POSIX permissions, the file is made readable and writable by the owner only.
+     */
+    private static byte[] writeToken(Path path) throws IOException {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b)); //$NON-NLS-1$
+        }
+        byte[] newToken = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        Files.deleteIfExists(path);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) { //$NON-NLS-1$
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------"))); //$NON-NLS-1$
+        } else {
+            File file = Files.createFile(path).toFile();
+            boolean restricted = file.setReadable(false, false) && file.setReadable(true, true)
+                    && file.setWritable(false, false) && file.setWritable(true, true);
+            if (!restricted) {
+                logger.warn(getString("Warning.41", file.getPath())); //$NON-NLS-1$
+            }
+        }
+        Files.write(path, Collections.singletonList(sb.toString()), StandardCharsets.UTF_8);
+        return newToken;
+    }
+
+    private void checkForChanges() {
+        try {
+            boolean configurationChanged;
+            synchronized (generationLock) {
+                configurationChanged = configurationFile.lastModified() != configurationLastModified
+                        || configurationFile.length() != configurationLength;
+            }
+
+            if (configurationChanged) {
+                console.println(getString("Progress.24", configurationFile.getPath())); //$NON-NLS-1$
+                if (load(console)) {
+                    generate(new ArrayList<>(), console);
+                }
+            } else if (watchSchema && schemaChanged()) {
+                console.println(getString("Progress.25")); //$NON-NLS-1$
+                generate(new ArrayList<>(), console);
+            }
+        } catch (RuntimeException e) {
+            // keep watching
+            e.printStackTrace(console);
+        }
+    }
+
+    private boolean schemaChanged() {
+        synchronized (generationLock) {
+            String newFingerprint = calculateSchemaFingerprint(console);
+            if (newFingerprint == null || newFingerprint.equals(schemaFingerprint)) {
+                return false;
+            }
+            schemaFingerprint = newFingerprint;
+            return true;
+        }
+    }
+
+    private void rememberConfigurationFile(long lastModified, long length) {
+        configurationLastModified = lastModified;
+        configurationLength = length;
+    }
+
+    private void closeConnections() {
+        connectionFactories.forEach(PooledConnectionFactory::close);
+        connectionFactories.clear();
+    }
+
+    /**
+     * Calculates a fingerprint of the columns and primary keys of every configured table.
+     *
+     * @return the fingerprint, or null if the database could not be read
+     */
+    private String calculateSchemaFingerprint(PrintStream out) {
+        if (configuration == null) {
+            return null;
+        }
+
+        Fingerprint fingerprint = new Fingerprint();
+        for (Context context : configuration.getContexts()) {
+            if (context.getJdbcConnectionConfiguration() == null
+                    && context.getConnectionFactoryConfiguration() == null) {
+                continue;
+            }
+            fingerprint.add(context.getId());
+            try (Connection connection = context.getConnectionFactory().getConnection()) {
+                DatabaseMetaData databaseMetaData = connection.getMetaData();
+                for (TableConfiguration tc : context.getTableConfigurations()) {
+                    addTable(fingerprint, databaseMetaData, tc);
+                }
+            } catch (SQLException | RuntimeException e) {
+                out.println(getString("Warning.40", e.getMessage())); //$NON-NLS-1$
+                return null;
+            }
+        }
+        return fingerprint.calculate();
+    }
+
+    private void addTable(Fingerprint fingerprint, DatabaseMetaData databaseMetaData, TableConfiguration tc)
+            throws SQLException {
+        String catalog = tc.getCatalog();
+        String schema = tc.getSchema();
+        String tableName = tc.getTableName();
+        if (!tc.isDelimitIdentifiers()) {
+            if (databaseMetaData.storesLowerCaseIdentifiers()) {
+                catalog = catalog == null ? null : catalog.toLowerCase();
+                schema = schema == null ? null : schema.toLowerCase();
+                tableName = tableName.toLowerCase();
+            } else if (databaseMetaData.storesUpperCaseIdentifiers()) {
+                catalog = catalog == null ? null : catalog.toUpperCase();
+                schema = schema == null ? null : schema.toUpperCase();
+                tableName = tableName.toUpperCase();
+            }
+        }
+
+        try (ResultSet rs = databaseMetaData.getColumns(catalog, schema, tableName, "%")) { //$NON-NLS-1$
+            while (rs.next()) {
+                fingerprint.add(rs.getString("TABLE_CAT")) //$NON-NLS-1$
+                        .add(rs.getString("TABLE_SCHEM")) //$NON-NLS-1$
+                        .add(rs.getString("TABLE_NAME")) //$NON-NLS-1$
+                        .add(rs.getString("COLUMN_NAME")) //$NON-NLS-1$
+                        .add(rs.getInt("DATA_TYPE")) //$NON-NLS-1$
+                        .add(rs.getString("TYPE_NAME")) //$NON-NLS-1$
+                        .add(rs.getInt("COLUMN_SIZE")) //$NON-NLS-1$
+                        .add(rs.getInt("DECIMAL_DIGITS")) //$NON-NLS-1$
+                        .add(rs.getInt("NULLABLE")) //$NON-NLS-1$
+                        .add(rs.getString("REMARKS")) //$NON-NLS-1$
+                        .add(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
+            }
+        }
+
+        if (!stringContainsSQLWildcard(schema) && !stringContainsSQLWildcard(tableName)) {
+            try (ResultSet rs = databaseMetaData.getPrimaryKeys(catalog, schema, tableName)) {
+                while (rs.next()) {
+                    fingerprint.add(rs.getString("COLUMN_NAME")) //$NON-NLS-1$
+                            .add(rs.getShort("KEY_SEQ")); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.util.Fingerprint;
+
+/**
+ * Tracks one incremental generation run for a context. Tables whose fingerprint matches the
+ * previous {@link BuildManifest}, and whose files still exist, are not generated again.
+ *
+ * <p>If the previous run generated files for the context as a whole (for example, a MyBatis
+ * configuration file listing every mapper), then those files depend on every table. In that case
+ * all tables are generated if anything has changed, and nothing is generated otherwise.
+ *
+ * <p>This class is for internal use only.
+ */
+public class IncrementalBuild {
+
+    private final BuildManifest previousManifest;
+
+    private final String contextFingerprint;
+
+    private final Map<IntrospectedTable, String> tableKeys = new IdentityHashMap<>();
+
+    private final Map<String, String> fingerprints = new LinkedHashMap<>();
+
+    private final Set<String> skippedTables = new HashSet<>();
+
+    private final Map<String, List<GeneratedFile>> tableFiles = new LinkedHashMap<>();
+
+    private final List<GeneratedFile> contextFiles = new ArrayList<>();
+
+    private boolean upToDate;
+
+    /**
+     * Constructs an incremental build.
+     *
+     * @param previousManifest the manifest of the previous run, may be empty
+     * @param contextFingerprint a fingerprint of the generator version and every context level
+     *     setting that affects the generated code
+     */
+    public IncrementalBuild(BuildManifest previousManifest, String contextFingerprint) {
+        this.previousManifest = previousManifest;
+        this.contextFingerprint = contextFingerprint;
+    }
+
+    /**
+     * Calculates the fingerprint of every table and returns the tables that must be generated.
+     *
+     * @param introspectedTables all introspected tables in the context
+     * @return the tables that have changed since the previous run
+     */
+    public List<IntrospectedTable> selectTablesToGenerate(List<IntrospectedTable> introspectedTables) {
+        List<IntrospectedTable> changedTables = new ArrayList<>();
+        boolean duplicateKeys = false;
+        for (IntrospectedTable introspectedTable : introspectedTables) {
+            String tableKey = calculateTableKey(introspectedTable.getFullyQualifiedTable());
+            tableKeys.put(introspectedTable, tableKey);
+            if (fingerprints.put(tableKey, calculateFingerprint(introspectedTable)) != null) {
+                duplicateKeys = true;
+            }
+
+            if (!isUpToDate(tableKey)) {
+                changedTables.add(introspectedTable);
+            }
+        }
+
+        if (!duplicateKeys && changedTables.isEmpty()
+                && fingerprints.keySet().equals(previousManifest.getTableKeys())
+                && filesExist(previousManifest.getContextFiles())) {
+            upToDate = true;
+            skippedTables.addAll(fingerprints.keySet());
+            return Collections.emptyList();
+        }
+
+        if (duplicateKeys || !previousManifest.getContextFiles().isEmpty()) {
+            return introspectedTables;
+        }
+
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+            if (isUpToDate(entry.getKey())) {
+                skippedTables.add(entry.getKey());
+            }
+        }
+        return changedTables;
+    }
+
+    /**
+     * Calculates the key of a table in the manifest. The same table may be configured more than once
+     * with different domain object names, so the key includes the domain object name.
+     */
+    private static String calculateTableKey(FullyQualifiedTable fqt) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(fqt);
+        sb.append(" as "); //$NON-NLS-1$
+        if (fqt.getDomainObjectSubPackage() != null) {
+            sb.append(fqt.getDomainObjectSubPackage());
+            sb.append('.');
+        }
+        sb.append(fqt.getDomainObjectName());
+        return sb.toString();
+    }
+
+    private boolean isUpToDate(String tableKey) {
+        Optional<BuildManifest.TableEntry> tableEntry = previousManifest.getTable(tableKey);
+        return tableEntry.isPresent()
+                && tableEntry.get().getFingerprint().equals(fingerprints.get(tableKey))
+                && filesExist(tableEntry.get().getFiles());
+    }
+
+    private static boolean filesExist(List<String> files) {
+        for (String file : files) {
+            if (!new File(file).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if nothing in the context has changed. In that case no table is generated, and
+     * the files for the context as a whole should not be generated either.
+     *
+     * @return true if the context is up to date
+     */
+    public boolean isUpToDate() {
+        return upToDate;
+    }
+
+    /**
+     * Records files generated for a table. This must be called for every table returned from
+     * {@link #selectTablesToGenerate(List)}, even if no files are generated for the table.
+     *
+     * @param introspectedTable the table
+     * @param generatedFiles files generated for the table
+     */
+    public void recordTableFiles(IntrospectedTable introspectedTable, Collection<? extends GeneratedFile> generatedFiles) {
+        tableFiles.computeIfAbsent(tableKeys.get(introspectedTable), k -> new ArrayList<>()).addAll(generatedFiles);
+    }
+
+    public void recordContextFiles(Collection<? extends GeneratedFile> generatedFiles) {
+        contextFiles.addAll(generatedFiles);
+    }
+
+    /**
+     * Creates the manifest for this run.
+     *
+     * @param savedFiles the target file of every generated file that was saved, or that was not
+     *     written because it was unchanged
+     * @return the new manifest, or an empty Optional if some generated file was not saved. In that case
+     *     the previous manifest should be kept so that the affected tables are generated again.
+     */
+    public Optional<BuildManifest> createManifest(Map<GeneratedFile, File> savedFiles) {
+        BuildManifest manifest = new BuildManifest();
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+            String tableKey = entry.getKey();
+            if (skippedTables.contains(tableKey)) {
+                manifest.putTable(tableKey, previousManifest.getTable(tableKey)
+                        .orElseThrow(IllegalStateException::new));
+            } else {
+                Optional<List<String>> files = getSavedFiles(
+                        tableFiles.getOrDefault(tableKey, Collections.emptyList()), savedFiles);
+                if (!files.isPresent()) {
+                    return Optional.empty();
+                }
+                manifest.putTable(tableKey, new BuildManifest.TableEntry(entry.getValue(), files.get()));
+            }
+        }
+
+        if (upToDate) {
+            manifest.setContextFiles(previousManifest.getContextFiles());
+        } else {
+            Optional<List<String>> files = getSavedFiles(contextFiles, savedFiles);
+            if (!files.isPresent()) {
+                return Optional.empty();
+            }
+            manifest.setContextFiles(files.get());
+        }
+
+        return Optional.of(manifest);
+    }
+
+    private static Optional<List<String>> getSavedFiles(List<GeneratedFile> generatedFiles,
+            Map<GeneratedFile, File> savedFiles) {
+        List<String> files = new ArrayList<>();
+        for (GeneratedFile generatedFile : generatedFiles) {
+            File file = savedFiles.get(generatedFile);
+            if (file == null) {
+                return Optional.empty();
+            }
+            files.add(file.getAbsolutePath());
+        }
+        return Optional.of(files);
+    }
+
+    /**
+     * Returns files recorded in the previous manifest that were not generated in this run. These
+     * are the outputs of tables that were removed from the configuration, or files that a table no
+     * longer generates.
+     *
+     * @param manifest the manifest of this run
+     * @return the orphaned files
+     */
+    public List<File> findOrphanedFiles(BuildManifest manifest) {
+        Set<String> currentFiles = manifest.getAllFiles();
+        List<File> orphanedFiles = new ArrayList<>();
+        for (String file : previousManifest.getAllFiles()) {
+            if (!currentFiles.contains(file)) {
+                orphanedFiles.add(new File(file));
+            }
+        }
+        return orphanedFiles;
+    }
+
+    private String calculateFingerprint(IntrospectedTable introspectedTable) {
+        Fingerprint fingerprint = new Fingerprint().add(contextFingerprint);
+
+        TableConfiguration tc = introspectedTable.getTableConfiguration();
+        fingerprint.add(tc.getCatalog())
+                .add(tc.getSchema())
+                .add(tc.getTableName())
+                .add(tc.getDomainObjectName())
+                .add(tc.getAlias())
+                .add(tc.getModelType() == null ? null : tc.getModelType().name())
+                .add(tc.isInsertStatementEnabled())
+                .add(tc.isSelectByPrimaryKeyStatementEnabled())
+                .add(tc.isSelectByExampleStatementEnabled())
+                .add(tc.isUpdateByPrimaryKeyStatementEnabled())
+                .add(tc.isDeleteByPrimaryKeyStatementEnabled())
+                .add(tc.isDeleteByExampleStatementEnabled())
+                .add(tc.isCountByExampleStatementEnabled())
+                .add(tc.isUpdateByExampleStatementEnabled())
+                .add(tc.getSelectByPrimaryKeyQueryId())
+                .add(tc.getSelectByExampleQueryId())
+                .add(tc.getMapperName())
+                .add(tc.getSqlProviderName())
+                .add(tc.isDelimitIdentifiers())
+                .add(tc.isAllColumnDelimitingEnabled())
+                .add(tc.isWildcardEscapingEnabled())
+                .add(tc.getProperties());
+
+        Optional<GeneratedKey> generatedKey = tc.getGeneratedKey();
+        fingerprint.add(generatedKey.isPresent());
+        generatedKey.ifPresent(gk -> fingerprint.add(gk.getColumn())
+                .add(gk.getRuntimeSqlStatement())
+                .add(gk.isIdentity())
+                .add(gk.getMyBatis3Order())
+                .add(gk.isJdbcStandard()));
+
+        // renaming rules, column overrides and ignored columns are reflected in the introspected table
+        FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+        fingerprint.add(fqt.getIntrospectedCatalog())
+                .add(fqt.getIntrospectedSchema())
+                .add(fqt.getIntrospectedTableName())
+                .add(fqt.getFullyQualifiedTableNameAtRuntime())
+                .add(fqt.getAliasedFullyQualifiedTableNameAtRuntime())
+                .add(fqt.getDomainObjectName())
+                .add(fqt.getDomainObjectSubPackage())
+                .add(introspectedTable.getRemarks())
+                .add(introspectedTable.getTableType());
+
+        addColumns(fingerprint, introspectedTable.getPrimaryKeyColumns());
+        addColumns(fingerprint, introspectedTable.getBaseColumns());
+        addColumns(fingerprint, introspectedTable.getBLOBColumns());
+        addIndexes(fingerprint, introspectedTable.getIndexes());
+
+        return fingerprint.calculate();
+    }
+
+    private static void addIndexes(Fingerprint fingerprint, List<IntrospectedIndex> indexes) {
+        fingerprint.add(indexes.size());
+        for (IntrospectedIndex index : indexes) {
+            fingerprint.add(index.getName())
+                    .add(index.isUnique())
+                    .add(index.getColumns().size());
+            index.getColumns().forEach(column -> fingerprint.add(column.getActualColumnName()));
+        }
+    }
+
+    private static void addColumns(Fingerprint fingerprint, List<IntrospectedColumn> columns) {
+        fingerprint.add(columns.size());
+        for (IntrospectedColumn column : columns) {
+            fingerprint.add(column.getActualColumnName())
+                    .add(column.getJdbcType())
+                    .add(column.getJdbcTypeName())
+                    .add(column.getActualTypeName())
+                    .add(column.getLength())
+                    .add(column.getScale())
+                    .add(column.isNullable())
+                    .add(column.isIdentity())
+                    .add(column.isSequenceColumn())
+                    .add(column.isAutoIncrement())
+                    .add(column.isGeneratedColumn())
+                    .add(column.isGeneratedAlways())
+                    .add(column.isColumnNameDelimited())
+                    .add(column.getJavaProperty())
+                    .add(column.getFullyQualifiedJavaType() == null ? null
+                            : column.getFullyQualifiedJavaType().getFullyQualifiedName())
+                    .add(column.getTypeHandler())
+                    .add(column.getTableAlias())
+                    .add(column.getRemarks())
+                    .add(column.getDefaultValue())
+                    .add(column.getProperties());
+        }
+    }
+
+    /**
+     * Returns the version of the generator, if it is known. The version is part of every
+     * fingerprint, so that all tables are generated again after the generator is upgraded.
+     *
+     * @return the implementation version of the generator jar, or null if it is not known
+     */
+    public static String getGeneratorVersion() {
+        Package pkg = IncrementalBuild.class.getPackage();
+        return pkg == null ? null : pkg.getImplementationVersion();
+    }
+}
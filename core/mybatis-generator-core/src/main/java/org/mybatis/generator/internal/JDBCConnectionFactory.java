@@ -41,6 +41,7 @@ public class JDBCConnectionFactory implements ConnectionFactory {
     private String connectionURL;
     private String driverClass;
     private Properties otherProperties;
+    private ComponentFactory componentFactory;
 
     /**
      * This constructor is called when there is a JDBCConnectionConfiguration
@@ -49,7 +50,20 @@ public class JDBCConnectionFactory implements ConnectionFactory {
      * @param config the configuration
      */
     public JDBCConnectionFactory(JDBCConnectionConfiguration config) {
+        this(config, null);
+    }
+
+    /**
+     * This constructor is called when there is a JDBCConnectionConfiguration
+     * specified in the configuration.
+     *
+     * @param config the configuration
+     * @param componentFactory the factory used to load the driver class. If null, the driver
+     *     is loaded with the global class loaders in {@link ObjectFactory}
+     */
+    public JDBCConnectionFactory(JDBCConnectionConfiguration config, ComponentFactory componentFactory) {
         super();
+        this.componentFactory = componentFactory;
         userId = config.getUserId();
         password = config.getPassword();
         connectionURL = config.getConnectionURL();
@@ -65,6 +79,15 @@ public class JDBCConnectionFactory implements ConnectionFactory {
         super();
     }
 
+    /**
+     * Sets the factory used to load the driver class.
+     *
+     * @param componentFactory the component factory
+     */
+    public void setComponentFactory(ComponentFactory componentFactory) {
+        this.componentFactory = componentFactory;
+    }
+
     @Override
     public Connection getConnection() throws SQLException {
 
@@ -94,8 +117,12 @@ public class JDBCConnectionFactory implements ConnectionFactory {
         Driver driver;
 
         try {
-            Class<?> clazz = ObjectFactory.externalClassForName(driverClass);
-            driver = (Driver) clazz.getConstructor().newInstance();
+            if (componentFactory == null) {
+                Class<?> clazz = ObjectFactory.externalClassForName(driverClass);
+                driver = (Driver) clazz.getConstructor().newInstance();
+            } else {
+                driver = (Driver) componentFactory.createExternalObject(driverClass);
+            }
         } catch (Exception e) {
             throw new RuntimeException(getString("RuntimeError.8"), e); //$NON-NLS-1$
         }
@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.GenerationMetrics.Phase;
+
+/**
+ * Writes generation metrics as a JSON report. Times are in milliseconds. An allocation of -1 means that
+ * the JVM does not support allocation measurement.
+ */
+public class MetricsReport {
+
+    private MetricsReport() {
+        super();
+    }
+
+    public static void write(GenerationMetrics metrics, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            write(metrics, writer);
+        }
+    }
+
+    public static void write(GenerationMetrics metrics, Writer writer) throws IOException {
+        writer.write("{\n"); //$NON-NLS-1$
+        writer.write("  \"elapsedMillis\": " + millis(metrics.getElapsedNanos()) + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("  \"jdbcMetadataCalls\": " + metrics.getJdbcMetadataCalls() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("  \"bytesWritten\": " + metrics.getBytesWritten() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("  \"filesWritten\": " + metrics.getFilesWritten() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("  \"filesSkipped\": " + metrics.getFilesSkipped() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("  \"filesMerged\": " + metrics.getFilesMerged() + ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        writer.write("  \"phases\": {\n"); //$NON-NLS-1$
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            Phase phase = phases[i];
+            writer.write("    " + quote(name(phase)) + ": { \"count\": " + metrics.getCount(phase) //$NON-NLS-1$ //$NON-NLS-2$
+                    + ", \"millis\": " + millis(metrics.getTotalNanos(phase)) //$NON-NLS-1$
+                    + ", \"allocatedBytes\": " + metrics.getAllocatedBytes(phase) + " }"); //$NON-NLS-1$ //$NON-NLS-2$
+            writer.write(i < phases.length - 1 ? ",\n" : "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        writer.write("  },\n"); //$NON-NLS-1$
+
+        writer.write("  \"timings\": [\n"); //$NON-NLS-1$
+        boolean first = true;
+        for (GenerationMetrics.Timing timing : metrics.getTimings()) {
+            if (!first) {
+                writer.write(",\n"); //$NON-NLS-1$
+            }
+            first = false;
+            writer.write("    { \"phase\": " + quote(name(timing.getPhase())) //$NON-NLS-1$
+                    + ", \"subject\": " + quote(timing.getSubject()) //$NON-NLS-1$
+                    + ", \"millis\": " + millis(timing.getNanos()) //$NON-NLS-1$
+                    + ", \"allocatedBytes\": " + timing.getAllocatedBytes() + " }"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        writer.write(first ? "  ]\n" : "\n  ]\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        writer.write("}\n"); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the name of a phase in camel case - for example, "calculateGenerators".
+     */
+    private static String name(Phase phase) {
+        StringBuilder sb = new StringBuilder();
+        boolean upper = false;
+        for (char c : phase.name().toLowerCase(Locale.ENGLISH).toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ENGLISH, "%.3f", nanos / 1_000_000.0); //$NON-NLS-1$
+    }
+
+    private static String quote(String s) {
+        if (s == null) {
+            return "null"; //$NON-NLS-1$
+        }
+
+        StringBuilder sb = new StringBuilder("\""); //$NON-NLS-1$
+        for (char c : s.toCharArray()) {
+            switch (c) {
+            case '"':
+                sb.append("\\\""); //$NON-NLS-1$
+                break;
+            case '\\':
+                sb.append("\\\\"); //$NON-NLS-1$
+                break;
+            case '\n':
+                sb.append("\\n"); //$NON-NLS-1$
+                break;
+            case '\r':
+                sb.append("\\r"); //$NON-NLS-1$
+                break;
+            case '\t':
+                sb.append("\\t"); //$NON-NLS-1$
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+}
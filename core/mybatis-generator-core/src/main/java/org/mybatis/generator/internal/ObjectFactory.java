@@ -21,6 +21,7 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
@@ -51,6 +52,10 @@ import org.mybatis.generator.runtime.kotlin.IntrospectedTableKotlinImpl;
 /**
  * This class creates the different objects needed by the generator.
  *
+ * <p>The typed factory methods that accept a context load classes through the context's
+ * {@link ComponentFactory}. The static class loading methods use class loaders registered globally
+ * and are retained for callers that do not have a context.
+ *
  * @author Jeff Butler
  */
 public class ObjectFactory {
@@ -58,7 +63,7 @@ public class ObjectFactory {
     private static final List<ClassLoader> externalClassLoaders;
 
     static {
-        externalClassLoaders = new ArrayList<>();
+        externalClassLoaders = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -69,10 +74,8 @@ public class ObjectFactory {
     }
 
     /**
-     * Clears the class loaders.  This method should be called at the beginning of
-     * a generation run so that and change to the classloading configuration
-     * will be reflected.  For example, if the eclipse launcher changes configuration
-     * it might not be updated if eclipse hasn't been restarted.
+     * Clears the global class loaders. The generator no longer calls this method at the beginning of
+     * a generation run - class loaders for a run are held by the run's {@link ComponentFactory}.
      *
      */
     public static void reset() {
@@ -87,11 +90,30 @@ public class ObjectFactory {
      * @param classLoader
      *            the class loader
      */
-    public static synchronized void addExternalClassLoader(
+    public static void addExternalClassLoader(
             ClassLoader classLoader) {
         ObjectFactory.externalClassLoaders.add(classLoader);
     }
 
+    /**
+     * Removes a class loader added with {@link #addExternalClassLoader(ClassLoader)}.
+     *
+     * @param classLoader
+     *            the class loader
+     */
+    public static void removeExternalClassLoader(ClassLoader classLoader) {
+        ObjectFactory.externalClassLoaders.remove(classLoader);
+    }
+
+    /**
+     * Returns a snapshot of the class loaders added with {@link #addExternalClassLoader(ClassLoader)}.
+     *
+     * @return the global external class loaders
+     */
+    public static List<ClassLoader> getExternalClassLoaders() {
+        return new ArrayList<>(externalClassLoaders);
+    }
+
     /**
      * Returns a class loaded from the context classloader, or the classloader supplied by a client. This is
      * appropriate for JDBC drivers, model root classes, etc. It is not appropriate for any class that extends one of
@@ -162,8 +184,12 @@ public class ObjectFactory {
             }
         }
 
+        return getInternalResource(resource);
+    }
+
+    static URL getInternalResource(String resource) {
         ClassLoader cl = Thread.currentThread().getContextClassLoader();
-        url = cl.getResource(resource);
+        URL url = cl.getResource(resource);
 
         if (url == null) {
             url = ObjectFactory.class.getClassLoader().getResource(resource);
@@ -203,7 +229,7 @@ public class ObjectFactory {
             type = JavaTypeResolverDefaultImpl.class.getName();
         }
 
-        JavaTypeResolver answer = (JavaTypeResolver) createInternalObject(type);
+        JavaTypeResolver answer = (JavaTypeResolver) context.getComponentFactory().createInternalObject(type);
         answer.setWarnings(warnings);
 
         if (config != null) {
@@ -217,8 +243,8 @@ public class ObjectFactory {
 
     public static Plugin createPlugin(Context context,
             PluginConfiguration pluginConfiguration) {
-        Plugin plugin = (Plugin) createInternalObject(pluginConfiguration
-                .getConfigurationType());
+        Plugin plugin = (Plugin) context.getComponentFactory()
+                .createInternalObject(pluginConfiguration.getConfigurationType());
         plugin.setContext(context);
         plugin.setProperties(pluginConfiguration.getProperties());
         return plugin;
@@ -237,7 +263,7 @@ public class ObjectFactory {
             type = config.getConfigurationType();
         }
 
-        answer = (CommentGenerator) createInternalObject(type);
+        answer = (CommentGenerator) context.getComponentFactory().createInternalObject(type);
 
         if (config != null) {
             answer.addConfigurationProperties(config.getProperties());
@@ -259,7 +285,11 @@ public class ObjectFactory {
             type = config.getConfigurationType();
         }
 
-        answer = (ConnectionFactory) createInternalObject(type);
+        answer = (ConnectionFactory) context.getComponentFactory().createInternalObject(type);
+
+        if (answer instanceof JDBCConnectionFactory) {
+            ((JDBCConnectionFactory) answer).setComponentFactory(context.getComponentFactory());
+        }
 
         if (config != null) {
             answer.addConfigurationProperties(config.getProperties());
@@ -274,7 +304,7 @@ public class ObjectFactory {
             type = DefaultJavaFormatter.class.getName();
         }
 
-        JavaFormatter answer = (JavaFormatter) createInternalObject(type);
+        JavaFormatter answer = (JavaFormatter) context.getComponentFactory().createInternalObject(type);
 
         answer.setContext(context);
 
@@ -287,7 +317,7 @@ public class ObjectFactory {
             type = DefaultKotlinFormatter.class.getName();
         }
 
-        KotlinFormatter answer = (KotlinFormatter) createInternalObject(type);
+        KotlinFormatter answer = (KotlinFormatter) context.getComponentFactory().createInternalObject(type);
 
         answer.setContext(context);
 
@@ -300,7 +330,7 @@ public class ObjectFactory {
             type = DefaultXmlFormatter.class.getName();
         }
 
-        XmlFormatter answer = (XmlFormatter) createInternalObject(type);
+        XmlFormatter answer = (XmlFormatter) context.getComponentFactory().createInternalObject(type);
 
         answer.setContext(context);
 
@@ -340,7 +370,7 @@ public class ObjectFactory {
             type = IntrospectedTableKotlinImpl.class.getName();
         }
 
-        IntrospectedTable answer = (IntrospectedTable) createInternalObject(type);
+        IntrospectedTable answer = (IntrospectedTable) context.getComponentFactory().createInternalObject(type);
         answer.setContext(context);
 
         return answer;
@@ -352,7 +382,7 @@ public class ObjectFactory {
             type = IntrospectedColumn.class.getName();
         }
 
-        IntrospectedColumn answer = (IntrospectedColumn) createInternalObject(type);
+        IntrospectedColumn answer = (IntrospectedColumn) context.getComponentFactory().createInternalObject(type);
         answer.setContext(context);
 
         return answer;
@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.config.MergeConstants;
@@ -48,6 +50,10 @@ import org.xml.sax.SAXException;
 /**
  * This class handles the task of merging changes into an existing XML file.
  *
+ * <p>Generated files are merged with a streaming StAX parser when possible (see
+ * {@link XmlFileMergerStax}). The DOM based merge in this class is used for files the
+ * streaming merge does not handle.
+ *
  * @author Jeff Butler
  */
 public class XmlFileMergerJaxp {
@@ -71,8 +77,18 @@ public class XmlFileMergerJaxp {
     public static String getMergedSource(GeneratedXmlFile generatedXmlFile,
             File existingFile) throws ShellException {
 
+        String newContent = generatedXmlFile.getFormattedContent();
+        try (Reader existingReader = new InputStreamReader(new FileInputStream(existingFile),
+                StandardCharsets.UTF_8)) {
+            return XmlFileMergerStax.getMergedSource(new StringReader(newContent), existingReader,
+                    existingFile.getName());
+        } catch (IOException | XMLStreamException | XmlFileMergerStax.UnsupportedContentException e) {
+            // fall through to the DOM based merge. It handles everything the streaming
+            // merge does not, and reports the errors for files that cannot be parsed
+        }
+
         try {
-            return getMergedSource(new InputSource(new StringReader(generatedXmlFile.getFormattedContent())),
+            return getMergedSource(new InputSource(new StringReader(newContent)),
                 new InputSource(new InputStreamReader(new FileInputStream(existingFile), StandardCharsets.UTF_8)),
                 existingFile.getName());
         } catch (IOException | SAXException | ParserConfigurationException e) {
@@ -0,0 +1,421 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * This class merges a generated XML file into an existing XML file with a StAX parser. The result
+ * is the same as the DOM based merge in {@link XmlFileMergerJaxp}, but neither file is loaded into
+ * a DOM. The generated elements are copied to the output as they are read, and the elements that
+ * are kept from the existing file are streamed to the output one at a time.
+ *
+ * <p>Files with content that this class does not handle the same way as the DOM based merge (an
+ * internal DTD subset, a missing DOCTYPE, entity references, namespaces) are reported with an
+ * {@link UnsupportedContentException}. Such files, and files that cannot be parsed, should be merged
+ * with the DOM based merge instead.
+ */
+final class XmlFileMergerStax {
+
+    private static final String REPORT_CDATA_PROPERTY =
+            "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+    private static final Pattern DOCTYPE_PATTERN = Pattern.compile(
+            "<!DOCTYPE\\s+([^\\s\\[>]+)" //$NON-NLS-1$
+            + "(?:\\s+PUBLIC\\s+(\"[^\"]*\"|'[^']*')\\s+(\"[^\"]*\"|'[^']*')" //$NON-NLS-1$
+            + "|\\s+SYSTEM\\s+(\"[^\"]*\"|'[^']*'))?\\s*>"); //$NON-NLS-1$
+
+    /**
+     * Input factories are not thread safe, but they are expensive to create and can be reused for
+     * every file a thread merges. The value is null if the StAX implementation cannot report CDATA
+     * sections.
+     */
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORY =
+            ThreadLocal.withInitial(XmlFileMergerStax::newInputFactory);
+
+    private XmlFileMergerStax() {}
+
+    static class UnsupportedContentException extends Exception {
+        private static final long serialVersionUID = -2578432416253911564L;
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        if (!factory.isPropertySupported(REPORT_CDATA_PROPERTY)) {
+            return null;
+        }
+
+        factory.setProperty(REPORT_CDATA_PROPERTY, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        // return an empty DTD so that the parser doesn't attempt to read the real one
+        factory.setXMLResolver((publicId, systemId, baseUri, namespace) ->
+                new ByteArrayInputStream(new byte[0]));
+        return factory;
+    }
+
+    static String getMergedSource(Reader newFile, Reader existingFile, String existingFileName)
+            throws XMLStreamException, UnsupportedContentException, ShellException {
+        XMLInputFactory factory = INPUT_FACTORY.get();
+        if (factory == null) {
+            throw new UnsupportedContentException();
+        }
+
+        XMLStreamReader existingReader = factory.createXMLStreamReader(existingFile);
+        try {
+            XMLStreamReader newReader = factory.createXMLStreamReader(newFile);
+            try {
+                return merge(newReader, existingReader, existingFileName);
+            } finally {
+                newReader.close();
+            }
+        } finally {
+            existingReader.close();
+        }
+    }
+
+    private static String merge(XMLStreamReader newReader, XMLStreamReader existingReader,
+            String existingFileName) throws XMLStreamException, UnsupportedContentException,
+            ShellException {
+        boolean isXML11 = "1.1".equals(existingReader.getVersion()); //$NON-NLS-1$
+        String[] existingDocType = readProlog(existingReader);
+        String[] newDocType = readProlog(newReader);
+
+        if (!newDocType[0].equals(existingDocType[0])) {
+            throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                    existingFileName));
+        }
+
+        MergeWriter writer = new MergeWriter(isXML11);
+        writer.writeXmlDeclaration();
+        writer.writeDocumentType(existingDocType[0], existingDocType[1], existingDocType[2], null);
+
+        // the merged root element has the name of the existing root element and the
+        // attributes of the new root element
+        checkNamespaces(existingReader);
+        String rootName = existingReader.getLocalName();
+        writer.writeStartTag(rootName, newReader);
+
+        writer.copyNewChildren(newReader);
+        writer.copyExistingChildren(existingReader);
+        writer.writeEndTag(rootName);
+
+        // read the rest of the existing file so that malformed content is reported
+        while (existingReader.hasNext()) {
+            int event = existingReader.next();
+            if (event != XMLStreamConstants.COMMENT
+                    && event != XMLStreamConstants.PROCESSING_INSTRUCTION
+                    && event != XMLStreamConstants.SPACE
+                    && event != XMLStreamConstants.CHARACTERS
+                    && event != XMLStreamConstants.END_DOCUMENT) {
+                throw new UnsupportedContentException();
+            }
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Reads the prolog of a file and leaves the reader on the start of the root element.
+     *
+     * @return the name, public id and system id of the DOCTYPE
+     */
+    private static String[] readProlog(XMLStreamReader reader)
+            throws XMLStreamException, UnsupportedContentException {
+        String[] docType = null;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.DTD:
+                docType = parseDocumentTypeDeclaration(reader.getText());
+                break;
+
+            case XMLStreamConstants.START_ELEMENT:
+                if (docType == null) {
+                    throw new UnsupportedContentException();
+                }
+                return docType;
+
+            case XMLStreamConstants.COMMENT:
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.CHARACTERS:
+                // not written by the DOM based merge either
+                break;
+
+            default:
+                throw new UnsupportedContentException();
+            }
+        }
+
+        throw new UnsupportedContentException();
+    }
+
+    private static String[] parseDocumentTypeDeclaration(String declaration)
+            throws UnsupportedContentException {
+        Matcher matcher = DOCTYPE_PATTERN.matcher(declaration == null ? "" : declaration); //$NON-NLS-1$
+        if (!matcher.matches()) {
+            throw new UnsupportedContentException();
+        }
+
+        String publicId = unquote(matcher.group(2));
+        String systemId = publicId == null ? unquote(matcher.group(4)) : unquote(matcher.group(3));
+        return new String[] { matcher.group(1), publicId, systemId };
+    }
+
+    private static String unquote(String s) {
+        return s == null ? null : s.substring(1, s.length() - 1);
+    }
+
+    private static void checkNamespaces(XMLStreamReader reader) throws UnsupportedContentException {
+        if (reader.getNamespaceCount() > 0 || hasPrefix(reader.getPrefix())) {
+            throw new UnsupportedContentException();
+        }
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (hasPrefix(reader.getAttributePrefix(i))) {
+                throw new UnsupportedContentException();
+            }
+        }
+    }
+
+    private static boolean hasPrefix(String prefix) {
+        return prefix != null && !prefix.isEmpty();
+    }
+
+    private static boolean isWhiteSpace(StringBuilder text) {
+        return text.toString().trim().isEmpty();
+    }
+
+    private static class MergeWriter extends DomWriter {
+        private final StringWriter stringWriter = new StringWriter();
+
+        /**
+         * True when the '&gt;' of the last start tag has not been written yet. The tag is
+         * written as an empty element if the element has no content.
+         */
+        private boolean startTagOpen;
+
+        MergeWriter(boolean isXML11) {
+            this.isXML11 = isXML11;
+            printWriter = new PrintWriter(stringWriter);
+        }
+
+        @Override
+        public String toString() {
+            printWriter.flush();
+            return stringWriter.toString();
+        }
+
+        /**
+         * Copies the children of the new root element. The last child is skipped if it is
+         * only white space.
+         */
+        void copyNewChildren(XMLStreamReader reader) throws XMLStreamException,
+                UnsupportedContentException {
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    continue;
+                }
+
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (!isWhiteSpace(text)) {
+                        writeText(text);
+                    }
+                    return;
+                }
+
+                writeText(text);
+                text.setLength(0);
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    copyElement(reader);
+                } else {
+                    copyNode(reader, event);
+                }
+            }
+        }
+
+        /**
+         * Copies the children of the existing root element. Generated elements are removed along
+         * with any white space before them.
+         */
+        void copyExistingChildren(XMLStreamReader reader) throws XMLStreamException,
+                UnsupportedContentException {
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    continue;
+                }
+
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    writeText(text);
+                    return;
+                }
+
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    writeText(text);
+                    text.setLength(0);
+                    copyNode(reader, event);
+                    continue;
+                }
+
+                if (!isWhiteSpace(text)) {
+                    writeText(text);
+                    text.setLength(0);
+                }
+
+                // write the element, and take it back out if it turns out to be generated
+                StringBuffer buffer = stringWriter.getBuffer();
+                int mark = buffer.length();
+                boolean wasStartTagOpen = startTagOpen;
+                writeText(text);
+                text.setLength(0);
+                if (copyElement(reader)) {
+                    buffer.setLength(mark);
+                    startTagOpen = wasStartTagOpen;
+                }
+            }
+        }
+
+        /**
+         * Copies an element and its content. The reader must be on the start of the element, and
+         * is left on the end of the element.
+         *
+         * @return true if the element is generated
+         */
+        private boolean copyElement(XMLStreamReader reader) throws XMLStreamException,
+                UnsupportedContentException {
+            String id = reader.getAttributeValue(null, "id"); //$NON-NLS-1$
+            boolean isGenerated = id != null && MergeConstants.idStartsWithPrefix(id);
+            boolean foundComment = false;
+
+            writeStartTag(reader.getLocalName(), reader);
+            int depth = 1;
+            while (depth > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    writeStartTag(reader.getLocalName(), reader);
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    writeEndTag(reader.getLocalName());
+                    depth--;
+                } else {
+                    if (event == XMLStreamConstants.COMMENT && depth == 1 && !foundComment) {
+                        // the first comment decides if the element is generated
+                        foundComment = true;
+                        isGenerated |= MergeConstants.commentContainsTag(reader.getText());
+                    }
+                    copyNode(reader, event);
+                }
+            }
+
+            return isGenerated;
+        }
+
+        private void copyNode(XMLStreamReader reader, int event) throws UnsupportedContentException {
+            closeStartTag();
+            switch (event) {
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                normalizeAndPrint(reader.getText(), false);
+                break;
+
+            case XMLStreamConstants.CDATA:
+                writeCDataSection(reader.getText());
+                break;
+
+            case XMLStreamConstants.COMMENT:
+                writeComment(reader.getText());
+                break;
+
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                break;
+
+            default:
+                throw new UnsupportedContentException();
+            }
+        }
+
+        private void writeText(StringBuilder text) {
+            if (text.length() > 0) {
+                closeStartTag();
+                normalizeAndPrint(text.toString(), false);
+            }
+        }
+
+        /**
+         * Writes a start tag with the attributes of the element the reader is on, sorted by name.
+         */
+        void writeStartTag(String name, XMLStreamReader reader) throws UnsupportedContentException {
+            checkNamespaces(reader);
+            closeStartTag();
+            printWriter.print('<');
+            printWriter.print(name);
+
+            Integer[] attributes = new Integer[reader.getAttributeCount()];
+            Arrays.setAll(attributes, i -> i);
+            Arrays.sort(attributes, Comparator.comparing(reader::getAttributeLocalName));
+            for (int i : attributes) {
+                printWriter.print(' ');
+                printWriter.print(reader.getAttributeLocalName(i));
+                printWriter.print("=\""); //$NON-NLS-1$
+                normalizeAndPrint(reader.getAttributeValue(i), true);
+                printWriter.print('"');
+            }
+
+            startTagOpen = true;
+        }
+
+        void writeEndTag(String name) {
+            if (startTagOpen) {
+                printWriter.print(" />"); //$NON-NLS-1$
+                startTagOpen = false;
+            } else {
+                printWriter.print("</"); //$NON-NLS-1$
+                printWriter.print(name);
+                printWriter.print('>');
+            }
+        }
+
+        private void closeStartTag() {
+            if (startTagOpen) {
+                printWriter.print('>');
+                startTagOpen = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+
+/**
+ * This class holds the raw values of one row returned from
+ * {@link DatabaseMetaData#getColumns(String, String, String, String)}. The values are
+ * immutable so that a row can be read once and used to create any number of
+ * {@link IntrospectedColumn} instances.
+ */
+public class ColumnMetadata {
+
+    private final ActualTableName actualTableName;
+    private final String columnName;
+    private final int jdbcType;
+    private final String typeName;
+    private final int columnSize;
+    private final boolean nullable;
+    private final int decimalDigits;
+    private final String remarks;
+    private final String defaultValue;
+    private final Boolean autoIncrement;
+    private final Boolean generatedColumn;
+
+    public ColumnMetadata(ActualTableName actualTableName, String columnName, int jdbcType, String typeName,
+            int columnSize, boolean nullable, int decimalDigits, String remarks, String defaultValue,
+            Boolean autoIncrement, Boolean generatedColumn) {
+        this.actualTableName = actualTableName;
+        this.columnName = columnName;
+        this.jdbcType = jdbcType;
+        this.typeName = typeName;
+        this.columnSize = columnSize;
+        this.nullable = nullable;
+        this.decimalDigits = decimalDigits;
+        this.remarks = remarks;
+        this.defaultValue = defaultValue;
+        this.autoIncrement = autoIncrement;
+        this.generatedColumn = generatedColumn;
+    }
+
+    public ActualTableName getActualTableName() {
+        return actualTableName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getColumnSize() {
+        return columnSize;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public int getDecimalDigits() {
+        return decimalDigits;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns the value of the IS_AUTOINCREMENT column.
+     *
+     * @return the value, or null if the driver does not return the IS_AUTOINCREMENT column
+     */
+    public Boolean getAutoIncrement() {
+        return autoIncrement;
+    }
+
+    /**
+     * Returns the value of the IS_GENERATEDCOLUMN column.
+     *
+     * @return the value, or null if the driver does not return the IS_GENERATEDCOLUMN column
+     */
+    public Boolean getGeneratedColumn() {
+        return generatedColumn;
+    }
+
+    /**
+     * Copies the values of this row into an introspected column.
+     *
+     * @param introspectedColumn the column to populate
+     */
+    public void populate(IntrospectedColumn introspectedColumn) {
+        introspectedColumn.setJdbcType(jdbcType);
+        introspectedColumn.setActualTypeName(typeName);
+        introspectedColumn.setLength(columnSize);
+        introspectedColumn.setActualColumnName(columnName);
+        introspectedColumn.setNullable(nullable);
+        introspectedColumn.setScale(decimalDigits);
+        introspectedColumn.setRemarks(remarks);
+        introspectedColumn.setDefaultValue(defaultValue);
+
+        if (autoIncrement != null) {
+            introspectedColumn.setAutoIncrement(autoIncrement);
+        }
+
+        if (generatedColumn != null) {
+            introspectedColumn.setGeneratedColumn(generatedColumn);
+        }
+    }
+
+    /**
+     * Reads every row of a result set returned from {@link DatabaseMetaData#getColumns(String, String, String,
+     * String)}. The result set is not closed.
+     *
+     * @param rs the result set
+     * @return the rows in result set order
+     * @throws SQLException if any error occurs reading the result set
+     */
+    public static List<ColumnMetadata> readAll(ResultSet rs) throws SQLException {
+        boolean supportsIsAutoIncrement = false;
+        boolean supportsIsGeneratedColumn = false;
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int colCount = rsmd.getColumnCount();
+        for (int i = 1; i <= colCount; i++) {
+            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsAutoIncrement = true;
+            }
+            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsGeneratedColumn = true;
+            }
+        }
+
+        List<ColumnMetadata> answer = new ArrayList<>();
+        while (rs.next()) {
+            // read the values in column order - some drivers require it
+            ActualTableName actualTableName = new ActualTableName(
+                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+            String columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+            int jdbcType = rs.getInt("DATA_TYPE"); //$NON-NLS-1$
+            String typeName = rs.getString("TYPE_NAME"); //$NON-NLS-1$
+            int columnSize = rs.getInt("COLUMN_SIZE"); //$NON-NLS-1$
+            int decimalDigits = rs.getInt("DECIMAL_DIGITS"); //$NON-NLS-1$
+            boolean nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable; //$NON-NLS-1$
+            String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+            String defaultValue = rs.getString("COLUMN_DEF"); //$NON-NLS-1$
+            Boolean autoIncrement = supportsIsAutoIncrement
+                    ? "YES".equals(rs.getString("IS_AUTOINCREMENT")) : null; //$NON-NLS-1$ //$NON-NLS-2$
+            Boolean generatedColumn = supportsIsGeneratedColumn
+                    ? "YES".equals(rs.getString("IS_GENERATEDCOLUMN")) : null; //$NON-NLS-1$ //$NON-NLS-2$
+
+            answer.add(new ColumnMetadata(actualTableName, columnName, jdbcType, typeName, columnSize,
+                    nullable, decimalDigits, remarks, defaultValue, autoIncrement, generatedColumn));
+        }
+
+        return answer;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.JavaTypeResolver;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.util.DaemonThreadFactory;
+
+/**
+ * Introspects tables on a bounded pool of worker threads. Each worker borrows a connection
+ * from a small pool that never grows beyond the number of threads, so at most that many
+ * connections are open at one time.
+ *
+ * <p>Every submitted table configuration is introspected with its own
+ * {@link DatabaseIntrospector}, {@link JavaTypeResolver}, and warning list. Callers
+ * collect the results in submission order, so the introspected tables and warnings
+ * are exactly the same as they would be if the tables were introspected one at a time.
+ *
+ * <p>When the introspector is closed, running workers are interrupted and given
+ * {@link #CLOSE_TIMEOUT_SECONDS} to finish before the connections are closed. Workers never open
+ * a connection after the introspector is closed.
+ */
+public class ConcurrentIntrospector implements AutoCloseable {
+
+    public static final int CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final Context context;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final SchemaMetadataCache schemaMetadataCache;
+
+    private final ExecutorService executor;
+
+    private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+
+    // guarded by openConnections
+    private final List<Connection> openConnections = new ArrayList<>();
+
+    // guarded by openConnections
+    private boolean closed;
+
+    /**
+     * Constructs a concurrent introspector.
+     *
+     * @param context the context
+     * @param connectionFactory the factory used to open connections, it will be called from the worker threads
+     * @param schemaMetadataCache a cache shared by all workers, or null if metadata should be retrieved
+     *     for each table
+     * @param threads the number of worker threads
+     */
+    public ConcurrentIntrospector(Context context, ConnectionFactory connectionFactory,
+            SchemaMetadataCache schemaMetadataCache, int threads) {
+        this.context = context;
+        this.connectionFactory = connectionFactory;
+        this.schemaMetadataCache = schemaMetadataCache;
+        executor = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("mbg-introspector-" + context.getId())); //$NON-NLS-1$
+    }
+
+    public Future<Result> submit(TableConfiguration tc) {
+        return submit(tc, null);
+    }
+
+    /**
+     * Submits a table configuration for introspection. If the table snapshot is complete the table is
+     * introspected from the snapshot and no connection is used. Otherwise the table is introspected
+     * from the database and the snapshot, if any, is recorded on the worker thread. The caller must not
+     * use a recording snapshot until the result has been collected.
+     *
+     * @param tc the table configuration
+     * @param tableSnapshot the table snapshot, may be null
+     * @return the pending result
+     */
+    public Future<Result> submit(TableConfiguration tc, TableSnapshot tableSnapshot) {
+        return executor.submit(() -> introspect(tc, tableSnapshot));
+    }
+
+    private Result introspect(TableConfiguration tc, TableSnapshot tableSnapshot) throws SQLException {
+        List<String> warnings = new ArrayList<>();
+        JavaTypeResolver javaTypeResolver = ObjectFactory.createJavaTypeResolver(context, warnings);
+
+        if (tableSnapshot != null && tableSnapshot.isComplete()) {
+            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
+                    context, null, javaTypeResolver, warnings);
+            return new Result(databaseIntrospector.introspectTables(tc, tableSnapshot), warnings);
+        }
+
+        Connection connection = borrowConnection();
+        try {
+            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
+                    context, connection.getMetaData(), javaTypeResolver, warnings, schemaMetadataCache);
+            return new Result(databaseIntrospector.introspectTables(tc, tableSnapshot), warnings);
+        } finally {
+            idleConnections.add(connection);
+        }
+    }
+
+    private Connection borrowConnection() throws SQLException {
+        Connection connection = idleConnections.poll();
+        if (connection != null) {
+            return connection;
+        }
+
+        synchronized (openConnections) {
+            if (closed) {
+                throw new SQLException(getString("RuntimeError.29")); //$NON-NLS-1$
+            }
+        }
+
+        // there are never more running tasks than threads, so this is bounded by the pool size
+        GenerationMetrics.Timer timer = context.getMetrics().startTimer();
+        connection = connectionFactory.getConnection();
+        timer.stop(GenerationMetrics.Phase.CONNECT, context.getId());
+        synchronized (openConnections) {
+            if (!closed) {
+                openConnections.add(connection);
+                return connection;
+            }
+        }
+
+        // the introspector was closed while the connection was opened
+        context.closeConnection(connection);
+        throw new SQLException(getString("RuntimeError.29")); //$NON-NLS-1$
+    }
+
+    /**
+     * Waits for the result of a task returned from {@link #submit(TableConfiguration)}, unwrapping
+     * any exception thrown while introspecting.
+     *
+     * @param future the pending result
+     * @return the result of introspection
+     * @throws SQLException if the table could not be introspected
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public static Result getResult(Future<Result> future) throws SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Cancels any work that has not finished, waits for running workers to stop, and closes all
+     * connections opened by this introspector.
+     */
+    @Override
+    public void close() {
+        synchronized (openConnections) {
+            closed = true;
+        }
+
+        executor.shutdownNow();
+        try {
+            // a worker that does not stop in time may still be using its connection, but the
+            // connection is closed anyway so that it is not leaked
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (openConnections) {
+            for (Connection connection : openConnections) {
+                context.closeConnection(connection);
+            }
+            openConnections.clear();
+        }
+    }
+
+    public static class Result {
+        private final List<IntrospectedTable> introspectedTables;
+        private final List<String> warnings;
+
+        private Result(List<IntrospectedTable> introspectedTables, List<String> warnings) {
+            this.introspectedTables = introspectedTables;
+            this.warnings = warnings;
+        }
+
+        public List<IntrospectedTable> getIntrospectedTables() {
+            return introspectedTables;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+    }
+}
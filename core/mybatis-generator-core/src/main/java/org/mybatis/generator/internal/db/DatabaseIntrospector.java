@@ -24,7 +24,6 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -32,12 +31,15 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaTypeResolver;
@@ -65,19 +67,62 @@ public class DatabaseIntrospector {
 
     private final Log logger;
 
+    /**
+     * Metadata fetched for entire schemas, or null if metadata should be retrieved for each table.
+     */
+    private final SchemaMetadataCache schemaMetadataCache;
+
+    /**
+     * Set when the driver fails to return indexes, so it is not asked again.
+     */
+    private boolean indexesUnavailable;
+
     public DatabaseIntrospector(Context context,
             DatabaseMetaData databaseMetaData,
             JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        this(context, databaseMetaData, javaTypeResolver, warnings, null);
+    }
+
+    public DatabaseIntrospector(Context context,
+            DatabaseMetaData databaseMetaData,
+            JavaTypeResolver javaTypeResolver, List<String> warnings,
+            SchemaMetadataCache schemaMetadataCache) {
         super();
         this.context = context;
-        this.databaseMetaData = databaseMetaData;
+        this.databaseMetaData = databaseMetaData == null ? null
+                : context.getMetrics().countCalls(databaseMetaData);
         this.javaTypeResolver = javaTypeResolver;
         this.warnings = warnings;
+        this.schemaMetadataCache = schemaMetadataCache;
         logger = LogFactory.getLog(getClass());
     }
 
     private void calculatePrimaryKey(FullyQualifiedTable table,
-            IntrospectedTable introspectedTable) {
+            IntrospectedTable introspectedTable, TableSnapshot snapshot) {
+        String snapshotName = snapshotName(table);
+        if (snapshot != null && snapshot.isComplete()) {
+            Optional<List<String>> keyColumns = snapshot.getPrimaryKeyColumns(snapshotName);
+            if (keyColumns.isPresent()) {
+                keyColumns.get().forEach(introspectedTable::addPrimaryKeyColumn);
+            } else {
+                warnings.add(getString("Warning.15")); //$NON-NLS-1$
+            }
+            return;
+        }
+
+        if (schemaMetadataCache != null) {
+            Optional<List<String>> keyColumns = schemaMetadataCache.getPrimaryKeyColumns(databaseMetaData,
+                    table.getIntrospectedCatalog(), table.getIntrospectedSchema(),
+                    table.getIntrospectedTableName());
+            if (keyColumns.isPresent()) {
+                keyColumns.get().forEach(introspectedTable::addPrimaryKeyColumn);
+                if (snapshot != null) {
+                    snapshot.putPrimaryKeyColumns(snapshotName, keyColumns.get());
+                }
+                return;
+            }
+        }
+
         ResultSet rs;
 
         try {
@@ -90,6 +135,7 @@ public class DatabaseIntrospector {
             return;
         }
 
+        List<String> primaryKeyColumns = Collections.emptyList();
         try {
             // keep primary columns in key sequence order
             Map<Short, String> keyColumns = new TreeMap<>();
@@ -102,13 +148,71 @@ public class DatabaseIntrospector {
             for (String columnName : keyColumns.values()) {
                 introspectedTable.addPrimaryKeyColumn(columnName);
             }
+            primaryKeyColumns = new ArrayList<>(keyColumns.values());
         } catch (SQLException e) {
             // ignore the primary key if there's any error
         } finally {
+            if (snapshot != null) {
+                snapshot.putPrimaryKeyColumns(snapshotName, primaryKeyColumns);
+            }
             closeResultSet(rs);
         }
     }
 
+    /**
+     * Retrieves the unique indexes of a table and adds them to the introspected table, if index
+     * introspection is enabled for the context. Indexes are optional metadata, so an error is reported
+     * as a warning and introspection continues. After the first error, indexes are not retrieved for
+     * the remaining tables, so drivers that do not support index metadata report one warning.
+     */
+    private void calculateIndexes(FullyQualifiedTable table,
+            IntrospectedTable introspectedTable, TableSnapshot snapshot) {
+        if (!context.isIndexIntrospectionEnabled()) {
+            return;
+        }
+
+        String snapshotName = snapshotName(table);
+        if (snapshot != null && snapshot.isComplete()) {
+            snapshot.getIndexes(snapshotName).ifPresent(indexes -> addIndexes(introspectedTable, indexes));
+            return;
+        }
+
+        if (indexesUnavailable) {
+            return;
+        }
+
+        Optional<List<IndexMetadata>> indexes = Optional.empty();
+        if (schemaMetadataCache != null) {
+            indexes = schemaMetadataCache.getIndexes(databaseMetaData, table.getIntrospectedCatalog(),
+                    table.getIntrospectedSchema(), table.getIntrospectedTableName());
+        }
+
+        if (!indexes.isPresent()) {
+            try (ResultSet rs = databaseMetaData.getIndexInfo(table.getIntrospectedCatalog(),
+                    table.getIntrospectedSchema(), table.getIntrospectedTableName(), true, true)) {
+                indexes = Optional.of(IndexMetadata.readAll(rs).values().stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()));
+            } catch (SQLException e) {
+                indexesUnavailable = true;
+                warnings.add(getString("Warning.39", //$NON-NLS-1$
+                        introspectedTable.getFullyQualifiedTable().toString(), e.getMessage()));
+                return;
+            }
+        }
+
+        addIndexes(introspectedTable, indexes.get());
+        if (snapshot != null) {
+            snapshot.putIndexes(snapshotName, indexes.get());
+        }
+    }
+
+    private void addIndexes(IntrospectedTable introspectedTable, List<IndexMetadata> indexes) {
+        for (IndexMetadata index : indexes) {
+            introspectedTable.addIndex(index.getIndexName(), index.isUnique(), index.getColumnNames());
+        }
+    }
+
     private void closeResultSet(ResultSet rs) {
         if (rs != null) {
             try {
@@ -170,13 +274,36 @@ public class DatabaseIntrospector {
      */
     public List<IntrospectedTable> introspectTables(TableConfiguration tc)
             throws SQLException {
+        return introspectTables(tc, null);
+    }
+
+    /**
+     * Returns a List of IntrospectedTable elements that matches the specified table configuration.
+     *
+     * <p>If the snapshot is complete, the raw metadata is read from the snapshot and the database is not
+     * used at all. Otherwise the raw metadata is read from the database and recorded in the snapshot.
+     *
+     * @param tc
+     *            the table configuration
+     * @param snapshot
+     *            a snapshot of the table, or null if the database should always be used
+     * @return a list of introspected tables
+     * @throws SQLException
+     *             if any errors in introspection
+     */
+    public List<IntrospectedTable> introspectTables(TableConfiguration tc, TableSnapshot snapshot)
+            throws SQLException {
+
+        GenerationMetrics.Timer timer = context.getMetrics().startTimer();
 
-        // get the raw columns from the DB
-        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc);
+        // get the raw columns from the DB (or the snapshot)
+        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc, snapshot);
 
         if (columns.isEmpty()) {
             warnings.add(getString("Warning.19", tc.getCatalog(), //$NON-NLS-1$
                     tc.getSchema(), tc.getTableName()));
+            timer.stop(GenerationMetrics.Phase.INTROSPECT, composeFullyQualifiedTableName(tc.getCatalog(),
+                    tc.getSchema(), tc.getTableName(), '.'));
             return Collections.emptyList();
         }
 
@@ -186,7 +313,7 @@ public class DatabaseIntrospector {
         calculateIdentityColumns(tc, columns);
 
         List<IntrospectedTable> introspectedTables = calculateIntrospectedTables(
-                tc, columns);
+                tc, columns, snapshot);
 
         // now introspectedTables has all the columns from all the
         // tables in the configuration. Do some validation...
@@ -219,6 +346,8 @@ public class DatabaseIntrospector {
             }
         }
 
+        timer.stop(GenerationMetrics.Phase.INTROSPECT, composeFullyQualifiedTableName(tc.getCatalog(),
+                tc.getSchema(), tc.getTableName(), '.'));
         return introspectedTables;
     }
 
@@ -418,7 +547,7 @@ public class DatabaseIntrospector {
     }
 
     private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
-            TableConfiguration tc) throws SQLException {
+            TableConfiguration tc, TableSnapshot snapshot) throws SQLException {
         String localCatalog;
         String localSchema;
         String localTableName;
@@ -428,7 +557,11 @@ public class DatabaseIntrospector {
                 || stringContainsSpace(tc.getSchema())
                 || stringContainsSpace(tc.getTableName());
 
-        if (delimitIdentifiers) {
+        boolean replay = snapshot != null && snapshot.isComplete();
+
+        if (delimitIdentifiers || replay) {
+            // case conversion and escaping never change whether the names contain wildcards,
+            // so a snapshot can be replayed without asking the database how it stores identifiers
             localCatalog = tc.getCatalog();
             localSchema = tc.getSchema();
             localTableName = tc.getTableName();
@@ -450,7 +583,7 @@ public class DatabaseIntrospector {
             localTableName = tc.getTableName();
         }
 
-        if (tc.isWildcardEscapingEnabled()) {
+        if (tc.isWildcardEscapingEnabled() && !replay) {
             String escapeString = databaseMetaData.getSearchStringEscape();
 
             if (localSchema != null) {
@@ -468,51 +601,31 @@ public class DatabaseIntrospector {
             logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
         }
 
-        ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
-                localTableName, "%"); //$NON-NLS-1$
-
-        boolean supportsIsAutoIncrement = false;
-        boolean supportsIsGeneratedColumn = false;
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int colCount = rsmd.getColumnCount();
-        for (int i = 1; i <= colCount; i++) {
-            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsAutoIncrement = true;
-            }
-            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsGeneratedColumn = true;
+        List<ColumnMetadata> columnMetadata;
+        if (replay) {
+            columnMetadata = snapshot.getColumns();
+        } else if (schemaMetadataCache == null) {
+            try (ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
+                    localTableName, "%")) { //$NON-NLS-1$
+                columnMetadata = ColumnMetadata.readAll(rs);
             }
+        } else {
+            columnMetadata = schemaMetadataCache.getColumns(databaseMetaData, localCatalog, localSchema,
+                    localTableName);
+        }
+
+        if (snapshot != null && !replay) {
+            snapshot.setColumns(columnMetadata);
         }
 
-        while (rs.next()) {
+        for (ColumnMetadata cm : columnMetadata) {
             IntrospectedColumn introspectedColumn = ObjectFactory
                     .createIntrospectedColumn(context);
 
             introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE")); //$NON-NLS-1$
-            introspectedColumn.setActualTypeName(rs.getString("TYPE_NAME")); //$NON-NLS-1$
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE")); //$NON-NLS-1$
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
-            introspectedColumn
-                    .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable); //$NON-NLS-1$
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS")); //$NON-NLS-1$
-            introspectedColumn.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
-
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement(
-                        "YES".equals(rs.getString("IS_AUTOINCREMENT"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
+            cm.populate(introspectedColumn);
 
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn(
-                        "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
-            ActualTableName atn = new ActualTableName(
-                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
-                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
-                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+            ActualTableName atn = cm.getActualTableName();
 
             List<IntrospectedColumn> columns = answer.computeIfAbsent(atn, k -> new ArrayList<>());
 
@@ -527,8 +640,6 @@ public class DatabaseIntrospector {
             }
         }
 
-        closeResultSet(rs);
-
         if (answer.size() > 1
                 && !stringContainsSQLWildcard(localSchema)
                 && !stringContainsSQLWildcard(localTableName)) {
@@ -571,7 +682,8 @@ public class DatabaseIntrospector {
 
     private List<IntrospectedTable> calculateIntrospectedTables(
             TableConfiguration tc,
-            Map<ActualTableName, List<IntrospectedColumn>> columns) {
+            Map<ActualTableName, List<IntrospectedColumn>> columns,
+            TableSnapshot snapshot) {
         boolean delimitIdentifiers = tc.isDelimitIdentifiers()
                 || stringContainsSpace(tc.getCatalog())
                 || stringContainsSpace(tc.getSchema())
@@ -611,9 +723,11 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
+            calculatePrimaryKey(table, introspectedTable, snapshot);
+
+            calculateIndexes(table, introspectedTable, snapshot);
 
-            enhanceIntrospectedTable(introspectedTable);
+            enhanceIntrospectedTable(introspectedTable, snapshot);
 
             answer.add(introspectedTable);
         }
@@ -628,22 +742,44 @@ public class DatabaseIntrospector {
      * <p>If there is any error, we just add a warning and continue.
      *
      * @param introspectedTable the introspected table to enhance
+     * @param snapshot the snapshot to read from or record to, may be null
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
+    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable, TableSnapshot snapshot) {
         try {
             FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
 
-            ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
-                    fqt.getIntrospectedTableName(), null);
-            if (rs.next()) {
-                String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
-                String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
-                introspectedTable.setRemarks(remarks);
-                introspectedTable.setTableType(tableType);
+            Optional<SchemaMetadataCache.TableRow> tableRow;
+            if (snapshot != null && snapshot.isComplete()) {
+                tableRow = snapshot.getTable(snapshotName(fqt));
+            } else if (schemaMetadataCache != null) {
+                tableRow = schemaMetadataCache.getTable(databaseMetaData, fqt.getIntrospectedCatalog(),
+                        fqt.getIntrospectedSchema(), fqt.getIntrospectedTableName());
+            } else {
+                tableRow = Optional.empty();
+                ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(),
+                        fqt.getIntrospectedSchema(), fqt.getIntrospectedTableName(), null);
+                if (rs.next()) {
+                    String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+                    String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
+                    tableRow = Optional.of(new SchemaMetadataCache.TableRow(remarks, tableType));
+                }
+                closeResultSet(rs);
             }
-            closeResultSet(rs);
+
+            tableRow.ifPresent(tr -> {
+                introspectedTable.setRemarks(tr.getRemarks());
+                introspectedTable.setTableType(tr.getTableType());
+                if (snapshot != null && !snapshot.isComplete()) {
+                    snapshot.putTable(snapshotName(fqt), tr);
+                }
+            });
         } catch (SQLException e) {
             warnings.add(getString("Warning.27", e.getMessage())); //$NON-NLS-1$
         }
     }
+
+    private static String snapshotName(FullyQualifiedTable table) {
+        return composeFullyQualifiedTableName(table.getIntrospectedCatalog(), table.getIntrospectedSchema(),
+                table.getIntrospectedTableName(), '.');
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This class holds the raw values of one index returned from
+ * {@link DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)}. The rows of
+ * the index are combined, so the column names are in index order.
+ */
+public class IndexMetadata {
+
+    private final String indexName;
+    private final boolean unique;
+    private final List<String> columnNames;
+
+    public IndexMetadata(String indexName, boolean unique, List<String> columnNames) {
+        this.indexName = indexName;
+        this.unique = unique;
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Reads all rows of a result set returned from <code>getIndexInfo</code> and combines them into
+     * indexes. Statistics rows are skipped, and so are indexes on expressions because they have no
+     * column names.
+     *
+     * @param rs the result set
+     * @return the indexes of each table, keyed by table name. Tables and indexes are in the order
+     *     reported by the database, index columns are in ordinal position order
+     * @throws SQLException if the result set cannot be read
+     */
+    public static Map<String, List<IndexMetadata>> readAll(ResultSet rs) throws SQLException {
+        Map<String, Map<String, Boolean>> uniqueIndexes = new LinkedHashMap<>();
+        Map<List<String>, Map<Short, String>> indexColumns = new HashMap<>();
+        Set<List<String>> expressionIndexes = new HashSet<>();
+        while (rs.next()) {
+            if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) { //$NON-NLS-1$
+                continue;
+            }
+
+            String tableName = rs.getString("TABLE_NAME"); //$NON-NLS-1$
+            String indexName = rs.getString("INDEX_NAME"); //$NON-NLS-1$
+            String columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+            if (indexName == null) {
+                continue;
+            }
+            List<String> key = Arrays.asList(tableName, indexName);
+            if (columnName == null) {
+                expressionIndexes.add(key);
+                continue;
+            }
+
+            uniqueIndexes.computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+                    .put(indexName, !rs.getBoolean("NON_UNIQUE")); //$NON-NLS-1$
+            indexColumns.computeIfAbsent(key, k -> new TreeMap<>())
+                    .put(rs.getShort("ORDINAL_POSITION"), columnName); //$NON-NLS-1$
+        }
+
+        Map<String, List<IndexMetadata>> answer = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Boolean>> table : uniqueIndexes.entrySet()) {
+            List<IndexMetadata> indexes = new ArrayList<>();
+            for (Map.Entry<String, Boolean> index : table.getValue().entrySet()) {
+                List<String> key = Arrays.asList(table.getKey(), index.getKey());
+                if (!expressionIndexes.contains(key)) {
+                    indexes.add(new IndexMetadata(index.getKey(), index.getValue(),
+                            new ArrayList<>(indexColumns.get(key).values())));
+                }
+            }
+            answer.put(table.getKey(), indexes);
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * A persistent cache of raw introspection results for the tables in a context. The snapshot
+ * is stored in a compact binary file and holds one {@link TableSnapshot} for every table
+ * configuration, keyed by a hash of the configuration values that affect metadata retrieval
+ * (catalog, schema, table name, identifier delimiting and wildcard escaping).
+ *
+ * <p>Only raw database metadata is stored. Ignored columns, column overrides, renaming rules and
+ * type resolution are applied every time the snapshot is used, so changes to those parts of the
+ * configuration never require the database.
+ */
+public class IntrospectionSnapshot {
+
+    private static final int MAGIC = 0x4D424753; // "MBGS"
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final Map<String, TableSnapshot> tables = new LinkedHashMap<>();
+
+    private boolean dirty;
+
+    /**
+     * Returns the complete snapshot for a table configuration.
+     *
+     * @param tc the table configuration
+     * @return the snapshot, or an empty Optional if the table is not in the snapshot
+     *     or its configuration has changed
+     */
+    public Optional<TableSnapshot> getTable(TableConfiguration tc) {
+        return Optional.ofNullable(tables.get(calculateKey(tc)));
+    }
+
+    /**
+     * Adds or replaces the snapshot of a table. The table snapshot is marked complete.
+     *
+     * @param tableSnapshot the recorded table snapshot
+     */
+    public void putTable(TableSnapshot tableSnapshot) {
+        tableSnapshot.markComplete();
+        tables.put(tableSnapshot.getKey(), tableSnapshot);
+        dirty = true;
+    }
+
+    /**
+     * Removes snapshots of tables that are no longer configured.
+     *
+     * @param tableConfigurations all table configurations in the context
+     */
+    public void retainTables(Collection<TableConfiguration> tableConfigurations) {
+        List<String> keys = new ArrayList<>();
+        for (TableConfiguration tc : tableConfigurations) {
+            keys.add(calculateKey(tc));
+        }
+
+        if (tables.keySet().retainAll(keys)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Returns true if the snapshot has changed since it was read.
+     *
+     * @return true if the snapshot should be saved
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Creates a new recording table snapshot for a table configuration.
+     *
+     * @param tc the table configuration
+     * @return an empty table snapshot that will be filled during introspection
+     */
+    public static TableSnapshot newTableSnapshot(TableConfiguration tc) {
+        return new TableSnapshot(calculateKey(tc));
+    }
+
+    /**
+     * Calculates the snapshot key of a table configuration. The key is a hash of the values
+     * that determine what is retrieved from the database.
+     *
+     * @param tc the table configuration
+     * @return the key
+     */
+    public static String calculateKey(TableConfiguration tc) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(tc.getCatalog()).append('\u0000');
+        sb.append(tc.getSchema()).append('\u0000');
+        sb.append(tc.getTableName()).append('\u0000');
+        sb.append(tc.isDelimitIdentifiers()).append('\u0000');
+        sb.append(tc.isWildcardEscapingEnabled());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+            byte[] hash = digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b)); //$NON-NLS-1$
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file the file
+     * @return the snapshot read from the file, or an empty snapshot if the file does not exist
+     * @throws IOException if the file exists but cannot be read, or is not a snapshot file
+     */
+    public static IntrospectionSnapshot read(File file) throws IOException {
+        IntrospectionSnapshot snapshot = new IntrospectionSnapshot();
+        if (!file.exists()) {
+            return snapshot;
+        }
+
+        try (InputStream is = Files.newInputStream(file.toPath());
+                DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(is)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported introspection snapshot format"); //$NON-NLS-1$
+            }
+
+            int tableCount = in.readInt();
+            for (int i = 0; i < tableCount; i++) {
+                TableSnapshot tableSnapshot = readTable(in);
+                tableSnapshot.markComplete();
+                snapshot.tables.put(tableSnapshot.getKey(), tableSnapshot);
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Writes the snapshot to a file. The file is written to a temporary file first and then
+     * moved into place so that an interrupted write never leaves a partial snapshot.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        File tempFile = new File(parent, file.getName() + ".tmp"); //$NON-NLS-1$
+        try (OutputStream os = Files.newOutputStream(tempFile.toPath());
+                DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(os)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(tables.size());
+            for (TableSnapshot tableSnapshot : tables.values()) {
+                writeTable(out, tableSnapshot);
+            }
+        }
+
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        dirty = false;
+    }
+
+    private static void writeTable(DataOutputStream out, TableSnapshot tableSnapshot) throws IOException {
+        writeString(out, tableSnapshot.getKey());
+
+        out.writeInt(tableSnapshot.getColumns().size());
+        for (ColumnMetadata column : tableSnapshot.getColumns()) {
+            writeString(out, column.getActualTableName().getCatalog());
+            writeString(out, column.getActualTableName().getSchema());
+            writeString(out, column.getActualTableName().getTableName());
+            writeString(out, column.getColumnName());
+            out.writeInt(column.getJdbcType());
+            writeString(out, column.getTypeName());
+            out.writeInt(column.getColumnSize());
+            out.writeBoolean(column.isNullable());
+            out.writeInt(column.getDecimalDigits());
+            writeString(out, column.getRemarks());
+            writeString(out, column.getDefaultValue());
+            writeBoolean(out, column.getAutoIncrement());
+            writeBoolean(out, column.getGeneratedColumn());
+        }
+
+        out.writeInt(tableSnapshot.getPrimaryKeys().size());
+        for (Map.Entry<String, List<String>> entry : tableSnapshot.getPrimaryKeys().entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (String columnName : entry.getValue()) {
+                writeString(out, columnName);
+            }
+        }
+
+        out.writeInt(tableSnapshot.getIndexes().size());
+        for (Map.Entry<String, List<IndexMetadata>> entry : tableSnapshot.getIndexes().entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (IndexMetadata index : entry.getValue()) {
+                writeString(out, index.getIndexName());
+                out.writeBoolean(index.isUnique());
+                out.writeInt(index.getColumnNames().size());
+                for (String columnName : index.getColumnNames()) {
+                    writeString(out, columnName);
+                }
+            }
+        }
+
+        out.writeInt(tableSnapshot.getTables().size());
+        for (Map.Entry<String, SchemaMetadataCache.TableRow> entry : tableSnapshot.getTables().entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue().getRemarks());
+            writeString(out, entry.getValue().getTableType());
+        }
+    }
+
+    private static TableSnapshot readTable(DataInputStream in) throws IOException {
+        TableSnapshot tableSnapshot = new TableSnapshot(readString(in));
+
+        int columnCount = in.readInt();
+        List<ColumnMetadata> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            ActualTableName actualTableName = new ActualTableName(readString(in), readString(in), readString(in));
+            String columnName = readString(in);
+            int jdbcType = in.readInt();
+            String typeName = readString(in);
+            int columnSize = in.readInt();
+            boolean nullable = in.readBoolean();
+            int decimalDigits = in.readInt();
+            String remarks = readString(in);
+            String defaultValue = readString(in);
+            Boolean autoIncrement = readBoolean(in);
+            Boolean generatedColumn = readBoolean(in);
+            columns.add(new ColumnMetadata(actualTableName, columnName, jdbcType, typeName, columnSize, nullable,
+                    decimalDigits, remarks, defaultValue, autoIncrement, generatedColumn));
+        }
+        tableSnapshot.setColumns(columns);
+
+        int primaryKeyCount = in.readInt();
+        for (int i = 0; i < primaryKeyCount; i++) {
+            String tableName = readString(in);
+            int keyColumnCount = in.readInt();
+            List<String> keyColumns = new ArrayList<>(keyColumnCount);
+            for (int j = 0; j < keyColumnCount; j++) {
+                keyColumns.add(readString(in));
+            }
+            tableSnapshot.putPrimaryKeyColumns(tableName, keyColumns);
+        }
+
+        int indexTableCount = in.readInt();
+        for (int i = 0; i < indexTableCount; i++) {
+            String tableName = readString(in);
+            int indexCount = in.readInt();
+            List<IndexMetadata> indexes = new ArrayList<>(indexCount);
+            for (int j = 0; j < indexCount; j++) {
+                String indexName = readString(in);
+                boolean unique = in.readBoolean();
+                int indexColumnCount = in.readInt();
+                List<String> columnNames = new ArrayList<>(indexColumnCount);
+                for (int k = 0; k < indexColumnCount; k++) {
+                    columnNames.add(readString(in));
+                }
+                indexes.add(new IndexMetadata(indexName, unique, columnNames));
+            }
+            tableSnapshot.putIndexes(tableName, indexes);
+        }
+
+        int tableCount = in.readInt();
+        for (int i = 0; i < tableCount; i++) {
+            String tableName = readString(in);
+            String remarks = readString(in);
+            String tableType = readString(in);
+            tableSnapshot.putTable(tableName, new SchemaMetadataCache.TableRow(remarks, tableType));
+        }
+
+        return tableSnapshot;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean b) throws IOException {
+        out.writeByte(b == null ? -1 : (b ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte b = in.readByte();
+        return b < 0 ? null : b == 1;
+    }
+}
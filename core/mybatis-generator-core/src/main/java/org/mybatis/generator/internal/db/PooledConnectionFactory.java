@@ -0,0 +1,193 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+
+import org.mybatis.generator.api.ConnectionFactory;
+
+/**
+ * A connection factory that keeps the connections it creates open for later use. Closing a
+ * connection returned by this factory returns the connection to the factory instead of closing it,
+ * so a resident process that generates many times only connects to the database once (or once for
+ * each introspection thread).
+ *
+ * <p>Idle connections are validated before they are reused. Connections that are no longer valid are
+ * closed and replaced by new connections from the wrapped factory. Auto commit and read only state
+ * are restored when a connection is returned.
+ *
+ * <p>This class is thread safe.
+ */
+public class PooledConnectionFactory implements ConnectionFactory, AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ConnectionFactory delegate;
+
+    private final Deque<Connection> idleConnections = new ArrayDeque<>();
+
+    private boolean closed;
+
+    private int createdConnections;
+
+    public PooledConnectionFactory(ConnectionFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        while ((connection = takeIdleConnection()) != null) {
+            if (isValid(connection)) {
+                return wrap(connection);
+            }
+            closeQuietly(connection);
+        }
+
+        connection = delegate.getConnection();
+        synchronized (this) {
+            createdConnections++;
+        }
+        return wrap(connection);
+    }
+
+    @Override
+    public void addConfigurationProperties(Properties properties) {
+        delegate.addConfigurationProperties(properties);
+    }
+
+    /**
+     * Returns the number of connections this factory obtained from the wrapped factory.
+     *
+     * @return the number of physical connections created
+     */
+    public synchronized int getCreatedConnections() {
+        return createdConnections;
+    }
+
+    /**
+     * Closes all idle connections. Connections that are in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        Deque<Connection> connections;
+        synchronized (this) {
+            closed = true;
+            connections = new ArrayDeque<>(idleConnections);
+            idleConnections.clear();
+        }
+        connections.forEach(PooledConnectionFactory::closeQuietly);
+    }
+
+    private synchronized Connection takeIdleConnection() {
+        return idleConnections.pollFirst();
+    }
+
+    private void release(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            return;
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                idleConnections.addFirst(connection);
+                return;
+            }
+        }
+        closeQuietly(connection);
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException | AbstractMethodError e) {
+            // drivers that cannot validate connections are trusted
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ReturningHandler(connection));
+    }
+
+    /**
+     * Returns the connection to the pool on the first call to close. Later calls of any method other
+     * than close and isClosed fail as they would on a closed connection.
+     */
+    private class ReturningHandler implements InvocationHandler {
+        private final Connection connection;
+        private boolean returned;
+
+        ReturningHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "close": //$NON-NLS-1$
+                if (!returned) {
+                    returned = true;
+                    release(connection);
+                }
+                return null;
+            case "isClosed": //$NON-NLS-1$
+                return returned || connection.isClosed();
+            case "equals": //$NON-NLS-1$
+                return proxy == args[0];
+            case "hashCode": //$NON-NLS-1$
+                return System.identityHashCode(proxy);
+            case "toString": //$NON-NLS-1$
+                return "Pooled " + connection; //$NON-NLS-1$
+            default:
+                if (returned) {
+                    throw new SQLException("Connection is closed"); //$NON-NLS-1$
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
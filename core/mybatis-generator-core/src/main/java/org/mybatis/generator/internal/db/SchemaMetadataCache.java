@@ -0,0 +1,334 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
+import static org.mybatis.generator.internal.util.StringUtility.stringContainsSQLWildcard;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
+
+/**
+ * Holds database metadata fetched for an entire schema at once. Instead of calling
+ * {@link DatabaseMetaData#getColumns(String, String, String, String)},
+ * {@link DatabaseMetaData#getPrimaryKeys(String, String, String)},
+ * {@link DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)}, and
+ * {@link DatabaseMetaData#getTables(String, String, String, String[])} for every table, this
+ * cache makes one call of each type for every distinct catalog and schema, indexes the
+ * results by table name, and serves every table configuration from the index.
+ *
+ * <p>Table name patterns are matched in memory with SQL LIKE semantics using the driver's search
+ * string escape. Matching is case-sensitive, so identifiers must be specified as they are stored
+ * in the database (the introspector already adjusts case according to the database metadata).
+ *
+ * <p>Some drivers do not allow a null table name in <code>getPrimaryKeys</code> or
+ * <code>getIndexInfo</code>. If a bulk call fails, the cache reports that primary keys (or indexes)
+ * are unavailable and the introspector falls back to calling the database for each table.
+ *
+ * <p>This class is thread safe. Each schema is loaded once even if several threads request it.
+ */
+public class SchemaMetadataCache {
+
+    private static final Log logger = LogFactory.getLog(SchemaMetadataCache.class);
+
+    private final Map<List<String>, SchemaColumns> columnsBySchema = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Optional<Map<String, List<PrimaryKeyRow>>>> primaryKeysBySchema =
+            new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Optional<Map<String, List<IndexMetadata>>>> indexesBySchema =
+            new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Map<String, TableRow>> tablesBySchema = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the columns of all tables in the catalog and schema whose name matches the table name pattern.
+     *
+     * @param databaseMetaData metadata used to fetch the schema if it has not been loaded yet
+     * @param catalog the catalog as it would be passed to getColumns
+     * @param schemaPattern the schema pattern as it would be passed to getColumns
+     * @param tableNamePattern the table name pattern as it would be passed to getColumns
+     * @return the matching columns, in the order returned by the database
+     * @throws SQLException if the schema cannot be loaded
+     */
+    public List<ColumnMetadata> getColumns(DatabaseMetaData databaseMetaData, String catalog,
+            String schemaPattern, String tableNamePattern) throws SQLException {
+        SchemaColumns schemaColumns = load(columnsBySchema, Arrays.asList(catalog, schemaPattern),
+                () -> loadColumns(databaseMetaData, catalog, schemaPattern));
+
+        if (!stringContainsSQLWildcard(tableNamePattern)) {
+            return schemaColumns.columnsByTableName.getOrDefault(tableNamePattern, Collections.emptyList());
+        }
+
+        Pattern pattern = likePattern(tableNamePattern, schemaColumns.searchStringEscape);
+        List<ColumnMetadata> answer = new ArrayList<>();
+        for (Map.Entry<String, List<ColumnMetadata>> entry : schemaColumns.columnsByTableName.entrySet()) {
+            if (pattern.matcher(entry.getKey()).matches()) {
+                answer.addAll(entry.getValue());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the primary key columns of a table in key sequence order.
+     *
+     * @param databaseMetaData metadata used to fetch the schema if it has not been loaded yet
+     * @param catalog the catalog as it would be passed to getPrimaryKeys
+     * @param schema the schema as it would be passed to getPrimaryKeys
+     * @param tableName the table name
+     * @return the primary key column names, or an empty Optional if the driver does not support
+     *     fetching primary keys for an entire schema
+     */
+    public Optional<List<String>> getPrimaryKeyColumns(DatabaseMetaData databaseMetaData, String catalog,
+            String schema, String tableName) {
+        Optional<Map<String, List<PrimaryKeyRow>>> primaryKeys;
+        try {
+            primaryKeys = load(primaryKeysBySchema, Arrays.asList(catalog, schema),
+                    () -> loadPrimaryKeys(databaseMetaData, catalog, schema));
+        } catch (SQLException e) {
+            // cannot happen - failures are cached as an empty Optional
+            primaryKeys = Optional.empty();
+        }
+
+        return primaryKeys.map(m -> {
+            // keep primary columns in key sequence order
+            Map<Short, String> keyColumns = new TreeMap<>();
+            for (PrimaryKeyRow row : m.getOrDefault(tableName, Collections.emptyList())) {
+                keyColumns.put(row.keySeq, row.columnName);
+            }
+            return new ArrayList<>(keyColumns.values());
+        });
+    }
+
+    /**
+     * Returns the unique indexes of a table.
+     *
+     * @param databaseMetaData metadata used to fetch the schema if it has not been loaded yet
+     * @param catalog the catalog as it would be passed to getIndexInfo
+     * @param schema the schema as it would be passed to getIndexInfo
+     * @param tableName the table name
+     * @return the indexes, or an empty Optional if the driver does not support fetching indexes for
+     *     an entire schema
+     */
+    public Optional<List<IndexMetadata>> getIndexes(DatabaseMetaData databaseMetaData, String catalog,
+            String schema, String tableName) {
+        Optional<Map<String, List<IndexMetadata>>> indexes;
+        try {
+            indexes = load(indexesBySchema, Arrays.asList(catalog, schema),
+                    () -> loadIndexes(databaseMetaData, catalog, schema));
+        } catch (SQLException e) {
+            // cannot happen - failures are cached as an empty Optional
+            indexes = Optional.empty();
+        }
+
+        return indexes.map(m -> m.getOrDefault(tableName, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the remarks and table type of a table.
+     *
+     * @param databaseMetaData metadata used to fetch the schema if it has not been loaded yet
+     * @param catalog the catalog as it would be passed to getTables
+     * @param schema the schema as it would be passed to getTables
+     * @param tableName the table name
+     * @return the table information, or an empty Optional if the table was not returned by the database
+     * @throws SQLException if the schema cannot be loaded
+     */
+    public Optional<TableRow> getTable(DatabaseMetaData databaseMetaData, String catalog, String schema,
+            String tableName) throws SQLException {
+        Map<String, TableRow> tables = load(tablesBySchema, Arrays.asList(catalog, schema),
+                () -> loadTables(databaseMetaData, catalog, schema));
+        return Optional.ofNullable(tables.get(tableName));
+    }
+
+    private SchemaColumns loadColumns(DatabaseMetaData databaseMetaData, String catalog, String schemaPattern)
+            throws SQLException {
+        if (logger.isDebugEnabled()) {
+            logger.debug(getString("Tracing.5", //$NON-NLS-1$
+                    composeFullyQualifiedTableName(catalog, schemaPattern, "%", '.'))); //$NON-NLS-1$
+        }
+
+        Map<String, List<ColumnMetadata>> columnsByTableName = new LinkedHashMap<>();
+        try (ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%")) { //$NON-NLS-1$ //$NON-NLS-2$
+            for (ColumnMetadata column : ColumnMetadata.readAll(rs)) {
+                columnsByTableName.computeIfAbsent(column.getActualTableName().getTableName(),
+                        k -> new ArrayList<>()).add(column);
+            }
+        }
+
+        return new SchemaColumns(columnsByTableName, databaseMetaData.getSearchStringEscape());
+    }
+
+    private Optional<Map<String, List<PrimaryKeyRow>>> loadPrimaryKeys(DatabaseMetaData databaseMetaData,
+            String catalog, String schema) {
+        Map<String, List<PrimaryKeyRow>> answer = new LinkedHashMap<>();
+        try (ResultSet rs = databaseMetaData.getPrimaryKeys(catalog, schema, null)) {
+            while (rs.next()) {
+                String tableName = rs.getString("TABLE_NAME"); //$NON-NLS-1$
+                String columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+                short keySeq = rs.getShort("KEY_SEQ"); //$NON-NLS-1$
+                answer.computeIfAbsent(tableName, k -> new ArrayList<>()).add(new PrimaryKeyRow(columnName, keySeq));
+            }
+        } catch (SQLException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(getString("Tracing.6", e.getMessage())); //$NON-NLS-1$
+            }
+            return Optional.empty();
+        }
+
+        return Optional.of(answer);
+    }
+
+    private Optional<Map<String, List<IndexMetadata>>> loadIndexes(DatabaseMetaData databaseMetaData,
+            String catalog, String schema) {
+        try (ResultSet rs = databaseMetaData.getIndexInfo(catalog, schema, null, true, true)) {
+            return Optional.of(IndexMetadata.readAll(rs));
+        } catch (SQLException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(getString("Tracing.7", e.getMessage())); //$NON-NLS-1$
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Map<String, TableRow> loadTables(DatabaseMetaData databaseMetaData, String catalog, String schema)
+            throws SQLException {
+        Map<String, TableRow> answer = new LinkedHashMap<>();
+        try (ResultSet rs = databaseMetaData.getTables(catalog, schema, "%", null)) { //$NON-NLS-1$
+            while (rs.next()) {
+                String tableName = rs.getString("TABLE_NAME"); //$NON-NLS-1$
+                String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
+                String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+                answer.putIfAbsent(tableName, new TableRow(remarks, tableType));
+            }
+        }
+
+        return answer;
+    }
+
+    private static <V> V load(Map<List<String>, V> cache, List<String> key, Loader<V> loader)
+            throws SQLException {
+        try {
+            return cache.computeIfAbsent(key, k -> {
+                try {
+                    return loader.load();
+                } catch (SQLException e) {
+                    throw new LoadException(e);
+                }
+            });
+        } catch (LoadException e) {
+            throw e.getSQLException();
+        }
+    }
+
+    /**
+     * Converts an SQL LIKE pattern to a regular expression.
+     *
+     * @param likePattern the LIKE pattern
+     * @param escape the escape string, may be null or empty
+     * @return a compiled regular expression that matches the same strings as the LIKE pattern
+     */
+    static Pattern likePattern(String likePattern, String escape) {
+        boolean hasEscape = escape != null && !escape.isEmpty();
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < likePattern.length()) {
+            if (hasEscape && likePattern.startsWith(escape, i) && i + escape.length() < likePattern.length()) {
+                i += escape.length();
+                sb.append(Pattern.quote(String.valueOf(likePattern.charAt(i))));
+            } else if (likePattern.charAt(i) == '%') {
+                sb.append(".*"); //$NON-NLS-1$
+            } else if (likePattern.charAt(i) == '_') {
+                sb.append('.');
+            } else {
+                sb.append(Pattern.quote(String.valueOf(likePattern.charAt(i))));
+            }
+            i++;
+        }
+        return Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+
+    @FunctionalInterface
+    private interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private static class LoadException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LoadException(SQLException cause) {
+            super(cause);
+        }
+
+        SQLException getSQLException() {
+            return (SQLException) getCause();
+        }
+    }
+
+    private static class SchemaColumns {
+        private final Map<String, List<ColumnMetadata>> columnsByTableName;
+        private final String searchStringEscape;
+
+        SchemaColumns(Map<String, List<ColumnMetadata>> columnsByTableName, String searchStringEscape) {
+            this.columnsByTableName = columnsByTableName;
+            this.searchStringEscape = searchStringEscape;
+        }
+    }
+
+    private static class PrimaryKeyRow {
+        private final String columnName;
+        private final short keySeq;
+
+        PrimaryKeyRow(String columnName, short keySeq) {
+            this.columnName = columnName;
+            this.keySeq = keySeq;
+        }
+    }
+
+    public static class TableRow {
+        private final String remarks;
+        private final String tableType;
+
+        TableRow(String remarks, String tableType) {
+            this.remarks = remarks;
+            this.tableType = tableType;
+        }
+
+        public String getRemarks() {
+            return remarks;
+        }
+
+        public String getTableType() {
+            return tableType;
+        }
+    }
+}
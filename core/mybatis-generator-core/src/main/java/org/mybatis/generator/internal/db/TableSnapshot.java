@@ -0,0 +1,126 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The raw database metadata retrieved for a single table configuration: the columns, the primary key
+ * columns, the indexes and the remarks and type of every table matched by the configuration.
+ *
+ * <p>A table snapshot is either recording or complete. A recording snapshot is filled in by the
+ * {@link DatabaseIntrospector} as it reads metadata from the database. A complete snapshot (one read
+ * from an {@link IntrospectionSnapshot} file) is used by the introspector instead of the database.
+ *
+ * <p>Primary keys, indexes and table information are keyed by the fully qualified name used to retrieve
+ * them. A missing primary key or index entry means the primary key or indexes could not be retrieved.
+ */
+public class TableSnapshot {
+
+    private final String key;
+
+    private boolean complete;
+
+    private List<ColumnMetadata> columns = Collections.emptyList();
+
+    private final Map<String, List<String>> primaryKeys = new LinkedHashMap<>();
+
+    private final Map<String, List<IndexMetadata>> indexes = new LinkedHashMap<>();
+
+    private final Map<String, SchemaMetadataCache.TableRow> tables = new LinkedHashMap<>();
+
+    /**
+     * Creates a recording snapshot.
+     *
+     * @param key the key of the table configuration, see {@link IntrospectionSnapshot#calculateKey}
+     */
+    public TableSnapshot(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    void markComplete() {
+        complete = true;
+    }
+
+    public List<ColumnMetadata> getColumns() {
+        return columns;
+    }
+
+    void setColumns(List<ColumnMetadata> columns) {
+        this.columns = new ArrayList<>(columns);
+    }
+
+    /**
+     * Returns the primary key columns recorded for a table.
+     *
+     * @param tableName the fully qualified name of the table
+     * @return the key columns in key sequence order, or an empty Optional if the primary key could not be retrieved
+     */
+    public Optional<List<String>> getPrimaryKeyColumns(String tableName) {
+        return Optional.ofNullable(primaryKeys.get(tableName));
+    }
+
+    void putPrimaryKeyColumns(String tableName, List<String> keyColumns) {
+        primaryKeys.put(tableName, new ArrayList<>(keyColumns));
+    }
+
+    Map<String, List<String>> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    /**
+     * Returns the indexes recorded for a table.
+     *
+     * @param tableName the fully qualified name of the table
+     * @return the indexes, or an empty Optional if the indexes could not be retrieved
+     */
+    public Optional<List<IndexMetadata>> getIndexes(String tableName) {
+        return Optional.ofNullable(indexes.get(tableName));
+    }
+
+    void putIndexes(String tableName, List<IndexMetadata> tableIndexes) {
+        indexes.put(tableName, new ArrayList<>(tableIndexes));
+    }
+
+    Map<String, List<IndexMetadata>> getIndexes() {
+        return indexes;
+    }
+
+    public Optional<SchemaMetadataCache.TableRow> getTable(String tableName) {
+        return Optional.ofNullable(tables.get(tableName));
+    }
+
+    void putTable(String tableName, SchemaMetadataCache.TableRow tableRow) {
+        tables.put(tableName, tableRow);
+    }
+
+    Map<String, SchemaMetadataCache.TableRow> getTables() {
+        return tables;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Calculates a SHA-256 fingerprint of a sequence of values. Every value is followed by a
+ * separator, and null is distinguished from the string "null", so different sequences of
+ * values always produce different input to the digest.
+ */
+public class Fingerprint {
+
+    private final MessageDigest digest;
+
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Fingerprint add(String value) {
+        if (value == null) {
+            digest.update((byte) 1);
+        } else {
+            digest.update((byte) 2);
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        return this;
+    }
+
+    public Fingerprint add(int value) {
+        return add(Integer.toString(value));
+    }
+
+    public Fingerprint add(boolean value) {
+        return add(Boolean.toString(value));
+    }
+
+    /**
+     * Adds properties in name order, so the fingerprint does not depend on the order in
+     * which the properties were set.
+     *
+     * @param properties the properties
+     * @return this fingerprint
+     */
+    public Fingerprint add(Properties properties) {
+        TreeSet<String> names = new TreeSet<>(properties.stringPropertyNames());
+        add(names.size());
+        for (String name : names) {
+            add(name);
+            add(properties.getProperty(name));
+        }
+        return this;
+    }
+
+    /**
+     * Completes the fingerprint. No values may be added after calling this method.
+     *
+     * @return the fingerprint as a lower case hex string
+     */
+    public String calculate() {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b)); //$NON-NLS-1$
+        }
+        return hex.toString();
+    }
+}
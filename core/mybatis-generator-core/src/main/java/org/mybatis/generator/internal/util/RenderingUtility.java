@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+public class RenderingUtility {
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
+
+    /**
+     * Utility class. No instances allowed
+     */
+    private RenderingUtility() {
+        super();
+    }
+
+    /**
+     * Appends rendered lines separated by the platform line separator. There is no separator after the last
+     * line, so the output is exactly the same as joining the lines into a single string.
+     *
+     * @param lines the lines
+     * @param appendable where the lines are written
+     * @throws IOException if the appendable throws an exception
+     */
+    public static void appendLines(Iterator<String> lines, Appendable appendable) throws IOException {
+        while (lines.hasNext()) {
+            appendable.append(lines.next());
+            if (lines.hasNext()) {
+                appendable.append(LINE_SEPARATOR);
+            }
+        }
+    }
+}
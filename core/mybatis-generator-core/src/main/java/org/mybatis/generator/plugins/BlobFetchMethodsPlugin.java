@@ -0,0 +1,288 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.runtime.dynamic.sql.elements.AbstractMethodGenerator;
+
+/**
+ * This plugin adds methods that load the BLOB columns of a record on demand. For every BLOB column
+ * of a table with a primary key, the plugin adds a copy of <code>selectByPrimaryKey</code> that only
+ * selects the primary key columns and that BLOB column. For a BLOB column <code>PAYLOAD</code> the
+ * method is <code>selectPayloadByPrimaryKey</code>. The method returns the same record type as
+ * <code>selectByPrimaryKey</code>; all other properties of the record are null.
+ *
+ * <p>With the MyBatis3DynamicSql runtime, the plugin also adds a <code>selectListWithoutBLOBs</code>
+ * field and a <code>selectWithoutBLOBs</code> method that selects rows without any BLOB column. The
+ * MyBatis3 runtime already has <code>selectByExample</code> for that.
+ *
+ * <p>Tables with constructor based or immutable models are skipped because MyBatis requires every
+ * constructor argument to be in the result set. If a method name is already used in the mapper, that
+ * method is not added.
+ *
+ * <p>This plugin supports the MyBatis3, MyBatis3Simple and MyBatis3DynamicSql target runtimes.
+ */
+public class BlobFetchMethodsPlugin extends PluginAdapter {
+
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        for (IntrospectedColumn column : introspectedTable.getBLOBColumns()) {
+            String name = calculateMethodName(column);
+            if (hasMethod(interfaze, name)) {
+                continue;
+            }
+
+            Method newMethod = new Method(method);
+            newMethod.setName(name);
+            if (isDynamicSql(introspectedTable)) {
+                replaceDynamicSqlSelectList(newMethod, column, introspectedTable);
+                interfaze.addImportedType(
+                        new FullyQualifiedJavaType("org.mybatis.dynamic.sql.BasicColumn")); //$NON-NLS-1$
+                interfaze.addImportedType(
+                        new FullyQualifiedJavaType("org.mybatis.dynamic.sql.util.mybatis3.MyBatis3Utils")); //$NON-NLS-1$
+            } else {
+                replaceAnnotatedSelectList(newMethod, column, introspectedTable);
+            }
+            interfaze.addMethod(newMethod);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectListFieldGenerated(Field field, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+        Field newField = new Field(field);
+        newField.setName("selectListWithoutBLOBs"); //$NON-NLS-1$
+        newField.setInitializationString("BasicColumn.columnList(" //$NON-NLS-1$
+                + introspectedTable.getNonBLOBColumns().stream()
+                        .map(c -> AbstractMethodGenerator.calculateFieldName(tableFieldName, c))
+                        .collect(Collectors.joining(", ")) //$NON-NLS-1$
+                + ")"); //$NON-NLS-1$
+        interfaze.addField(newField);
+        return true;
+    }
+
+    @Override
+    public boolean clientGeneralSelectMethodGenerated(Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || hasMethod(interfaze, "selectWithoutBLOBs")) { //$NON-NLS-1$
+            return true;
+        }
+
+        Method newMethod = new Method(method);
+        newMethod.setName("selectWithoutBLOBs"); //$NON-NLS-1$
+        List<String> bodyLines = new ArrayList<>(newMethod.getBodyLines());
+        newMethod.getBodyLines().clear();
+        for (String line : bodyLines) {
+            newMethod.addBodyLine(line.replace(" selectList,", " selectListWithoutBLOBs,")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        interfaze.addMethod(newMethod);
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        for (IntrospectedColumn column : introspectedTable.getBLOBColumns()) {
+            copyAndSaveElement(element, calculateMethodName(column), column, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToAdd.remove(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                document.getRootElement().addElement(element);
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        return introspectedTable.hasBLOBColumns() && !introspectedTable.isConstructorBased();
+    }
+
+    private boolean isDynamicSql(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL;
+    }
+
+    private boolean hasMethod(Interface interfaze, String name) {
+        return interfaze.getMethods().stream().anyMatch(m -> m.getName().equals(name));
+    }
+
+    private String calculateMethodName(IntrospectedColumn column) {
+        String property = column.getJavaProperty();
+        return "select" + Character.toUpperCase(property.charAt(0)) //$NON-NLS-1$
+                + property.substring(1) + "ByPrimaryKey"; //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the primary key columns and the BLOB column, in that order.
+     */
+    private List<IntrospectedColumn> getFetchColumns(IntrospectedColumn column,
+            IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> answer = new ArrayList<>(introspectedTable.getPrimaryKeyColumns());
+        answer.add(column);
+        return answer;
+    }
+
+    private String getSelectList(IntrospectedColumn column, IntrospectedTable introspectedTable) {
+        return getFetchColumns(column, introspectedTable).stream()
+                .map(MyBatis3FormattingUtilities::getSelectListPhrase)
+                .collect(Collectors.joining(", ")); //$NON-NLS-1$
+    }
+
+    /**
+     * Replaces the select list of the statement annotation in annotated mappers. XML mappers have no
+     * statement annotation and are not changed.
+     */
+    private void replaceAnnotatedSelectList(Method method, IntrospectedColumn column,
+            IntrospectedTable introspectedTable) {
+        List<String> annotations = new ArrayList<>(method.getAnnotations());
+        method.getAnnotations().clear();
+        boolean inSelectList = false;
+        for (String annotation : annotations) {
+            String trimmed = annotation.trim();
+            if (inSelectList) {
+                if (!trimmed.startsWith("\"from ")) { //$NON-NLS-1$
+                    continue;
+                }
+                StringBuilder sb = new StringBuilder();
+                javaIndent(sb, 1);
+                sb.append('"');
+                sb.append(escapeStringForJava(getSelectList(column, introspectedTable)));
+                sb.append("\","); //$NON-NLS-1$
+                method.addAnnotation(sb.toString());
+                inSelectList = false;
+            } else if (trimmed.startsWith("\"select\"")) { //$NON-NLS-1$
+                inSelectList = true;
+            }
+            method.addAnnotation(annotation);
+        }
+    }
+
+    /**
+     * Use the element copy constructor to create a new element with a new id and the select list
+     * replaced.
+     */
+    private void copyAndSaveElement(XmlElement element, String id, IntrospectedColumn column,
+            IntrospectedTable introspectedTable) {
+        XmlElement newElement = new XmlElement(element);
+
+        newElement.getAttributes().removeIf(a -> "id".equals(a.getName())); //$NON-NLS-1$
+        newElement.getAttributes().add(0, new Attribute("id", id)); //$NON-NLS-1$
+
+        List<VisitableElement> elements = new ArrayList<>(newElement.getElements());
+        newElement.getElements().clear();
+        boolean inSelectList = false;
+        for (VisitableElement child : elements) {
+            String content = child instanceof TextElement ? ((TextElement) child).getContent() : ""; //$NON-NLS-1$
+            if (inSelectList) {
+                if (!content.startsWith("from ")) { //$NON-NLS-1$
+                    continue;
+                }
+                inSelectList = false;
+            } else if (content.startsWith("select")) { //$NON-NLS-1$
+                newElement.addElement(new TextElement("select " //$NON-NLS-1$
+                        + getSelectList(column, introspectedTable)));
+                inSelectList = true;
+                continue;
+            }
+            newElement.addElement(child);
+        }
+
+        // save the new element locally. We'll add it to the document later
+        elementsToAdd.computeIfAbsent(introspectedTable.getFullyQualifiedTable(), k -> new ArrayList<>())
+                .add(newElement);
+    }
+
+    /**
+     * Replaces the first body line of a MyBatis3DynamicSql select by primary key method so that the
+     * statement only selects the primary key columns and the BLOB column.
+     */
+    private void replaceDynamicSqlSelectList(Method method, IntrospectedColumn column,
+            IntrospectedTable introspectedTable) {
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+        String selectList = getFetchColumns(column, introspectedTable).stream()
+                .map(c -> AbstractMethodGenerator.calculateFieldName(tableFieldName, c))
+                .collect(Collectors.joining(", ")); //$NON-NLS-1$
+
+        List<String> bodyLines = new ArrayList<>(method.getBodyLines());
+        method.getBodyLines().clear();
+        for (String line : bodyLines) {
+            if ("return selectOne(c ->".equals(line)) { //$NON-NLS-1$
+                line = "return MyBatis3Utils.selectOne(this::selectOne, BasicColumn.columnList(" //$NON-NLS-1$
+                        + selectList + "), " + tableFieldName + ", c ->"; //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            method.addBodyLine(line);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+
+/**
+ * This plugin adds select methods that return a MyBatis <code>Cursor</code> instead of a
+ * <code>List</code>. A cursor fetches rows from the database as they are iterated, so very large
+ * results can be processed without holding every row in memory. The statements use a forward only
+ * result set and a configurable fetch size.
+ *
+ * <p>The methods added depend on the target runtime:
+ *
+ * <ul>
+ * <li>MyBatis3 - <code>selectByExampleCursor</code> and <code>selectByExampleWithBLOBsCursor</code></li>
+ * <li>MyBatis3Simple - <code>selectAllCursor</code></li>
+ * <li>MyBatis3DynamicSql - <code>selectManyCursor</code> and <code>selectCursor</code></li>
+ * </ul>
+ *
+ * <p>This plugin accepts one property:
+ *
+ * <ul>
+ * <li><code>fetchSize</code> (optional) the fetch size hint for the statements. This defaults to 1000. Use
+ * -2147483648 (<code>Integer.MIN_VALUE</code>) to stream rows one at a time with MySQL.</li>
+ * </ul>
+ */
+public class CursorPlugin extends PluginAdapter {
+
+    private static final String CURSOR_SUFFIX = "Cursor"; //$NON-NLS-1$
+
+    private final FullyQualifiedJavaType cursor =
+            new FullyQualifiedJavaType("org.apache.ibatis.cursor.Cursor"); //$NON-NLS-1$
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
+    private String fetchSize;
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        fetchSize = properties.getProperty("fetchSize"); //$NON-NLS-1$
+        if (!stringHasValue(fetchSize)) {
+            fetchSize = "1000"; //$NON-NLS-1$
+            return true;
+        }
+
+        try {
+            fetchSize = Integer.toString(Integer.parseInt(fetchSize.trim()));
+            return true;
+        } catch (NumberFormatException e) {
+            warnings.add(getString("ValidationError.31", "fetchSize", "CursorPlugin")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithBLOBsMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        copyAndAddMethod(method, interfaze);
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        copyAndAddMethod(method, interfaze);
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectAllMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        copyAndAddMethod(method, interfaze);
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(
+            XmlElement element, IntrospectedTable introspectedTable) {
+        copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectAllElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        copyAndSaveElement(element, introspectedTable.getFullyQualifiedTable());
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToAdd.remove(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                document.getRootElement().addElement(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds a <code>selectManyCursor</code> method next to the <code>selectMany</code> method of a mapper for
+     * the MyBatis3DynamicSql runtime. The result map of the <code>selectMany</code> method is reused.
+     */
+    @Override
+    public boolean clientBasicSelectManyMethodGenerated(Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+
+        Method newMethod = new Method(method.getName() + CURSOR_SUFFIX);
+        newMethod.setAbstract(true);
+        newMethod.setReturnType(getCursorType(recordType));
+        for (Parameter parameter : method.getParameters()) {
+            newMethod.addParameter(parameter);
+        }
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        context.getCommentGenerator().addGeneralMethodAnnotation(newMethod, introspectedTable, imports);
+
+        if (introspectedTable.isConstructorBased()) {
+            // constructor args do not have an id, so they are copied
+            boolean copy = false;
+            for (String annotation : method.getAnnotations()) {
+                copy = copy || annotation.startsWith("@SelectProvider"); //$NON-NLS-1$
+                if (copy) {
+                    newMethod.addAnnotation(annotation);
+                }
+            }
+        } else {
+            newMethod.addAnnotation("@SelectProvider(type=SqlProviderAdapter.class, method=\"select\")"); //$NON-NLS-1$
+            newMethod.addAnnotation("@ResultMap(\"" //$NON-NLS-1$
+                    + recordType.getShortNameWithoutTypeArguments() + "Result\")"); //$NON-NLS-1$
+            imports.add(new FullyQualifiedJavaType("org.apache.ibatis.annotations.ResultMap")); //$NON-NLS-1$
+        }
+        addOptionsAnnotation(newMethod, imports);
+
+        imports.add(cursor);
+        interfaze.addImportedTypes(imports);
+        interfaze.addMethod(newMethod);
+        return true;
+    }
+
+    /**
+     * Adds a <code>selectCursor</code> method next to the general <code>select</code> method of a mapper for
+     * the MyBatis3DynamicSql runtime.
+     */
+    @Override
+    public boolean clientGeneralSelectMethodGenerated(Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+
+        Method newMethod = new Method(method.getName() + CURSOR_SUFFIX);
+        newMethod.setDefault(true);
+        newMethod.setReturnType(getCursorType(recordType));
+        for (Parameter parameter : method.getParameters()) {
+            newMethod.addParameter(parameter);
+        }
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        context.getCommentGenerator().addGeneralMethodAnnotation(newMethod, introspectedTable, imports);
+        newMethod.addBodyLine("return selectManyCursor(MyBatis3Utils.select(selectList, " //$NON-NLS-1$
+                + tableFieldName + ", completer));"); //$NON-NLS-1$
+
+        imports.add(cursor);
+        interfaze.addImportedTypes(imports);
+        interfaze.addMethod(newMethod);
+        return true;
+    }
+
+    /**
+     * Use the method copy constructor to create a new method that returns a cursor. Methods of
+     * annotated mappers also get an options annotation with the fetch size.
+     *
+     * @param method the method
+     * @param interfaze the interface
+     */
+    private void copyAndAddMethod(Method method, Interface interfaze) {
+        Method newMethod = new Method(method);
+        newMethod.setName(method.getName() + CURSOR_SUFFIX);
+        method.getReturnType()
+                .map(returnType -> returnType.getTypeArguments().get(0))
+                .map(this::getCursorType)
+                .ifPresent(newMethod::setReturnType);
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        if (newMethod.getAnnotations().stream().anyMatch(a -> a.startsWith("@Select"))) { //$NON-NLS-1$
+            addOptionsAnnotation(newMethod, imports);
+        }
+
+        imports.add(cursor);
+        interfaze.addImportedTypes(imports);
+        interfaze.addMethod(newMethod);
+    }
+
+    private void addOptionsAnnotation(Method method, Set<FullyQualifiedJavaType> imports) {
+        method.addAnnotation("@Options(fetchSize=" + fetchSize //$NON-NLS-1$
+                + ", resultSetType=ResultSetType.FORWARD_ONLY)"); //$NON-NLS-1$
+        imports.add(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options")); //$NON-NLS-1$
+        imports.add(new FullyQualifiedJavaType("org.apache.ibatis.mapping.ResultSetType")); //$NON-NLS-1$
+    }
+
+    private FullyQualifiedJavaType getCursorType(FullyQualifiedJavaType recordType) {
+        FullyQualifiedJavaType cursorType = new FullyQualifiedJavaType(cursor.getFullyQualifiedName());
+        cursorType.addTypeArgument(recordType);
+        return cursorType;
+    }
+
+    /**
+     * Use the element copy constructor to create a new element with a new id, a fetch size,
+     * and a forward only result set.
+     *
+     * @param element the base element
+     * @param fqt the fully qualified table
+     */
+    private void copyAndSaveElement(XmlElement element, FullyQualifiedTable fqt) {
+        XmlElement newElement = new XmlElement(element);
+
+        // remove old id attribute and add a new one with the new name
+        Iterator<Attribute> iterator = newElement.getAttributes().iterator();
+        while (iterator.hasNext()) {
+            Attribute attribute = iterator.next();
+            if ("id".equals(attribute.getName())) { //$NON-NLS-1$
+                iterator.remove();
+                newElement.addAttribute(new Attribute("id", attribute.getValue() + CURSOR_SUFFIX)); //$NON-NLS-1$
+                break;
+            }
+        }
+        newElement.addAttribute(new Attribute("fetchSize", fetchSize)); //$NON-NLS-1$
+        newElement.addAttribute(new Attribute("resultSetType", "FORWARD_ONLY")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        // save the new element locally. We'll add it to the document later
+        elementsToAdd.computeIfAbsent(fqt, k -> new ArrayList<>()).add(newElement);
+    }
+}
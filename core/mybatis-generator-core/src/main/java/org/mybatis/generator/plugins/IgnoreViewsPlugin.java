@@ -29,6 +29,11 @@ public class IgnoreViewsPlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean shouldGenerate(IntrospectedTable introspectedTable) {
         return !"VIEW".equalsIgnoreCase(introspectedTable.getTableType()); //$NON-NLS-1$
@@ -0,0 +1,449 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.api.dom.OutputUtilities.xmlIndent;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.kotlin.KotlinArg;
+import org.mybatis.generator.api.dom.kotlin.KotlinFile;
+import org.mybatis.generator.api.dom.kotlin.KotlinFunction;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3SimpleImpl;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.config.GeneratedKey;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.runtime.kotlin.elements.KotlinFunctionAndImports;
+
+/**
+ * This plugin adds multi-row insert methods to the generated mappers. For the MyBatis3 and
+ * MyBatis3Simple runtimes two methods are added:
+ *
+ * <ul>
+ * <li><code>insertMultiple</code> inserts a list of records with a single statement of the form
+ * <code>insert into ... values (...), (...)</code></li>
+ * <li><code>insertBatch</code> is a default method that splits a list of any size into chunks that
+ * respect the bind parameter limit of the database and calls <code>insertMultiple</code> for each
+ * chunk</li>
+ * </ul>
+ *
+ * <p>Generated keys are returned into the records if the table has a JDBC standard generated key. The
+ * methods are not generated for tables with other kinds of generated keys because those keys cannot
+ * be retrieved for multiple rows.
+ *
+ * <p>The MyBatis3DynamicSql and MyBatis3Kotlin runtimes already generate <code>insertMultiple</code>. For
+ * those runtimes the plugin only adds <code>insertBatch</code>, which calls the generated
+ * <code>insertMultiple</code> method for each chunk. The chunks are inserted with the session of the
+ * mapper, so they are part of the same transaction.
+ *
+ * <p>This plugin accepts two properties:
+ *
+ * <ul>
+ * <li><code>maxParameters</code> (optional) the maximum number of bind parameters in one statement. If
+ * not specified, the limit is chosen from the JDBC connection URL, or 2000 if the database is not
+ * known.</li>
+ * <li><code>maxRowsPerStatement</code> (optional) the maximum number of rows inserted by one statement.
+ * This defaults to 1000.</li>
+ * </ul>
+ */
+public class InsertBatchPlugin extends PluginAdapter {
+
+    private static final String INSERT_MULTIPLE = "insertMultiple"; //$NON-NLS-1$
+
+    private static final String INSERT_BATCH = "insertBatch"; //$NON-NLS-1$
+
+    private static final int DEFAULT_MAX_PARAMETERS = 2000;
+
+    private static final int DEFAULT_MAX_ROWS_PER_STATEMENT = 1000;
+
+    private int maxParameters;
+
+    private int maxRowsPerStatement;
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        maxParameters = getPositiveInt("maxParameters", getDefaultMaxParameters(), warnings); //$NON-NLS-1$
+        maxRowsPerStatement = getPositiveInt("maxRowsPerStatement", //$NON-NLS-1$
+                DEFAULT_MAX_ROWS_PER_STATEMENT, warnings);
+
+        return maxParameters > 0 && maxRowsPerStatement > 0;
+    }
+
+    private int getPositiveInt(String property, int defaultValue, List<String> warnings) {
+        String value = properties.getProperty(property);
+        if (!stringHasValue(value)) {
+            return defaultValue;
+        }
+
+        try {
+            int answer = Integer.parseInt(value.trim());
+            if (answer > 0) {
+                return answer;
+            }
+        } catch (NumberFormatException e) {
+            // ignore - warning below
+        }
+
+        warnings.add(getString("ValidationError.30", property, "InsertBatchPlugin")); //$NON-NLS-1$ //$NON-NLS-2$
+        return -1;
+    }
+
+    /**
+     * Returns the bind parameter limit of the database in the JDBC connection configuration.
+     *
+     * @return the limit, or a conservative default if the database is not known
+     */
+    private int getDefaultMaxParameters() {
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = context.getJdbcConnectionConfiguration();
+        String url = jdbcConnectionConfiguration == null ? null : jdbcConnectionConfiguration.getConnectionURL();
+        if (url == null && context.getConnectionFactoryConfiguration() != null) {
+            url = context.getConnectionFactoryConfiguration().getProperty("connectionURL"); //$NON-NLS-1$
+        }
+
+        if (url == null) {
+            return DEFAULT_MAX_PARAMETERS;
+        }
+
+        url = url.toLowerCase(Locale.ENGLISH);
+        if (url.startsWith("jdbc:sqlserver:") || url.startsWith("jdbc:jtds:")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return 2100;
+        } else if (url.startsWith("jdbc:sqlite:")) { //$NON-NLS-1$
+            return 999;
+        } else if (url.startsWith("jdbc:postgresql:")) { //$NON-NLS-1$
+            return 32767;
+        } else if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) { //$NON-NLS-1$ //$NON-NLS-2$
+            return 65535;
+        } else {
+            return DEFAULT_MAX_PARAMETERS;
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
+        if (isDynamicSql(introspectedTable) || !isSupported(introspectedTable)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = getRecordType(introspectedTable);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method insertMultiple = new Method(INSERT_MULTIPLE);
+        insertMultiple.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        insertMultiple.setVisibility(JavaVisibility.PUBLIC);
+        insertMultiple.setAbstract(true);
+        insertMultiple.addParameter(new Parameter(listType, "records", "@Param(\"records\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(insertMultiple, introspectedTable);
+        if (!introspectedTable.requiresXMLGenerator()) {
+            addInsertAnnotations(insertMultiple, introspectedTable);
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Insert")); //$NON-NLS-1$
+            if (getJdbcStandardKeyColumn(introspectedTable).isPresent()) {
+                interfaze.addImportedType(
+                        new FullyQualifiedJavaType("org.apache.ibatis.annotations.Options")); //$NON-NLS-1$
+            }
+        }
+
+        int rowsPerStatement = getRowsPerStatement(introspectedTable);
+        Method insertBatch = new Method(INSERT_BATCH);
+        insertBatch.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        insertBatch.setVisibility(JavaVisibility.PUBLIC);
+        insertBatch.setDefault(true);
+        insertBatch.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(insertBatch, introspectedTable);
+        insertBatch.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        insertBatch.addBodyLine("for (int i = 0; i < records.size(); i += " //$NON-NLS-1$
+                + rowsPerStatement + ") {"); //$NON-NLS-1$
+        insertBatch.addBodyLine("rows += " + INSERT_MULTIPLE //$NON-NLS-1$
+                + "(records.subList(i, Math.min(i + " + rowsPerStatement //$NON-NLS-1$
+                + ", records.size())));"); //$NON-NLS-1$
+        insertBatch.addBodyLine("}"); //$NON-NLS-1$
+        insertBatch.addBodyLine("return rows;"); //$NON-NLS-1$
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(recordType);
+        interfaze.addMethod(insertMultiple);
+        interfaze.addMethod(insertBatch);
+
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertMultipleMethodGenerated(Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        // the parameter of the generated method is a Collection of records
+        FullyQualifiedJavaType parameterType = method.getParameters().get(0).getType();
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(parameterType.getTypeArguments().get(0));
+
+        int rowsPerStatement = getRowsPerStatement(introspectedTable);
+        Method insertBatch = new Method(INSERT_BATCH);
+        insertBatch.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        insertBatch.setDefault(true);
+        insertBatch.addParameter(new Parameter(parameterType, "records")); //$NON-NLS-1$
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        context.getCommentGenerator().addGeneralMethodAnnotation(insertBatch, introspectedTable, imports);
+        insertBatch.addBodyLine(listType.getShortName()
+                + " recordList = new ArrayList<>(records);"); //$NON-NLS-1$
+        insertBatch.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        insertBatch.addBodyLine("for (int i = 0; i < recordList.size(); i += " //$NON-NLS-1$
+                + rowsPerStatement + ") {"); //$NON-NLS-1$
+        insertBatch.addBodyLine("rows += " + INSERT_MULTIPLE //$NON-NLS-1$
+                + "(recordList.subList(i, Math.min(i + " + rowsPerStatement //$NON-NLS-1$
+                + ", recordList.size())));"); //$NON-NLS-1$
+        insertBatch.addBodyLine("}"); //$NON-NLS-1$
+        insertBatch.addBodyLine("return rows;"); //$NON-NLS-1$
+
+        interfaze.addImportedTypes(imports);
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+        interfaze.addMethod(insertBatch);
+
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertMultipleMethodGenerated(KotlinFunction kotlinFunction, KotlinFile kotlinFile,
+            IntrospectedTable introspectedTable) {
+        KotlinArg records = kotlinFunction.getArguments().get(0);
+        KotlinFunctionAndImports insertBatch = KotlinFunctionAndImports.withFunction(
+                KotlinFunction.newOneLineFunction(getKotlinMapperName(kotlinFunction) + "." + INSERT_BATCH) //$NON-NLS-1$
+                .withArgument(KotlinArg.newArg(records.getName())
+                        .withDataType(records.getDataType().orElse(null))
+                        .build())
+                .withCodeLine("records.chunked(" + getRowsPerStatement(introspectedTable) //$NON-NLS-1$
+                        + ").sumOf { " + INSERT_MULTIPLE + "(it) }") //$NON-NLS-1$ //$NON-NLS-2$
+                .build())
+                .build();
+
+        addKotlinFunction(insertBatch, kotlinFile, introspectedTable);
+        return true;
+    }
+
+    @Override
+    public boolean clientInsertMultipleVarargMethodGenerated(KotlinFunction kotlinFunction, KotlinFile kotlinFile,
+            IntrospectedTable introspectedTable) {
+        KotlinArg records = kotlinFunction.getArguments().get(0);
+        KotlinFunctionAndImports insertBatch = KotlinFunctionAndImports.withFunction(
+                KotlinFunction.newOneLineFunction(getKotlinMapperName(kotlinFunction) + "." + INSERT_BATCH) //$NON-NLS-1$
+                .withArgument(KotlinArg.newArg(records.getName())
+                        .withDataType(records.getDataType().orElse(null))
+                        .build())
+                .withCodeLine(INSERT_BATCH + "(records.toList())") //$NON-NLS-1$
+                .build())
+                .build();
+
+        addKotlinFunction(insertBatch, kotlinFile, introspectedTable);
+        return true;
+    }
+
+    private void addKotlinFunction(KotlinFunctionAndImports functionAndImports, KotlinFile kotlinFile,
+            IntrospectedTable introspectedTable) {
+        context.getCommentGenerator().addGeneralFunctionComment(functionAndImports.getFunction(),
+                introspectedTable, functionAndImports.getImports());
+        kotlinFile.addImports(functionAndImports.getImports());
+        kotlinFile.addNamedItem(functionAndImports.getFunction());
+    }
+
+    /**
+     * Returns the receiver type of a generated extension function like
+     * <code>PersonMapper.insertMultiple</code>.
+     */
+    private String getKotlinMapperName(KotlinFunction kotlinFunction) {
+        String name = kotlinFunction.getName();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        XmlElement answer = new XmlElement("insert"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", INSERT_MULTIPLE)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        getJdbcStandardKeyColumn(introspectedTable).ifPresent(introspectedColumn -> {
+            answer.addAttribute(new Attribute("useGeneratedKeys", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+            answer.addAttribute(new Attribute("keyProperty", //$NON-NLS-1$
+                    "records." + introspectedColumn.getJavaProperty())); //$NON-NLS-1$
+            answer.addAttribute(new Attribute("keyColumn", introspectedColumn.getActualColumnName())); //$NON-NLS-1$
+        });
+
+        context.getCommentGenerator().addComment(answer);
+
+        List<IntrospectedColumn> columns = getInsertColumns(introspectedTable);
+        answer.addElement(new TextElement(getInsertClause(introspectedTable, columns, false)));
+        answer.addElement(new TextElement("values")); //$NON-NLS-1$
+
+        XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+        foreach.addAttribute(new Attribute("collection", "records")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("item", "record")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+        for (String valuesClause : getValuesClauses(columns)) {
+            foreach.addElement(new TextElement(valuesClause));
+        }
+        answer.addElement(foreach);
+
+        document.getRootElement().addElement(answer);
+
+        return true;
+    }
+
+    private void addInsertAnnotations(Method method, IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> columns = getInsertColumns(introspectedTable);
+
+        method.addAnnotation("@Insert({"); //$NON-NLS-1$
+        addAnnotationLine(method, "<script>", true); //$NON-NLS-1$
+        addAnnotationLine(method, getInsertClause(introspectedTable, columns, true), true);
+        addAnnotationLine(method, "values", true); //$NON-NLS-1$
+        addAnnotationLine(method, "<foreach collection='records' item='record' separator=','>", true); //$NON-NLS-1$
+        for (String valuesClause : getValuesClauses(columns)) {
+            addAnnotationLine(method, valuesClause.trim(), true);
+        }
+        addAnnotationLine(method, "</foreach>", true); //$NON-NLS-1$
+        addAnnotationLine(method, "</script>", false); //$NON-NLS-1$
+        method.addAnnotation("})"); //$NON-NLS-1$
+
+        getJdbcStandardKeyColumn(introspectedTable).ifPresent(introspectedColumn ->
+                method.addAnnotation("@Options(useGeneratedKeys=true,keyProperty=\"records." //$NON-NLS-1$
+                        + introspectedColumn.getJavaProperty()
+                        + "\",keyColumn=\"" //$NON-NLS-1$
+                        + escapeStringForJava(introspectedColumn.getActualColumnName())
+                        + "\")")); //$NON-NLS-1$
+    }
+
+    private void addAnnotationLine(Method method, String line, boolean hasNext) {
+        StringBuilder sb = new StringBuilder();
+        javaIndent(sb, 1);
+        sb.append('"');
+        sb.append(line);
+        sb.append('"');
+        if (hasNext) {
+            sb.append(',');
+        }
+        method.addAnnotation(sb.toString());
+    }
+
+    private String getInsertClause(IntrospectedTable introspectedTable, List<IntrospectedColumn> columns,
+            boolean escapeForJava) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into "); //$NON-NLS-1$
+        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(" ("); //$NON-NLS-1$
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(getEscapedColumnName(columns.get(i)));
+        }
+        sb.append(')');
+
+        return escapeForJava ? escapeStringForJava(sb.toString()) : sb.toString();
+    }
+
+    private List<String> getValuesClauses(List<IntrospectedColumn> columns) {
+        List<String> valuesClauses = new ArrayList<>();
+        StringBuilder valuesClause = new StringBuilder();
+        valuesClause.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            valuesClause.append(getParameterClause(columns.get(i), "record.")); //$NON-NLS-1$
+            if (i + 1 < columns.size()) {
+                valuesClause.append(", "); //$NON-NLS-1$
+            }
+
+            if (valuesClause.length() > 80 && i + 1 < columns.size()) {
+                valuesClauses.add(valuesClause.toString());
+                valuesClause.setLength(0);
+                xmlIndent(valuesClause, 1);
+            }
+        }
+        valuesClause.append(')');
+        valuesClauses.add(valuesClause.toString());
+
+        return valuesClauses;
+    }
+
+    /**
+     * Calculates the number of rows inserted by one statement so that the statement does not exceed
+     * the bind parameter limit.
+     *
+     * @param introspectedTable the table
+     * @return the number of rows per statement
+     */
+    private int getRowsPerStatement(IntrospectedTable introspectedTable) {
+        int parametersPerRow = Math.max(1, getInsertColumns(introspectedTable).size());
+        return Math.max(1, Math.min(maxRowsPerStatement, maxParameters / parametersPerRow));
+    }
+
+    private boolean isDynamicSql(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL;
+    }
+
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        // multi row inserts only work if we don't expect generated keys, or if the generated keys
+        // are JDBC standard
+        return introspectedTable.getRules().generateInsert()
+                && !getInsertColumns(introspectedTable).isEmpty()
+                && introspectedTable.getGeneratedKey().map(GeneratedKey::isJdbcStandard).orElse(true);
+    }
+
+    private Optional<IntrospectedColumn> getJdbcStandardKeyColumn(IntrospectedTable introspectedTable) {
+        return introspectedTable.getGeneratedKey()
+                .filter(GeneratedKey::isJdbcStandard)
+                .flatMap(gk -> introspectedTable.getColumn(gk.getColumn()));
+    }
+
+    private List<IntrospectedColumn> getInsertColumns(IntrospectedTable introspectedTable) {
+        return ListUtilities.removeIdentityAndGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+    }
+
+    private FullyQualifiedJavaType getRecordType(IntrospectedTable introspectedTable) {
+        if (introspectedTable instanceof IntrospectedTableMyBatis3SimpleImpl) {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        } else {
+            return introspectedTable.getRules().calculateAllFieldsClass();
+        }
+    }
+}
@@ -0,0 +1,562 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getAliasedEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getSelectListPhrase;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.api.dom.xml.render.ElementRenderer;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3SimpleImpl;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.ExampleWhereClauseElementGenerator;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.runtime.dynamic.sql.elements.AbstractMethodGenerator;
+
+/**
+ * This plugin adds keyset (or "seek") pagination methods to mappers. Instead of skipping rows with an
+ * offset, a keyset query returns the rows that follow the last row of the previous page in primary key
+ * order. The database can seek directly to that position in the primary key index, so deep pages are as
+ * fast as the first page.
+ *
+ * <p>The plugin adds a method <code>selectPageAfter(lastKey, limit)</code>. If <code>lastKey</code> is
+ * null, the method returns the first page. Otherwise it returns up to <code>limit</code> rows whose primary
+ * key is greater than <code>lastKey</code>. For a single column key, <code>lastKey</code> is the key value.
+ * For a composite key, <code>lastKey</code> is the primary key class (or the record class if there is no
+ * primary key class) and the rows are compared column by column, in primary key order.
+ *
+ * <p>In the MyBatis3 runtime, the method also accepts an example. The criteria of the example are added to
+ * the where clause. The distinct and order by clauses of the example are ignored. With XML mappers, the
+ * example parameter is only added if the update by example statements are enabled for the table because
+ * the method reuses the where clause of those statements. With annotated mappers, the where clause of the
+ * example is added to the script of the select annotation, so the example parameter is added whenever the
+ * example class is generated. The MyBatis3Simple runtime does not generate example classes, so the
+ * method has no filter there.
+ *
+ * <p>In the MyBatis3DynamicSql runtime, an overloaded method <code>selectPageAfter(lastKey, limit,
+ * filter)</code> accepts an <code>SqlCriterion</code> (for example a <code>group(...)</code>). The filter is
+ * added to the where clause in parentheses.
+ *
+ * <p>Tables without a primary key are ignored. This plugin accepts two properties:
+ *
+ * <ul>
+ * <li><code>useFetchFirst</code> (optional) if true, the page size is limited with
+ * <code>fetch first n rows only</code> rather than <code>limit n</code>. The default is false.</li>
+ * <li><code>useRowValueComparison</code> (optional) if true, composite keys are compared with a row value
+ * expression like <code>(A, B) &gt; (?, ?)</code> rather than the equivalent expanded predicate. Not all
+ * databases support row values. This property is ignored by the MyBatis3DynamicSql runtime. The default
+ * is false.</li>
+ * </ul>
+ */
+public class KeysetPaginationPlugin extends PluginAdapter {
+
+    private static final String METHOD_NAME = "selectPageAfter"; //$NON-NLS-1$
+
+    private final Map<FullyQualifiedTable, List<String>> resultAnnotations = new ConcurrentHashMap<>();
+    private boolean useFetchFirst;
+    private boolean useRowValueComparison;
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        useFetchFirst = isTrue(properties.getProperty("useFetchFirst")); //$NON-NLS-1$
+        useRowValueComparison = isTrue(properties.getProperty("useRowValueComparison")); //$NON-NLS-1$
+        return true;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        saveResultAnnotations(method, introspectedTable);
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectAllMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        saveResultAnnotations(method, introspectedTable);
+        return true;
+    }
+
+    /**
+     * Annotated mappers map the results of every select method with annotations. The annotations of the
+     * select method for the same columns are saved so the keyset method can reuse them.
+     */
+    private void saveResultAnnotations(Method method, IntrospectedTable introspectedTable) {
+        List<String> annotations = new ArrayList<>();
+        boolean copy = false;
+        for (String annotation : method.getAnnotations()) {
+            copy = copy || annotation.startsWith("@Results") //$NON-NLS-1$
+                    || annotation.startsWith("@ConstructorArgs"); //$NON-NLS-1$
+            if (copy) {
+                annotations.add(annotation);
+            }
+        }
+
+        if (!annotations.isEmpty()) {
+            resultAnnotations.put(introspectedTable.getFullyQualifiedTable(), annotations);
+        }
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
+        List<String> annotations = resultAnnotations.remove(introspectedTable.getFullyQualifiedTable());
+        if (introspectedTable.getPrimaryKeyColumns().isEmpty()
+                || introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            return true;
+        }
+
+        if (introspectedTable.requiresXMLGenerator()) {
+            if (!introspectedTable.getRules().generateBaseResultMap()) {
+                return true;
+            }
+        } else if (annotations == null) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = getRecordType(introspectedTable);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+        FullyQualifiedJavaType keyType = getKeyType(introspectedTable);
+        List<String> exampleWhereClause = getExampleWhereClause(introspectedTable);
+
+        Method method = new Method(METHOD_NAME);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setAbstract(true);
+        method.setReturnType(listType);
+        method.addParameter(new Parameter(keyType, "lastKey", "@Param(\"lastKey\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(),
+                "limit", "@Param(\"limit\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        // annotated mappers need the where clause of the example for the script
+        if (hasExampleParameter(introspectedTable)
+                && (introspectedTable.requiresXMLGenerator() || exampleWhereClause != null)) {
+            FullyQualifiedJavaType exampleType = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+            method.addParameter(new Parameter(exampleType, "example", "@Param(\"example\")")); //$NON-NLS-1$ //$NON-NLS-2$
+            interfaze.addImportedType(exampleType);
+        }
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        if (annotations != null && !introspectedTable.requiresXMLGenerator()) {
+            addSelectAnnotation(method, introspectedTable, exampleWhereClause);
+            annotations.forEach(method::addAnnotation);
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Select")); //$NON-NLS-1$
+        }
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(recordType);
+        interfaze.addImportedType(keyType);
+        interfaze.addMethod(method);
+
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getPrimaryKeyColumns().isEmpty()
+                || !introspectedTable.getRules().generateBaseResultMap()) {
+            return true;
+        }
+
+        XmlElement answer = new XmlElement("select"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", METHOD_NAME)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId())); //$NON-NLS-1$
+
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select")); //$NON-NLS-1$
+        answer.addElement(new TextElement(getSelectList(introspectedTable)));
+        answer.addElement(new TextElement("from " //$NON-NLS-1$
+                + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()));
+
+        XmlElement where = new XmlElement("where"); //$NON-NLS-1$
+        XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+        ifElement.addAttribute(new Attribute("test", "lastKey != null")); //$NON-NLS-1$ //$NON-NLS-2$
+        getKeyCondition(introspectedTable).forEach(line -> ifElement.addElement(new TextElement(line)));
+        where.addElement(ifElement);
+
+        if (hasExampleParameter(introspectedTable)) {
+            XmlElement exampleIf = new XmlElement("if"); //$NON-NLS-1$
+            exampleIf.addAttribute(new Attribute("test", "example != null")); //$NON-NLS-1$ //$NON-NLS-2$
+            // the included where clause renders its own where keyword, so it is trimmed
+            XmlElement trim = new XmlElement("trim"); //$NON-NLS-1$
+            trim.addAttribute(new Attribute("prefix", "and (")); //$NON-NLS-1$ //$NON-NLS-2$
+            trim.addAttribute(new Attribute("prefixOverrides", "where")); //$NON-NLS-1$ //$NON-NLS-2$
+            trim.addAttribute(new Attribute("suffix", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+            XmlElement include = new XmlElement("include"); //$NON-NLS-1$
+            include.addAttribute(new Attribute("refid", //$NON-NLS-1$
+                    introspectedTable.getMyBatis3UpdateByExampleWhereClauseId()));
+            trim.addElement(include);
+            exampleIf.addElement(trim);
+            where.addElement(exampleIf);
+        }
+        answer.addElement(where);
+
+        answer.addElement(new TextElement(getOrderByClause(introspectedTable)));
+        answer.addElement(new TextElement(getLimitClause()));
+
+        document.getRootElement().addElement(answer);
+
+        return true;
+    }
+
+    private void addSelectAnnotation(Method method, IntrospectedTable introspectedTable,
+            List<String> exampleWhereClause) {
+        method.addAnnotation("@Select({"); //$NON-NLS-1$
+        addAnnotationLine(method, "<script>"); //$NON-NLS-1$
+        addAnnotationLine(method, "select"); //$NON-NLS-1$
+        addAnnotationLine(method, getSelectList(introspectedTable));
+        addAnnotationLine(method, "from " //$NON-NLS-1$
+                + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime());
+        addAnnotationLine(method, "<where>"); //$NON-NLS-1$
+        addAnnotationLine(method, "<if test='lastKey != null'>"); //$NON-NLS-1$
+        getKeyCondition(introspectedTable).forEach(line -> addAnnotationLine(method, line));
+        addAnnotationLine(method, "</if>"); //$NON-NLS-1$
+        if (exampleWhereClause != null) {
+            addAnnotationLine(method, "<if test='example != null'>"); //$NON-NLS-1$
+            // the where clause renders its own where keyword, so it is trimmed
+            addAnnotationLine(method, "<trim prefix='and (' prefixOverrides='where' suffix=')'>"); //$NON-NLS-1$
+            exampleWhereClause.forEach(line -> addAnnotationLine(method, line));
+            addAnnotationLine(method, "</trim>"); //$NON-NLS-1$
+            addAnnotationLine(method, "</if>"); //$NON-NLS-1$
+        }
+        addAnnotationLine(method, "</where>"); //$NON-NLS-1$
+        addAnnotationLine(method, getOrderByClause(introspectedTable));
+        addAnnotationLine(method, getLimitClause());
+
+        StringBuilder sb = new StringBuilder();
+        javaIndent(sb, 1);
+        sb.append("\"</script>\""); //$NON-NLS-1$
+        method.addAnnotation(sb.toString());
+        method.addAnnotation("})"); //$NON-NLS-1$
+    }
+
+    private void addAnnotationLine(Method method, String line) {
+        StringBuilder sb = new StringBuilder();
+        javaIndent(sb, 1);
+        sb.append('"');
+        sb.append(escapeStringForJava(line));
+        sb.append("\","); //$NON-NLS-1$
+        method.addAnnotation(sb.toString());
+    }
+
+    /**
+     * Adds <code>selectPageAfter</code> methods next to the general <code>select</code> method of a mapper for
+     * the MyBatis3DynamicSql runtime, with and without a filter. For a composite key, <code>lastKey</code> is a
+     * record with the key properties set.
+     */
+    @Override
+    public boolean clientGeneralSelectMethodGenerated(Method method, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (keyColumns.isEmpty()) {
+            return true;
+        }
+
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+        List<String> fieldNames = keyColumns.stream()
+                .map(c -> AbstractMethodGenerator.calculateFieldName(tableFieldName, c))
+                .collect(Collectors.toList());
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        FullyQualifiedJavaType keyType = keyColumns.size() == 1 ? getWrapperType(keyColumns.get(0)) : recordType;
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method newMethod = new Method(METHOD_NAME);
+        newMethod.setDefault(true);
+        newMethod.setReturnType(listType);
+        newMethod.addParameter(new Parameter(keyType, "lastKey")); //$NON-NLS-1$
+        newMethod.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit")); //$NON-NLS-1$
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        context.getCommentGenerator().addGeneralMethodAnnotation(newMethod, introspectedTable, imports);
+
+        String orderByAndLimit = ".orderBy(" + String.join(", ", fieldNames) + ")" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                + (useFetchFirst ? ".fetchFirst(limit).rowsOnly()" : ".limit(limit)"); //$NON-NLS-1$ //$NON-NLS-2$
+        newMethod.addBodyLine("if (lastKey == null) {"); //$NON-NLS-1$
+        newMethod.addBodyLine("return select(c -> c" + orderByAndLimit + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+        newMethod.addBodyLine("}"); //$NON-NLS-1$
+        newMethod.addBodyLine(""); //$NON-NLS-1$
+        newMethod.addBodyLine("return select(c ->"); //$NON-NLS-1$
+        for (int i = 0; i < keyColumns.size(); i++) {
+            newMethod.addBodyLine((i == 0 ? "    c.where(" : "    .or(") //$NON-NLS-1$ //$NON-NLS-2$
+                    + getKeyCriteria(keyColumns, fieldNames, i) + ")"); //$NON-NLS-1$
+        }
+        newMethod.addBodyLine("    " + orderByAndLimit); //$NON-NLS-1$
+        newMethod.addBodyLine(");"); //$NON-NLS-1$
+
+        FullyQualifiedJavaType criterionType =
+                new FullyQualifiedJavaType("org.mybatis.dynamic.sql.SqlCriterion"); //$NON-NLS-1$
+        Method filterMethod = new Method(METHOD_NAME);
+        filterMethod.setDefault(true);
+        filterMethod.setReturnType(listType);
+        filterMethod.addParameter(new Parameter(keyType, "lastKey")); //$NON-NLS-1$
+        filterMethod.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit")); //$NON-NLS-1$
+        filterMethod.addParameter(new Parameter(criterionType, "filter")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodAnnotation(filterMethod, introspectedTable, imports);
+
+        filterMethod.addBodyLine("if (lastKey == null) {"); //$NON-NLS-1$
+        filterMethod.addBodyLine("return select(c -> c.where(filter)" + orderByAndLimit + ");"); //$NON-NLS-1$ //$NON-NLS-2$
+        filterMethod.addBodyLine("}"); //$NON-NLS-1$
+        filterMethod.addBodyLine(""); //$NON-NLS-1$
+        // the key predicate is a single criterion with sub criteria, so it is rendered in parentheses
+        // and an "or" in the filter cannot change its meaning
+        filterMethod.addBodyLine("return select(c ->"); //$NON-NLS-1$
+        for (int i = 0; i < keyColumns.size(); i++) {
+            String criteria = getKeyCriteria(keyColumns, fieldNames, i);
+            if (i == 0) {
+                filterMethod.addBodyLine("    c.where(" + criteria //$NON-NLS-1$
+                        + (keyColumns.size() == 1 ? ")" : ",")); //$NON-NLS-1$ //$NON-NLS-2$
+            } else {
+                filterMethod.addBodyLine("        or(" + criteria //$NON-NLS-1$
+                        + (i == keyColumns.size() - 1 ? "))" : "),")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        filterMethod.addBodyLine("    .and(filter)"); //$NON-NLS-1$
+        filterMethod.addBodyLine("    " + orderByAndLimit); //$NON-NLS-1$
+        filterMethod.addBodyLine(");"); //$NON-NLS-1$
+
+        interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.isGreaterThan"); //$NON-NLS-1$
+        if (keyColumns.size() > 1) {
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.isEqualTo"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.and"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.or"); //$NON-NLS-1$
+        }
+        imports.add(FullyQualifiedJavaType.getNewListInstance());
+        imports.add(keyType);
+        imports.add(criterionType);
+        interfaze.addImportedTypes(imports);
+        interfaze.addMethod(newMethod);
+        interfaze.addMethod(filterMethod);
+        return true;
+    }
+
+    /**
+     * Returns the criteria that select the rows with the same values as the last key in the columns before
+     * the column at the index, and a greater value in the column at the index. For example
+     * <code>id, isEqualTo(lastKey::getId), and(seqNum, isGreaterThan(lastKey::getSeqNum))</code>.
+     */
+    private String getKeyCriteria(List<IntrospectedColumn> keyColumns, List<String> fieldNames, int index) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j <= index; j++) {
+            if (j > 0) {
+                sb.append(", and("); //$NON-NLS-1$
+            }
+            sb.append(fieldNames.get(j));
+            sb.append(j == index ? ", isGreaterThan(" : ", isEqualTo("); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append(getKeyValueSupplier(keyColumns, j));
+            sb.append(')');
+            if (j > 0) {
+                sb.append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    private String getKeyValueSupplier(List<IntrospectedColumn> keyColumns, int index) {
+        if (keyColumns.size() == 1) {
+            return "lastKey"; //$NON-NLS-1$
+        }
+
+        IntrospectedColumn column = keyColumns.get(index);
+        return "lastKey::" //$NON-NLS-1$
+                + getGetterMethodName(column.getJavaProperty(), column.getFullyQualifiedJavaType());
+    }
+
+    private String getSelectList(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> columns;
+        if (introspectedTable instanceof IntrospectedTableMyBatis3SimpleImpl) {
+            columns = introspectedTable.getAllColumns();
+        } else {
+            columns = introspectedTable.getNonBLOBColumns();
+        }
+
+        return columns.stream()
+                .map(c -> getSelectListPhrase(c))
+                .collect(Collectors.joining(", ")); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the lines of the predicate that selects the rows after the last key. A composite key
+     * (A, B, C) is compared as <code>(A &gt; a) or (A = a and B &gt; b) or (A = a and B = b and C &gt; c)</code>
+     * unless row value comparison is enabled.
+     */
+    private List<String> getKeyCondition(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        List<String> lines = new ArrayList<>();
+        if (keyColumns.size() == 1) {
+            lines.add(getAliasedEscapedColumnName(keyColumns.get(0)) + " &gt; " //$NON-NLS-1$
+                    + getSingleKeyParameterClause(keyColumns.get(0)));
+            return lines;
+        }
+
+        if (useRowValueComparison) {
+            lines.add("(" + keyColumns.stream() //$NON-NLS-1$
+                    .map(c -> getAliasedEscapedColumnName(c))
+                    .collect(Collectors.joining(", ")) //$NON-NLS-1$
+                    + ") &gt; (" //$NON-NLS-1$
+                    + keyColumns.stream()
+                    .map(c -> getParameterClause(c, "lastKey.")) //$NON-NLS-1$
+                    .collect(Collectors.joining(", ")) //$NON-NLS-1$
+                    + ")"); //$NON-NLS-1$
+            return lines;
+        }
+
+        for (int i = 0; i < keyColumns.size(); i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(i == 0 ? "((" : "or ("); //$NON-NLS-1$ //$NON-NLS-2$
+            for (int j = 0; j <= i; j++) {
+                IntrospectedColumn column = keyColumns.get(j);
+                if (j > 0) {
+                    sb.append(" and "); //$NON-NLS-1$
+                }
+                sb.append(getAliasedEscapedColumnName(column));
+                sb.append(j == i ? " &gt; " : " = "); //$NON-NLS-1$ //$NON-NLS-2$
+                sb.append(getParameterClause(column, "lastKey.")); //$NON-NLS-1$
+            }
+            sb.append(i == keyColumns.size() - 1 ? "))" : ")"); //$NON-NLS-1$ //$NON-NLS-2$
+            lines.add(sb.toString());
+        }
+
+        return lines;
+    }
+
+    /**
+     * A single column key is passed as a plain parameter, so the parameter name is the name of the key
+     * rather than a property of the key.
+     */
+    private String getSingleKeyParameterClause(IntrospectedColumn introspectedColumn) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("#{lastKey,jdbcType="); //$NON-NLS-1$
+        sb.append(introspectedColumn.getJdbcTypeName());
+        if (stringHasValue(introspectedColumn.getTypeHandler())) {
+            sb.append(",typeHandler="); //$NON-NLS-1$
+            sb.append(introspectedColumn.getTypeHandler());
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private String getOrderByClause(IntrospectedTable introspectedTable) {
+        return "order by " + introspectedTable.getPrimaryKeyColumns().stream() //$NON-NLS-1$
+                .map(c -> getAliasedEscapedColumnName(c))
+                .collect(Collectors.joining(", ")); //$NON-NLS-1$
+    }
+
+    private String getLimitClause() {
+        return useFetchFirst ? "fetch first #{limit} rows only" : "limit #{limit}"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private boolean hasExampleParameter(IntrospectedTable introspectedTable) {
+        if (introspectedTable.requiresXMLGenerator()) {
+            return introspectedTable.getRules().generateMyBatis3UpdateByExampleWhereClause();
+        }
+
+        return introspectedTable.getRules().generateExampleClass()
+                && !(introspectedTable instanceof IntrospectedTableMyBatis3SimpleImpl);
+    }
+
+    /**
+     * Returns the lines of the example where clause for the script of an annotated mapper. The clause is the
+     * same as the update by example where clause of an XML mapper, so the criteria are read from the
+     * <code>example</code> parameter.
+     *
+     * @return the lines, or null if the method has no example parameter
+     */
+    private List<String> getExampleWhereClause(IntrospectedTable introspectedTable) {
+        if (introspectedTable.requiresXMLGenerator() || !hasExampleParameter(introspectedTable)) {
+            return null;
+        }
+
+        ExampleWhereClauseElementGenerator generator = new ExampleWhereClauseElementGenerator(true);
+        generator.setContext(context);
+        generator.setIntrospectedTable(introspectedTable);
+        XmlElement parent = new XmlElement("mapper"); //$NON-NLS-1$
+        generator.addElements(parent);
+        if (parent.getElements().isEmpty()) {
+            // disabled by a plugin
+            return null;
+        }
+
+        // the sql element may also contain comments, so the where element is found by name
+        return ((XmlElement) parent.getElements().get(0)).getElements().stream()
+                .filter(XmlElement.class::isInstance)
+                .map(XmlElement.class::cast)
+                .filter(e -> "where".equals(e.getName())) //$NON-NLS-1$
+                .findFirst()
+                .map(e -> new ElementRenderer().visit(e).map(String::trim).collect(Collectors.toList()))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the type of the records returned by the method. This is the type of the base result map.
+     */
+    private FullyQualifiedJavaType getRecordType(IntrospectedTable introspectedTable) {
+        if (introspectedTable instanceof IntrospectedTableMyBatis3SimpleImpl
+                || introspectedTable.getRules().generateBaseRecordClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        } else {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        }
+    }
+
+    private FullyQualifiedJavaType getKeyType(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (keyColumns.size() == 1) {
+            return getWrapperType(keyColumns.get(0));
+        } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        } else {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        }
+    }
+
+    private FullyQualifiedJavaType getWrapperType(IntrospectedColumn column) {
+        FullyQualifiedJavaType type = column.getFullyQualifiedJavaType();
+        return type.isPrimitive() ? type.getPrimitiveTypeWrapper() : type;
+    }
+}
@@ -30,6 +30,11 @@ public class MapperAnnotationPlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
 
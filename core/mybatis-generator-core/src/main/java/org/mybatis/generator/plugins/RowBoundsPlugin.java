@@ -16,10 +16,10 @@
 package org.mybatis.generator.plugins;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedTable;
@@ -45,7 +45,7 @@ public class RowBoundsPlugin extends PluginAdapter {
 
     private final FullyQualifiedJavaType rowBounds =
             new FullyQualifiedJavaType("org.apache.ibatis.session.RowBounds"); //$NON-NLS-1$
-    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new HashMap<>();
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
 
     @Override
     public boolean validate(List<String> warnings) {
@@ -56,6 +56,11 @@ public class RowBoundsPlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean clientSelectByExampleWithBLOBsMethodGenerated(Method method,
             Interface interfaze, IntrospectedTable introspectedTable) {
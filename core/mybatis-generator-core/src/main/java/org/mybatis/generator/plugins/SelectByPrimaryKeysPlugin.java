@@ -0,0 +1,440 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.runtime.dynamic.sql.elements.AbstractMethodGenerator;
+
+/**
+ * This plugin adds methods that select many records by primary key in one call. Calling
+ * <code>selectByPrimaryKey</code> in a loop costs one database round trip for every key. The methods added
+ * by this plugin select the records for a collection of keys with as few statements as possible.
+ *
+ * <p>The plugin adds two methods to mappers that have a <code>selectByPrimaryKey</code> method:
+ *
+ * <ul>
+ * <li><code>selectByPrimaryKeyList(keys)</code> selects the records for all keys with a single statement.
+ * Single column keys are matched with an IN list. Composite keys are matched with an expanded predicate
+ * like <code>(A = ? and B = ?) or (A = ? and B = ?)</code>. This method is not generated for the
+ * MyBatis3DynamicSql runtime.</li>
+ * <li><code>selectByPrimaryKeys(keys)</code> is a default method that splits the keys into chunks no larger
+ * than the maximum IN list size and runs one statement for each chunk. An empty collection of keys returns
+ * an empty list without running a statement.</li>
+ * </ul>
+ *
+ * <p>For a single column key, the keys are key values. For a composite key, the keys are instances of the
+ * primary key class, or of the record class if there is no primary key class. The order of the returned
+ * records is not defined.
+ *
+ * <p>This plugin accepts two properties:
+ *
+ * <ul>
+ * <li><code>maxInListSize</code> (optional) the maximum number of keys in one statement. This defaults to
+ * 1000, which is the IN list limit of Oracle.</li>
+ * <li><code>useRowValueComparison</code> (optional) if true, composite keys are matched with a row value
+ * expression like <code>(A, B) in ((?, ?), (?, ?))</code> rather than the expanded predicate. Not all
+ * databases support row values. This property is ignored by the MyBatis3DynamicSql runtime. The default
+ * is false.</li>
+ * </ul>
+ */
+public class SelectByPrimaryKeysPlugin extends PluginAdapter {
+
+    private static final String SELECT_BY_PRIMARY_KEY_LIST = "selectByPrimaryKeyList"; //$NON-NLS-1$
+
+    private static final String SELECT_BY_PRIMARY_KEYS = "selectByPrimaryKeys"; //$NON-NLS-1$
+
+    private static final int DEFAULT_MAX_IN_LIST_SIZE = 1000;
+
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
+    private int maxInListSize;
+    private boolean useRowValueComparison;
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        useRowValueComparison = isTrue(properties.getProperty("useRowValueComparison")); //$NON-NLS-1$
+
+        String value = properties.getProperty("maxInListSize"); //$NON-NLS-1$
+        if (!stringHasValue(value)) {
+            maxInListSize = DEFAULT_MAX_IN_LIST_SIZE;
+            return true;
+        }
+
+        try {
+            maxInListSize = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            maxInListSize = -1;
+        }
+
+        if (maxInListSize > 0) {
+            return true;
+        }
+
+        warnings.add(getString("ValidationError.30", //$NON-NLS-1$
+                "maxInListSize", "SelectByPrimaryKeysPlugin")); //$NON-NLS-1$ //$NON-NLS-2$
+        return false;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        if (introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            addDynamicSqlMethod(interfaze, introspectedTable);
+            return true;
+        }
+
+        FullyQualifiedJavaType keyType = getKeyType(introspectedTable);
+        FullyQualifiedJavaType collectionType = new FullyQualifiedJavaType("java.util.Collection"); //$NON-NLS-1$
+        collectionType.addTypeArgument(keyType);
+        FullyQualifiedJavaType listType = getListType(method);
+
+        Method selectList = new Method(SELECT_BY_PRIMARY_KEY_LIST);
+        selectList.setVisibility(JavaVisibility.PUBLIC);
+        selectList.setAbstract(true);
+        selectList.setReturnType(listType);
+        selectList.addParameter(new Parameter(collectionType, "keys", "@Param(\"keys\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(selectList, introspectedTable);
+        copyAnnotations(method, selectList, introspectedTable);
+
+        Method selectKeys = new Method(SELECT_BY_PRIMARY_KEYS);
+        selectKeys.setVisibility(JavaVisibility.PUBLIC);
+        selectKeys.setDefault(true);
+        selectKeys.setReturnType(listType);
+        selectKeys.addParameter(new Parameter(collectionType, "keys")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(selectKeys, introspectedTable);
+        addChunkingBodyLines(selectKeys, keyType, listType,
+                "records.addAll(" + SELECT_BY_PRIMARY_KEY_LIST + "(chunk));"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+        interfaze.addImportedType(collectionType);
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewArrayListInstance());
+        interfaze.addImportedType(keyType);
+        interfaze.addMethod(selectList);
+        interfaze.addMethod(selectKeys);
+
+        return true;
+    }
+
+    /**
+     * Annotated mappers get a copy of the select annotation of the <code>selectByPrimaryKey</code> method in
+     * a script, with the where clause replaced. Result annotations are copied as is.
+     */
+    private void copyAnnotations(Method method, Method newMethod, IntrospectedTable introspectedTable) {
+        boolean inSelect = false;
+        boolean inWhere = false;
+        for (String annotation : method.getAnnotations()) {
+            if (annotation.startsWith("@Select({")) { //$NON-NLS-1$
+                newMethod.addAnnotation(annotation);
+                addAnnotationLine(newMethod, "<script>", true); //$NON-NLS-1$
+                inSelect = true;
+            } else if (inSelect && "})".equals(annotation)) { //$NON-NLS-1$
+                getWhereClause(introspectedTable).forEach(line -> addAnnotationLine(newMethod, line, true));
+                addAnnotationLine(newMethod, "</script>", false); //$NON-NLS-1$
+                newMethod.addAnnotation(annotation);
+                inSelect = false;
+                inWhere = false;
+            } else if (inSelect) {
+                // the where clause is the last part of the select
+                inWhere = inWhere || annotation.trim().startsWith("\"where "); //$NON-NLS-1$
+                if (!inWhere) {
+                    newMethod.addAnnotation(annotation);
+                }
+            } else {
+                newMethod.addAnnotation(annotation);
+            }
+        }
+    }
+
+    private void addAnnotationLine(Method method, String line, boolean hasNext) {
+        StringBuilder sb = new StringBuilder();
+        javaIndent(sb, 1);
+        sb.append('"');
+        sb.append(escapeStringForJava(line));
+        sb.append('"');
+        if (hasNext) {
+            sb.append(',');
+        }
+        method.addAnnotation(sb.toString());
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        XmlElement newElement = new XmlElement(element);
+
+        // replace the id and parameter type, and remove the where clause
+        Iterator<Attribute> attributes = newElement.getAttributes().iterator();
+        while (attributes.hasNext()) {
+            String name = attributes.next().getName();
+            if ("id".equals(name) || "parameterType".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$
+                attributes.remove();
+            }
+        }
+        newElement.addAttribute(new Attribute("id", SELECT_BY_PRIMARY_KEY_LIST)); //$NON-NLS-1$
+        newElement.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        boolean inWhere = false;
+        Iterator<VisitableElement> elements = newElement.getElements().iterator();
+        while (elements.hasNext()) {
+            VisitableElement child = elements.next();
+            inWhere = inWhere || child instanceof TextElement
+                    && ((TextElement) child).getContent().startsWith("where "); //$NON-NLS-1$
+            if (inWhere) {
+                elements.remove();
+            }
+        }
+
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+        foreach.addAttribute(new Attribute("collection", "keys")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("item", "key")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (keyColumns.size() > 1 && !useRowValueComparison) {
+            newElement.addElement(new TextElement("where")); //$NON-NLS-1$
+            foreach.addAttribute(new Attribute("separator", " or ")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addElement(new TextElement(getKeyPredicate(keyColumns)));
+        } else {
+            newElement.addElement(new TextElement("where " + getKeyColumnList(keyColumns) + " in")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addAttribute(new Attribute("open", "(")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addAttribute(new Attribute("close", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addElement(new TextElement(getKeyValueList(keyColumns)));
+        }
+        newElement.addElement(foreach);
+
+        // save the new element locally. We'll add it to the document later
+        elementsToAdd.computeIfAbsent(introspectedTable.getFullyQualifiedTable(), k -> new ArrayList<>())
+                .add(newElement);
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToAdd.remove(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                document.getRootElement().addElement(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the where clause of a script in an annotation. Attributes are quoted with single quotes because
+     * the script is in a Java string.
+     */
+    private List<String> getWhereClause(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        List<String> lines = new ArrayList<>();
+        if (keyColumns.size() > 1 && !useRowValueComparison) {
+            lines.add("where"); //$NON-NLS-1$
+            lines.add("<foreach collection='keys' item='key' separator=' or '>"); //$NON-NLS-1$
+            lines.add(getKeyPredicate(keyColumns));
+        } else {
+            lines.add("where " + getKeyColumnList(keyColumns) + " in"); //$NON-NLS-1$ //$NON-NLS-2$
+            lines.add("<foreach collection='keys' item='key' open='(' separator=',' close=')'>"); //$NON-NLS-1$
+            lines.add(getKeyValueList(keyColumns));
+        }
+        lines.add("</foreach>"); //$NON-NLS-1$
+
+        return lines;
+    }
+
+    private String getKeyPredicate(List<IntrospectedColumn> keyColumns) {
+        return keyColumns.stream()
+                .map(c -> getEscapedColumnName(c) + " = " + getParameterClause(c, "key.")) //$NON-NLS-1$ //$NON-NLS-2$
+                .collect(Collectors.joining(" and ", "(", ")")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private String getKeyColumnList(List<IntrospectedColumn> keyColumns) {
+        if (keyColumns.size() == 1) {
+            return getEscapedColumnName(keyColumns.get(0));
+        }
+
+        return keyColumns.stream()
+                .map(c -> getEscapedColumnName(c))
+                .collect(Collectors.joining(", ", "(", ")")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private String getKeyValueList(List<IntrospectedColumn> keyColumns) {
+        if (keyColumns.size() == 1) {
+            // a single key is a plain value, so the parameter is the item itself
+            IntrospectedColumn column = keyColumns.get(0);
+            StringBuilder sb = new StringBuilder();
+            sb.append("#{key,jdbcType="); //$NON-NLS-1$
+            sb.append(column.getJdbcTypeName());
+            if (stringHasValue(column.getTypeHandler())) {
+                sb.append(",typeHandler="); //$NON-NLS-1$
+                sb.append(column.getTypeHandler());
+            }
+            sb.append('}');
+            return sb.toString();
+        }
+
+        return keyColumns.stream()
+                .map(c -> getParameterClause(c, "key.")) //$NON-NLS-1$
+                .collect(Collectors.joining(", ", "(", ")")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    /**
+     * Adds a <code>selectByPrimaryKeys</code> method to a mapper for the MyBatis3DynamicSql runtime. The
+     * method uses the general <code>select</code> method, so there is no single statement method. For a
+     * composite key, the keys are records with the key properties set.
+     */
+    private void addDynamicSqlMethod(Interface interfaze, IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+        FullyQualifiedJavaType recordType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        FullyQualifiedJavaType keyType = keyColumns.size() == 1 ? getWrapperType(keyColumns.get(0)) : recordType;
+        FullyQualifiedJavaType collectionType = new FullyQualifiedJavaType("java.util.Collection"); //$NON-NLS-1$
+        collectionType.addTypeArgument(keyType);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method newMethod = new Method(SELECT_BY_PRIMARY_KEYS);
+        newMethod.setDefault(true);
+        newMethod.setReturnType(listType);
+        newMethod.addParameter(new Parameter(collectionType, "keys")); //$NON-NLS-1$
+
+        Set<FullyQualifiedJavaType> imports = new HashSet<>();
+        context.getCommentGenerator().addGeneralMethodAnnotation(newMethod, introspectedTable, imports);
+
+        if (keyColumns.size() == 1) {
+            addChunkingBodyLines(newMethod, keyType, listType, "records.addAll(select(c -> c.where(" //$NON-NLS-1$
+                    + AbstractMethodGenerator.calculateFieldName(tableFieldName, keyColumns.get(0))
+                    + ", isIn(chunk))));"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.isIn"); //$NON-NLS-1$
+        } else {
+            StringBuilder sb = new StringBuilder();
+            sb.append("criteria.add(or("); //$NON-NLS-1$
+            for (int i = 0; i < keyColumns.size(); i++) {
+                IntrospectedColumn column = keyColumns.get(i);
+                if (i > 0) {
+                    sb.append(", and("); //$NON-NLS-1$
+                }
+                sb.append(AbstractMethodGenerator.calculateFieldName(tableFieldName, column));
+                sb.append(", isEqualTo(key::"); //$NON-NLS-1$
+                sb.append(getGetterMethodName(column.getJavaProperty(), column.getFullyQualifiedJavaType()));
+                sb.append(')');
+                if (i > 0) {
+                    sb.append(')');
+                }
+            }
+            sb.append("));"); //$NON-NLS-1$
+
+            List<String> lines = new ArrayList<>();
+            lines.add("List<AndOrCriteriaGroup> criteria = new ArrayList<>();"); //$NON-NLS-1$
+            lines.add("for (" + keyType.getShortName() + " key : chunk) {"); //$NON-NLS-1$ //$NON-NLS-2$
+            lines.add(sb.toString());
+            lines.add("}"); //$NON-NLS-1$
+            lines.add("records.addAll(select(c -> c.where(group(criteria))));"); //$NON-NLS-1$
+            addChunkingBodyLines(newMethod, keyType, listType, lines.toArray(new String[0]));
+
+            imports.add(new FullyQualifiedJavaType("org.mybatis.dynamic.sql.AndOrCriteriaGroup")); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.and"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.group"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.isEqualTo"); //$NON-NLS-1$
+            interfaze.addStaticImport("org.mybatis.dynamic.sql.SqlBuilder.or"); //$NON-NLS-1$
+        }
+
+        imports.add(collectionType);
+        imports.add(FullyQualifiedJavaType.getNewListInstance());
+        imports.add(FullyQualifiedJavaType.getNewArrayListInstance());
+        imports.add(keyType);
+        interfaze.addImportedTypes(imports);
+        interfaze.addMethod(newMethod);
+    }
+
+    /**
+     * Adds body lines that copy the keys to a list and run the supplied lines for every chunk of the list.
+     * The lines can use the variables <code>chunk</code> and <code>records</code>.
+     */
+    private void addChunkingBodyLines(Method method, FullyQualifiedJavaType keyType,
+            FullyQualifiedJavaType listType, String... chunkLines) {
+        String keyListType = "List<" + keyType.getShortName() + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(keyListType + " keyList = new ArrayList<>(keys);"); //$NON-NLS-1$
+        method.addBodyLine(listType.getShortName() + " records = new ArrayList<>();"); //$NON-NLS-1$
+        method.addBodyLine("for (int i = 0; i < keyList.size(); i += " + maxInListSize + ") {"); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addBodyLine(keyListType + " chunk = keyList.subList(i, Math.min(i + " //$NON-NLS-1$
+                + maxInListSize + ", keyList.size()));"); //$NON-NLS-1$
+        for (String line : chunkLines) {
+            method.addBodyLine(line);
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return records;"); //$NON-NLS-1$
+    }
+
+    private FullyQualifiedJavaType getListType(Method method) {
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        method.getReturnType().ifPresent(listType::addTypeArgument);
+        return listType;
+    }
+
+    private FullyQualifiedJavaType getKeyType(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+        if (keyColumns.size() == 1) {
+            return getWrapperType(keyColumns.get(0));
+        } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+        } else {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        }
+    }
+
+    private FullyQualifiedJavaType getWrapperType(IntrospectedColumn column) {
+        FullyQualifiedJavaType type = column.getFullyQualifiedJavaType();
+        return type.isPrimitive() ? type.getPrimitiveTypeWrapper() : type;
+    }
+}
@@ -60,6 +60,11 @@ public class SerializablePlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void setProperties(Properties properties) {
         super.setProperties(properties);
@@ -0,0 +1,415 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.runtime.dynamic.sql.elements.AbstractMethodGenerator;
+
+/**
+ * This plugin adds methods that select, delete and update a record by the columns of a unique index.
+ * Unique indexes are retrieved from the database during introspection (see
+ * {@link IntrospectedTable#getIndexes()}), so no configuration is required. For a unique index on
+ * <code>EMAIL_ADDRESS</code> the plugin adds:
+ *
+ * <ul>
+ * <li><code>selectByEmailAddress(emailAddress)</code> - a copy of <code>selectByPrimaryKey</code></li>
+ * <li><code>deleteByEmailAddress(emailAddress)</code> - a copy of <code>deleteByPrimaryKey</code></li>
+ * <li><code>updateByEmailAddressSelective(row)</code> - a copy of <code>updateByPrimaryKeySelective</code>.
+ * The primary key columns of the row are not updated.</li>
+ * </ul>
+ *
+ * <p>The methods for an index on more than one column are named after all the columns, for example
+ * <code>selectByFirstNameAndLastName</code>. Each method is only added if the mapper has the matching
+ * primary key method. The index of the primary key, indexes that contain BLOB columns, and indexes on
+ * columns that are ignored by the table configuration are skipped. If a method name is already used in
+ * the mapper, that method is not added.
+ *
+ * <p>This plugin supports the MyBatis3, MyBatis3Simple and MyBatis3DynamicSql target runtimes.
+ */
+public class UniqueIndexMethodsPlugin extends PluginAdapter {
+
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        return true;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresIndexes() {
+        return true;
+    }
+
+    @Override
+    public boolean clientSelectByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            String name = calculateMethodName("selectBy", columns, ""); //$NON-NLS-1$ //$NON-NLS-2$
+            if (isDynamicSql(introspectedTable)) {
+                addDynamicSqlMethod(method, interfaze, introspectedTable, name, columns);
+            } else {
+                addMethod(method, interfaze, name, columns, "@Select({"); //$NON-NLS-1$
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientDeleteByPrimaryKeyMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            String name = calculateMethodName("deleteBy", columns, ""); //$NON-NLS-1$ //$NON-NLS-2$
+            if (isDynamicSql(introspectedTable)) {
+                addDynamicSqlMethod(method, interfaze, introspectedTable, name, columns);
+            } else {
+                addMethod(method, interfaze, name, columns, "@Delete({"); //$NON-NLS-1$
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clientUpdateByPrimaryKeySelectiveMethodGenerated(Method method,
+            Interface interfaze, IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            String name = calculateMethodName("updateBy", columns, "Selective"); //$NON-NLS-1$ //$NON-NLS-2$
+            if (hasMethod(interfaze, name)) {
+                continue;
+            }
+
+            Method newMethod = new Method(method);
+            newMethod.setName(name);
+            if (isDynamicSql(introspectedTable)) {
+                replaceWhereLines(newMethod, columns, c -> "row::" //$NON-NLS-1$
+                        + getGetterMethodName(c.getJavaProperty(), c.getFullyQualifiedJavaType()), introspectedTable);
+            } else if (newMethod.getAnnotations().removeIf(a -> a.startsWith("@UpdateProvider"))) { //$NON-NLS-1$
+                // the provider cannot build this statement, so annotated mappers get a script
+                addUpdateAnnotation(newMethod, columns, introspectedTable);
+                interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Update")); //$NON-NLS-1$
+            }
+            interfaze.addMethod(newMethod);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapSelectByPrimaryKeyElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            copyAndSaveElement(element, calculateMethodName("selectBy", columns, ""), //$NON-NLS-1$ //$NON-NLS-2$
+                    columns, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDeleteByPrimaryKeyElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            copyAndSaveElement(element, calculateMethodName("deleteBy", columns, ""), //$NON-NLS-1$ //$NON-NLS-2$
+                    columns, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapUpdateByPrimaryKeySelectiveElementGenerated(XmlElement element,
+            IntrospectedTable introspectedTable) {
+        for (List<IntrospectedColumn> columns : getUniqueIndexColumns(introspectedTable)) {
+            copyAndSaveElement(element, calculateMethodName("updateBy", columns, "Selective"), //$NON-NLS-1$ //$NON-NLS-2$
+                    columns, introspectedTable);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        List<XmlElement> elements = elementsToAdd.remove(introspectedTable.getFullyQualifiedTable());
+        if (elements != null) {
+            for (XmlElement element : elements) {
+                document.getRootElement().addElement(element);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the columns of every unique index that should have methods. Indexes with the same columns
+     * (a unique constraint and a unique index, for example) only get one set of methods.
+     */
+    private List<List<IntrospectedColumn>> getUniqueIndexColumns(IntrospectedTable introspectedTable) {
+        List<List<IntrospectedColumn>> answer = new ArrayList<>();
+        Set<Set<IntrospectedColumn>> columnSets = new HashSet<>();
+        for (IntrospectedIndex index : introspectedTable.getIndexes()) {
+            if (index.isUnique() && !index.isPrimaryKeyIndex(introspectedTable)
+                    && index.getColumns().stream().noneMatch(IntrospectedColumn::isBLOBColumn)
+                    && columnSets.add(new HashSet<>(index.getColumns()))) {
+                answer.add(index.getColumns());
+            }
+        }
+        return answer;
+    }
+
+    private String calculateMethodName(String prefix, List<IntrospectedColumn> columns, String suffix) {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append("And"); //$NON-NLS-1$
+            }
+            String property = columns.get(i).getJavaProperty();
+            sb.append(Character.toUpperCase(property.charAt(0)));
+            sb.append(property.substring(1));
+        }
+        sb.append(suffix);
+        return sb.toString();
+    }
+
+    private boolean hasMethod(Interface interfaze, String name) {
+        return interfaze.getMethods().stream().anyMatch(m -> m.getName().equals(name));
+    }
+
+    private boolean isDynamicSql(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL;
+    }
+
+    /**
+     * Adds a copy of a select or delete by primary key method with the index columns as parameters. In
+     * annotated mappers, the where clause of the statement annotation is replaced.
+     */
+    private void addMethod(Method method, Interface interfaze, String name, List<IntrospectedColumn> columns,
+            String statementAnnotation) {
+        if (hasMethod(interfaze, name)) {
+            return;
+        }
+
+        Method newMethod = new Method(method);
+        newMethod.setName(name);
+        newMethod.getParameters().clear();
+        for (IntrospectedColumn column : columns) {
+            newMethod.addParameter(new Parameter(column.getFullyQualifiedJavaType(), column.getJavaProperty(),
+                    "@Param(\"" + column.getJavaProperty() + "\")")); //$NON-NLS-1$ //$NON-NLS-2$
+            interfaze.addImportedType(column.getFullyQualifiedJavaType());
+        }
+
+        List<String> annotations = new ArrayList<>(newMethod.getAnnotations());
+        newMethod.getAnnotations().clear();
+        boolean inStatement = false;
+        boolean inWhere = false;
+        for (String annotation : annotations) {
+            if (annotation.startsWith(statementAnnotation)) {
+                inStatement = true;
+            } else if (inStatement && "})".equals(annotation)) { //$NON-NLS-1$
+                List<String> lines = getWhereClause(columns);
+                for (int i = 0; i < lines.size(); i++) {
+                    addAnnotationLine(newMethod, lines.get(i), i < lines.size() - 1);
+                }
+                inStatement = false;
+                inWhere = false;
+            } else if (inStatement) {
+                // the where clause is the last part of the statement
+                inWhere = inWhere || annotation.trim().startsWith("\"where "); //$NON-NLS-1$
+                if (inWhere) {
+                    continue;
+                }
+            }
+            newMethod.addAnnotation(annotation);
+        }
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+        interfaze.addMethod(newMethod);
+    }
+
+    private void addUpdateAnnotation(Method method, List<IntrospectedColumn> columns,
+            IntrospectedTable introspectedTable) {
+        List<String> lines = new ArrayList<>();
+        lines.add("<script>"); //$NON-NLS-1$
+        lines.add("update " + introspectedTable.getFullyQualifiedTableNameAtRuntime()); //$NON-NLS-1$
+        lines.add("<set>"); //$NON-NLS-1$
+        for (IntrospectedColumn column :
+                ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns())) {
+            lines.add("<if test='" + column.getJavaProperty() + " != null'>" //$NON-NLS-1$ //$NON-NLS-2$
+                    + getEscapedColumnName(column) + " = " + getParameterClause(column) //$NON-NLS-1$
+                    + ",</if>"); //$NON-NLS-1$
+        }
+        lines.add("</set>"); //$NON-NLS-1$
+        lines.addAll(getWhereClause(columns));
+        lines.add("</script>"); //$NON-NLS-1$
+
+        method.addAnnotation("@Update({"); //$NON-NLS-1$
+        for (int i = 0; i < lines.size(); i++) {
+            addAnnotationLine(method, lines.get(i), i < lines.size() - 1);
+        }
+        method.addAnnotation("})"); //$NON-NLS-1$
+    }
+
+    private void addAnnotationLine(Method method, String line, boolean hasNext) {
+        StringBuilder sb = new StringBuilder();
+        javaIndent(sb, 1);
+        sb.append('"');
+        sb.append(escapeStringForJava(line));
+        sb.append('"');
+        if (hasNext) {
+            sb.append(',');
+        }
+        method.addAnnotation(sb.toString());
+    }
+
+    private List<String> getWhereClause(List<IntrospectedColumn> columns) {
+        List<String> lines = new ArrayList<>();
+        for (IntrospectedColumn column : columns) {
+            lines.add((lines.isEmpty() ? "where " : "  and ") //$NON-NLS-1$ //$NON-NLS-2$
+                    + getEscapedColumnName(column) + " = " + getParameterClause(column)); //$NON-NLS-1$
+        }
+        return lines;
+    }
+
+    /**
+     * Use the element copy constructor to create a new element with a new id and the where clause
+     * replaced.
+     */
+    private void copyAndSaveElement(XmlElement element, String id, List<IntrospectedColumn> columns,
+            IntrospectedTable introspectedTable) {
+        XmlElement newElement = new XmlElement(element);
+
+        // the update statement keeps the record as its parameter
+        boolean isUpdate = "update".equals(element.getName()); //$NON-NLS-1$
+        Iterator<Attribute> attributes = newElement.getAttributes().iterator();
+        while (attributes.hasNext()) {
+            String name = attributes.next().getName();
+            if ("id".equals(name) || !isUpdate && "parameterType".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$
+                attributes.remove();
+            }
+        }
+        newElement.addAttribute(new Attribute("id", id)); //$NON-NLS-1$
+        if (!isUpdate) {
+            newElement.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        boolean inWhere = false;
+        Iterator<VisitableElement> elements = newElement.getElements().iterator();
+        while (elements.hasNext()) {
+            VisitableElement child = elements.next();
+            inWhere = inWhere || child instanceof TextElement
+                    && ((TextElement) child).getContent().startsWith("where "); //$NON-NLS-1$
+            if (inWhere) {
+                elements.remove();
+            }
+        }
+        getWhereClause(columns).forEach(line -> newElement.addElement(new TextElement(line)));
+
+        // save the new element locally. We'll add it to the document later
+        elementsToAdd.computeIfAbsent(introspectedTable.getFullyQualifiedTable(), k -> new ArrayList<>())
+                .add(newElement);
+    }
+
+    /**
+     * Adds a copy of a select or delete by primary key method for the MyBatis3DynamicSql runtime. The
+     * parameters are named like the parameters of the primary key methods.
+     */
+    private void addDynamicSqlMethod(Method method, Interface interfaze, IntrospectedTable introspectedTable,
+            String name, List<IntrospectedColumn> columns) {
+        if (hasMethod(interfaze, name)) {
+            return;
+        }
+
+        Method newMethod = new Method(method);
+        newMethod.setName(name);
+        newMethod.getParameters().clear();
+        for (IntrospectedColumn column : columns) {
+            newMethod.addParameter(new Parameter(column.getFullyQualifiedJavaType(),
+                    column.getJavaProperty() + "_")); //$NON-NLS-1$
+            interfaze.addImportedType(column.getFullyQualifiedJavaType());
+        }
+        replaceWhereLines(newMethod, columns, c -> c.getJavaProperty() + "_", introspectedTable); //$NON-NLS-1$
+        interfaze.addMethod(newMethod);
+    }
+
+    /**
+     * Replaces the where clause of a MyBatis3DynamicSql method body. The where clause is the last part of
+     * the lambda that builds the statement.
+     */
+    private void replaceWhereLines(Method method, List<IntrospectedColumn> columns,
+            Function<IntrospectedColumn, String> valueFunction, IntrospectedTable introspectedTable) {
+        String tableFieldName =
+                JavaBeansUtil.getValidPropertyName(introspectedTable.getMyBatisDynamicSQLTableObjectName());
+        List<String> bodyLines = new ArrayList<>(method.getBodyLines());
+        method.getBodyLines().clear();
+
+        String wherePrefix = null;
+        for (String line : bodyLines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("c.where(") || trimmed.startsWith(".where(")) { //$NON-NLS-1$ //$NON-NLS-2$
+                wherePrefix = line.substring(0, line.indexOf("where(")); //$NON-NLS-1$
+                break;
+            }
+            method.addBodyLine(line);
+        }
+
+        for (IntrospectedColumn column : columns) {
+            StringBuilder sb = new StringBuilder();
+            if (wherePrefix != null) {
+                sb.append(wherePrefix);
+                sb.append("where("); //$NON-NLS-1$
+                wherePrefix = null;
+            } else {
+                sb.append("    .and("); //$NON-NLS-1$
+            }
+            sb.append(AbstractMethodGenerator.calculateFieldName(tableFieldName, column));
+            sb.append(", isEqualTo("); //$NON-NLS-1$
+            sb.append(valueFunction.apply(column));
+            sb.append("))"); //$NON-NLS-1$
+            method.addBodyLine(sb.toString());
+        }
+        method.addBodyLine(");"); //$NON-NLS-1$
+    }
+}
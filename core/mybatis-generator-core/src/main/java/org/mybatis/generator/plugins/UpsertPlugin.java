@@ -0,0 +1,512 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
+import static org.mybatis.generator.api.dom.OutputUtilities.xmlIndent;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.IntrospectedTableMyBatis3SimpleImpl;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+
+/**
+ * This plugin adds methods that insert a record, or update the record if a record with the same key
+ * already exists, with a single native statement. Two methods are added:
+ *
+ * <ul>
+ * <li><code>upsert(row)</code> inserts or updates one record</li>
+ * <li><code>upsertMultiple(records)</code> inserts or updates a list of records with one statement</li>
+ * </ul>
+ *
+ * <p>The statement depends on the database:
+ *
+ * <ul>
+ * <li>PostgreSQL - <code>insert ... on conflict (...) do update set ...</code></li>
+ * <li>MySQL - <code>insert ... on duplicate key update ...</code>. MySQL uses any unique key of the table
+ * to detect the conflict.</li>
+ * <li>Oracle, SqlServer, H2 and HSQLDB - <code>merge into ... using ... when matched then update ... when not
+ * matched then insert ...</code></li>
+ * </ul>
+ *
+ * <p>Records are matched by primary key. A table can use the columns of a unique index instead by
+ * setting the table property <code>upsertIndex</code> to the name of the index. Tables with no primary key
+ * (and no matching unique index) do not get the methods. Identity columns and the generated key column
+ * are only inserted if they are used to match records, so a table with an identity primary key can match
+ * records on a unique index and let the database assign the key. Primary key and identity columns are
+ * never updated. Generated keys are not returned.
+ *
+ * <p>This plugin supports the MyBatis3, MyBatis3Simple and MyBatis3DynamicSql target runtimes. It accepts
+ * one property:
+ *
+ * <ul>
+ * <li><code>dialect</code> (optional) the database - one of PostgreSQL, MySQL, Oracle, SqlServer, H2 or
+ * HSQLDB. If not specified, the database is chosen from the JDBC connection URL.</li>
+ * </ul>
+ */
+public class UpsertPlugin extends PluginAdapter {
+
+    private static final String UPSERT = "upsert"; //$NON-NLS-1$
+
+    private static final String UPSERT_MULTIPLE = "upsertMultiple"; //$NON-NLS-1$
+
+    private enum Dialect {
+        POSTGRESQL("PostgreSQL", "jdbc:postgresql:"), //$NON-NLS-1$ //$NON-NLS-2$
+        MYSQL("MySQL", "jdbc:mysql:", "jdbc:mariadb:"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        ORACLE("Oracle", "jdbc:oracle:"), //$NON-NLS-1$ //$NON-NLS-2$
+        SQLSERVER("SqlServer", "jdbc:sqlserver:", "jdbc:jtds:"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        H2("H2", "jdbc:h2:"), //$NON-NLS-1$ //$NON-NLS-2$
+        HSQLDB("HSQLDB", "jdbc:hsqldb:"); //$NON-NLS-1$ //$NON-NLS-2$
+
+        private final String name;
+
+        private final String[] urlPrefixes;
+
+        Dialect(String name, String... urlPrefixes) {
+            this.name = name;
+            this.urlPrefixes = urlPrefixes;
+        }
+
+        static Optional<Dialect> fromName(String name) {
+            for (Dialect dialect : values()) {
+                if (dialect.name.equalsIgnoreCase(name)) {
+                    return Optional.of(dialect);
+                }
+            }
+            return Optional.empty();
+        }
+
+        static Optional<Dialect> fromUrl(String url) {
+            String lowerCaseUrl = url.toLowerCase(Locale.ENGLISH);
+            for (Dialect dialect : values()) {
+                for (String urlPrefix : dialect.urlPrefixes) {
+                    if (lowerCaseUrl.startsWith(urlPrefix)) {
+                        return Optional.of(dialect);
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Dialect dialect;
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        String value = properties.getProperty("dialect"); //$NON-NLS-1$
+        Optional<Dialect> answer;
+        if (stringHasValue(value)) {
+            answer = Dialect.fromName(value.trim());
+        } else {
+            answer = getConnectionUrl().flatMap(Dialect::fromUrl);
+        }
+
+        if (answer.isPresent()) {
+            dialect = answer.get();
+            return true;
+        }
+
+        warnings.add(getString("ValidationError.32", "dialect", //$NON-NLS-1$ //$NON-NLS-2$
+                "PostgreSQL, MySQL, Oracle, SqlServer, H2, HSQLDB", "UpsertPlugin")); //$NON-NLS-1$ //$NON-NLS-2$
+        return false;
+    }
+
+    private Optional<String> getConnectionUrl() {
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = context.getJdbcConnectionConfiguration();
+        String url = jdbcConnectionConfiguration == null ? null : jdbcConnectionConfiguration.getConnectionURL();
+        if (url == null && context.getConnectionFactoryConfiguration() != null) {
+            url = context.getConnectionFactoryConfiguration().getProperty("connectionURL"); //$NON-NLS-1$
+        }
+        return Optional.ofNullable(url);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Indexes are only needed for tables that name an index in the <code>upsertIndex</code> property.
+     */
+    @Override
+    public boolean requiresIndexes() {
+        return context.getTableConfigurations().stream()
+                .anyMatch(tc -> tc.getProperty("upsertIndex") != null); //$NON-NLS-1$
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = getKeyColumns(introspectedTable);
+        if (!isSupported(introspectedTable, keyColumns)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = getRecordType(introspectedTable);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method upsert = new Method(UPSERT);
+        upsert.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        upsert.setVisibility(JavaVisibility.PUBLIC);
+        upsert.setAbstract(true);
+        upsert.addParameter(new Parameter(recordType, "row")); //$NON-NLS-1$
+
+        Method upsertMultiple = new Method(UPSERT_MULTIPLE);
+        upsertMultiple.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        upsertMultiple.setVisibility(JavaVisibility.PUBLIC);
+        upsertMultiple.setAbstract(true);
+        upsertMultiple.addParameter(new Parameter(listType, "records", "@Param(\"records\")")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        if (introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            Set<FullyQualifiedJavaType> imports = new HashSet<>();
+            context.getCommentGenerator().addGeneralMethodAnnotation(upsert, introspectedTable, imports);
+            context.getCommentGenerator().addGeneralMethodAnnotation(upsertMultiple, introspectedTable, imports);
+            interfaze.addImportedTypes(imports);
+        } else {
+            context.getCommentGenerator().addGeneralMethodComment(upsert, introspectedTable);
+            context.getCommentGenerator().addGeneralMethodComment(upsertMultiple, introspectedTable);
+        }
+
+        if (!introspectedTable.requiresXMLGenerator()) {
+            addAnnotation(upsert, buildStatement(introspectedTable, keyColumns, false));
+            addAnnotation(upsertMultiple, buildStatement(introspectedTable, keyColumns, true));
+            interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Insert")); //$NON-NLS-1$
+        }
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(recordType);
+        interfaze.addMethod(upsert);
+        interfaze.addMethod(upsertMultiple);
+
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> keyColumns = getKeyColumns(introspectedTable);
+        if (!isSupported(introspectedTable, keyColumns)) {
+            return true;
+        }
+
+        XmlElement upsert = new XmlElement("insert"); //$NON-NLS-1$
+        upsert.addAttribute(new Attribute("id", UPSERT)); //$NON-NLS-1$
+        upsert.addAttribute(new Attribute("parameterType", //$NON-NLS-1$
+                getRecordType(introspectedTable).getFullyQualifiedName()));
+        context.getCommentGenerator().addComment(upsert);
+        buildStatement(introspectedTable, keyColumns, false).forEach(upsert::addElement);
+        document.getRootElement().addElement(upsert);
+
+        XmlElement upsertMultiple = new XmlElement("insert"); //$NON-NLS-1$
+        upsertMultiple.addAttribute(new Attribute("id", UPSERT_MULTIPLE)); //$NON-NLS-1$
+        upsertMultiple.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addComment(upsertMultiple);
+        buildStatement(introspectedTable, keyColumns, true).forEach(upsertMultiple::addElement);
+        document.getRootElement().addElement(upsertMultiple);
+
+        return true;
+    }
+
+    /**
+     * Returns the columns that identify a record - the columns of the unique index named by the
+     * <code>upsertIndex</code> table property, or the primary key columns.
+     */
+    private List<IntrospectedColumn> getKeyColumns(IntrospectedTable introspectedTable) {
+        String indexName = introspectedTable.getTableConfigurationProperty("upsertIndex"); //$NON-NLS-1$
+        if (!stringHasValue(indexName)) {
+            return introspectedTable.getPrimaryKeyColumns();
+        }
+
+        return introspectedTable.getIndexes().stream()
+                .filter(IntrospectedIndex::isUnique)
+                .filter(index -> indexName.equalsIgnoreCase(index.getName()))
+                .findFirst()
+                .map(IntrospectedIndex::getColumns)
+                .orElse(Collections.emptyList());
+    }
+
+    private boolean isSupported(IntrospectedTable introspectedTable, List<IntrospectedColumn> keyColumns) {
+        return introspectedTable.getRules().generateInsert()
+                && !keyColumns.isEmpty()
+                && getInsertColumns(introspectedTable, keyColumns).containsAll(keyColumns);
+    }
+
+    /**
+     * Returns the columns that are inserted. Generated always columns are never inserted. Identity columns
+     * and the generated key column are only inserted if they identify a record.
+     */
+    private List<IntrospectedColumn> getInsertColumns(IntrospectedTable introspectedTable,
+            List<IntrospectedColumn> keyColumns) {
+        IntrospectedColumn generatedKeyColumn = introspectedTable.getGeneratedKey()
+                .flatMap(gk -> introspectedTable.getColumn(gk.getColumn()))
+                .orElse(null);
+        return ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns()).stream()
+                .filter(c -> keyColumns.contains(c) || !c.isIdentity() && c != generatedKeyColumn)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the columns that are updated when a record already exists. Key, primary key and identity
+     * columns are never updated.
+     */
+    private List<IntrospectedColumn> getUpdateColumns(IntrospectedTable introspectedTable,
+            List<IntrospectedColumn> keyColumns, List<IntrospectedColumn> insertColumns) {
+        return insertColumns.stream()
+                .filter(c -> !keyColumns.contains(c))
+                .filter(c -> !introspectedTable.getPrimaryKeyColumns().contains(c))
+                .filter(c -> !c.isIdentity())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the statement as XML elements. Multi-row statements iterate over the <code>records</code>
+     * parameter with a <code>foreach</code> element.
+     */
+    private List<VisitableElement> buildStatement(IntrospectedTable introspectedTable,
+            List<IntrospectedColumn> keyColumns, boolean multiple) {
+        List<IntrospectedColumn> columns = getInsertColumns(introspectedTable, keyColumns);
+        List<IntrospectedColumn> updateColumns = getUpdateColumns(introspectedTable, keyColumns, columns);
+        String columnList = getColumnList(columns, Function.identity());
+        String prefix = multiple ? "record." : ""; //$NON-NLS-1$ //$NON-NLS-2$
+
+        List<VisitableElement> answer = new ArrayList<>();
+        switch (dialect) {
+        case POSTGRESQL:
+        case MYSQL:
+            answer.add(new TextElement("insert into " //$NON-NLS-1$
+                    + introspectedTable.getFullyQualifiedTableNameAtRuntime() + ' ' + columnList));
+            answer.add(new TextElement("values")); //$NON-NLS-1$
+            addRows(answer, getValuesClauses(columns, c -> getParameterClause(c, prefix)), multiple, ","); //$NON-NLS-1$
+            if (dialect == Dialect.POSTGRESQL) {
+                answer.add(new TextElement("on conflict " //$NON-NLS-1$
+                        + getColumnList(keyColumns, Function.identity())));
+                if (updateColumns.isEmpty()) {
+                    answer.add(new TextElement("do nothing")); //$NON-NLS-1$
+                } else {
+                    answer.add(new TextElement("do update set")); //$NON-NLS-1$
+                    addAssignments(answer, updateColumns, c -> "excluded." + c); //$NON-NLS-1$
+                }
+            } else {
+                answer.add(new TextElement("on duplicate key update")); //$NON-NLS-1$
+                if (updateColumns.isEmpty()) {
+                    // MySQL has no "do nothing", so update a key column to itself
+                    addAssignments(answer, keyColumns.subList(0, 1), Function.identity());
+                } else {
+                    addAssignments(answer, updateColumns, c -> "values(" + c + ')'); //$NON-NLS-1$
+                }
+            }
+            break;
+
+        default:
+            answer.add(new TextElement("merge into " //$NON-NLS-1$
+                    + introspectedTable.getFullyQualifiedTableNameAtRuntime() + " t")); //$NON-NLS-1$
+            if (dialect == Dialect.ORACLE) {
+                // Oracle has no table value constructor, so the source is a query on dual
+                answer.add(new TextElement("using (")); //$NON-NLS-1$
+                addRows(answer, Collections.singletonList("select " //$NON-NLS-1$
+                        + columns.stream()
+                                .map(c -> getParameterClause(c, prefix) + " as " + getEscapedColumnName(c)) //$NON-NLS-1$
+                                .collect(Collectors.joining(", ")) //$NON-NLS-1$
+                        + " from dual"), multiple, " union all "); //$NON-NLS-1$ //$NON-NLS-2$
+                answer.add(new TextElement(") s")); //$NON-NLS-1$
+            } else {
+                answer.add(new TextElement("using (values")); //$NON-NLS-1$
+                addRows(answer, getValuesClauses(columns, c -> getSourceParameterClause(c, prefix)), multiple,
+                        ","); //$NON-NLS-1$
+                answer.add(new TextElement(") as s " + columnList)); //$NON-NLS-1$
+            }
+            answer.add(new TextElement(keyColumns.stream()
+                    .map(c -> "t." + getEscapedColumnName(c) + " = s." + getEscapedColumnName(c)) //$NON-NLS-1$ //$NON-NLS-2$
+                    .collect(Collectors.joining(" and ", "on (", ")")))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            if (!updateColumns.isEmpty()) {
+                answer.add(new TextElement("when matched then update set")); //$NON-NLS-1$
+                addAssignments(answer, updateColumns, c -> "s." + c); //$NON-NLS-1$
+            }
+            answer.add(new TextElement("when not matched then insert " + columnList)); //$NON-NLS-1$
+            // SQL Server requires a terminated merge statement
+            answer.add(new TextElement("values " + getColumnList(columns, c -> "s." + c) //$NON-NLS-1$ //$NON-NLS-2$
+                    + (dialect == Dialect.SQLSERVER ? ";" : ""))); //$NON-NLS-1$ //$NON-NLS-2$
+            break;
+        }
+
+        return answer;
+    }
+
+    private void addRows(List<VisitableElement> elements, List<String> rowLines, boolean multiple,
+            String separator) {
+        if (multiple) {
+            XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+            foreach.addAttribute(new Attribute("collection", "records")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addAttribute(new Attribute("item", "record")); //$NON-NLS-1$ //$NON-NLS-2$
+            foreach.addAttribute(new Attribute("separator", separator)); //$NON-NLS-1$
+            rowLines.forEach(line -> foreach.addElement(new TextElement(line)));
+            elements.add(foreach);
+        } else {
+            rowLines.forEach(line -> elements.add(new TextElement(line)));
+        }
+    }
+
+    private void addAssignments(List<VisitableElement> elements, List<IntrospectedColumn> columns,
+            Function<String, String> valueFunction) {
+        for (int i = 0; i < columns.size(); i++) {
+            String columnName = getEscapedColumnName(columns.get(i));
+            StringBuilder sb = new StringBuilder();
+            xmlIndent(sb, 1);
+            sb.append(columnName);
+            sb.append(" = "); //$NON-NLS-1$
+            sb.append(valueFunction.apply(columnName));
+            if (i + 1 < columns.size()) {
+                sb.append(',');
+            }
+            elements.add(new TextElement(sb.toString()));
+        }
+    }
+
+    private String getColumnList(List<IntrospectedColumn> columns, Function<String, String> columnFunction) {
+        return columns.stream()
+                .map(c -> columnFunction.apply(getEscapedColumnName(c)))
+                .collect(Collectors.joining(", ", "(", ")")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+    }
+
+    private List<String> getValuesClauses(List<IntrospectedColumn> columns,
+            Function<IntrospectedColumn, String> parameterFunction) {
+        List<String> valuesClauses = new ArrayList<>();
+        StringBuilder valuesClause = new StringBuilder();
+        valuesClause.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            valuesClause.append(parameterFunction.apply(columns.get(i)));
+            if (i + 1 < columns.size()) {
+                valuesClause.append(", "); //$NON-NLS-1$
+            }
+
+            if (valuesClause.length() > 80 && i + 1 < columns.size()) {
+                valuesClauses.add(valuesClause.toString());
+                valuesClause.setLength(0);
+                xmlIndent(valuesClause, 1);
+            }
+        }
+        valuesClause.append(')');
+        valuesClauses.add(valuesClause.toString());
+
+        return valuesClauses;
+    }
+
+    /**
+     * Returns the parameter clause for a column of the source rows of a merge statement. HSQLDB treats
+     * the parameters of the source rows as character data, which cannot be converted to every column type
+     * (BIT, for example), so the parameters are cast to the column type.
+     */
+    private String getSourceParameterClause(IntrospectedColumn column, String prefix) {
+        String parameterClause = getParameterClause(column, prefix);
+        if (dialect != Dialect.HSQLDB || !stringHasValue(column.getActualTypeName())) {
+            return parameterClause;
+        }
+
+        return "cast(" + parameterClause + " as " + getColumnType(column) + ')'; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private String getColumnType(IntrospectedColumn column) {
+        switch (column.getJdbcType()) {
+        case Types.BIT:
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.BINARY:
+        case Types.VARBINARY:
+            return column.getActualTypeName() + '(' + column.getLength() + ')';
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            return column.getActualTypeName() + '(' + column.getLength() + ", " + column.getScale() + ')'; //$NON-NLS-1$
+        default:
+            return column.getActualTypeName();
+        }
+    }
+
+    /**
+     * Adds an insert annotation with the statement as a script. Attributes of the foreach element are
+     * quoted with single quotes because the script is in a Java string.
+     */
+    private void addAnnotation(Method method, List<VisitableElement> statement) {
+        List<String> lines = new ArrayList<>();
+        lines.add("<script>"); //$NON-NLS-1$
+        for (VisitableElement element : statement) {
+            if (element instanceof XmlElement) {
+                XmlElement xmlElement = (XmlElement) element;
+                lines.add(xmlElement.getAttributes().stream()
+                        .map(a -> a.getName() + "='" + a.getValue() + '\'') //$NON-NLS-1$
+                        .collect(Collectors.joining(" ", "<" + xmlElement.getName() + ' ', ">"))); //$NON-NLS-1$ //$NON-NLS-2$
+                xmlElement.getElements().forEach(child -> lines.add(((TextElement) child).getContent().trim()));
+                lines.add("</" + xmlElement.getName() + '>'); //$NON-NLS-1$
+            } else {
+                lines.add(((TextElement) element).getContent().trim());
+            }
+        }
+        lines.add("</script>"); //$NON-NLS-1$
+
+        method.addAnnotation("@Insert({"); //$NON-NLS-1$
+        for (int i = 0; i < lines.size(); i++) {
+            StringBuilder sb = new StringBuilder();
+            javaIndent(sb, 1);
+            sb.append('"');
+            sb.append(escapeStringForJava(lines.get(i)));
+            sb.append('"');
+            if (i + 1 < lines.size()) {
+                sb.append(',');
+            }
+            method.addAnnotation(sb.toString());
+        }
+        method.addAnnotation("})"); //$NON-NLS-1$
+    }
+
+    private FullyQualifiedJavaType getRecordType(IntrospectedTable introspectedTable) {
+        if (introspectedTable instanceof IntrospectedTableMyBatis3SimpleImpl
+                || introspectedTable.getTargetRuntime() == IntrospectedTable.TargetRuntime.MYBATIS3_DSQL) {
+            return new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        } else {
+            return introspectedTable.getRules().calculateAllFieldsClass();
+        }
+    }
+}
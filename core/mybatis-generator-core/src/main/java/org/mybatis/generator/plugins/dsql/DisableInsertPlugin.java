@@ -37,6 +37,11 @@ public class DisableInsertPlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean clientBasicInsertMethodGenerated(Method method, Interface interfaze,
             IntrospectedTable introspectedTable) {
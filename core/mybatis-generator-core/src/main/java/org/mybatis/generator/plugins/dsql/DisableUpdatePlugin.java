@@ -37,6 +37,11 @@ public class DisableUpdatePlugin extends PluginAdapter {
         return true;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean clientGeneralUpdateMethodGenerated(Method method, Interface interfaze,
             IntrospectedTable introspectedTable) {
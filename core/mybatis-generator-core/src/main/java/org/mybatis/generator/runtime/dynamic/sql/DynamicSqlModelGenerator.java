@@ -83,7 +83,7 @@ public class DynamicSqlModelGenerator extends AbstractJavaGenerator {
 
         String rootClass = getRootClass();
         for (IntrospectedColumn introspectedColumn : introspectedColumns) {
-            if (RootClassInfo.getInstance(rootClass, warnings)
+            if (RootClassInfo.getInstance(context, rootClass, warnings)
                     .containsProperty(introspectedColumn)) {
                 continue;
             }
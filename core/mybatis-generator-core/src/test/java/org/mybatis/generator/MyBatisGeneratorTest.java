@@ -17,18 +17,53 @@ package org.mybatis.generator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.GenerationMetrics.Phase;
+import org.mybatis.generator.api.IntrospectedIndex;
+import org.mybatis.generator.api.MetricsCallback;
 import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.ConnectionFactoryConfiguration;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.JDBCConnectionConfiguration;
 import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultCommentGenerator;
 import org.mybatis.generator.internal.DefaultShellCallback;
 
 class MyBatisGeneratorTest {
@@ -87,4 +122,611 @@ class MyBatisGeneratorTest {
                 });
         assertEquals(3, e.getErrors().size());
     }
+
+    @Test
+    void testConcurrentIntrospectionMatchesSequential() throws Exception {
+        assertGenerationMatchesDefault(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, "4");
+    }
+
+    @Test
+    void testBulkIntrospectionMatchesSequential() throws Exception {
+        assertGenerationMatchesDefault(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, "true");
+    }
+
+    @Test
+    void testConcurrentBulkIntrospectionMatchesSequential() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, "3");
+        properties.setProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, "true");
+        assertGenerationMatchesDefault(properties);
+    }
+
+    @Test
+    void testConcurrentGenerationMatchesSequential() throws Exception {
+        assertGenerationMatchesDefault(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+    }
+
+    @Test
+    void testConcurrentGenerationWithUnsafePlugin() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> warnings = new ArrayList<>();
+        generate(warnings, run -> run.contexts(context -> {
+            context.addProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType("org.mybatis.generator.plugins.MapperConfigPlugin");
+            pluginConfiguration.addProperty("targetPackage", "foo");
+            pluginConfiguration.addProperty("targetProject", "MAVEN");
+            context.addPluginConfiguration(pluginConfiguration);
+        }));
+
+        assertTrue(warnings.contains(
+                "Files for context FlatJava5 will be generated on a single thread because some plugins are not thread safe"));
+    }
+
+    @Test
+    void testConcurrentGenerationWithUnsafeCommentGenerator() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> warnings = new ArrayList<>();
+        generate(warnings, run -> run.contexts(context -> {
+            context.addProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+            context.getCommentGeneratorConfiguration().setConfigurationType(SubclassedCommentGenerator.class.getName());
+        }));
+
+        assertTrue(warnings.contains(
+                "Files for context FlatJava5 will be generated on a single thread because the comment generator is not thread safe"));
+    }
+
+    @Test
+    void testIndexesAreOnlyIntrospectedWhenRequired() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        // FlatJava5 has the UniqueIndexMethodsPlugin, HierarchicalJava5 has no plugin that requires indexes
+        Map<String, Context> contexts = new TreeMap<>();
+        generate(new ArrayList<>(), run -> run.contexts(context -> contexts.put(context.getId(), context)));
+        assertTrue(indexNames(contexts.get("FlatJava5")).contains("AWFULTABLE_EMAILADDRESS"));
+        assertTrue(indexNames(contexts.get("HierarchicalJava5")).isEmpty());
+
+        contexts.clear();
+        generate(new ArrayList<>(), run -> run.contexts(context -> {
+            context.addProperty(PropertyRegistry.CONTEXT_INTROSPECT_INDEXES, "true");
+            contexts.put(context.getId(), context);
+        }));
+        assertTrue(indexNames(contexts.get("HierarchicalJava5")).contains("AWFULTABLE_EMAILADDRESS"));
+    }
+
+    @Test
+    void testPluginsAreCreatedOncePerRun() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<Context> contexts = new ArrayList<>();
+        CountingPlugin.instances.set(0);
+        generate(new ArrayList<>(), run -> run.contexts(context -> {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(CountingPlugin.class.getName());
+            context.addPluginConfiguration(pluginConfiguration);
+            contexts.add(context);
+        }));
+
+        assertEquals(contexts.size(), CountingPlugin.instances.get());
+    }
+
+    @Test
+    void testGeneratorsRunConcurrently() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> defaultWarnings = new ArrayList<>();
+        MyBatisGenerator defaultGenerator = generate(defaultWarnings, run -> { });
+
+        List<Context> contexts = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<MyBatisGenerator>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return generate(new ArrayList<>(), run -> run.contexts(contexts::add));
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
+
+        for (CompletableFuture<MyBatisGenerator> future : futures) {
+            MyBatisGenerator generator = future.get();
+            assertEquals(javaContents(defaultGenerator), javaContents(generator));
+            assertEquals(xmlContents(defaultGenerator), xmlContents(generator));
+        }
+
+        // every run has its own component factory
+        assertEquals(futures.size(), contexts.stream().map(Context::getComponentFactory).distinct().count());
+    }
+
+    @Test
+    void testGenerateInvalidIntrospectionThreads() throws Exception {
+        List<String> warnings = new ArrayList<>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+        config.getContexts().get(0).addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, "none");
+
+        DefaultShellCallback shellCallback = new DefaultShellCallback(true);
+
+        InvalidConfigurationException e =
+                assertThrows(InvalidConfigurationException.class,
+                        () -> new MyBatisGenerator(config, shellCallback, warnings));
+        assertEquals(1, e.getErrors().size());
+    }
+
+    @Test
+    void testOfflineGenerationFromSnapshotMatchesDatabase(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Consumer<Context> useSnapshot = context -> context.addProperty(
+                PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT,
+                new File(tempDir, context.getId() + ".snapshot").getAbsolutePath());
+
+        List<String> defaultWarnings = new ArrayList<>();
+        MyBatisGenerator defaultGenerator = generate(defaultWarnings, run -> run.contexts(useSnapshot));
+        assertTrue(new File(tempDir, "FlatJava5.snapshot").exists());
+
+        // point every context at a database that does not exist - offline generation must not connect
+        Consumer<Context> useSnapshotWithoutDatabase = useSnapshot.andThen(context -> {
+            ConnectionFactoryConfiguration connectionFactoryConfiguration = new ConnectionFactoryConfiguration();
+            connectionFactoryConfiguration.addProperty("driverClass", "org.hsqldb.jdbcDriver");
+            connectionFactoryConfiguration.addProperty("connectionURL", "jdbc:hsqldb:mem:missing;ifexists=true");
+            context.setJdbcConnectionConfiguration(null);
+            context.setConnectionFactoryConfiguration(connectionFactoryConfiguration);
+        });
+
+        List<String> warnings = new ArrayList<>();
+        MyBatisGenerator generator = generate(warnings, run -> run.contexts(useSnapshotWithoutDatabase)
+                .generator(g -> g.setOffline(true)));
+
+        assertEquals(defaultWarnings, warnings);
+        assertEquals(javaContents(defaultGenerator), javaContents(generator));
+        assertEquals(xmlContents(defaultGenerator), xmlContents(generator));
+    }
+
+    @Test
+    void testWrittenContentMatchesFormattedContent() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        MyBatisGenerator myBatisGenerator = generate(new ArrayList<>(), run -> { });
+
+        List<GeneratedFile> generatedFiles = new ArrayList<>();
+        generatedFiles.addAll(myBatisGenerator.getGeneratedJavaFiles());
+        generatedFiles.addAll(myBatisGenerator.getGeneratedXmlFiles());
+        generatedFiles.addAll(myBatisGenerator.getGeneratedKotlinFiles());
+        assertFalse(generatedFiles.isEmpty());
+
+        for (GeneratedFile generatedFile : generatedFiles) {
+            StringBuilder sb = new StringBuilder();
+            generatedFile.writeFormattedContent(sb);
+            assertEquals(generatedFile.getFormattedContent(), sb.toString(), generatedFile.getFileName());
+        }
+    }
+
+    @Test
+    void testConcurrentSavingMatchesSequential(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File sequentialRoot = new File(tempDir, "sequential");
+        File concurrentRoot = new File(tempDir, "concurrent");
+        assertTrue(sequentialRoot.mkdir());
+        assertTrue(concurrentRoot.mkdir());
+
+        // save twice so the second run overwrites Java files and merges XML files
+        for (int i = 0; i < 2; i++) {
+            List<String> defaultWarnings = new ArrayList<>();
+            generate(defaultWarnings, run -> run.writeTo(sequentialRoot));
+
+            List<String> warnings = new ArrayList<>();
+            generate(warnings, run -> run.writeTo(concurrentRoot).generator(g -> g.setSaveThreads(4)));
+
+            assertEquals(defaultWarnings.stream().map(w -> w.replace(sequentialRoot.getAbsolutePath(), ""))
+                    .collect(Collectors.toList()),
+                    warnings.stream().map(w -> w.replace(concurrentRoot.getAbsolutePath(), ""))
+                    .collect(Collectors.toList()));
+        }
+
+        Map<String, byte[]> sequentialFiles = readFiles(sequentialRoot.toPath());
+        Map<String, byte[]> concurrentFiles = readFiles(concurrentRoot.toPath());
+        assertFalse(sequentialFiles.isEmpty());
+        assertEquals(sequentialFiles.keySet(), concurrentFiles.keySet());
+        for (Map.Entry<String, byte[]> entry : sequentialFiles.entrySet()) {
+            assertArrayEquals(entry.getValue(), concurrentFiles.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    void testThreadSafeJavaMergesRunOnWorkerThreads(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Set<String> mergeThreads = ConcurrentHashMap.newKeySet();
+        for (boolean threadSafe : new boolean[] { false, true }) {
+            mergeThreads.clear();
+            for (int i = 0; i < 2; i++) {
+                List<String> warnings = new ArrayList<>();
+                Configuration config = new ConfigurationParser(warnings)
+                        .parseConfiguration(getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+                DefaultShellCallback shellCallback = new DefaultShellCallback(false) {
+                    @Override
+                    public File getDirectory(String targetProject, String targetPackage) throws ShellException {
+                        return super.getDirectory(tempDir.getAbsolutePath(), targetPackage);
+                    }
+
+                    @Override
+                    public boolean isMergeSupported() {
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isMergeThreadSafe() {
+                        return threadSafe;
+                    }
+
+                    @Override
+                    public String mergeJavaFile(String newFileSource, File existingFile, String[] javadocTags,
+                            String fileEncoding) {
+                        mergeThreads.add(Thread.currentThread().getName());
+                        return newFileSource;
+                    }
+                };
+
+                MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+                myBatisGenerator.setSaveThreads(4);
+                myBatisGenerator.generate(null, null, null, true);
+            }
+
+            assertFalse(mergeThreads.isEmpty());
+            assertEquals(threadSafe, mergeThreads.stream().allMatch(name -> name.startsWith("mbg-save")),
+                    mergeThreads.toString());
+        }
+    }
+
+    @Test
+    void testSkipUnchangedFiles(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        int[] counts = new int[2];
+        generate(new ArrayList<>(), run -> run.writeTo(tempDir).progress(recordSaveCounts(counts))
+                .generator(g -> g.setSkipUnchangedFiles(true)));
+        int totalFiles = counts[0];
+        assertTrue(totalFiles > 0);
+        assertEquals(0, counts[1]);
+
+        // make every file look old, then change one of them
+        Map<String, byte[]> files = readFiles(tempDir.toPath());
+        long lastModified = System.currentTimeMillis() - 60_000;
+        try (Stream<Path> paths = Files.walk(tempDir.toPath())) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                assertTrue(path.toFile().setLastModified(lastModified));
+            }
+        }
+        String changedFile = files.keySet().stream().filter(f -> f.endsWith(".java")).findFirst().get();
+        Files.write(tempDir.toPath().resolve(changedFile), "changed".getBytes());
+
+        generate(new ArrayList<>(), run -> run.writeTo(tempDir).progress(recordSaveCounts(counts))
+                .generator(g -> {
+                    g.setSaveThreads(4);
+                    g.setSkipUnchangedFiles(true);
+                }));
+        assertEquals(1, counts[0]);
+        assertEquals(totalFiles - 1, counts[1]);
+
+        Map<String, byte[]> savedFiles = readFiles(tempDir.toPath());
+        assertEquals(files.keySet(), savedFiles.keySet());
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            assertArrayEquals(entry.getValue(), savedFiles.get(entry.getKey()), entry.getKey());
+            File file = tempDir.toPath().resolve(entry.getKey()).toFile();
+            if (entry.getKey().equals(changedFile)) {
+                assertNotEquals(lastModified, file.lastModified());
+            } else {
+                assertEquals(lastModified, file.lastModified(), entry.getKey());
+            }
+        }
+    }
+
+    @Test
+    void testFailedRenderingKeepsExistingFiles(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        generate(new ArrayList<>(), run -> run.writeTo(tempDir));
+        Map<String, byte[]> files = readFiles(tempDir.toPath());
+        assertFalse(files.isEmpty());
+
+        assertThrows(IllegalStateException.class, () -> generate(new ArrayList<>(), run -> run.writeTo(tempDir)
+                .contexts(context -> context.addProperty(PropertyRegistry.CONTEXT_JAVA_FORMATTER,
+                        FailingJavaFormatter.class.getName()))));
+
+        // no file is truncated, and no temporary file is left behind
+        Map<String, byte[]> savedFiles = readFiles(tempDir.toPath());
+        assertEquals(files.keySet(), savedFiles.keySet());
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            assertArrayEquals(entry.getValue(), savedFiles.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    void testIncrementalGeneration(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File root = new File(tempDir, "generated");
+        assertTrue(root.mkdir());
+
+        int[] counts = new int[2];
+        ProgressCallback callback = recordSaveCounts(counts);
+
+        Consumer<Context> useManifest = context -> {
+            context.addProperty(PropertyRegistry.CONTEXT_BUILD_MANIFEST,
+                    new File(tempDir, context.getId() + ".manifest").getAbsolutePath());
+            context.addProperty(PropertyRegistry.CONTEXT_DELETE_ORPHANED_FILES, "true");
+        };
+        Consumer<Context> addTable = useManifest.andThen(context -> {
+            if (context.getId().equals("FlatJava5")) {
+                TableConfiguration tc = new TableConfiguration(context);
+                tc.setTableName("PKOnly");
+                tc.setDomainObjectName("ExtraPkOnly");
+                context.addTableConfiguration(tc);
+            }
+        });
+
+        List<String> defaultWarnings = new ArrayList<>();
+        generate(defaultWarnings, run -> run.writeTo(root).progress(callback).contexts(addTable));
+        assertTrue(counts[0] > 0);
+        File extraModel = root.toPath().resolve("mbg/test/mb3/generated/flat/model/ExtraPkOnly.java").toFile();
+        assertTrue(extraModel.exists());
+        Map<String, byte[]> files = readFiles(root.toPath());
+
+        // nothing has changed, so nothing is generated
+        List<String> warnings = new ArrayList<>();
+        MyBatisGenerator myBatisGenerator = generate(warnings,
+                run -> run.writeTo(root).progress(callback).contexts(addTable));
+        assertTrue(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[1]);
+
+        // the extra table is removed, so its files are deleted and other tables are not generated
+        myBatisGenerator = generate(new ArrayList<>(),
+                run -> run.writeTo(root).progress(callback).contexts(useManifest));
+        assertTrue(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+        assertFalse(extraModel.exists());
+        Map<String, byte[]> remainingFiles = readFiles(root.toPath());
+        assertEquals(files.keySet().stream().filter(f -> !f.contains("ExtraPkOnly")).collect(Collectors.toSet()),
+                remainingFiles.keySet());
+        for (Map.Entry<String, byte[]> entry : remainingFiles.entrySet()) {
+            assertArrayEquals(files.get(entry.getKey()), entry.getValue(), entry.getKey());
+        }
+
+        // a deleted file is generated again
+        File model = root.toPath().resolve("mbg/test/mb3/generated/flat/model/Pkonly.java").toFile();
+        assertTrue(model.delete());
+        myBatisGenerator = generate(new ArrayList<>(),
+                run -> run.writeTo(root).progress(callback).contexts(useManifest));
+        assertFalse(myBatisGenerator.getGeneratedJavaFiles().isEmpty());
+        assertTrue(model.exists());
+        assertEquals(remainingFiles.keySet(), readFiles(root.toPath()).keySet());
+    }
+
+    @Test
+    void testMetrics(@TempDir File tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File root = new File(tempDir, "generated");
+        assertTrue(root.mkdir());
+        File reportFile = new File(tempDir, "metrics.json");
+
+        List<GenerationMetrics.Timing> timings = Collections.synchronizedList(new ArrayList<>());
+        List<GenerationMetrics> finishedMetrics = new ArrayList<>();
+        MetricsCallback metricsCallback = new MetricsCallback() {
+            @Override
+            public void phaseFinished(GenerationMetrics.Timing timing) {
+                timings.add(timing);
+            }
+
+            @Override
+            public void generationFinished(GenerationMetrics metrics) {
+                finishedMetrics.add(metrics);
+            }
+        };
+
+        int[] counts = new int[2];
+        generate(new ArrayList<>(), run -> run.writeTo(root).progress(recordSaveCounts(counts))
+                .contexts(context -> context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, "2"))
+                .generator(generator -> {
+                    generator.setSaveThreads(4);
+                    generator.setSkipUnchangedFiles(true);
+                    generator.setMetricsCallback(metricsCallback);
+                    generator.setMetricsReportFile(reportFile);
+                }));
+
+        assertEquals(1, finishedMetrics.size());
+        GenerationMetrics metrics = finishedMetrics.get(0);
+        assertEquals(timings.size(), metrics.getTimings().size());
+        assertTrue(metrics.getElapsedNanos() > 0);
+        assertTrue(metrics.getCount(Phase.CONNECT) > 0);
+        assertTrue(metrics.getCount(Phase.INTROSPECT) > 0);
+        assertTrue(metrics.getCount(Phase.INITIALIZE) > 0);
+        assertEquals(metrics.getCount(Phase.INITIALIZE), metrics.getCount(Phase.CALCULATE_GENERATORS));
+        // tables that plugins do not generate are not timed
+        assertTrue(metrics.getCount(Phase.GENERATE) > 0);
+        assertTrue(metrics.getCount(Phase.GENERATE) <= metrics.getCount(Phase.INITIALIZE));
+        assertTrue(metrics.getJdbcMetadataCalls() > 0);
+        assertEquals(counts[0], metrics.getFilesWritten());
+        assertEquals(counts[0], metrics.getCount(Phase.RENDER));
+        assertEquals(counts[0], metrics.getCount(Phase.WRITE));
+        assertEquals(0, metrics.getFilesSkipped());
+        assertEquals(0, metrics.getFilesMerged());
+        assertTrue(metrics.getBytesWritten() > 0);
+        // HotSpot supports allocation measurement through the extended management interface
+        assertTrue(metrics.getAllocatedBytes(Phase.GENERATE) > 0);
+
+        String report = new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(report.contains("\"jdbcMetadataCalls\": " + metrics.getJdbcMetadataCalls() + ","));
+        assertTrue(report.contains("\"filesWritten\": " + counts[0] + ","));
+        assertTrue(report.contains("\"calculateGenerators\": { \"count\": "
+                + metrics.getCount(Phase.CALCULATE_GENERATORS) + ","));
+    }
+
+    private Map<String, byte[]> readFiles(Path root) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.put(root.relativize(path).toString(), Files.readAllBytes(path));
+            }
+        }
+        return files;
+    }
+
+    private void assertGenerationMatchesDefault(String property, String value) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(property, value);
+        assertGenerationMatchesDefault(properties);
+    }
+
+    private void assertGenerationMatchesDefault(Properties contextProperties) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> defaultWarnings = new ArrayList<>();
+        List<String> defaultProgress = new ArrayList<>();
+        MyBatisGenerator defaultGenerator = generate(defaultWarnings,
+                run -> run.progress(recordTasks(defaultProgress)));
+
+        List<String> warnings = new ArrayList<>();
+        List<String> progress = new ArrayList<>();
+        MyBatisGenerator generator = generate(warnings, run -> run.progress(recordTasks(progress))
+                .contexts(context -> contextProperties.stringPropertyNames()
+                        .forEach(name -> context.addProperty(name, contextProperties.getProperty(name)))));
+
+        assertEquals(defaultWarnings, warnings);
+        assertEquals(defaultProgress, progress);
+        assertEquals(javaContents(defaultGenerator), javaContents(generator));
+        assertEquals(xmlContents(defaultGenerator), xmlContents(generator));
+    }
+
+    /**
+     * Parses the test configuration and runs the generator. Comments never contain dates, so the
+     * output of different runs can be compared.
+     */
+    private MyBatisGenerator generate(List<String> warnings, Consumer<Run> customizer) throws Exception {
+        Run run = new Run();
+        customizer.accept(run);
+
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+        for (Context context : config.getContexts()) {
+            if (context.getCommentGeneratorConfiguration() == null) {
+                context.setCommentGeneratorConfiguration(new CommentGeneratorConfiguration());
+            }
+            context.getCommentGeneratorConfiguration()
+                    .addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+            run.contextCustomizer.accept(context);
+        }
+
+        // every target project in the configuration is redirected to the root directory, if there is one
+        DefaultShellCallback shellCallback = new DefaultShellCallback(true) {
+            @Override
+            public File getDirectory(String targetProject, String targetPackage) throws ShellException {
+                return super.getDirectory(run.root == null ? targetProject : run.root.getAbsolutePath(),
+                        targetPackage);
+            }
+        };
+
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+        run.generatorCustomizer.accept(myBatisGenerator);
+        myBatisGenerator.generate(run.callback, null, null, run.root != null);
+        return myBatisGenerator;
+    }
+
+    private ProgressCallback recordTasks(List<String> tasks) {
+        return new ProgressCallback() {
+            @Override
+            public void startTask(String taskName) {
+                tasks.add(taskName);
+            }
+        };
+    }
+
+    private ProgressCallback recordSaveCounts(int[] counts) {
+        return new ProgressCallback() {
+            @Override
+            public void saveFinished(int writtenFiles, int unchangedFiles) {
+                counts[0] = writtenFiles;
+                counts[1] = unchangedFiles;
+            }
+        };
+    }
+
+    private Set<String> indexNames(Context context) {
+        return context.getIntrospectedTables().stream()
+                .flatMap(introspectedTable -> introspectedTable.getIndexes().stream())
+                .map(IntrospectedIndex::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private List<String> javaContents(MyBatisGenerator myBatisGenerator) {
+        return myBatisGenerator.getGeneratedJavaFiles().stream()
+                .map(GeneratedJavaFile::getFormattedContent)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> xmlContents(MyBatisGenerator myBatisGenerator) {
+        return myBatisGenerator.getGeneratedXmlFiles().stream()
+                .map(GeneratedXmlFile::getFormattedContent)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The options of a test run. Files are only written if a root directory is set.
+     */
+    private static class Run {
+        private File root;
+        private ProgressCallback callback;
+        private Consumer<Context> contextCustomizer = context -> { };
+        private Consumer<MyBatisGenerator> generatorCustomizer = generator -> { };
+
+        Run writeTo(File root) {
+            this.root = root;
+            return this;
+        }
+
+        Run progress(ProgressCallback callback) {
+            this.callback = callback;
+            return this;
+        }
+
+        Run contexts(Consumer<Context> contextCustomizer) {
+            this.contextCustomizer = this.contextCustomizer.andThen(contextCustomizer);
+            return this;
+        }
+
+        Run generator(Consumer<MyBatisGenerator> generatorCustomizer) {
+            this.generatorCustomizer = this.generatorCustomizer.andThen(generatorCustomizer);
+            return this;
+        }
+    }
+
+    public static class SubclassedCommentGenerator extends DefaultCommentGenerator {
+    }
+
+    public static class CountingPlugin extends PluginAdapter {
+        static final AtomicInteger instances = new AtomicInteger();
+
+        public CountingPlugin() {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+    }
+
+    public static class FailingJavaFormatter extends DefaultJavaFormatter {
+        @Override
+        public void writeFormattedContent(CompilationUnit compilationUnit, Appendable appendable)
+                throws IOException {
+            appendable.append("partial");
+            throw new IllegalStateException("formatter failed");
+        }
+    }
 }
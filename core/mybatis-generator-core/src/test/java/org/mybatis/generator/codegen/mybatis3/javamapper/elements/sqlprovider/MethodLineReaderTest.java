@@ -30,4 +30,17 @@ class MethodLineReaderTest {
         assertEquals("firstCriteria = false;", lines.get(33));
         assertEquals("}", lines.get(89));
     }
+
+    @Test
+    void testMemoizedWhereClauseLines() {
+        List<String> lines = ProviderApplyWhereMethodGenerator.getMethodLines("WhereClauseMethod.txt");
+        assertEquals("if (example == null) {", lines.get(0));
+        assertEquals("return \"\";", lines.get(1));
+        assertEquals("}", lines.get(lines.size() - 1));
+
+        lines = ProviderApplyWhereMethodGenerator.getMethodLines("WhereClauseSqlMethod.txt");
+        assertEquals(84, lines.size());
+        assertEquals("String parmPhrase1;", lines.get(0));
+        assertEquals("return sb.toString();", lines.get(83));
+    }
 }
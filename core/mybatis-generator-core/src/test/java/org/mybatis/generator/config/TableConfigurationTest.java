@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TableConfigurationTest {
+
+    @Test
+    void testColumnOverrideLookup() {
+        TableConfiguration tc = new TableConfiguration(new Context(ModelType.FLAT));
+        ColumnOverride delimited = new ColumnOverride("Name");
+        delimited.setColumnNameDelimited(true);
+        ColumnOverride undelimited = new ColumnOverride("NAME");
+        ColumnOverride other = new ColumnOverride("ID");
+        tc.addColumnOverride(delimited);
+        tc.addColumnOverride(undelimited);
+
+        // the first matching override wins
+        assertThat(tc.getColumnOverride("Name")).isSameAs(delimited);
+        assertThat(tc.getColumnOverride("name")).isSameAs(undelimited);
+        assertThat(tc.getColumnOverride("NAME")).isSameAs(undelimited);
+        assertThat(tc.getColumnOverride("ID")).isNull();
+
+        // overrides added after a lookup are found
+        tc.addColumnOverride(other);
+        assertThat(tc.getColumnOverride("id")).isSameAs(other);
+        tc.getColumnOverrides().add(new ColumnOverride("CODE"));
+        assertThat(tc.getColumnOverride("code")).isNotNull();
+    }
+
+    @Test
+    void testIgnoredColumnLookup() {
+        TableConfiguration tc = new TableConfiguration(new Context(ModelType.FLAT));
+        IgnoredColumn delimited = new IgnoredColumn("Audit");
+        delimited.setColumnNameDelimited(true);
+        tc.addIgnoredColumn(delimited);
+        tc.addIgnoredColumn(new IgnoredColumn("VERSION"));
+        tc.addIgnoredColumn(new IgnoredColumn("MISSING"));
+
+        IgnoredColumnPattern pattern = new IgnoredColumnPattern("(?i)tmp_.*");
+        pattern.addException(new IgnoredColumnException("TMP_KEEP"));
+        tc.addIgnoredColumnPattern(pattern);
+
+        assertThat(tc.isColumnIgnored("Audit")).isTrue();
+        assertThat(tc.isColumnIgnored("AUDIT")).isFalse();
+        assertThat(tc.isColumnIgnored("version")).isTrue();
+        assertThat(tc.isColumnIgnored("TMP_1")).isTrue();
+        assertThat(tc.isColumnIgnored("tmp_1")).isTrue();
+        assertThat(tc.isColumnIgnored("tmp_keep")).isFalse();
+        assertThat(tc.isColumnIgnored("TMP_KEEP")).isFalse();
+        assertThat(tc.isColumnIgnored("ID")).isFalse();
+
+        assertThat(tc.getIgnoredColumnsInError()).containsExactly("MISSING");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.SqlScriptRunner;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.db.PooledConnectionFactory;
+
+class GenerationDaemonTest {
+
+    @Test
+    void testRequestsReuseConfigurationAndConnections(@TempDir File tempDir) throws Exception {
+        SqlScriptRunner scriptRunner = new SqlScriptRunner(getClass().getResourceAsStream("/scripts/CreateDB.sql"),
+                "org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:aname", "sa", "");
+        scriptRunner.executeScript();
+
+        File configurationFile = new File(tempDir, "generatorConfig.xml");
+        try (InputStream is = getClass().getResourceAsStream("/scripts/generatorConfig.xml")) {
+            Files.copy(is, configurationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        List<Context> contexts = new ArrayList<>();
+        GenerationDaemon.Task task = (configuration, componentFactory, arguments, out) -> {
+            try {
+                MyBatisGenerator generator = new MyBatisGenerator(configuration, new DefaultShellCallback(false),
+                        new ArrayList<>());
+                generator.setComponentFactory(componentFactory);
+                generator.generate(null, null, null, false);
+                contexts.addAll(configuration.getContexts());
+                out.println("files: " + generator.getGeneratedJavaFiles().size());
+            } catch (Exception e) {
+                e.printStackTrace(out);
+            }
+        };
+
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        try (GenerationDaemon daemon = new GenerationDaemon(configurationFile, task, new PrintStream(console))) {
+            assertTrue(daemon.load(new PrintStream(console)));
+            int port = daemon.start(0, tempDir);
+            daemon.watch(3600, true);
+
+            // only the owner can read the token, and requests without it are rejected
+            File tokenFile = GenerationDaemon.getTokenFile(tempDir, port);
+            assertTrue(tokenFile.exists());
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.toPath())))
+                        .isEqualTo("rw-------");
+            }
+            assertThat(rawRequest(port, "wrong\n" + GenerationDaemon.STOP + "\n\n")).contains("rejected");
+
+            String first = request(port, tempDir, GenerationDaemon.GENERATE);
+            String second = request(port, tempDir, GenerationDaemon.GENERATE);
+            assertThat(first).startsWith("files: ");
+            assertThat(second).isEqualTo(first);
+
+            // every context connected to the database once for both requests
+            assertThat(contexts).isNotEmpty();
+            for (Context context : contexts) {
+                assertThat(context.getConnectionFactory()).isInstanceOf(PooledConnectionFactory.class);
+                assertThat(((PooledConnectionFactory) context.getConnectionFactory()).getCreatedConnections())
+                        .isEqualTo(1);
+            }
+
+            // a broken configuration file is reported and the previous configuration is kept
+            Files.write(configurationFile.toPath(), "<generatorConfiguration>".getBytes(StandardCharsets.UTF_8));
+            assertFalse(daemon.load(new PrintStream(console)));
+            assertThat(request(port, tempDir, GenerationDaemon.GENERATE)).isEqualTo(first);
+
+            assertThat(request(port, tempDir, "bogus")).contains("bogus");
+            assertThat(request(port, tempDir, GenerationDaemon.STOP)).isNotEmpty();
+            daemon.awaitStop();
+            assertFalse(tokenFile.exists());
+        }
+        assertThat(new String(console.toByteArray(), StandardCharsets.UTF_8)).doesNotContain("Cannot check");
+    }
+
+    private String request(int port, File tokenDirectory, String command) throws Exception {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        GenerationDaemon.sendRequest(port, tokenDirectory, command, Collections.emptyList(),
+                new PrintStream(response, true, StandardCharsets.UTF_8.name()));
+        return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String rawRequest(int port, String request) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream os = socket.getOutputStream();
+            os.write(request.getBytes(StandardCharsets.UTF_8));
+            os.flush();
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sb.append(line);
+            }
+            return sb.toString();
+        }
+    }
+}
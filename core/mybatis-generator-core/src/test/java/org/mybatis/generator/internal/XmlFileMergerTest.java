@@ -18,9 +18,13 @@ package org.mybatis.generator.internal;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.dom.DefaultXmlFormatter;
@@ -149,6 +153,89 @@ class XmlFileMergerTest {
         assertEquals(expectedGeneratedFile.getFormattedContent(), mergedSource);
     }
 
+    @Test
+    void testThatStreamingMergeMatchesDomMerge() throws Exception {
+        DefaultXmlFormatter xmlFormatter = new DefaultXmlFormatter();
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        document.setRootElement(getSqlMapElement(commentGenerator));
+        String newContent = new GeneratedXmlFile(document, "TestMapper.xml", "org.mybatis.test", "src",
+                true, xmlFormatter).getFormattedContent();
+
+        String existingContent = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!-- header comment -->\n"
+                + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+                + "'http://mybatis.org/dtd/mybatis-3-mapper.dtd'>\n"
+                + "<mapper namespace=\"org.mybatis.test.OldMapper\" extra=\"x\">\n"
+                + "  <!-- user comment -->\n"
+                + "  <select id=\"insert\">\n"
+                + "    <!--\n"
+                + "      WARNING - @mbg.generated\n"
+                + "    -->\n"
+                + "    select 1\n"
+                + "  </select>\n"
+                + "  <select id=\"custom\" resultType=\"map\" a=\"&quot;q&quot;&#9;\">\n"
+                + "    select * from t where a &lt; 3 &amp;&amp; b &gt; 2 <![CDATA[ < ]]>&#13;\n"
+                + "    <if test=\"x != null\"><include refid=\"y\"/></if>\n"
+                + "    <?pi data?>\n"
+                + "  </select>\n"
+                + "  text   <sql id=\"ibatorgenerated_x\"/>\n"
+                + "  <sql id=\"abatorgenerated_y\"></sql>\n"
+                + "</mapper>\n"
+                + "<!-- trailing comment -->\n";
+
+        assertEquals(getDomMergedSource(newContent, existingContent),
+                XmlFileMergerStax.getMergedSource(new StringReader(newContent),
+                        new StringReader(existingContent), "TestMapper.xml"));
+
+        assertEquals(getDomMergedSource(newContent, newContent),
+                XmlFileMergerStax.getMergedSource(new StringReader(newContent),
+                        new StringReader(newContent), "TestMapper.xml"));
+    }
+
+    @Test
+    void testThatStreamingMergeLeavesInternalSubsetToDomMerge() {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE mapper [ <!ENTITY e \"value\"> ]>\n"
+                + "<mapper>&e;</mapper>\n";
+
+        assertThrows(XmlFileMergerStax.UnsupportedContentException.class,
+                () -> XmlFileMergerStax.getMergedSource(new StringReader(content),
+                        new StringReader(content), "TestMapper.xml"));
+    }
+
+    @Test
+    void testThatMergedFileIsTheSameAsTheExistingFile(@TempDir Path tempDir) throws Exception {
+        DefaultXmlFormatter xmlFormatter = new DefaultXmlFormatter();
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        document.setRootElement(getSqlMapElement(commentGenerator));
+        GeneratedXmlFile generatedFile = new GeneratedXmlFile(document, "TestMapper.xml", "org.mybatis.test", "src",
+                true, xmlFormatter);
+
+        Path existingFile = tempDir.resolve("TestMapper.xml");
+        Files.write(existingFile, generatedFile.getFormattedContent().getBytes(StandardCharsets.UTF_8));
+
+        String mergedSource = XmlFileMergerJaxp.getMergedSource(generatedFile, existingFile.toFile());
+
+        assertEquals(generatedFile.getFormattedContent(), mergedSource);
+    }
+
+    private String getDomMergedSource(String newContent, String existingContent) throws Exception {
+        return XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newContent)),
+                new InputSource(new StringReader(existingContent)), "TestMapper.xml");
+    }
+
     private XmlElement getSqlMapElement(CommentGenerator commentGenerator) {
 
         XmlElement answer = new XmlElement("mapper");
@@ -0,0 +1,86 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.TableConfiguration;
+
+class ConcurrentIntrospectorTest {
+
+    @Test
+    void testConnectionOpenedAfterCloseIsClosed() throws Exception {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("test");
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Connection> opened = new AtomicReference<>();
+        ConnectionFactory connectionFactory = new ConnectionFactory() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connecting.countDown();
+                // a driver that does not respond to interrupts
+                boolean interrupted = false;
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                opened.set(DriverManager.getConnection("jdbc:hsqldb:mem:introspector", "sa", ""));
+                return opened.get();
+            }
+
+            @Override
+            public void addConfigurationProperties(Properties properties) {
+                // not needed
+            }
+        };
+
+        ConcurrentIntrospector introspector = new ConcurrentIntrospector(context, connectionFactory, null, 1);
+        Future<ConcurrentIntrospector.Result> future = introspector.submit(new TableConfiguration(context));
+        connecting.await();
+
+        Thread closer = new Thread(introspector::close);
+        closer.start();
+        // close() waits for the worker after it has marked the introspector closed
+        while (closer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        closer.join();
+
+        assertThatExceptionOfType(SQLException.class).isThrownBy(() -> ConcurrentIntrospector.getResult(future));
+        assertThat(opened.get().isClosed()).isTrue();
+    }
+}
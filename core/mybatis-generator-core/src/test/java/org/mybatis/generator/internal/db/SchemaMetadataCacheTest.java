@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2006-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaMetadataCacheTest {
+
+    @Test
+    void testLikePatternWildcards() {
+        Pattern pattern = SchemaMetadataCache.likePattern("ORDER_%", "\\");
+        assertTrue(pattern.matcher("ORDER_ITEM").matches());
+        assertTrue(pattern.matcher("ORDERX").matches());
+        assertTrue(pattern.matcher("ORDER_").matches());
+        assertFalse(pattern.matcher("ORDER").matches());
+        assertFalse(pattern.matcher("order_item").matches());
+    }
+
+    @Test
+    void testLikePatternEscapes() {
+        Pattern pattern = SchemaMetadataCache.likePattern("ORDER\\_%", "\\");
+        assertTrue(pattern.matcher("ORDER_ITEM").matches());
+        assertFalse(pattern.matcher("ORDERXITEM").matches());
+    }
+
+    @Test
+    void testLikePatternRegexCharacters() {
+        Pattern pattern = SchemaMetadataCache.likePattern("A$B.C", null);
+        assertTrue(pattern.matcher("A$B.C").matches());
+        assertFalse(pattern.matcher("A$BXC").matches());
+    }
+}
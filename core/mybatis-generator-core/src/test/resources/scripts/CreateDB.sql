@@ -115,6 +115,8 @@ create table "awful table" (
   primary key("CuStOmEr iD")
 );
 
+create unique index AwfulTable_EmailAddress on "awful table" (EmailAddress);
+
 -- this table should be ignored, nothing generated
 create table BlobsOnly (
   blob1 longvarbinary,
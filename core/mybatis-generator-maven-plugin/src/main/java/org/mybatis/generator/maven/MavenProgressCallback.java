@@ -17,6 +17,7 @@ package org.mybatis.generator.maven;
 
 import org.apache.maven.plugin.logging.Log;
 import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.internal.util.messages.Messages;
 
 /**
  * This callback logs progress messages with the Maven logger.
@@ -41,4 +42,10 @@ public class MavenProgressCallback implements ProgressCallback {
             log.info(subTaskName);
         }
     }
+
+    @Override
+    public void saveFinished(int writtenFiles, int unchangedFiles) {
+        log.info(Messages.getString("Progress.20", //$NON-NLS-1$
+                Integer.toString(writtenFiles), Integer.toString(unchangedFiles)));
+    }
 }
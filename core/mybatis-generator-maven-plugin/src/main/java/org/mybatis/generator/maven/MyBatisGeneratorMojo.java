@@ -153,6 +153,31 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
     @Parameter(property = "mybatis.generator.includeAllDependencies", defaultValue = "false")
     private boolean includeAllDependencies;
 
+    /**
+     * If true, then tables found in a context's introspection snapshot (see the
+     * introspectionSnapshot context property) will not be introspected from the database.
+     */
+    @Parameter(property = "mybatis.generator.offline", defaultValue = "false")
+    private boolean offline;
+
+    /**
+     * The number of threads used to format and merge generated files while they are saved.
+     */
+    @Parameter(property = "mybatis.generator.saveThreads", defaultValue = "1")
+    private int saveThreads;
+
+    /**
+     * If true, then existing files that already have the generated content will not be rewritten.
+     */
+    @Parameter(property = "mybatis.generator.skipUnchanged", defaultValue = "false")
+    private boolean skipUnchanged;
+
+    /**
+     * If specified, a JSON report of the time spent in each phase of generation is written to this file.
+     */
+    @Parameter(property = "mybatis.generator.metricsReport")
+    private File metricsReport;
+
     @Override
     public void execute() throws MojoExecutionException {
         if (skip) {
@@ -175,7 +200,16 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
         }
         ClassLoader cl = ClassloaderUtility.getCustomClassloader(resourceDirectories);
         ObjectFactory.addExternalClassLoader(cl);
+        try {
+            generate();
+        } finally {
+            ObjectFactory.removeExternalClassLoader(cl);
+        }
 
+        restoreClassLoader();
+    }
+
+    private void generate() throws MojoExecutionException {
         if (configurationFile == null) {
             throw new MojoExecutionException(Messages.getString("RuntimeError.0")); //$NON-NLS-1$
         }
@@ -199,6 +233,10 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
             ShellCallback callback = new MavenShellCallback(this, overwrite);
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, callback, warnings);
+            myBatisGenerator.setOffline(offline);
+            myBatisGenerator.setSaveThreads(saveThreads);
+            myBatisGenerator.setSkipUnchangedFiles(skipUnchanged);
+            myBatisGenerator.setMetricsReportFile(metricsReport);
 
             myBatisGenerator.generate(new MavenProgressCallback(getLog(), verbose), contextsToRun, fullyQualifiedTables);
 
@@ -226,8 +264,6 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
             resource.addInclude("**/*.xml");
             project.addResource(resource);
         }
-
-        restoreClassLoader();
     }
 
     private void calculateClassPath() throws MojoExecutionException {
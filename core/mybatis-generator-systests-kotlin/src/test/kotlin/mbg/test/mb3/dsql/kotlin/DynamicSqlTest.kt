@@ -1920,6 +1920,41 @@ class DynamicSqlTest : AbstractTest() {
         }
     }
 
+    @Test
+    fun testAwfulTableInsertBatch() {
+        openSession().use { sqlSession ->
+
+            val mapper = sqlSession.getMapper(AwfulTableMapper::class.java)
+            val records = (1..5).map { i ->
+                val record = AwfulTable()
+                record.eMail = "fred$i@fred.com"
+                record.emailaddress = "alsofred$i@fred.com"
+                record.firstFirstName = "fred$i"
+                record.from = "from field"
+                record.id1 = i
+                record.id2 = i * 2
+                record.id5 = i * 5
+                record.id6 = i * 6
+                record.id7 = i * 7
+                record
+            }
+
+            // the plugin inserts two rows per statement in this configuration
+            val rowsInserted = mapper.insertBatch(records)
+            assertEquals(5, rowsInserted)
+
+            // generated keys are returned in the order of the records
+            records.forEachIndexed { i, record -> assertEquals(57 + i, record.customerId) }
+
+            val answer = mapper.select {
+                where { awfulTable.firstFirstName isLike "fred%" }
+                orderBy(awfulTable.customerId)
+            }
+            assertEquals(5, answer.size)
+            answer.forEachIndexed { i, record -> assertEquals(i + 1, record.id1) }
+        }
+    }
+
     @Test
     fun testAwfulTableSelectByExampleNotLike() {
         openSession().use { sqlSession ->
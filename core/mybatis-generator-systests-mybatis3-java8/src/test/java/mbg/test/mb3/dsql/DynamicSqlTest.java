@@ -43,6 +43,7 @@ import java.util.Optional;
 import mbg.test.mb3.generated.dsql.mapper.mbgtest.sub.TranslationMapper;
 import org.apache.ibatis.session.SqlSession;
 import org.junit.jupiter.api.Test;
+import org.mybatis.dynamic.sql.SqlCriterion;
 import org.mybatis.dynamic.sql.select.CountDSLCompleter;
 import org.mybatis.dynamic.sql.select.SelectDSLCompleter;
 
@@ -302,6 +303,51 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testPKOnlySelectPageAfter() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 2; j++) {
+                    mapper.insert(new Pkonly(i, j));
+                }
+            }
+
+            List<String> keys = new ArrayList<>();
+            List<Pkonly> page = mapper.selectPageAfter(null, 4);
+            while (!page.isEmpty()) {
+                page.forEach(record -> keys.add(record.getId() + "-" + record.getSeqNum()));
+                page = mapper.selectPageAfter(page.get(page.size() - 1), 4);
+            }
+
+            assertThat(keys).containsExactly("1-1", "1-2", "2-1", "2-2", "3-1", "3-2");
+        }
+    }
+
+    @Test
+    public void testPKOnlySelectPageAfterWithFilter() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 2; j++) {
+                    mapper.insert(new Pkonly(i, j));
+                }
+            }
+
+            SqlCriterion filter = group(pkonly.id, isLessThan(2), or(pkonly.id, isEqualTo(3)));
+            List<String> keys = new ArrayList<>();
+            List<Pkonly> page = mapper.selectPageAfter(null, 3, filter);
+            while (!page.isEmpty()) {
+                page.forEach(record -> keys.add(record.getId() + "-" + record.getSeqNum()));
+                page = mapper.selectPageAfter(page.get(page.size() - 1), 3, filter);
+            }
+
+            assertThat(keys).containsExactly("1-1", "1-2", "3-1", "3-2");
+        }
+    }
+
     @Test
     public void testPKOnlyDeleteByPrimaryKey() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -526,6 +572,44 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testPKFieldsUpsert() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            Pkfields record = new Pkfields();
+            record.setFirstname("Fred");
+            record.setLastname("Flintstone");
+            record.setId1(1);
+            record.setId2(2);
+            int rows = mapper.upsert(record);
+            assertEquals(1, rows);
+
+            record.setFirstname("Wilma");
+            mapper.upsert(record);
+
+            Optional<Pkfields> returnedRecord = mapper.selectByPrimaryKey(2, 1);
+            assertThat(returnedRecord).hasValueSatisfying(rr -> {
+                assertEquals("Wilma", rr.getFirstname());
+                assertEquals("Flintstone", rr.getLastname());
+            });
+
+            Pkfields newRecord = new Pkfields();
+            newRecord.setFirstname("Barney");
+            newRecord.setLastname("Rubble");
+            newRecord.setId1(3);
+            newRecord.setId2(4);
+            record.setFirstname("Pebbles");
+            mapper.upsertMultiple(Arrays.asList(record, newRecord));
+
+            assertThat(mapper.selectByPrimaryKey(2, 1)).hasValueSatisfying(rr ->
+                    assertEquals("Pebbles", rr.getFirstname()));
+            assertThat(mapper.selectByPrimaryKey(4, 3)).hasValueSatisfying(rr ->
+                    assertEquals("Barney", rr.getFirstname()));
+            assertEquals(2, mapper.count(CountDSLCompleter.allRows()));
+        }
+    }
+
     @Test
     public void testPKFieldsUpdateByPrimaryKey() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -680,6 +764,32 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testPKFieldsSelectByPrimaryKeys() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            List<Pkfields> keys = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                Pkfields record = new Pkfields();
+                record.setFirstname("Fred" + i);
+                record.setLastname("Flintstone");
+                record.setId1(i);
+                record.setId2(i + 10);
+                mapper.insert(record);
+
+                Pkfields key = new Pkfields();
+                key.setId1(i);
+                key.setId2(i + 10);
+                keys.add(key);
+            }
+
+            List<Pkfields> answer = mapper.selectByPrimaryKeys(keys);
+            assertThat(answer).extracting(Pkfields::getFirstname).containsExactlyInAnyOrder("Fred1", "Fred2", "Fred3");
+            assertThat(mapper.selectByPrimaryKeys(new ArrayList<>())).isEmpty();
+        }
+    }
+
     @Test
     public void testPKFieldsSelectByExampleLike() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -1633,6 +1743,59 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testPKFieldsBlobsSelectBlob1ByPrimaryKey() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkfieldsblobsMapper mapper = sqlSession.getMapper(PkfieldsblobsMapper.class);
+            Pkfieldsblobs record = new Pkfieldsblobs();
+            record.setId1(3);
+            record.setId2(4);
+            record.setFirstname("Jeff");
+            record.setLastname("Smith");
+            record.setBlob1(generateRandomBlob());
+            mapper.insert(record);
+
+            Optional<Pkfieldsblobs> newRecord = mapper.selectBlob1ByPrimaryKey(3, 4);
+
+            assertThat(newRecord).hasValueSatisfying(nr -> {
+                assertEquals(record.getId1(), nr.getId1());
+                assertEquals(record.getId2(), nr.getId2());
+                assertNull(nr.getFirstname());
+                assertNull(nr.getLastname());
+                assertTrue(blobsAreEqual(record.getBlob1(), nr.getBlob1()));
+            });
+
+            assertThat(mapper.selectBlob1ByPrimaryKey(3, 5)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testPKFieldsBlobsSelectWithoutBLOBs() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            PkfieldsblobsMapper mapper = sqlSession.getMapper(PkfieldsblobsMapper.class);
+            Pkfieldsblobs record = new Pkfieldsblobs();
+            record.setId1(3);
+            record.setId2(4);
+            record.setFirstname("Jeff");
+            record.setLastname("Smith");
+            record.setBlob1(generateRandomBlob());
+            mapper.insert(record);
+
+            List<Pkfieldsblobs> answer = mapper.selectWithoutBLOBs(c ->
+                    c.where(pkfieldsblobs.id1, isEqualTo(3)));
+
+            assertEquals(1, answer.size());
+            Pkfieldsblobs newRecord = answer.get(0);
+            assertEquals(record.getId1(), newRecord.getId1());
+            assertEquals(record.getId2(), newRecord.getId2());
+            assertEquals(record.getFirstname(), newRecord.getFirstname());
+            assertEquals(record.getLastname(), newRecord.getLastname());
+            assertNull(newRecord.getBlob1());
+        }
+    }
+
     @Test
     public void testPKFieldsBlobsSelectByExampleWithBlobs() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -2126,6 +2289,41 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testAwfulTableUniqueIndexMethods() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.seteMail("fred@fred.com");
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            mapper.insert(record);
+
+            AwfulTable newRecord = new AwfulTable();
+            newRecord.setEmailaddress("alsofred@fred.com");
+            newRecord.setFirstFirstName("fred2");
+            int rows = mapper.updateByEmailaddressSelective(newRecord);
+            assertEquals(1, rows);
+
+            Optional<AwfulTable> returnedRecord = mapper.selectByEmailaddress("alsofred@fred.com");
+            assertThat(returnedRecord).hasValueSatisfying(rr -> {
+                assertEquals(record.getCustomerId(), rr.getCustomerId());
+                assertEquals("fred2", rr.getFirstFirstName());
+                assertEquals(record.geteMail(), rr.geteMail());
+            });
+
+            rows = mapper.deleteByEmailaddress("alsofred@fred.com");
+            assertEquals(1, rows);
+            assertThat(mapper.selectByEmailaddress("alsofred@fred.com")).isEmpty();
+        }
+    }
+
     @Test
     public void testAwfulTabledelete() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -2461,6 +2659,45 @@ public class DynamicSqlTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testAwfulTableInsertBatch() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            List<AwfulTable> records = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) {
+                AwfulTable record = new AwfulTable();
+                record.seteMail("fred" + i + "@fred.com");
+                record.setEmailaddress("alsofred" + i + "@fred.com");
+                record.setFirstFirstName("fred" + i);
+                record.setFrom("from field");
+                record.setId1(i);
+                record.setId2(i * 2);
+                record.setId5(i * 5);
+                record.setId6(i * 6);
+                record.setId7(i * 7);
+                records.add(record);
+            }
+
+            // the plugin inserts two rows per statement in this configuration
+            int rowsInserted = mapper.insertBatch(records);
+            assertEquals(5, rowsInserted);
+
+            // generated keys are returned in the order of the records
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(57 + i, records.get(i).getCustomerId());
+            }
+
+            List<AwfulTable> answer = mapper.select(dsl ->
+                    dsl.where(awfulTable.firstFirstName, isLike("fred%"))
+                    .orderBy(awfulTable.customerId));
+            assertEquals(5, answer.size());
+            for (int i = 0; i < answer.size(); i++) {
+                assertEquals(i + 1, answer.get(i).getId1().intValue());
+            }
+        }
+    }
+
     @Test
     public void testAwfulTableSelectByExampleNotLike() {
         try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -301,6 +302,43 @@ public class FlatJava5Test extends AbstractAnnotatedFlatTest {
         }
     }
 
+    @Test
+    public void testPKOnlySelectPageAfter() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 2; j++) {
+                    Pkonly key = new Pkonly();
+                    key.setId(i);
+                    key.setSeqNum(j);
+                    mapper.insert(key);
+                }
+            }
+
+            PkonlyExample example = new PkonlyExample();
+            example.createCriteria().andIdLessThan(2);
+            example.or().andIdEqualTo(3);
+
+            List<String> keys = new ArrayList<>();
+            List<Pkonly> page = mapper.selectPageAfter(null, 3, example);
+            while (!page.isEmpty()) {
+                for (Pkonly record : page) {
+                    keys.add(record.getId() + "-" + record.getSeqNum());
+                }
+                page = mapper.selectPageAfter(page.get(page.size() - 1), 3, example);
+            }
+
+            assertEquals(Arrays.asList("1-1", "1-2", "3-1", "3-2"), keys);
+
+            List<Pkonly> all = mapper.selectPageAfter(null, 10, null);
+            assertEquals(6, all.size());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKOnlyDeleteByPrimaryKey() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -589,6 +627,59 @@ public class FlatJava5Test extends AbstractAnnotatedFlatTest {
         }
     }
 
+    @Test
+    public void testPKFieldsMemoizedSelectiveStatements() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            Pkfields record = new Pkfields();
+            record.setFirstname("Jeff");
+            record.setId1(1);
+            record.setId2(2);
+            mapper.insertSelective(record);
+
+            record = new Pkfields();
+            record.setLastname("Jones");
+            record.setId1(3);
+            record.setId2(4);
+            mapper.insertSelective(record);
+
+            // the same statements again, now from the caches
+            Pkfields newRecord = new Pkfields();
+            newRecord.setFirstname("Scott");
+            newRecord.setId1(1);
+            newRecord.setId2(2);
+            assertEquals(1, mapper.updateByPrimaryKeySelective(newRecord));
+
+            newRecord = new Pkfields();
+            newRecord.setLastname("Smith");
+            newRecord.setId1(3);
+            newRecord.setId2(4);
+            assertEquals(1, mapper.updateByPrimaryKeySelective(newRecord));
+
+            for (int i = 0; i < 2; i++) {
+                PkfieldsExample example = new PkfieldsExample();
+                example.createCriteria().andId1EqualTo(i == 0 ? 1 : 3);
+                newRecord = new Pkfields();
+                newRecord.setDecimal60field(i + 5);
+                assertEquals(1, mapper.updateByExampleSelective(newRecord, example));
+            }
+
+            Pkfields returnedRecord = mapper.selectByPrimaryKey(2, 1);
+            assertEquals("Scott", returnedRecord.getFirstname());
+            assertNull(returnedRecord.getLastname());
+            assertEquals(5, returnedRecord.getDecimal60field());
+
+            returnedRecord = mapper.selectByPrimaryKey(4, 3);
+            assertNull(returnedRecord.getFirstname());
+            assertEquals("Smith", returnedRecord.getLastname());
+            assertEquals(6, returnedRecord.getDecimal60field());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKfieldsDeleteByPrimaryKey() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -684,6 +775,43 @@ public class FlatJava5Test extends AbstractAnnotatedFlatTest {
         }
     }
 
+    @Test
+    public void testPKFieldsUpsert() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            Pkfields record = new Pkfields();
+            record.setFirstname("Fred");
+            record.setLastname("Flintstone");
+            record.setId1(1);
+            record.setId2(2);
+            int rows = mapper.upsert(record);
+            assertEquals(1, rows);
+
+            record.setFirstname("Wilma");
+            mapper.upsert(record);
+
+            Pkfields returnedRecord = mapper.selectByPrimaryKey(2, 1);
+            assertEquals("Wilma", returnedRecord.getFirstname());
+            assertEquals("Flintstone", returnedRecord.getLastname());
+
+            Pkfields newRecord = new Pkfields();
+            newRecord.setFirstname("Barney");
+            newRecord.setLastname("Rubble");
+            newRecord.setId1(3);
+            newRecord.setId2(4);
+            record.setFirstname("Pebbles");
+            mapper.upsertMultiple(Arrays.asList(record, newRecord));
+
+            assertEquals("Pebbles", mapper.selectByPrimaryKey(2, 1).getFirstname());
+            assertEquals("Barney", mapper.selectByPrimaryKey(4, 3).getFirstname());
+            assertEquals(2, mapper.countByExample(new PkfieldsExample()));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKFieldsSelectByExampleLike() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -1419,6 +1547,32 @@ public class FlatJava5Test extends AbstractAnnotatedFlatTest {
         }
     }
 
+    @Test
+    public void testPKBlobsSelectBlob1ByPrimaryKey() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkblobsMapper mapper = sqlSession.getMapper(PkblobsMapper.class);
+            Pkblobs record = new Pkblobs();
+            record.setId(3);
+            record.setBlob1(generateRandomBlob());
+            record.setBlob2(generateRandomBlob());
+            record.setCharacterlob("Fred");
+            mapper.insert(record);
+
+            Pkblobs newRecord = mapper.selectBlob1ByPrimaryKey(3);
+            assertNotNull(newRecord);
+            assertEquals(record.getId(), newRecord.getId());
+            assertTrue(blobsAreEqual(record.getBlob1(), newRecord.getBlob1()));
+            assertNull(newRecord.getBlob2());
+            assertNull(newRecord.getCharacterlob());
+
+            assertNull(mapper.selectBlob1ByPrimaryKey(4));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKBlobsSelectByExampleWithoutBlobs() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -2311,6 +2465,41 @@ public class FlatJava5Test extends AbstractAnnotatedFlatTest {
         }
     }
 
+    @Test
+    public void testAwfulTableUpdateByEmailaddressSelective() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.seteMail("fred@fred.com");
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            mapper.insert(record);
+
+            AwfulTable newRecord = new AwfulTable();
+            newRecord.setEmailaddress("alsofred@fred.com");
+            newRecord.setFirstFirstName("fred2");
+            int rows = mapper.updateByEmailaddressSelective(newRecord);
+            assertEquals(1, rows);
+
+            AwfulTable returnedRecord = mapper.selectByEmailaddress("alsofred@fred.com");
+            assertEquals(record.getCustomerId(), returnedRecord.getCustomerId());
+            assertEquals("fred2", returnedRecord.getFirstFirstName());
+            assertEquals(record.geteMail(), returnedRecord.geteMail());
+
+            rows = mapper.deleteByEmailaddress("alsofred@fred.com");
+            assertEquals(1, rows);
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testAwfulTableDeleteByPrimaryKey() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -21,11 +21,15 @@ import static mbg.test.common.util.TestUtilities.generateRandomBlob;
 import static mbg.test.common.util.TestUtilities.timesAreEqual;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.junit.jupiter.api.Test;
@@ -307,6 +311,101 @@ public class FlatJava5Test extends AbstractFlatTest {
         }
     }
 
+    @Test
+    public void testPKOnlyInsertBatch() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            List<Pkonly> records = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) {
+                Pkonly key = new Pkonly();
+                key.setId(i);
+                key.setSeqNum(i + 10);
+                records.add(key);
+            }
+
+            int rows = mapper.insertBatch(records);
+            assertEquals(5, rows);
+
+            PkonlyExample example = new PkonlyExample();
+            example.setOrderByClause("id");
+            List<Pkonly> answer = mapper.selectByExample(example);
+            assertEquals(5, answer.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(records.get(i).getId(), answer.get(i).getId());
+                assertEquals(records.get(i).getSeqNum(), answer.get(i).getSeqNum());
+            }
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testPKOnlySelectByExampleCursor() throws IOException {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            for (int i = 1; i <= 5; i++) {
+                Pkonly key = new Pkonly();
+                key.setId(i);
+                key.setSeqNum(i + 10);
+                mapper.insert(key);
+            }
+
+            PkonlyExample example = new PkonlyExample();
+            example.createCriteria().andIdGreaterThan(1);
+            example.setOrderByClause("id");
+            List<Integer> ids = new ArrayList<>();
+            try (Cursor<Pkonly> cursor = mapper.selectByExampleCursor(example)) {
+                for (Pkonly record : cursor) {
+                    ids.add(record.getId());
+                }
+            }
+
+            assertEquals(Arrays.asList(2, 3, 4, 5), ids);
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testPKOnlySelectPageAfter() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkonlyMapper mapper = sqlSession.getMapper(PkonlyMapper.class);
+            for (int i = 1; i <= 3; i++) {
+                for (int j = 1; j <= 2; j++) {
+                    Pkonly key = new Pkonly();
+                    key.setId(i);
+                    key.setSeqNum(j);
+                    mapper.insert(key);
+                }
+            }
+
+            PkonlyExample example = new PkonlyExample();
+            example.createCriteria().andIdLessThan(3);
+
+            List<String> keys = new ArrayList<>();
+            List<Pkonly> page = mapper.selectPageAfter(null, 3, example);
+            while (!page.isEmpty()) {
+                for (Pkonly record : page) {
+                    keys.add(record.getId() + "-" + record.getSeqNum());
+                }
+                page = mapper.selectPageAfter(page.get(page.size() - 1), 3, example);
+            }
+
+            assertEquals(Arrays.asList("1-1", "1-2", "2-1", "2-2"), keys);
+
+            List<Pkonly> all = mapper.selectPageAfter(null, 10, null);
+            assertEquals(6, all.size());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKOnlyDeleteByPrimaryKey() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -690,6 +789,83 @@ public class FlatJava5Test extends AbstractFlatTest {
         }
     }
 
+    @Test
+    public void testPKFieldsSelectByPrimaryKeys() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            List<Pkfields> keys = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                Pkfields record = new Pkfields();
+                record.setFirstname("Fred" + i);
+                record.setLastname("Flintstone");
+                record.setId1(i);
+                record.setId2(i + 10);
+                mapper.insert(record);
+
+                Pkfields key = new Pkfields();
+                key.setId1(i);
+                key.setId2(i + 10);
+                keys.add(key);
+            }
+
+            Pkfields missingKey = new Pkfields();
+            missingKey.setId1(1);
+            missingKey.setId2(12);
+            keys.add(missingKey);
+
+            List<Pkfields> answer = mapper.selectByPrimaryKeys(keys);
+            List<String> names = new ArrayList<>();
+            for (Pkfields record : answer) {
+                names.add(record.getFirstname());
+            }
+            Collections.sort(names);
+            assertEquals(Arrays.asList("Fred1", "Fred2", "Fred3"), names);
+
+            assertTrue(mapper.selectByPrimaryKeys(new ArrayList<>()).isEmpty());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testPKFieldsUpsert() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkfieldsMapper mapper = sqlSession.getMapper(PkfieldsMapper.class);
+            Pkfields record = new Pkfields();
+            record.setFirstname("Fred");
+            record.setLastname("Flintstone");
+            record.setId1(1);
+            record.setId2(2);
+            int rows = mapper.upsert(record);
+            assertEquals(1, rows);
+
+            record.setFirstname("Wilma");
+            mapper.upsert(record);
+
+            Pkfields returnedRecord = mapper.selectByPrimaryKey(2, 1);
+            assertEquals("Wilma", returnedRecord.getFirstname());
+            assertEquals("Flintstone", returnedRecord.getLastname());
+
+            Pkfields newRecord = new Pkfields();
+            newRecord.setFirstname("Barney");
+            newRecord.setLastname("Rubble");
+            newRecord.setId1(3);
+            newRecord.setId2(4);
+            record.setFirstname("Pebbles");
+            mapper.upsertMultiple(Arrays.asList(record, newRecord));
+
+            assertEquals("Pebbles", mapper.selectByPrimaryKey(2, 1).getFirstname());
+            assertEquals("Barney", mapper.selectByPrimaryKey(4, 3).getFirstname());
+            assertEquals(2, mapper.countByExample(new PkfieldsExample()));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKFieldsSelectByExampleLike() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -1425,6 +1601,32 @@ public class FlatJava5Test extends AbstractFlatTest {
         }
     }
 
+    @Test
+    public void testPKBlobsSelectBlob1ByPrimaryKey() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            PkblobsMapper mapper = sqlSession.getMapper(PkblobsMapper.class);
+            Pkblobs record = new Pkblobs();
+            record.setId(3);
+            record.setBlob1(generateRandomBlob());
+            record.setBlob2(generateRandomBlob());
+            record.setCharacterlob("Fred");
+            mapper.insert(record);
+
+            Pkblobs newRecord = mapper.selectBlob1ByPrimaryKey(3);
+            assertNotNull(newRecord);
+            assertEquals(record.getId(), newRecord.getId());
+            assertTrue(blobsAreEqual(record.getBlob1(), newRecord.getBlob1()));
+            assertNull(newRecord.getBlob2());
+            assertNull(newRecord.getCharacterlob());
+
+            assertNull(mapper.selectBlob1ByPrimaryKey(4));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testPKBlobsSelectByExampleWithoutBlobs() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -2109,6 +2311,200 @@ public class FlatJava5Test extends AbstractFlatTest {
         }
     }
 
+    @Test
+    public void testAwfulTableInsertMultiple() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            List<AwfulTable> records = new ArrayList<>();
+            for (int i = 1; i <= 2; i++) {
+                AwfulTable record = new AwfulTable();
+                record.seteMail("fred" + i + "@fred.com");
+                record.setFirstFirstName("fred" + i);
+                record.setId1(1);
+                record.setId2(2);
+                record.setId5(5);
+                record.setId6(6);
+                record.setId7(7);
+                records.add(record);
+            }
+
+            int rows = mapper.insertMultiple(records);
+            assertEquals(2, rows);
+
+            for (AwfulTable record : records) {
+                assertNotNull(record.getCustomerId());
+                AwfulTable returnedRecord = mapper.selectByPrimaryKey(record.getCustomerId());
+                assertEquals(record.geteMail(), returnedRecord.geteMail());
+                assertEquals(record.getFirstFirstName(), returnedRecord.getFirstFirstName());
+            }
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testAwfulTableSelectByPrimaryKeys() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                AwfulTable record = new AwfulTable();
+                record.seteMail("fred" + i + "@fred.com");
+                record.setFirstFirstName("fred" + i);
+                record.setId1(1);
+                record.setId2(2);
+                record.setId5(5);
+                record.setId6(6);
+                record.setId7(7);
+                mapper.insert(record);
+                keys.add(record.getCustomerId());
+            }
+
+            List<AwfulTable> answer = mapper.selectByPrimaryKeys(keys);
+            assertEquals(3, answer.size());
+
+            answer = mapper.selectByPrimaryKeyList(keys.subList(0, 1));
+            assertEquals(1, answer.size());
+            assertEquals("fred1", answer.get(0).getFirstFirstName());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testAwfulTableSelectByEmailaddress() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.seteMail("fred@fred.com");
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            mapper.insert(record);
+
+            AwfulTable returnedRecord = mapper.selectByEmailaddress("alsofred@fred.com");
+            assertEquals(record.getCustomerId(), returnedRecord.getCustomerId());
+            assertEquals("fred1", returnedRecord.getFirstFirstName());
+
+            assertNull(mapper.selectByEmailaddress("alsowilma@wilma.com"));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testAwfulTableUpdateByEmailaddressSelective() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.seteMail("fred@fred.com");
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            mapper.insert(record);
+
+            AwfulTable newRecord = new AwfulTable();
+            newRecord.setEmailaddress("alsofred@fred.com");
+            newRecord.setFirstFirstName("fred2");
+            int rows = mapper.updateByEmailaddressSelective(newRecord);
+            assertEquals(1, rows);
+
+            AwfulTable returnedRecord = mapper.selectByPrimaryKey(record.getCustomerId());
+            assertEquals("fred2", returnedRecord.getFirstFirstName());
+            assertEquals(record.geteMail(), returnedRecord.geteMail());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testAwfulTableUpsertByUniqueIndex() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            // the identity column is not inserted, so the database assigns the key
+            record.setCustomerId(1);
+            assertEquals(1, mapper.upsert(record));
+
+            AwfulTable returnedRecord = mapper.selectByEmailaddress("alsofred@fred.com");
+            Integer generatedCustomerId = returnedRecord.getCustomerId();
+            assertEquals(57, generatedCustomerId.intValue());
+
+            // matched by the unique index - the key is not updated
+            record.setFirstFirstName("fred2");
+            record.setCustomerId(2);
+            mapper.upsert(record);
+
+            AwfulTable newRecord = new AwfulTable();
+            newRecord.setEmailaddress("alsowilma@wilma.com");
+            newRecord.setFirstFirstName("wilma");
+            newRecord.setId1(11);
+            newRecord.setId2(12);
+            newRecord.setId5(15);
+            newRecord.setId6(16);
+            newRecord.setId7(17);
+            record.setFirstFirstName("fred3");
+            mapper.upsertMultiple(Arrays.asList(record, newRecord));
+
+            returnedRecord = mapper.selectByPrimaryKey(generatedCustomerId);
+            assertEquals("fred3", returnedRecord.getFirstFirstName());
+            assertEquals("wilma", mapper.selectByEmailaddress("alsowilma@wilma.com").getFirstFirstName());
+            assertEquals(2, mapper.countByExample(new AwfulTableExample()));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    @Test
+    public void testAwfulTableDeleteByEmailaddress() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            AwfulTableMapper mapper = sqlSession.getMapper(AwfulTableMapper.class);
+            AwfulTable record = new AwfulTable();
+            record.seteMail("fred@fred.com");
+            record.setEmailaddress("alsofred@fred.com");
+            record.setFirstFirstName("fred1");
+            record.setId1(1);
+            record.setId2(2);
+            record.setId5(5);
+            record.setId6(6);
+            record.setId7(7);
+            mapper.insert(record);
+
+            int rows = mapper.deleteByEmailaddress("alsofred@fred.com");
+            assertEquals(1, rows);
+            assertNull(mapper.selectByPrimaryKey(record.getCustomerId()));
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testAwfulTableInsert() {
         SqlSession sqlSession = sqlSessionFactory.openSession();
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import mbg.test.mb3.generated.miscellaneous.mapper.IgnoremanycolumnsMapper;
 import mbg.test.mb3.generated.miscellaneous.model.Ignoremanycolumns;
+import mbg.test.mb3.generated.miscellaneous.model.IgnoremanycolumnsCriteria;
 
 public class IgnoreManyColumnsTest extends AbstractMiscellaneousTest {
 
@@ -141,4 +142,38 @@ public class IgnoreManyColumnsTest extends AbstractMiscellaneousTest {
             sqlSession.close();
         }
     }
+
+    @Test
+    public void testSelectByCompactCriteria() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            IgnoremanycolumnsMapper mapper = sqlSession.getMapper(IgnoremanycolumnsMapper.class);
+
+            Ignoremanycolumns imc = new Ignoremanycolumns();
+            imc.setCol01(22);
+            imc.setCol13(33);
+            mapper.insert(imc);
+
+            imc.setCol01(44);
+            imc.setCol13(null);
+            mapper.insert(imc);
+
+            IgnoremanycolumnsCriteria criteria = new IgnoremanycolumnsCriteria();
+            criteria.createCriteria().col01.greaterThan(20).col13.isNotNull();
+            List<Ignoremanycolumns> returnedRecords = mapper.selectByExample(criteria);
+            assertEquals(1, returnedRecords.size());
+            assertEquals(22, returnedRecords.get(0).getCol01().intValue());
+
+            criteria.clear();
+            criteria.createCriteria().col01.notBetween(10, 30).col13.isNull();
+            returnedRecords = mapper.selectByExample(criteria);
+            assertEquals(1, returnedRecords.size());
+            assertEquals(44, returnedRecords.get(0).getCol01().intValue());
+
+            assertThrows(RuntimeException.class, () -> criteria.createCriteria().col01.equalTo(null));
+        } finally {
+            sqlSession.close();
+        }
+    }
 }
@@ -25,11 +25,13 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
 import mbg.test.mb3.generated.miscellaneous.mapper.EnumordinaltestMapper;
 import mbg.test.mb3.generated.miscellaneous.model.Enumordinaltest;
+import mbg.test.mb3.generated.miscellaneous.model.EnumordinaltestCriteria;
 import org.apache.ibatis.session.SqlSession;
 import org.junit.jupiter.api.Test;
 
@@ -1143,6 +1145,45 @@ public class MiscellaneousTest extends AbstractMiscellaneousTest {
         }
     }
 
+    @Test
+    public void testEnumOrdinalCompactCriteria() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+
+        try {
+            EnumordinaltestMapper mapper = sqlSession.getMapper(EnumordinaltestMapper.class);
+
+            Enumordinaltest enumTest = new Enumordinaltest();
+            enumTest.setId(1);
+            enumTest.setName(TestEnum.FRED);
+            mapper.insert(enumTest);
+
+            enumTest.setId(2);
+            enumTest.setName(TestEnum.WILMA);
+            mapper.insert(enumTest);
+
+            enumTest.setId(3);
+            enumTest.setName(TestEnum.BARNEY);
+            mapper.insert(enumTest);
+
+            EnumordinaltestCriteria criteria = new EnumordinaltestCriteria();
+            criteria.createCriteria().name.in(Arrays.asList(TestEnum.WILMA, TestEnum.BARNEY)).id.lessThan(3);
+            List<Enumordinaltest> returnedRecords = mapper.selectByExample(criteria);
+            assertEquals(1, returnedRecords.size());
+            assertEquals(TestEnum.WILMA, returnedRecords.get(0).getName());
+
+            criteria.clear();
+            criteria.createCriteria().id.equalTo(1);
+            criteria.or().id.between(3, 4);
+            criteria.setOrderByClause("id");
+            returnedRecords = mapper.selectByExample(criteria);
+            assertEquals(2, returnedRecords.size());
+            assertEquals(TestEnum.FRED, returnedRecords.get(0).getName());
+            assertEquals(TestEnum.BARNEY, returnedRecords.get(1).getName());
+        } finally {
+            sqlSession.close();
+        }
+    }
+
     @Test
     public void testModelOnly1Nameview() {
         if (classExists("mbg.test.mb3.generated.miscellaneous.modelonly1.model.NameviewExample")) {
@@ -273,6 +273,15 @@ public class EclipseShellCallback implements ShellCallback {
         return answer;
     }
 
+    /*
+     * Merging only reads the existing file and works on private ASTs, so the generator may merge
+     * files on its save threads.
+     */
+    @Override
+    public boolean isMergeThreadSafe() {
+        return true;
+    }
+
     @Override
     public boolean isOverwriteEnabled() {
         return false;
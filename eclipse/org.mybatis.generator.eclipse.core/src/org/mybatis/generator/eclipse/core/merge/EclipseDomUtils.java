@@ -16,6 +16,8 @@
  */
 package org.mybatis.generator.eclipse.core.merge;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.jdt.core.JavaCore;
@@ -65,11 +67,22 @@ public class EclipseDomUtils {
         return ts1.toString().equals(ts2.toString());
     }
     
-    public static CompilationUnit getCompilationUnitFromSource(String javaSource) {
-        ASTParser astParser = ASTParser.newParser(AST.JLS16);
+    /**
+     * The default options are read from the preference store on every call to
+     * <code>JavaCore.getDefaultOptions()</code>, so they are calculated once. Every merge parses two or
+     * three sources, possibly on several threads at once.
+     */
+    private static final Map<String, String> COMPILER_OPTIONS = calculateCompilerOptions();
+
+    private static Map<String, String> calculateCompilerOptions() {
         Map<String, String> options = JavaCore.getDefaultOptions();
         JavaCore.setComplianceOptions(JavaCore.VERSION_16, options);
-        astParser.setCompilerOptions(options);
+        return Collections.unmodifiableMap(options);
+    }
+
+    public static CompilationUnit getCompilationUnitFromSource(String javaSource) {
+        ASTParser astParser = ASTParser.newParser(AST.JLS16);
+        astParser.setCompilerOptions(new HashMap<>(COMPILER_OPTIONS));
         astParser.setSource(javaSource.toCharArray());
         CompilationUnit cu = (CompilationUnit) astParser.createAST(null);
         return cu;
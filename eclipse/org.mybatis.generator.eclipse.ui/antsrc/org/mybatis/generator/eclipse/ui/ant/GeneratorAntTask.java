@@ -31,6 +31,9 @@ import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.PropertySet;
 import org.eclipse.ant.core.AntCorePlugin;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
@@ -56,6 +59,7 @@ public class GeneratorAntTask extends Task {
     private String contextIds;
     private String fullyQualifiedTableNames;
     private String loggingImplementation;
+    private int saveThreads = 1;
 
     /**
      *  
@@ -85,6 +89,10 @@ public class GeneratorAntTask extends Task {
                     + " does not exist");
         }
 
+        if (saveThreads < 1) {
+            throw new BuildException("saveThreads must be a positive integer");
+        }
+
         Set<String> fullyqualifiedTables = new HashSet<>();
         if (StringUtility.stringHasValue(fullyQualifiedTableNames)) {
             StringTokenizer st = new StringTokenizer(fullyQualifiedTableNames, ","); //$NON-NLS-1$
@@ -132,25 +140,26 @@ public class GeneratorAntTask extends Task {
             
             MyBatisGenerator generator = new MyBatisGenerator(config, new EclipseShellCallback(),
                     warnings);
+            generator.setSaveThreads(saveThreads);
 
             EclipseProgressCallback progressCallback = new EclipseProgressCallback(subMonitor.newChild(950));
 
-            generator.generate(progressCallback, contexts, fullyqualifiedTables);
+            // run as one workspace operation so the packages created and the projects refreshed
+            // by the generator are reported to the workspace as a single change
+            ResourcesPlugin.getWorkspace().run(
+                    m -> generate(generator, progressCallback, contexts, fullyqualifiedTables),
+                    null, IWorkspace.AVOID_UPDATE, null);
 
         } catch (XMLParserException e) {
             for (String error : e.getErrors()) {
                 log(error, Project.MSG_ERR);
             }
 
-            throw new BuildException(e.getMessage());
-        } catch (SQLException e) {
             throw new BuildException(e.getMessage());
         } catch (IOException e) {
             throw new BuildException(e.getMessage());
-        } catch (InvalidConfigurationException e) {
-            throw new BuildException(e.getMessage());
-        } catch (InterruptedException e) {
-            throw new BuildException("Cancelled by user");
+        } catch (CoreException e) {
+            throw new BuildException(e.getStatus().getMessage(), e);
         } finally {
             monitor.done();
         }
@@ -160,6 +169,21 @@ public class GeneratorAntTask extends Task {
         }
     }
 
+    private void generate(MyBatisGenerator generator, EclipseProgressCallback progressCallback,
+            Set<String> contexts, Set<String> fullyqualifiedTables) {
+        try {
+            generator.generate(progressCallback, contexts, fullyqualifiedTables);
+        } catch (SQLException e) {
+            throw new BuildException(e.getMessage());
+        } catch (IOException e) {
+            throw new BuildException(e.getMessage());
+        } catch (InvalidConfigurationException e) {
+            throw new BuildException(e.getMessage());
+        } catch (InterruptedException e) {
+            throw new BuildException("Cancelled by user");
+        }
+    }
+
     private void setLoggingImplementation() {
         try {
             LogFactory.setLogFactory(new AntLogFactory(loggingImplementation));
@@ -212,4 +236,12 @@ public class GeneratorAntTask extends Task {
     public void setLoggingImplementation(String loggingImplementation) {
         this.loggingImplementation = loggingImplementation;
     }
+
+    public int getSaveThreads() {
+        return saveThreads;
+    }
+
+    public void setSaveThreads(int saveThreads) {
+        this.saveThreads = saveThreads;
+    }
 }